@@ -0,0 +1,64 @@
+package com.degerli.loadbalancer.cache;
+
+/**
+ * TinyLFU için yaklaşık erişim sıklığı (Count-Min Sketch, 4 satır, 4-bit sayaçlar)
+ * <p>
+ * Sayaçlar 15'te doyar. Örnek sayısı genişliğin 10 katına ulaşınca tüm sayaçlar yarıya
+ * indirilir; eskiden popüler olan key'ler zamanla önceliğini kaybeder.
+ * <p>
+ * Thread-safe değildir; ResponseCache kilidi altında kullanılır.
+ */
+class FrequencySketch {
+
+  private static final int DEPTH = 4;
+  private static final int MAX_COUNT = 15;
+  private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+  private final byte[][] table;
+  private final int mask;
+  private final int sampleSize;
+  private int additions;
+
+  FrequencySketch(int expectedEntries) {
+    int width = Integer.highestOneBit(Math.max(1024, Math.min(1 << 22, expectedEntries)) * 2 - 1);
+    this.table = new byte[DEPTH][width];
+    this.mask = width - 1;
+    this.sampleSize = width * 10;
+  }
+
+  void increment(int hash) {
+    boolean added = false;
+    for (int row = 0; row < DEPTH; row++) {
+      int index = index(hash, row);
+      if (table[row][index] < MAX_COUNT) {
+        table[row][index]++;
+        added = true;
+      }
+    }
+    if (added && ++additions >= sampleSize) {
+      reset();
+    }
+  }
+
+  int frequency(int hash) {
+    int frequency = MAX_COUNT;
+    for (int row = 0; row < DEPTH; row++) {
+      frequency = Math.min(frequency, table[row][index(hash, row)]);
+    }
+    return frequency;
+  }
+
+  private int index(int hash, int row) {
+    int h = (hash ^ SEEDS[row]) * 0x9E3779B9;
+    return (h ^ (h >>> 16)) & mask;
+  }
+
+  private void reset() {
+    for (byte[] row : table) {
+      for (int i = 0; i < row.length; i++) {
+        row[i] >>= 1;
+      }
+    }
+    additions /= 2;
+  }
+}
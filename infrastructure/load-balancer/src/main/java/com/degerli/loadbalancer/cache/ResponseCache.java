@@ -0,0 +1,637 @@
+package com.degerli.loadbalancer.cache;
+
+import com.degerli.loadbalancer.deployment.TrafficSplitter;
+import com.degerli.loadbalancer.deployment.TrafficSplitter.Environment;
+import com.degerli.loadbalancer.routing.Route;
+import jakarta.servlet.http.HttpServletRequest;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Load balancer içi HTTP response cache
+ * <p>
+ * Cache-Control / Expires / Vary / ETag kurallarına uyar; sadece açık freshness bilgisi olan
+ * GET cevapları saklanır ve If-None-Match ile gelen conditional request'lere 304 dönülür.
+ * <p>
+ * Kapasite byte cinsindendir ve W-TinyLFU ile yönetilir:
+ * <ul>
+ *   <li>Window (%1, LRU): yeni entry'ler burada başlar, ani popülerliği yakalar</li>
+ *   <li>Main (SLRU: probation %20 + protected %80): window'dan çıkan aday, probation'ın en
+ *       eski entry'sinden daha sık erişilmişse kabul edilir (TinyLFU admission)</li>
+ * </ul>
+ * Body'ler {@link SlabAllocator} ile off-heap sayfalarda tutulur; heap'te sadece header'lar
+ * ve policy metadata'sı kalır.
+ */
+@Slf4j
+public class ResponseCache {
+
+  private static final Set<Integer> CACHEABLE_STATUSES = Set.of(
+      200, 203, 204, 300, 301, 302, 307, 308, 404, 410
+  );
+  private static final double WINDOW_RATIO = 0.01;
+  private static final double PROTECTED_RATIO = 0.8;
+  private static final int ASSUMED_AVERAGE_ENTRY_BYTES = 4096;
+
+  private final SlabAllocator allocator;
+  private final FrequencySketch sketch;
+  private final long maxEntryBytes;
+  private final long maxWindowBytes;
+  private final long maxMainBytes;
+  private final long maxProtectedBytes;
+
+  // Policy state (this kilidi altında erişilir)
+  private final Map<String, Entry> data = new HashMap<>();
+  // Vary'li cevaplar için URI başına header isimleri; her varyant ayrı entry'dir
+  private final Map<String, Variants> variants = new HashMap<>();
+  private final LinkedHashMap<String, Entry> window = new LinkedHashMap<>(16, 0.75f, true);
+  private final LinkedHashMap<String, Entry> probation = new LinkedHashMap<>(16, 0.75f, true);
+  private final LinkedHashMap<String, Entry> protectedSegment =
+      new LinkedHashMap<>(16, 0.75f, true);
+  private long windowBytes;
+  private long probationBytes;
+  private long protectedBytes;
+
+  private final AtomicLong evictions = new AtomicLong(0);
+  private final AtomicLong admissionsRejected = new AtomicLong(0);
+  private final Map<String, ServiceCacheStats> serviceStats = new ConcurrentHashMap<>();
+
+  public ResponseCache(long maxBytes, int pageSize, int slabSize, long maxEntryBytes) {
+    this.allocator = new SlabAllocator(maxBytes, pageSize, slabSize);
+    long capacity = allocator.getCapacityBytes();
+    this.sketch = new FrequencySketch((int) Math.min(Integer.MAX_VALUE,
+        capacity / ASSUMED_AVERAGE_ENTRY_BYTES));
+    this.maxEntryBytes = maxEntryBytes;
+    this.maxWindowBytes = Math.max(pageSize, (long) (capacity * WINDOW_RATIO));
+    this.maxMainBytes = Math.max(0, capacity - maxWindowBytes);
+    this.maxProtectedBytes = (long) (maxMainBytes * PROTECTED_RATIO);
+  }
+
+  /**
+   * Cache'ten cevap ver
+   *
+   * @return cache'te taze bir kopya yoksa null; varsa 200 (veya If-None-Match eşleşirse 304)
+   */
+  public ResponseEntity<byte[]> lookup(Route route, HttpServletRequest request) {
+    if (!isCacheableRequest(request) || bypassesLookup(request)) {
+      return null;
+    }
+
+    ServiceCacheStats stats = getServiceStats(route.getServiceName());
+    String baseKey = key(route, request);
+
+    Entry entry;
+    byte[] body = null;
+    boolean notModified;
+    synchronized (this) {
+      sketch.increment(baseKey.hashCode());
+      entry = data.get(variantKey(baseKey, variants.get(baseKey), request));
+      if (entry != null && entry.expiresAtNanos - System.nanoTime() <= 0) {
+        discard(entry);
+        entry = null;
+      }
+      if (entry == null) {
+        stats.misses.incrementAndGet();
+        return null;
+      }
+
+      touch(entry);
+      notModified = matchesIfNoneMatch(request.getHeader(HttpHeaders.IF_NONE_MATCH), entry.etag);
+      if (!notModified && !"HEAD".equals(request.getMethod())) {
+        body = allocator.read(entry.pages, entry.length);
+      }
+    }
+
+    stats.hits.incrementAndGet();
+    HttpHeaders headers = new HttpHeaders();
+    headers.addAll(entry.headers);
+    headers.set(HttpHeaders.AGE, String.valueOf(
+        TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - entry.storedAtNanos)));
+    headers.set("X-Cache", "HIT");
+
+    if (notModified) {
+      headers.remove(HttpHeaders.CONTENT_LENGTH);
+      headers.remove(HttpHeaders.CONTENT_TYPE);
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+    }
+    if (body != null) {
+      stats.hitBytes.addAndGet(body.length);
+    }
+    return ResponseEntity.status(entry.status).headers(headers).body(body);
+  }
+
+  /**
+   * Upstream cevabını cacheable ise sakla
+   */
+  public void store(Route route, HttpServletRequest request, ResponseEntity<byte[]> response) {
+    if (!"GET".equals(request.getMethod()) || !isCacheableRequest(request)) {
+      return;
+    }
+
+    int status = response.getStatusCode().value();
+    HttpHeaders headers = response.getHeaders();
+    Map<String, String> directives = parseCacheControl(headers.get(HttpHeaders.CACHE_CONTROL));
+    if (!CACHEABLE_STATUSES.contains(status) || directives.containsKey("no-store")
+        || directives.containsKey("private") || directives.containsKey("no-cache")
+        || headers.containsKey(HttpHeaders.SET_COOKIE)) {
+      return;
+    }
+
+    List<String> varyNames = varyNames(headers);
+    if (varyNames.contains("*")) {
+      return;
+    }
+
+    long ttlSeconds = freshnessLifetime(directives, headers);
+    if (ttlSeconds <= 0) {
+      return;
+    }
+
+    byte[] body = response.getBody() != null ? response.getBody() : new byte[0];
+    if (body.length > maxEntryBytes) {
+      return;
+    }
+
+    HttpHeaders storedHeaders = new HttpHeaders();
+    storedHeaders.addAll(headers);
+    storedHeaders.remove(HttpHeaders.AGE);
+
+    long now = System.nanoTime();
+    String baseKey = key(route, request);
+    Entry entry = new Entry(variantKey(baseKey, varyNames, request), baseKey, route.getServiceName(),
+        uri(request), status, storedHeaders, headers.getETag(), now,
+        now + TimeUnit.SECONDS.toNanos(ttlSeconds), body.length,
+        (long) allocator.pagesFor(body.length) * allocator.getPageSize());
+
+    synchronized (this) {
+      // Eski kopya önce silinir; son varyantsa Variants kaydını da siler, aşağıda yeniden kurulur
+      Entry existing = data.get(entry.key);
+      if (existing != null) {
+        remove(existing);
+      }
+      if (varyNames.isEmpty()) {
+        variants.remove(baseKey);
+      } else {
+        variants.computeIfAbsent(baseKey, k -> new Variants()).names = varyNames;
+      }
+      insert(entry, body);
+      variants.computeIfPresent(baseKey, (k, v) -> v.count > 0 ? v : null);
+    }
+  }
+
+  /**
+   * URI'si (path + query) tam eşleşen entry'leri sil
+   *
+   * @return silinen entry sayısı
+   */
+  public synchronized int purge(String uri) {
+    return purgeMatching(entryUri -> entryUri.equals(uri));
+  }
+
+  /**
+   * URI'si verilen prefix ile başlayan entry'leri sil
+   *
+   * @return silinen entry sayısı
+   */
+  public synchronized int purgePrefix(String prefix) {
+    return purgeMatching(entryUri -> entryUri.startsWith(prefix));
+  }
+
+  public ServiceCacheStats getServiceStats(String serviceName) {
+    return serviceStats.computeIfAbsent(serviceName, name -> new ServiceCacheStats());
+  }
+
+  public synchronized long getEntryCount() {
+    return data.size();
+  }
+
+  public synchronized long getUsedBytes() {
+    return allocator.getUsedBytes();
+  }
+
+  public long getEvictions() {
+    return evictions.get();
+  }
+
+  /**
+   * Genel ve servis başına cache istatistikleri
+   */
+  public synchronized CacheInfo getStats() {
+    Map<String, ServiceCacheInfo> services = new HashMap<>();
+    serviceStats.forEach((serviceName, stats) -> services.put(serviceName,
+        new ServiceCacheInfo(stats.getHits(), stats.getMisses(), stats.getHitBytes(),
+            stats.getStoredBytes())));
+    return new CacheInfo(data.size(), allocator.getUsedBytes(), allocator.getCapacityBytes(),
+        allocator.getReservedBytes(), windowBytes, probationBytes, protectedBytes,
+        evictions.get(), admissionsRejected.get(), services);
+  }
+
+  // --- W-TinyLFU policy ---
+
+  private void insert(Entry entry, byte[] body) {
+    if (entry.weight > maxWindowBytes) {
+      // Window'dan büyük entry doğrudan main'e aday olur
+      if (!makeRoomInMain(entry)) {
+        admissionsRejected.incrementAndGet();
+        return;
+      }
+      if (allocate(entry, body)) {
+        add(entry, Segment.PROBATION);
+      }
+      return;
+    }
+
+    while (windowBytes + entry.weight > maxWindowBytes && !window.isEmpty()) {
+      Entry candidate = window.values().iterator().next();
+      window.remove(candidate.key);
+      windowBytes -= candidate.weight;
+      if (makeRoomInMain(candidate)) {
+        candidate.segment = Segment.PROBATION;
+        probation.put(candidate.key, candidate);
+        probationBytes += candidate.weight;
+      } else {
+        admissionsRejected.incrementAndGet();
+        release(candidate);
+        evictions.incrementAndGet();
+      }
+    }
+    if (allocate(entry, body)) {
+      add(entry, Segment.WINDOW);
+    }
+  }
+
+  /**
+   * TinyLFU admission: aday, kurbanlardan daha sık erişilmişse yer açılır
+   * <p>
+   * Kurbanlar önce seçilir, aday kabul edilecekse silinir; reddedilen aday entry düşürmez.
+   */
+  private boolean makeRoomInMain(Entry candidate) {
+    long excess = probationBytes + protectedBytes + candidate.weight - maxMainBytes;
+    if (excess <= 0) {
+      return true;
+    }
+
+    int candidateFrequency = sketch.frequency(candidate.hash);
+    List<Entry> victims = new ArrayList<>();
+    Iterator<Entry> probationVictims = probation.values().iterator();
+    Iterator<Entry> protectedVictims = protectedSegment.values().iterator();
+    while (excess > 0) {
+      Entry victim = probationVictims.hasNext() ? probationVictims.next()
+          : protectedVictims.hasNext() ? protectedVictims.next() : null;
+      if (victim == null || candidateFrequency <= sketch.frequency(victim.hash)) {
+        return false;
+      }
+      victims.add(victim);
+      excess -= victim.weight;
+    }
+    victims.forEach(this::discard);
+    return true;
+  }
+
+  /**
+   * Erişilen entry'yi segmentinde MRU'ya taşı; probation'dakiler protected'a terfi eder
+   */
+  private void touch(Entry entry) {
+    switch (entry.segment) {
+      case WINDOW -> window.get(entry.key);
+      case PROTECTED -> protectedSegment.get(entry.key);
+      case PROBATION -> {
+        probation.remove(entry.key);
+        probationBytes -= entry.weight;
+        entry.segment = Segment.PROTECTED;
+        protectedSegment.put(entry.key, entry);
+        protectedBytes += entry.weight;
+
+        // Protected taşarsa en eskiler probation'a düşer
+        Iterator<Entry> iterator = protectedSegment.values().iterator();
+        while (protectedBytes > maxProtectedBytes && iterator.hasNext()) {
+          Entry demoted = iterator.next();
+          iterator.remove();
+          protectedBytes -= demoted.weight;
+          demoted.segment = Segment.PROBATION;
+          probation.put(demoted.key, demoted);
+          probationBytes += demoted.weight;
+        }
+      }
+    }
+  }
+
+  private boolean allocate(Entry entry, byte[] body) {
+    int[] pages = allocator.store(body);
+    if (pages == null) {
+      log.warn("Cache allocator out of pages for {} ({} bytes)", entry.key, body.length);
+      return false;
+    }
+    entry.pages = pages;
+    return true;
+  }
+
+  private void add(Entry entry, Segment segment) {
+    Variants entryVariants = variants.get(entry.baseKey);
+    if (entryVariants != null && !entry.key.equals(entry.baseKey)) {
+      entryVariants.count++;
+    }
+    entry.segment = segment;
+    data.put(entry.key, entry);
+    segmentMap(segment).put(entry.key, entry);
+    adjustSegmentBytes(segment, entry.weight);
+    getServiceStats(entry.serviceName).storedBytes.addAndGet(entry.weight);
+  }
+
+  private void remove(Entry entry) {
+    data.remove(entry.key);
+    segmentMap(entry.segment).remove(entry.key);
+    adjustSegmentBytes(entry.segment, -entry.weight);
+    release(entry);
+  }
+
+  private void discard(Entry entry) {
+    remove(entry);
+    evictions.incrementAndGet();
+  }
+
+  private void release(Entry entry) {
+    data.remove(entry.key, entry);
+    Variants entryVariants = variants.get(entry.baseKey);
+    if (entryVariants != null && !entry.key.equals(entry.baseKey)
+        && --entryVariants.count <= 0) {
+      variants.remove(entry.baseKey);
+    }
+    allocator.free(entry.pages);
+    getServiceStats(entry.serviceName).storedBytes.addAndGet(-entry.weight);
+  }
+
+  private int purgeMatching(Predicate<String> uriMatcher) {
+    List<Entry> matches = new ArrayList<>();
+    data.values().forEach(entry -> {
+      if (uriMatcher.test(entry.uri)) {
+        matches.add(entry);
+      }
+    });
+    matches.forEach(this::remove);
+    return matches.size();
+  }
+
+  private LinkedHashMap<String, Entry> segmentMap(Segment segment) {
+    return switch (segment) {
+      case WINDOW -> window;
+      case PROBATION -> probation;
+      case PROTECTED -> protectedSegment;
+    };
+  }
+
+  private void adjustSegmentBytes(Segment segment, long delta) {
+    switch (segment) {
+      case WINDOW -> windowBytes += delta;
+      case PROBATION -> probationBytes += delta;
+      case PROTECTED -> protectedBytes += delta;
+    }
+  }
+
+  // --- HTTP caching kuralları ---
+
+  private boolean isCacheableRequest(HttpServletRequest request) {
+    String method = request.getMethod();
+    if (!"GET".equals(method) && !"HEAD".equals(method)) {
+      return false;
+    }
+    // Kullanıcıya özel cevaplar paylaşılan cache'e girmez
+    if (request.getHeader(HttpHeaders.AUTHORIZATION) != null) {
+      return false;
+    }
+    return !parseCacheControl(headerValues(request, HttpHeaders.CACHE_CONTROL))
+        .containsKey("no-store");
+  }
+
+  private boolean bypassesLookup(HttpServletRequest request) {
+    Map<String, String> directives = parseCacheControl(
+        headerValues(request, HttpHeaders.CACHE_CONTROL));
+    return directives.containsKey("no-cache") || "0".equals(directives.get("max-age"))
+        || "no-cache".equalsIgnoreCase(request.getHeader(HttpHeaders.PRAGMA));
+  }
+
+  private static boolean matchesIfNoneMatch(String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null || etag == null) {
+      return false;
+    }
+    String normalizedEtag = stripWeak(etag);
+    for (String candidate : ifNoneMatch.split(",")) {
+      String trimmed = candidate.trim();
+      if ("*".equals(trimmed) || stripWeak(trimmed).equals(normalizedEtag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String stripWeak(String etag) {
+    return etag.startsWith("W/") ? etag.substring(2) : etag;
+  }
+
+  /**
+   * Öncelik: s-maxage → max-age → Expires - Date (upstream'in Age header'ı düşülür)
+   */
+  private static long freshnessLifetime(Map<String, String> directives, HttpHeaders headers) {
+    long lifetime = -1;
+    String maxAge = directives.containsKey("s-maxage")
+        ? directives.get("s-maxage") : directives.get("max-age");
+    if (maxAge != null) {
+      try {
+        lifetime = Long.parseLong(maxAge);
+      } catch (NumberFormatException e) {
+        return -1;
+      }
+    } else if (headers.getFirst(HttpHeaders.EXPIRES) != null) {
+      ZonedDateTime expires = parseDate(headers.getFirst(HttpHeaders.EXPIRES));
+      ZonedDateTime date = headers.getFirst(HttpHeaders.DATE) != null
+          ? parseDate(headers.getFirst(HttpHeaders.DATE)) : ZonedDateTime.now();
+      if (expires == null || date == null) {
+        return -1;
+      }
+      lifetime = expires.toEpochSecond() - date.toEpochSecond();
+    }
+
+    String age = headers.getFirst(HttpHeaders.AGE);
+    if (age != null) {
+      try {
+        lifetime -= Long.parseLong(age.trim());
+      } catch (NumberFormatException e) {
+        return -1;
+      }
+    }
+    return lifetime;
+  }
+
+  private static ZonedDateTime parseDate(String value) {
+    try {
+      return ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+    } catch (DateTimeParseException e) {
+      return null;
+    }
+  }
+
+  private static Map<String, String> parseCacheControl(List<String> values) {
+    Map<String, String> directives = new HashMap<>();
+    if (values == null) {
+      return directives;
+    }
+    for (String value : values) {
+      for (String directive : value.split(",")) {
+        String trimmed = directive.trim().toLowerCase();
+        if (trimmed.isEmpty()) {
+          continue;
+        }
+        int equals = trimmed.indexOf('=');
+        if (equals < 0) {
+          directives.put(trimmed, "");
+        } else {
+          directives.put(trimmed.substring(0, equals).trim(),
+              trimmed.substring(equals + 1).trim().replace("\"", ""));
+        }
+      }
+    }
+    return directives;
+  }
+
+  private static List<String> varyNames(HttpHeaders headers) {
+    List<String> names = new ArrayList<>();
+    List<String> vary = headers.get(HttpHeaders.VARY);
+    if (vary != null) {
+      vary.forEach(value -> {
+        for (String name : value.split(",")) {
+          if (!name.isBlank()) {
+            names.add(name.trim().toLowerCase());
+          }
+        }
+      });
+    }
+    return names;
+  }
+
+  private static List<String> headerValues(HttpServletRequest request, String name) {
+    return Collections.list(request.getHeaders(name));
+  }
+
+  private static String key(Route route, HttpServletRequest request) {
+    // Blue-green/canary: her environment'ın cevabı ayrı cache'lenir
+    Environment environment = TrafficSplitter.environment(request);
+    String key = route.getId() + " " + uri(request);
+    return environment != null ? key + " " + environment : key;
+  }
+
+  private static String variantKey(String baseKey, Variants variants,
+      HttpServletRequest request) {
+    return variants == null ? baseKey : variantKey(baseKey, variants.names, request);
+  }
+
+  private static String variantKey(String baseKey, List<String> varyNames,
+      HttpServletRequest request) {
+    if (varyNames.isEmpty()) {
+      return baseKey;
+    }
+    StringBuilder key = new StringBuilder(baseKey);
+    varyNames.forEach(name -> key.append('\n').append(name).append('=')
+        .append(request.getHeader(name)));
+    return key.toString();
+  }
+
+  private static String uri(HttpServletRequest request) {
+    String query = request.getQueryString();
+    return query == null ? request.getRequestURI() : request.getRequestURI() + "?" + query;
+  }
+
+  private enum Segment {
+    WINDOW, PROBATION, PROTECTED
+  }
+
+  /**
+   * Bir URI'nin Vary header isimleri ve cache'teki varyant sayısı
+   */
+  private static final class Variants {
+    private List<String> names;
+    private int count;
+  }
+
+  private static final class Entry {
+    private final String key;
+    private final String baseKey;
+    private final int hash;
+    private final String serviceName;
+    private final String uri;
+    private final int status;
+    private final HttpHeaders headers;
+    private final String etag;
+    private final long storedAtNanos;
+    private final long expiresAtNanos;
+    private final int length;
+    private final long weight;
+    private int[] pages;
+    private Segment segment;
+
+    private Entry(String key, String baseKey, String serviceName, String uri, int status,
+        HttpHeaders headers, String etag, long storedAtNanos, long expiresAtNanos, int length,
+        long weight) {
+      this.key = key;
+      this.baseKey = baseKey;
+      // Sıklık URI bazında tutulur; varyantlar aynı popülerliği paylaşır
+      this.hash = baseKey.hashCode();
+      this.serviceName = serviceName;
+      this.uri = uri;
+      this.status = status;
+      this.headers = headers;
+      this.etag = etag;
+      this.storedAtNanos = storedAtNanos;
+      this.expiresAtNanos = expiresAtNanos;
+      this.length = length;
+      this.weight = weight;
+    }
+  }
+
+  /**
+   * Tek bir servisin cache sayaçları
+   */
+  public static class ServiceCacheStats {
+    private final AtomicLong hits = new AtomicLong(0);
+    private final AtomicLong misses = new AtomicLong(0);
+    private final AtomicLong hitBytes = new AtomicLong(0);
+    private final AtomicLong storedBytes = new AtomicLong(0);
+
+    public long getHits() {
+      return hits.get();
+    }
+
+    public long getMisses() {
+      return misses.get();
+    }
+
+    public long getHitBytes() {
+      return hitBytes.get();
+    }
+
+    public long getStoredBytes() {
+      return storedBytes.get();
+    }
+  }
+
+  public record ServiceCacheInfo(long hits, long misses, long hitBytes, long storedBytes) {}
+
+  public record CacheInfo(long entries, long usedBytes, long capacityBytes,
+      long reservedOffHeapBytes, long windowBytes, long probationBytes, long protectedBytes,
+      long evictions, long admissionsRejected, Map<String, ServiceCacheInfo> services) {}
+}
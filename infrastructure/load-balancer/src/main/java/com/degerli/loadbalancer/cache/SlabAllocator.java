@@ -0,0 +1,131 @@
+package com.degerli.loadbalancer.cache;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cache body'leri için off-heap sayfa allocator'ı
+ * <p>
+ * Direct ByteBuffer slab'ları sabit boyutlu sayfalara bölünür; bir body ardışık olması
+ * gerekmeyen sayfalara yazılır. Slab'lar ihtiyaç oldukça ayrılır ve hiç geri verilmez, böylece
+ * cache büyüse bile GC'nin taradığı heap büyümez ve fragmentation sayfa boyutuyla sınırlı kalır.
+ * <p>
+ * Thread-safe değildir; ResponseCache kilidi altında kullanılır.
+ */
+class SlabAllocator {
+
+  private final int pageSize;
+  private final int pagesPerSlab;
+  private final int totalPages;
+  private final List<ByteBuffer> slabs = new ArrayList<>();
+
+  // Boş sayfa id'leri (stack)
+  private int[] freePages = new int[0];
+  private int freeCount;
+  private int allocatedPages;
+
+  SlabAllocator(long maxBytes, int pageSize, int slabSize) {
+    this.pageSize = pageSize;
+    this.pagesPerSlab = Math.max(1, slabSize / pageSize);
+    this.totalPages = (int) Math.min(Integer.MAX_VALUE, maxBytes / pageSize);
+  }
+
+  int getPageSize() {
+    return pageSize;
+  }
+
+  long getCapacityBytes() {
+    return (long) totalPages * pageSize;
+  }
+
+  long getUsedBytes() {
+    return (long) (allocatedPages - freeCount) * pageSize;
+  }
+
+  /**
+   * Şu ana kadar ayrılmış off-heap bellek
+   */
+  long getReservedBytes() {
+    return (long) allocatedPages * pageSize;
+  }
+
+  /**
+   * Verilen uzunluktaki body için gereken sayfa sayısı
+   */
+  int pagesFor(int length) {
+    return Math.max(1, (length + pageSize - 1) / pageSize);
+  }
+
+  /**
+   * Body'yi sayfalara yaz
+   *
+   * @return sayfa id'leri; yeterli sayfa yoksa null
+   */
+  int[] store(byte[] body) {
+    int needed = pagesFor(body.length);
+    while (freeCount < needed && allocatedPages < totalPages) {
+      addSlab();
+    }
+    if (freeCount < needed) {
+      return null;
+    }
+
+    int[] pages = new int[needed];
+    for (int i = 0; i < needed; i++) {
+      pages[i] = freePages[--freeCount];
+      int offset = i * pageSize;
+      int length = Math.min(pageSize, body.length - offset);
+      if (length > 0) {
+        slab(pages[i]).put(pageOffset(pages[i]), body, offset, length);
+      }
+    }
+    return pages;
+  }
+
+  /**
+   * Sayfalardaki body'yi heap'e kopyala
+   */
+  byte[] read(int[] pages, int length) {
+    byte[] body = new byte[length];
+    for (int i = 0; i < pages.length; i++) {
+      int offset = i * pageSize;
+      int chunk = Math.min(pageSize, length - offset);
+      if (chunk > 0) {
+        slab(pages[i]).get(pageOffset(pages[i]), body, offset, chunk);
+      }
+    }
+    return body;
+  }
+
+  void free(int[] pages) {
+    for (int page : pages) {
+      freePages[freeCount++] = page;
+    }
+  }
+
+  private void addSlab() {
+    int pages = Math.min(pagesPerSlab, totalPages - allocatedPages);
+    slabs.add(ByteBuffer.allocateDirect(pages * pageSize));
+
+    if (freePages.length < allocatedPages + pages) {
+      int[] grown = new int[allocatedPages + pages];
+      System.arraycopy(freePages, 0, grown, 0, freeCount);
+      freePages = grown;
+    }
+    // Yeni slab'ın sayfaları (ters sırada ki ilk sayfa önce verilsin)
+    int firstPage = (slabs.size() - 1) * pagesPerSlab;
+    for (int i = pages - 1; i >= 0; i--) {
+      freePages[freeCount++] = firstPage + i;
+    }
+    allocatedPages += pages;
+  }
+
+  private ByteBuffer slab(int page) {
+    return slabs.get(page / pagesPerSlab);
+  }
+
+  private int pageOffset(int page) {
+    return (page % pagesPerSlab) * pageSize;
+  }
+}
@@ -75,6 +75,7 @@ public class CircuitBreaker {
         if (state.getConsecutiveSuccesses() >= successThreshold) {
           log.info("✓ Circuit breaker recovered, transitioning to CLOSED: {}", server.getUrl());
           state.transitionToClosed();
+          server.startWarming();
         }
         break;
 
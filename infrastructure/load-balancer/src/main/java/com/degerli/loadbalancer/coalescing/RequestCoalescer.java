@@ -0,0 +1,242 @@
+package com.degerli.loadbalancer.coalescing;
+
+import com.degerli.loadbalancer.deployment.TrafficSplitter;
+import com.degerli.loadbalancer.deployment.TrafficSplitter.Environment;
+import com.degerli.loadbalancer.routing.Route;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Request Coalescing (single-flight)
+ * <p>
+ * Aynı anda gelen özdeş request'lerden (route + metod + URI + seçili Vary header'ları) sadece
+ * ilki (leader) upstream'e gider; diğerleri (follower) leader'ın cevabını bekler ve aynı cevabı
+ * alır. Response cache'ten bağımsızdır: cache kapalıyken de ani trafik patlamalarında backend'e
+ * giden request sayısını in-flight özdeş request başına bire indirir.
+ * <p>
+ * Kullanıcıya özel olabilecek request'ler (Authorization, LB'nin sticky session cookie'si
+ * dışında Cookie) birleştirilmez. Leader'ın cevabı sadece paylaşılabilirse follower'lara
+ * dağıtılır: Set-Cookie (sticky session cookie'si hariç), Cache-Control private / no-store /
+ * no-cache veya anahtarda olmayan bir header'a göre Vary taşıyan cevaplarda her follower kendi
+ * upstream çağrısını yapar.
+ * <p>
+ * Follower'ların bekleme süresi sınırlıdır; leader zamanında bitmezse veya hata fırlatırsa
+ * follower kendi upstream çağrısını yapar.
+ */
+@Slf4j
+public class RequestCoalescer {
+
+  private final Map<String, CompletableFuture<ResponseEntity<?>>> inFlight =
+      new ConcurrentHashMap<>();
+  private final Map<String, ServiceCoalescing> serviceCoalescing = new ConcurrentHashMap<>();
+
+  private final Set<String> methods;
+  private final List<String> varyHeaders;
+  private final Set<String> varyHeaderNames;
+  private final String sessionCookieName;
+  private final long maxWaitNanos;
+
+  /**
+   * @param sessionCookieName LB'nin sticky session cookie'si (kapalıysa null); request'te
+   *                          ve cevapta paylaşmayı engellemez, follower'ınkiyle değiştirilir
+   */
+  public RequestCoalescer(Set<String> methods, List<String> varyHeaders,
+      String sessionCookieName, long maxWaitMs) {
+    this.methods = methods;
+    this.varyHeaders = varyHeaders;
+    this.varyHeaderNames = varyHeaders.stream()
+        .map(header -> header.toLowerCase(Locale.ROOT))
+        .collect(Collectors.toUnmodifiableSet());
+    this.sessionCookieName = sessionCookieName;
+    this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+  }
+
+  /**
+   * Request paylaşılabilir mi?
+   * Kullanıcıya özel (Authorization, Cookie) veya cache'i açıkça reddeden request'ler
+   * birleştirilmez.
+   */
+  public boolean isCoalescable(HttpServletRequest request) {
+    if (!methods.contains(request.getMethod())
+        || request.getHeader(HttpHeaders.AUTHORIZATION) != null
+        || hasUserCookie(request)) {
+      return false;
+    }
+    String cacheControl = request.getHeader(HttpHeaders.CACHE_CONTROL);
+    return cacheControl == null || !cacheControl.toLowerCase(Locale.ROOT).contains("no-store");
+  }
+
+  /**
+   * Özdeş bir request zaten upstream'deyse onun cevabını bekle, değilse upstreamCall'ı çalıştır
+   */
+  public Result execute(Route route, HttpServletRequest request,
+      Supplier<ResponseEntity<?>> upstreamCall) {
+
+    ServiceCoalescing stats = getCoalescing(route.getServiceName());
+    stats.requests.incrementAndGet();
+
+    String key = key(route, request);
+    CompletableFuture<ResponseEntity<?>> flight = new CompletableFuture<>();
+    CompletableFuture<ResponseEntity<?>> existing = inFlight.putIfAbsent(key, flight);
+
+    if (existing == null) {
+      // Leader (paylaşılamayan cevap follower'lara null olarak iletilir)
+      try {
+        ResponseEntity<?> response = upstreamCall.get();
+        flight.complete(isShareable(response) ? response : null);
+        return new Result(response, false);
+      } catch (RuntimeException e) {
+        flight.completeExceptionally(e);
+        throw e;
+      } finally {
+        inFlight.remove(key, flight);
+      }
+    }
+
+    // Follower
+    try {
+      ResponseEntity<?> response = existing.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+      if (response != null) {
+        stats.coalesced.incrementAndGet();
+        return new Result(response, true);
+      }
+      log.debug("Coalescing leader response is not shareable, proxying independently: {}",
+          key);
+    } catch (TimeoutException e) {
+      stats.waitTimeouts.incrementAndGet();
+      log.debug("Coalescing wait timed out, proxying independently: {}", key);
+    } catch (ExecutionException e) {
+      log.debug("Coalescing leader failed, proxying independently: {}", key);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return new Result(upstreamCall.get(), false);
+  }
+
+  /**
+   * Servisin coalescing sayaçlarını al veya oluştur
+   */
+  public ServiceCoalescing getCoalescing(String serviceName) {
+    return serviceCoalescing.computeIfAbsent(serviceName, name -> new ServiceCoalescing());
+  }
+
+  /**
+   * Servis başına coalescing istatistikleri
+   */
+  public Map<String, CoalescingInfo> getStats() {
+    Map<String, CoalescingInfo> stats = new ConcurrentHashMap<>();
+    serviceCoalescing.forEach((serviceName, coalescing) -> {
+      long requests = coalescing.getRequests();
+      stats.put(serviceName, new CoalescingInfo(requests, coalescing.getCoalesced(),
+          coalescing.getWaitTimeouts(),
+          requests == 0 ? 0.0 : (double) coalescing.getCoalesced() / requests));
+    });
+    return stats;
+  }
+
+  public int getInFlightCount() {
+    return inFlight.size();
+  }
+
+  /**
+   * Cevap başka client'lara da gönderilebilir mi?
+   */
+  boolean isShareable(ResponseEntity<?> response) {
+    HttpHeaders headers = response.getHeaders();
+    List<String> cookies = headers.get(HttpHeaders.SET_COOKIE);
+    if (cookies != null && cookies.stream().anyMatch(cookie -> !isSessionCookie(cookie))) {
+      return false;
+    }
+    List<String> cacheControl = headers.get(HttpHeaders.CACHE_CONTROL);
+    if (cacheControl != null && cacheControl.stream()
+        .flatMap(value -> Arrays.stream(value.split(",")))
+        .map(directive -> directive.trim().toLowerCase(Locale.ROOT))
+        .anyMatch(directive -> directive.startsWith("private") || directive.equals("no-store")
+            || directive.startsWith("no-cache"))) {
+      return false;
+    }
+    // Anahtarda olmayan bir header'a göre değişen cevap (örn. Vary: Cookie, *) paylaşılmaz
+    return headers.getVary().stream()
+        .allMatch(header -> varyHeaderNames.contains(header.toLowerCase(Locale.ROOT)));
+  }
+
+  private boolean hasUserCookie(HttpServletRequest request) {
+    Enumeration<String> headers = request.getHeaders(HttpHeaders.COOKIE);
+    while (headers != null && headers.hasMoreElements()) {
+      for (String cookie : headers.nextElement().split(";")) {
+        if (!cookie.isBlank() && !isSessionCookie(cookie.trim())) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * LB'nin sticky session cookie'si mi? ("name=value" veya Set-Cookie değeri)
+   */
+  private boolean isSessionCookie(String cookie) {
+    return sessionCookieName != null && cookie.startsWith(sessionCookieName + "=");
+  }
+
+  private String key(Route route, HttpServletRequest request) {
+    StringBuilder key = new StringBuilder(route.getId()).append(' ')
+        .append(request.getMethod()).append(' ')
+        .append(request.getRequestURI());
+    if (request.getQueryString() != null) {
+      key.append('?').append(request.getQueryString());
+    }
+    varyHeaders.forEach(header -> key.append('\n').append(header).append('=')
+        .append(request.getHeader(header)));
+    Environment environment = TrafficSplitter.environment(request);
+    if (environment != null) {
+      key.append('\n').append(environment);
+    }
+    return key.toString();
+  }
+
+  /**
+   * Upstream cevabı ve cevabın başka bir request'ten paylaşılıp paylaşılmadığı
+   */
+  public record Result(ResponseEntity<?> response, boolean shared) {}
+
+  /**
+   * Tek bir servisin coalescing sayaçları
+   */
+  public static class ServiceCoalescing {
+    private final AtomicLong requests = new AtomicLong(0);
+    private final AtomicLong coalesced = new AtomicLong(0);
+    private final AtomicLong waitTimeouts = new AtomicLong(0);
+
+    public long getRequests() {
+      return requests.get();
+    }
+
+    public long getCoalesced() {
+      return coalesced.get();
+    }
+
+    public long getWaitTimeouts() {
+      return waitTimeouts.get();
+    }
+  }
+
+  public record CoalescingInfo(long requests, long coalesced, long waitTimeouts,
+      double coalescingRatio) {}
+}
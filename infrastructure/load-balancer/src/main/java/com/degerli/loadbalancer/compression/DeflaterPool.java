@@ -0,0 +1,36 @@
+package com.degerli.loadbalancer.compression;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+
+/**
+ * Yeniden kullanılabilir Deflater havuzu
+ * <p>
+ * Her Deflater native zlib state'i (~256KB) tutar; request başına oluşturup end() etmek hem
+ * native allocation hem finalizer/cleaner maliyeti demektir. Havuz boşsa yenisi oluşturulur,
+ * doluysa iade edilen Deflater kapatılır.
+ */
+class DeflaterPool {
+
+  private final BlockingQueue<Deflater> pool;
+  private final int level;
+
+  DeflaterPool(int size, int level) {
+    this.pool = new ArrayBlockingQueue<>(Math.max(1, size));
+    this.level = level;
+  }
+
+  Deflater borrow() {
+    Deflater deflater = pool.poll();
+    // nowrap: gzip header/trailer'ı ResponseCompressor kendisi yazar
+    return deflater != null ? deflater : new Deflater(level, true);
+  }
+
+  void release(Deflater deflater) {
+    deflater.reset();
+    if (!pool.offer(deflater)) {
+      deflater.end();
+    }
+  }
+}
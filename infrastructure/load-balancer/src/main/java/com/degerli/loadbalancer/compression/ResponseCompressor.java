@@ -0,0 +1,298 @@
+package com.degerli.loadbalancer.compression;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.ByteArrayOutputStream;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Response Compression Offload
+ * <p>
+ * Backend'lerin sıkıştırmadan döndüğü cevaplar client'ın Accept-Encoding'ine göre load
+ * balancer'da gzip'lenir. Deflater'lar {@link DeflaterPool} ile yeniden kullanılır ve body
+ * sabit boyutlu chunk'lar halinde sıkıştırılır.
+ * <p>
+ * Strong ETag'li cevapların sıkıştırılmış hali URI + ETag ile küçük bir LRU'da tutulur;
+ * aynı içerik tekrar istendiğinde CPU harcanmaz. Eşik ve content-type kuralları servis
+ * bazında override edilebilir.
+ */
+public class ResponseCompressor {
+
+  private static final String GZIP = "gzip";
+  private static final int CHUNK_SIZE = 8192;
+  private static final byte[] GZIP_HEADER = {
+      0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff
+  };
+
+  private final DeflaterPool deflaterPool;
+  private final Rules defaultRules;
+  private final Map<String, Rules> serviceRules;
+  private final long maxVariantBytes;
+
+  // Servis + URI + ETag → gzip'lenmiş body (this kilidi altında erişilir)
+  private final LinkedHashMap<String, byte[]> variants = new LinkedHashMap<>(16, 0.75f, true);
+  private long variantBytes;
+
+  private final Map<String, ServiceCompression> serviceCompression = new ConcurrentHashMap<>();
+
+  public ResponseCompressor(int level, Rules defaultRules, Map<String, Rules> serviceRules,
+      long maxVariantBytes) {
+    this.deflaterPool = new DeflaterPool(Runtime.getRuntime().availableProcessors(), level);
+    this.defaultRules = defaultRules;
+    this.serviceRules = serviceRules;
+    this.maxVariantBytes = maxVariantBytes;
+  }
+
+  /**
+   * Cevap uygunsa ve client gzip kabul ediyorsa sıkıştırılmış halini döndür
+   */
+  public ResponseEntity<?> compress(String serviceName, HttpServletRequest request,
+      ResponseEntity<?> response) {
+
+    if (!(response.getBody() instanceof byte[] body) || !isEligible(serviceName, response,
+        body)) {
+      return response;
+    }
+
+    HttpHeaders headers = new HttpHeaders();
+    headers.addAll(response.getHeaders());
+    addVaryAcceptEncoding(headers);
+
+    if ("HEAD".equals(request.getMethod())
+        || !acceptsGzip(request.getHeaders(HttpHeaders.ACCEPT_ENCODING))) {
+      return ResponseEntity.status(response.getStatusCode()).headers(headers).body(body);
+    }
+
+    ServiceCompression stats = getCompression(serviceName);
+    String etag = response.getHeaders().getETag();
+    // ETag servis içinde tekildir; farklı servislerin aynı path ve ETag'i ayrı varyanttır
+    String variantKey = etag != null && !etag.startsWith("W/") ? serviceName + " "
+        + request.getRequestURI() + "?" + request.getQueryString() + " " + etag : null;
+
+    byte[] compressed = variantKey != null ? getVariant(variantKey) : null;
+    if (compressed != null) {
+      stats.variantHits.incrementAndGet();
+    } else {
+      long start = System.nanoTime();
+      compressed = gzip(body);
+      stats.cpuNanos.addAndGet(System.nanoTime() - start);
+      if (compressed.length >= body.length) {
+        // Sıkışmayan içerik (örn. zaten sıkıştırılmış veri) olduğu gibi gönderilir
+        stats.skipped.incrementAndGet();
+        return ResponseEntity.status(response.getStatusCode()).headers(headers).body(body);
+      }
+      if (variantKey != null) {
+        putVariant(variantKey, compressed);
+      }
+    }
+
+    stats.compressed.incrementAndGet();
+    stats.bytesIn.addAndGet(body.length);
+    stats.bytesOut.addAndGet(compressed.length);
+
+    headers.remove(HttpHeaders.CONTENT_LENGTH);
+    headers.set(HttpHeaders.CONTENT_ENCODING, GZIP);
+    if (etag != null && !etag.startsWith("W/")) {
+      // Sıkıştırılmış temsil byte olarak farklıdır; strong ETag weak'e çevrilir
+      headers.setETag("W/" + etag);
+    }
+    return ResponseEntity.status(response.getStatusCode()).headers(headers).body(compressed);
+  }
+
+  /**
+   * Servisin compression sayaçlarını al veya oluştur
+   */
+  public ServiceCompression getCompression(String serviceName) {
+    return serviceCompression.computeIfAbsent(serviceName, name -> new ServiceCompression());
+  }
+
+  /**
+   * Servis başına compression istatistikleri
+   */
+  public Map<String, CompressionInfo> getStats() {
+    Map<String, CompressionInfo> stats = new HashMap<>();
+    serviceCompression.forEach((serviceName, compression) -> {
+      long bytesIn = compression.getBytesIn();
+      stats.put(serviceName, new CompressionInfo(compression.getCompressed(),
+          compression.getSkipped(), compression.getVariantHits(), bytesIn,
+          compression.getBytesOut(), bytesIn - compression.getBytesOut(),
+          bytesIn == 0 ? 1.0 : (double) compression.getBytesOut() / bytesIn,
+          compression.getCpuNanos() / 1e6));
+    });
+    return stats;
+  }
+
+  public synchronized long getVariantBytes() {
+    return variantBytes;
+  }
+
+  private boolean isEligible(String serviceName, ResponseEntity<?> response, byte[] body) {
+    HttpHeaders headers = response.getHeaders();
+    int status = response.getStatusCode().value();
+    if (status != 200 && status != 203 || headers.containsKey(HttpHeaders.CONTENT_ENCODING)
+        || headers.containsKey(HttpHeaders.CONTENT_RANGE)) {
+      return false;
+    }
+    List<String> cacheControl = headers.get(HttpHeaders.CACHE_CONTROL);
+    if (cacheControl != null && cacheControl.stream()
+        .anyMatch(value -> value.toLowerCase(Locale.ROOT).contains("no-transform"))) {
+      return false;
+    }
+
+    Rules rules = serviceRules.getOrDefault(serviceName, defaultRules);
+    MediaType contentType = headers.getContentType();
+    return body.length >= rules.minSizeBytes() && contentType != null
+        && rules.contentTypes().stream().anyMatch(type -> type.includes(contentType));
+  }
+
+  /**
+   * Accept-Encoding'de gzip (veya *) q > 0 ile geçiyor mu?
+   */
+  private static boolean acceptsGzip(Enumeration<String> acceptEncoding) {
+    double gzipQuality = -1;
+    double wildcardQuality = -1;
+    for (String header : Collections.list(acceptEncoding)) {
+      for (String coding : header.split(",")) {
+        String[] parts = coding.trim().split(";");
+        String name = parts[0].trim().toLowerCase(Locale.ROOT);
+        double quality = 1.0;
+        for (int i = 1; i < parts.length; i++) {
+          String param = parts[i].trim();
+          if (param.startsWith("q=")) {
+            try {
+              quality = Double.parseDouble(param.substring(2));
+            } catch (NumberFormatException e) {
+              quality = 0;
+            }
+          }
+        }
+        if (GZIP.equals(name) || "x-gzip".equals(name)) {
+          gzipQuality = quality;
+        } else if ("*".equals(name)) {
+          wildcardQuality = quality;
+        }
+      }
+    }
+    return gzipQuality >= 0 ? gzipQuality > 0 : wildcardQuality > 0;
+  }
+
+  private static void addVaryAcceptEncoding(HttpHeaders headers) {
+    List<String> vary = headers.getVary();
+    if (vary.stream().noneMatch(value -> "*".equals(value)
+        || HttpHeaders.ACCEPT_ENCODING.equalsIgnoreCase(value))) {
+      headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    }
+  }
+
+  /**
+   * gzip (RFC 1952): sabit header + raw deflate + CRC32 + orijinal uzunluk
+   */
+  private byte[] gzip(byte[] body) {
+    Deflater deflater = deflaterPool.borrow();
+    try {
+      ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+      out.write(GZIP_HEADER, 0, GZIP_HEADER.length);
+
+      deflater.setInput(body);
+      deflater.finish();
+      byte[] chunk = new byte[CHUNK_SIZE];
+      while (!deflater.finished()) {
+        out.write(chunk, 0, deflater.deflate(chunk));
+      }
+
+      CRC32 crc = new CRC32();
+      crc.update(body);
+      writeIntLittleEndian(out, (int) crc.getValue());
+      writeIntLittleEndian(out, body.length);
+      return out.toByteArray();
+    } finally {
+      deflaterPool.release(deflater);
+    }
+  }
+
+  private static void writeIntLittleEndian(ByteArrayOutputStream out, int value) {
+    out.write(value);
+    out.write(value >>> 8);
+    out.write(value >>> 16);
+    out.write(value >>> 24);
+  }
+
+  private synchronized byte[] getVariant(String key) {
+    return variants.get(key);
+  }
+
+  private synchronized void putVariant(String key, byte[] compressed) {
+    if (compressed.length > maxVariantBytes) {
+      return;
+    }
+    byte[] previous = variants.put(key, compressed);
+    variantBytes += compressed.length - (previous != null ? previous.length : 0);
+
+    Iterator<byte[]> eldest = variants.values().iterator();
+    while (variantBytes > maxVariantBytes && eldest.hasNext()) {
+      variantBytes -= eldest.next().length;
+      eldest.remove();
+    }
+  }
+
+  /**
+   * Sıkıştırma eşiği ve sıkıştırılacak content-type'lar
+   */
+  public record Rules(int minSizeBytes, List<MediaType> contentTypes) {}
+
+  /**
+   * Tek bir servisin compression sayaçları
+   */
+  public static class ServiceCompression {
+    private final AtomicLong compressed = new AtomicLong(0);
+    private final AtomicLong skipped = new AtomicLong(0);
+    private final AtomicLong variantHits = new AtomicLong(0);
+    private final AtomicLong bytesIn = new AtomicLong(0);
+    private final AtomicLong bytesOut = new AtomicLong(0);
+    private final AtomicLong cpuNanos = new AtomicLong(0);
+
+    public long getCompressed() {
+      return compressed.get();
+    }
+
+    public long getSkipped() {
+      return skipped.get();
+    }
+
+    public long getVariantHits() {
+      return variantHits.get();
+    }
+
+    public long getBytesIn() {
+      return bytesIn.get();
+    }
+
+    public long getBytesOut() {
+      return bytesOut.get();
+    }
+
+    public long getCpuNanos() {
+      return cpuNanos.get();
+    }
+
+    public double getCpuSeconds() {
+      return cpuNanos.get() / 1e9;
+    }
+  }
+
+  public record CompressionInfo(long compressed, long skipped, long variantHits, long bytesIn,
+      long bytesOut, long bytesSaved, double ratio, double cpuMillis) {}
+}
@@ -0,0 +1,239 @@
+package com.degerli.loadbalancer.concurrency;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Adaptive Concurrency Limiter - servis başına in-flight request limiti
+ * <p>
+ * Limit sabit değildir; upstream'in gözlenen RTT'lerinden sürekli tahmin edilir:
+ * <ul>
+ *   <li>GRADIENT: Kısa dönem RTT uzun dönem RTT'den uzaklaştıkça limit oransal küçülür</li>
+ *   <li>VEGAS: Min RTT'ye göre tahmini kuyruk boyu hesaplanır, kuyruk büyüdükçe limit azalır</li>
+ * </ul>
+ * Limit dolduğunda yeni request'ler beklemeden reddedilir, böylece yavaş bir backend
+ * Tomcat thread'lerini tüketip diğer servisleri etkileyemez.
+ */
+@Slf4j
+public class ConcurrencyLimiter {
+
+  private final Map<String, ServiceLimiter> serviceLimiters = new ConcurrentHashMap<>();
+
+  private final Algorithm algorithm;
+  private final int initialLimit;
+  private final int minLimit;
+  private final int maxLimit;
+  private final double smoothing;
+  private final double rttTolerance;
+
+  public ConcurrencyLimiter(Algorithm algorithm, int initialLimit, int minLimit, int maxLimit,
+      double smoothing, double rttTolerance) {
+    this.algorithm = algorithm;
+    this.initialLimit = initialLimit;
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.smoothing = smoothing;
+    this.rttTolerance = rttTolerance;
+  }
+
+  /**
+   * Servisin limiter'ını al veya oluştur
+   */
+  public ServiceLimiter getLimiter(String serviceName) {
+    return serviceLimiters.computeIfAbsent(serviceName, ServiceLimiter::new);
+  }
+
+  /**
+   * Servis başına limiter tahmini (limit, in-flight, reddedilen)
+   */
+  public Map<String, LimitInfo> getStats() {
+    Map<String, LimitInfo> stats = new ConcurrentHashMap<>();
+    serviceLimiters.forEach((serviceName, limiter) -> stats.put(serviceName,
+        new LimitInfo(limiter.getLimit(), limiter.getInFlight(), limiter.getRejected())));
+    return stats;
+  }
+
+  /**
+   * Tek bir servisin limiter'ı
+   * <p>
+   * tryAcquire() başarılıysa request bitince onSuccess/onDropped/onIgnore'dan biri mutlaka
+   * çağrılmalıdır.
+   */
+  public class ServiceLimiter {
+    private final String serviceName;
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+    private final AtomicLong rejected = new AtomicLong(0);
+    private volatile int limit;
+
+    // Limit tahmini state'i (update() içinde synchronized erişilir)
+    private double estimatedLimit;
+    private double longRttNanos;
+    private long minRttNanos;
+    private long samplesSinceProbe;
+
+    ServiceLimiter(String serviceName) {
+      this.serviceName = serviceName;
+      this.limit = initialLimit;
+      this.estimatedLimit = initialLimit;
+    }
+
+    /**
+     * Limit altındaysa bir slot al
+     */
+    public boolean tryAcquire() {
+      while (true) {
+        int current = inFlight.get();
+        if (current >= limit) {
+          rejected.incrementAndGet();
+          return false;
+        }
+        if (inFlight.compareAndSet(current, current + 1)) {
+          return true;
+        }
+      }
+    }
+
+    /**
+     * Request başarıyla tamamlandı, RTT örneğini limite yansıt
+     */
+    public void onSuccess(long rttNanos) {
+      int inFlightAtCompletion = inFlight.getAndDecrement();
+      update(rttNanos, inFlightAtCompletion, false);
+    }
+
+    /**
+     * Request timeout/bağlantı hatası/5xx ile bitti (overload sinyali)
+     */
+    public void onDropped() {
+      int inFlightAtCompletion = inFlight.getAndDecrement();
+      update(0, inFlightAtCompletion, true);
+    }
+
+    /**
+     * Request limit tahminine katılmadan bitti (örn: 4xx)
+     */
+    public void onIgnore() {
+      inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+      return limit;
+    }
+
+    public int getInFlight() {
+      return inFlight.get();
+    }
+
+    public long getRejected() {
+      return rejected.get();
+    }
+
+    private synchronized void update(long rttNanos, int inFlightAtCompletion,
+        boolean dropped) {
+      rttNanos = Math.max(1, rttNanos);
+      double newLimit = switch (algorithm) {
+        case GRADIENT -> gradient(rttNanos, inFlightAtCompletion, dropped);
+        case VEGAS -> vegas(rttNanos, inFlightAtCompletion, dropped);
+      };
+
+      newLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+      int previous = limit;
+      estimatedLimit = newLimit;
+      limit = (int) newLimit;
+
+      if (previous != limit) {
+        log.debug("Concurrency limit for {}: {} -> {} (rtt: {}ms, inFlight: {})",
+            serviceName, previous, limit, TimeUnit.NANOSECONDS.toMillis(rttNanos),
+            inFlightAtCompletion);
+      }
+    }
+
+    /**
+     * Gradient: limit * (tolerans * uzunRTT / kısaRTT) + sqrt(limit) kuyruk payı
+     */
+    private double gradient(long rttNanos, int inFlightAtCompletion, boolean dropped) {
+      if (dropped) {
+        return estimatedLimit * 0.9;
+      }
+
+      if (longRttNanos == 0) {
+        longRttNanos = rttNanos;
+      } else {
+        // ~600 örneklik EWMA
+        longRttNanos += (rttNanos - longRttNanos) * (2.0 / 601);
+        // Uzun dönem RTT çok yukarıda kaldıysa (yük geçti) hızla toparla
+        if (longRttNanos / rttNanos > 2) {
+          longRttNanos *= 0.95;
+        }
+      }
+
+      // Limitin yarısı bile kullanılmıyorsa RTT bilgisi limit hakkında bir şey söylemez
+      if (inFlightAtCompletion < estimatedLimit / 2) {
+        return estimatedLimit;
+      }
+
+      double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRttNanos / rttNanos));
+      double queueSize = Math.sqrt(estimatedLimit);
+      double newLimit = estimatedLimit * gradient + queueSize;
+      return estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+    }
+
+    /**
+     * Vegas: kuyruk = limit * (1 - minRTT / RTT); alpha/beta eşiklerine göre artır/azalt
+     */
+    private double vegas(long rttNanos, int inFlightAtCompletion, boolean dropped) {
+      double log10Limit = Math.log10(Math.max(estimatedLimit, 10));
+
+      if (dropped) {
+        return estimatedLimit - log10Limit;
+      }
+
+      // Periyodik olarak min RTT'yi sıfırla ki baseline ağ/backend değişimlerine uysun
+      if (++samplesSinceProbe > 30L * (long) estimatedLimit) {
+        samplesSinceProbe = 0;
+        minRttNanos = 0;
+      }
+      if (minRttNanos == 0 || rttNanos < minRttNanos) {
+        minRttNanos = rttNanos;
+        return estimatedLimit;
+      }
+
+      if (inFlightAtCompletion * 2 < estimatedLimit) {
+        return estimatedLimit;
+      }
+
+      double queueSize = Math.ceil(estimatedLimit * (1 - (double) minRttNanos / rttNanos));
+      double alpha = 3 * log10Limit;
+      double beta = 6 * log10Limit;
+
+      double newLimit;
+      if (queueSize <= log10Limit) {
+        newLimit = estimatedLimit + beta;
+      } else if (queueSize < alpha) {
+        newLimit = estimatedLimit + log10Limit;
+      } else if (queueSize > beta) {
+        newLimit = estimatedLimit - log10Limit;
+      } else {
+        return estimatedLimit;
+      }
+      return estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+    }
+  }
+
+  /**
+   * Limiter durumu
+   */
+  public record LimitInfo(int limit,      // Mevcut tahmini limit
+      int inFlight,   // Şu an upstream'de olan request sayısı
+      long rejected   // Toplam reddedilen request sayısı
+  ) {}
+
+  public enum Algorithm {
+    GRADIENT,
+    VEGAS
+  }
+}
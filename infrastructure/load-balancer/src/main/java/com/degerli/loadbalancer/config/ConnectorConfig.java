@@ -0,0 +1,35 @@
+package com.degerli.loadbalancer.config;
+
+import com.degerli.loadbalancer.filter.QueueTimingExecutor;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatConnectorCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Tomcat Connector Configuration
+ * <p>
+ * Connector'ın worker havuzu kuyruğa giriş zamanını işaretleyen havuzla değiştirilir
+ * (load shedding'in queueing delay'i ve süre bütçesi worker beklemesini de kapsar).
+ * Havuz boyutları server.tomcat.threads.* ayarlarından alınır.
+ */
+@Configuration
+public class ConnectorConfig {
+
+  @Bean(destroyMethod = "shutdown")
+  public QueueTimingExecutor connectorExecutor(ServerProperties serverProperties) {
+    ServerProperties.Tomcat.Threads threads = serverProperties.getTomcat().getThreads();
+    return QueueTimingExecutor.create(threads.getMinSpare(), threads.getMax(),
+        threads.getMaxQueueCapacity(), "http-exec-");
+  }
+
+  /**
+   * Spring Boot'un kendi havuzunu protocol handler customizer'ında kurduğu için havuz
+   * connector customizer'ında (ondan sonra) değiştirilir
+   */
+  @Bean
+  public TomcatConnectorCustomizer connectorExecutorCustomizer(
+      QueueTimingExecutor connectorExecutor) {
+    return connector -> connector.getProtocolHandler().setExecutor(connectorExecutor);
+  }
+}
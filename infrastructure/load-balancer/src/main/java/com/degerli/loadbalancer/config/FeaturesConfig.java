@@ -1,12 +1,37 @@
 package com.degerli.loadbalancer.config;
 
+import com.degerli.loadbalancer.cache.ResponseCache;
 import com.degerli.loadbalancer.circuitbreaker.CircuitBreaker;
+import com.degerli.loadbalancer.coalescing.RequestCoalescer;
+import com.degerli.loadbalancer.compression.ResponseCompressor;
+import com.degerli.loadbalancer.concurrency.ConcurrencyLimiter;
+import com.degerli.loadbalancer.deployment.TrafficSplitter;
+import com.degerli.loadbalancer.discovery.DnsDiscovery;
+import com.degerli.loadbalancer.discovery.DnsResolver;
+import com.degerli.loadbalancer.discovery.FileDiscovery;
+import com.degerli.loadbalancer.discovery.StubDnsResolver;
+import com.degerli.loadbalancer.hedging.HedgingManager;
+import com.degerli.loadbalancer.locality.LocalityRouter;
+import com.degerli.loadbalancer.mirroring.TrafficMirror;
+import com.degerli.loadbalancer.outlier.OutlierDetector;
 import com.degerli.loadbalancer.ratelimit.RateLimiter;
+import com.degerli.loadbalancer.registry.ServiceRegistry;
+import com.degerli.loadbalancer.retry.RetryManager;
 import com.degerli.loadbalancer.session.StickySessionManager;
+import com.degerli.loadbalancer.shedding.LoadShedder;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.Deflater;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * Load balancer özelliklerinin konfigürasyonu
@@ -47,6 +72,252 @@ public class FeaturesConfig {
         Duration.ofSeconds(config.getWindowSeconds()), algorithm);
   }
 
+  /**
+   * Adaptive Concurrency Limiter Bean
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = "loadbalancer.concurrency-limit",
+      name = "enabled",
+      havingValue = "true")
+  public ConcurrencyLimiter concurrencyLimiter(LoadBalancerProperties properties) {
+    LoadBalancerProperties.ConcurrencyLimitConfig config = properties.getConcurrencyLimit();
+
+    ConcurrencyLimiter.Algorithm algorithm = config.getAlgorithm().equals("VEGAS")
+        ? ConcurrencyLimiter.Algorithm.VEGAS : ConcurrencyLimiter.Algorithm.GRADIENT;
+
+    return new ConcurrencyLimiter(algorithm, config.getInitialLimit(), config.getMinLimit(),
+        config.getMaxLimit(), config.getSmoothing(), config.getRttTolerance());
+  }
+
+  /**
+   * Load Shedder Bean
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = "loadbalancer.load-shedding",
+      name = "enabled",
+      havingValue = "true")
+  public LoadShedder loadShedder(LoadBalancerProperties properties) {
+    LoadBalancerProperties.LoadSheddingConfig config = properties.getLoadShedding();
+
+    List<LoadShedder.RequestClass> requestClasses = config.getRequestClasses().stream()
+        .map(classConfig -> {
+          Set<String> methods = new HashSet<>();
+          classConfig.getMethods().forEach(method -> methods.add(method.toUpperCase()));
+          return new LoadShedder.RequestClass(classConfig.getName(),
+              LoadShedder.Priority.valueOf(classConfig.getPriority()), Set.copyOf(methods),
+              classConfig.getPathPattern() != null
+                  ? PathPatternParser.defaultInstance.parse(classConfig.getPathPattern())
+                  : null);
+        })
+        .toList();
+
+    LoadShedder.RequestClass defaultClass = new LoadShedder.RequestClass("default",
+        LoadShedder.Priority.valueOf(config.getDefaultPriority()), Set.of(), null);
+
+    return new LoadShedder(requestClasses, defaultClass, config.getTargetDelayMs(),
+        config.getIntervalMs());
+  }
+
+  /**
+   * Hedging Manager Bean
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = "loadbalancer.hedging",
+      name = "enabled",
+      havingValue = "true")
+  public HedgingManager hedgingManager(LoadBalancerProperties properties) {
+    LoadBalancerProperties.HedgingConfig config = properties.getHedging();
+
+    Set<String> methods = new HashSet<>();
+    config.getMethods().forEach(method -> methods.add(method.toUpperCase()));
+
+    return new HedgingManager(Set.copyOf(methods), config.getDelayMs(), config.getMinDelayMs(),
+        config.getBudgetPercent() / 100.0);
+  }
+
+  /**
+   * Traffic Mirror Bean
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = "loadbalancer.mirroring",
+      name = "enabled",
+      havingValue = "true")
+  public TrafficMirror trafficMirror(LoadBalancerProperties properties,
+      ServiceRegistry serviceRegistry, TrafficSplitter trafficSplitter,
+      LoadShedder loadShedder) {
+    LoadBalancerProperties.MirroringConfig config = properties.getMirroring();
+
+    Set<String> methods = new HashSet<>();
+    config.getMethods().forEach(method -> methods.add(method.toUpperCase()));
+
+    Map<String, TrafficMirror.MirrorRule> rules = new HashMap<>();
+    if (properties.getServices() != null) {
+      properties.getServices().forEach((serviceName, serviceConfig) -> {
+        LoadBalancerProperties.MirrorConfig mirror = serviceConfig.getMirror();
+        if (mirror != null && mirror.getPercent() > 0) {
+          rules.put(serviceName, new TrafficMirror.MirrorRule(mirror.getPercent(),
+              TrafficSplitter.Environment.parse(mirror.getEnvironment()),
+              mirror.getService()));
+        }
+      });
+    }
+
+    return new TrafficMirror(serviceRegistry, trafficSplitter, loadShedder,
+        Set.copyOf(methods), config.getMaxConcurrent(), config.getThreads(),
+        config.getTimeoutMs(), config.getShadowHeader(), rules);
+  }
+
+  /**
+   * Retry Manager Bean
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = "loadbalancer.retry",
+      name = "enabled",
+      havingValue = "true")
+  public RetryManager retryManager(LoadBalancerProperties properties) {
+    return new RetryManager(properties.getRetry().getBudgetPercent() / 100.0);
+  }
+
+  /**
+   * Response Cache Bean
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = "loadbalancer.cache",
+      name = "enabled",
+      havingValue = "true")
+  public ResponseCache responseCache(LoadBalancerProperties properties) {
+    LoadBalancerProperties.CacheConfig config = properties.getCache();
+    return new ResponseCache(
+        config.getMaxSizeMb() * 1024L * 1024L,
+        config.getPageSizeBytes(),
+        config.getSlabSizeMb() * 1024 * 1024,
+        config.getMaxEntrySizeKb() * 1024L
+    );
+  }
+
+  /**
+   * Request Coalescer Bean
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = "loadbalancer.coalescing",
+      name = "enabled",
+      havingValue = "true")
+  public RequestCoalescer requestCoalescer(LoadBalancerProperties properties) {
+    LoadBalancerProperties.CoalescingConfig config = properties.getCoalescing();
+
+    Set<String> methods = new HashSet<>();
+    config.getMethods().forEach(method -> methods.add(method.toUpperCase()));
+
+    LoadBalancerProperties.StickySessionConfig stickySession = properties.getStickySession();
+    return new RequestCoalescer(Set.copyOf(methods), List.copyOf(config.getVaryHeaders()),
+        stickySession.isEnabled() ? stickySession.getCookieName() : null,
+        config.getMaxWaitMs());
+  }
+
+  /**
+   * Response Compressor Bean
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = "loadbalancer.compression",
+      name = "enabled",
+      havingValue = "true")
+  public ResponseCompressor responseCompressor(LoadBalancerProperties properties) {
+    LoadBalancerProperties.CompressionConfig config = properties.getCompression();
+    ResponseCompressor.Rules defaultRules = new ResponseCompressor.Rules(
+        config.getMinSizeBytes(), MediaType.parseMediaTypes(config.getContentTypes()));
+
+    // Servis bazlı override'lar, verilmeyen alanlar global ayardan gelir
+    Map<String, ResponseCompressor.Rules> serviceRules = new HashMap<>();
+    properties.getServices().forEach((serviceName, serviceConfig) -> {
+      if (serviceConfig.getCompressionMinSizeBytes() != null
+          || serviceConfig.getCompressionContentTypes() != null) {
+        serviceRules.put(serviceName, new ResponseCompressor.Rules(
+            serviceConfig.getCompressionMinSizeBytes() != null
+                ? serviceConfig.getCompressionMinSizeBytes() : defaultRules.minSizeBytes(),
+            serviceConfig.getCompressionContentTypes() != null
+                ? MediaType.parseMediaTypes(serviceConfig.getCompressionContentTypes())
+                : defaultRules.contentTypes()));
+      }
+    });
+
+    return new ResponseCompressor(config.getLevel(), defaultRules, Map.copyOf(serviceRules),
+        config.getVariantCacheSizeMb() * 1024L * 1024L);
+  }
+
+  /**
+   * Outlier Detector Bean
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = "loadbalancer.outlier-detection",
+      name = "enabled",
+      havingValue = "true")
+  public OutlierDetector outlierDetector(LoadBalancerProperties properties,
+      ServiceRegistry serviceRegistry) {
+    LoadBalancerProperties.OutlierDetectionConfig config = properties.getOutlierDetection();
+
+    OutlierDetector detector = new OutlierDetector(serviceRegistry, config.getIntervalMs(),
+        config.getConsecutiveGatewayFailures(), config.getFailurePercentThreshold(),
+        config.getMinimumRequests(), config.getLatencyFactor(), config.getMinimumHosts(),
+        config.getBaseEjectionMs(), config.getMaxEjectionMs(), config.getMaxEjectionPercent());
+    serviceRegistry.addListener(detector);
+    detector.start();
+    return detector;
+  }
+
+  /**
+   * Locality Router Bean
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = "loadbalancer.locality",
+      name = "enabled",
+      havingValue = "true")
+  public LocalityRouter localityRouter(LoadBalancerProperties properties) {
+    LoadBalancerProperties.LocalityConfig config = properties.getLocality();
+    if (config.getZone() == null || config.getZone().isBlank()) {
+      throw new IllegalStateException(
+          "loadbalancer.locality.zone is required when locality is enabled");
+    }
+
+    return new LocalityRouter(config.getZone(), config.getRegion(),
+        config.getMinHealthyPercent(), config.getMaxUtilizationPercent());
+  }
+
+  /**
+   * File Discovery Bean (Spring lifecycle ile başlatılır)
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = "loadbalancer.file-discovery",
+      name = "enabled",
+      havingValue = "true")
+  public FileDiscovery fileDiscovery(LoadBalancerProperties properties,
+      ServiceRegistry serviceRegistry) {
+    LoadBalancerProperties.FileDiscoveryConfig config = properties.getFileDiscovery();
+    if (config.getPath() == null || config.getPath().isBlank()) {
+      throw new IllegalStateException(
+          "loadbalancer.file-discovery.path is required when file discovery is enabled");
+    }
+
+    return new FileDiscovery(serviceRegistry, Path.of(config.getPath()),
+        config.getDebounceMs());
+  }
+
+  /**
+   * DNS Discovery Bean
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = "loadbalancer.dns-discovery",
+      name = "enabled",
+      havingValue = "true")
+  public DnsDiscovery dnsDiscovery(LoadBalancerProperties properties,
+      ServiceRegistry serviceRegistry) {
+    LoadBalancerProperties.DnsDiscoveryConfig config = properties.getDnsDiscovery();
+    DnsResolver resolver = config.getStubFile() != null && !config.getStubFile().isBlank()
+        ? new StubDnsResolver(Path.of(config.getStubFile()))
+        : DnsResolver.system();
+
+    return new DnsDiscovery(serviceRegistry, properties, resolver);
+  }
+
   /**
    * Sticky Session Manager Bean
    */
@@ -81,6 +352,122 @@ public class FeaturesConfig {
         RateLimiter.Algorithm.TOKEN_BUCKET);
   }
 
+  @Bean
+  @ConditionalOnProperty(prefix = "loadbalancer.concurrency-limit",
+      name = "enabled",
+      havingValue = "false",
+      matchIfMissing = true)
+  public ConcurrencyLimiter noOpConcurrencyLimiter() {
+    return new ConcurrencyLimiter(ConcurrencyLimiter.Algorithm.GRADIENT, Integer.MAX_VALUE,
+        Integer.MAX_VALUE, Integer.MAX_VALUE, 0, 1);
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "loadbalancer.load-shedding",
+      name = "enabled",
+      havingValue = "false",
+      matchIfMissing = true)
+  public LoadShedder noOpLoadShedder() {
+    return new LoadShedder(List.of(),
+        new LoadShedder.RequestClass("default", LoadShedder.Priority.CRITICAL, Set.of(), null),
+        Long.MAX_VALUE / 1_000_000, 1000);
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "loadbalancer.hedging",
+      name = "enabled",
+      havingValue = "false",
+      matchIfMissing = true)
+  public HedgingManager noOpHedgingManager() {
+    return new HedgingManager(Set.of(), null, 0, 0);
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "loadbalancer.mirroring",
+      name = "enabled",
+      havingValue = "false",
+      matchIfMissing = true)
+  public TrafficMirror noOpTrafficMirror(ServiceRegistry serviceRegistry,
+      TrafficSplitter trafficSplitter, LoadShedder loadShedder) {
+    return new TrafficMirror(serviceRegistry, trafficSplitter, loadShedder, Set.of(), 0, 0, 0,
+        "", Map.of());
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "loadbalancer.retry",
+      name = "enabled",
+      havingValue = "false",
+      matchIfMissing = true)
+  public RetryManager noOpRetryManager() {
+    return new RetryManager(0);
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "loadbalancer.cache",
+      name = "enabled",
+      havingValue = "false",
+      matchIfMissing = true)
+  public ResponseCache noOpResponseCache() {
+    return new ResponseCache(0, 4096, 4096, 0);
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "loadbalancer.coalescing",
+      name = "enabled",
+      havingValue = "false",
+      matchIfMissing = true)
+  public RequestCoalescer noOpRequestCoalescer() {
+    return new RequestCoalescer(Set.of(), List.of(), null, 0);
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "loadbalancer.compression",
+      name = "enabled",
+      havingValue = "false",
+      matchIfMissing = true)
+  public ResponseCompressor noOpResponseCompressor() {
+    return new ResponseCompressor(Deflater.DEFAULT_COMPRESSION,
+        new ResponseCompressor.Rules(Integer.MAX_VALUE, List.of()), Map.of(), 0);
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "loadbalancer.outlier-detection",
+      name = "enabled",
+      havingValue = "false",
+      matchIfMissing = true)
+  public OutlierDetector noOpOutlierDetector(ServiceRegistry serviceRegistry) {
+    return new OutlierDetector(serviceRegistry, Long.MAX_VALUE, Integer.MAX_VALUE, 101,
+        Integer.MAX_VALUE, Double.MAX_VALUE, Integer.MAX_VALUE, 0, 0, 0);
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "loadbalancer.locality",
+      name = "enabled",
+      havingValue = "false",
+      matchIfMissing = true)
+  public LocalityRouter noOpLocalityRouter() {
+    return new LocalityRouter(null, null, 100, 100);
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "loadbalancer.file-discovery",
+      name = "enabled",
+      havingValue = "false",
+      matchIfMissing = true)
+  public FileDiscovery noOpFileDiscovery(ServiceRegistry serviceRegistry) {
+    return new FileDiscovery(serviceRegistry, null, 0);
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "loadbalancer.dns-discovery",
+      name = "enabled",
+      havingValue = "false",
+      matchIfMissing = true)
+  public DnsDiscovery noOpDnsDiscovery(LoadBalancerProperties properties,
+      ServiceRegistry serviceRegistry) {
+    return new DnsDiscovery(serviceRegistry, properties, null);
+  }
+
   @Bean
   @ConditionalOnProperty(prefix = "loadbalancer.sticky-session",
       name = "enabled",
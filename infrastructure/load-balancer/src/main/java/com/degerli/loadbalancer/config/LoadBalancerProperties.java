@@ -1,6 +1,7 @@
 package com.degerli.loadbalancer.config;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import lombok.Data;
@@ -50,7 +51,8 @@ public class LoadBalancerProperties {
 
   /**
    * Load balancing algoritması
-   * Olası değerler: ROUND_ROBIN, LEAST_CONNECTIONS, IP_HASH, WEIGHTED_ROUND_ROBIN, RANDOM
+   * Olası değerler: ROUND_ROBIN, LEAST_CONNECTIONS, IP_HASH, WEIGHTED_ROUND_ROBIN, RANDOM,
+   * LOAD_AWARE
    * Default: ROUND_ROBIN (YAML'da override edilebilir)
    */
   private Algorithm algorithm = Algorithm.ROUND_ROBIN;
@@ -73,12 +75,44 @@ public class LoadBalancerProperties {
    */
   private long healthCheckTimeout = 2000;
 
+  /**
+   * Health check endpoint'i (upstream URL'ine eklenir)
+   * Default: /actuator/health (YAML'da override edilebilir)
+   */
+  private String healthCheckPath = "/actuator/health";
+
+  /**
+   * Unhealthy server'ın tekrar healthy sayılması için art arda başarılı check sayısı
+   * Default: 2 (YAML'da override edilebilir)
+   */
+  private int healthCheckRise = 2;
+
+  /**
+   * Healthy server'ın unhealthy sayılması için art arda başarısız check sayısı
+   * Default: 3 (YAML'da override edilebilir)
+   */
+  private int healthCheckFall = 3;
+
+  /**
+   * Check aralığına eklenen rastgele sapma (interval'in yüzdesi)
+   * Check'lerin aynı anda başlamasını önler.
+   * Default: 10 (YAML'da override edilebilir)
+   */
+  private int healthCheckJitterPercent = 10;
+
   /**
    * Backend servislerin tanımları
    * YAML'dan doldurulması zorunludur (null ise NPE riski!)
    */
   private Map<String, ServiceConfig> services;
 
+  /**
+   * Route tanımları (opsiyonel)
+   * Default: boş liste → her servis için "/{serviceName}" prefix'li route otomatik oluşturulur
+   * Tanımlanan route'lar otomatik route'lardan önce değerlendirilir
+   */
+  private List<RouteConfig> routes = new ArrayList<>();
+
   @Data
   public static class ServiceConfig {
     /**
@@ -92,6 +126,176 @@ public class LoadBalancerProperties {
      * Default: null → parent algorithm kullanılır
      */
     private Algorithm algorithm;
+
+    /**
+     * Bu servise giden request'lerin toplam süre bütçesi (milisaniye, opsiyonel)
+     * Default: null → timeouts.request-timeout-ms kullanılır
+     */
+    private Long timeoutMs;
+
+    /**
+     * Bu servis için sıkıştırma eşiği (byte, opsiyonel)
+     * Default: null → compression.min-size-bytes kullanılır
+     */
+    private Integer compressionMinSizeBytes;
+
+    /**
+     * Bu servis için sıkıştırılacak content-type'lar (opsiyonel, boş liste → hiçbiri)
+     * Default: null → compression.content-types kullanılır
+     */
+    private List<String> compressionContentTypes;
+
+    /**
+     * Bu servis için health check ayarları (opsiyonel)
+     * Default: null → global health-check-* ayarları kullanılır
+     */
+    private HealthCheckConfig healthCheck;
+
+    /**
+     * Bu servis için slow start ayarları (opsiyonel)
+     * Default: null → slow start kapalı
+     */
+    private SlowStartConfig slowStart;
+
+    /**
+     * DNS discovery (opsiyonel): url'deki hostname'in tüm A/AAAA kayıtları ayrı upstream olur,
+     * weight/max-connections/zone her kayda uygulanır. upstreams ile birlikte kullanılabilir.
+     * Sadece http url'leri desteklenir (IP'li https url'i TLS hostname doğrulamasını bozar).
+     * Default: null → DNS discovery kapalı (dns-discovery.enabled da gerekir)
+     */
+    private ServerConfig dns;
+
+    /**
+     * Blue-green/canary environment'ları (opsiyonel); runtime'da admin API ile de tanımlanabilir
+     * Default: null → trafik bölünmez
+     */
+    private BlueGreenConfig deployment;
+
+    /**
+     * Trafik aynalama (opsiyonel); runtime'da admin API ile de ayarlanabilir
+     * Default: null → aynalanmaz (mirroring.enabled da gerekir)
+     */
+    private MirrorConfig mirror;
+  }
+
+  /**
+   * Servisin trafiğinin bir kısmının kopyasının gönderileceği hedef
+   * environment veya service'ten biri verilmelidir.
+   */
+  @Data
+  public static class MirrorConfig {
+    /**
+     * Aynalanacak request yüzdesi (0-100)
+     * Default: 0 (YAML'da override edilebilir)
+     */
+    private double percent = 0;
+
+    /**
+     * Aynı servisin environment'ı (blue/green, deployment tanımı gerekir)
+     * Default: null (YAML'da override edilebilir)
+     */
+    private String environment;
+
+    /**
+     * Kopyaların gönderileceği başka bir servis
+     * Default: null (YAML'da override edilebilir)
+     */
+    private String service;
+  }
+
+  /**
+   * Servisin upstream'lerinin blue ve green environment'larına ayrılması
+   */
+  @Data
+  public static class BlueGreenConfig {
+    /**
+     * Blue environment'ın upstream url'leri
+     * Default: boş liste (YAML'da doldurulmalı)
+     */
+    private List<String> blue = new ArrayList<>();
+
+    /**
+     * Green environment'ın upstream url'leri
+     * Default: boş liste (YAML'da doldurulmalı)
+     */
+    private List<String> green = new ArrayList<>();
+
+    /**
+     * Başlangıçta green'e giden trafik yüzdesi (%0.1 çözünürlük, ör. 2.5)
+     * Default: 0 (YAML'da override edilebilir)
+     */
+    private double greenTrafficPercent = 0;
+  }
+
+  /**
+   * Yeni eklenen veya düzelen (health check, circuit breaker, outlier ejection) server'ın
+   * ağırlığını pencere boyunca küçük bir orandan tam değere çıkarır
+   */
+  @Data
+  public static class SlowStartConfig {
+    /**
+     * Isınma penceresi (saniye), 0 → kapalı
+     * Default: 0 (YAML'da override edilebilir)
+     */
+    private long windowSeconds = 0;
+
+    /**
+     * Eğri: 1.0 → lineer, büyük değerler → başta daha hızlı artış (ağırlık = t^(1/aggression))
+     * Default: 1.0 (YAML'da override edilebilir)
+     */
+    private double aggression = 1.0;
+
+    /**
+     * Pencere başındaki minimum ağırlık yüzdesi
+     * Default: 10 (YAML'da override edilebilir)
+     */
+    private int minWeightPercent = 10;
+  }
+
+  /**
+   * Servis bazlı health check ayarları, verilmeyen alanlar global ayardan gelir
+   */
+  @Data
+  public static class HealthCheckConfig {
+    /**
+     * Health check endpoint'i
+     * Default: null → health-check-path
+     */
+    private String path;
+
+    /**
+     * Başarılı sayılan HTTP status kodları
+     * Default: null → 2xx
+     */
+    private List<Integer> expectedStatuses;
+
+    /**
+     * Response body'de geçmesi gereken metin (örn: "UP")
+     * Default: null → body kontrol edilmez
+     */
+    private String expectedBody;
+
+    /**
+     * Check aralığı (milisaniye)
+     * Default: null → health-check-interval
+     */
+    private Long intervalMs;
+
+    /**
+     * Check timeout'u (milisaniye)
+     * Default: null → health-check-timeout
+     */
+    private Long timeoutMs;
+
+    /**
+     * Default: null → health-check-rise
+     */
+    private Integer rise;
+
+    /**
+     * Default: null → health-check-fall
+     */
+    private Integer fall;
   }
 
   @Data
@@ -113,6 +317,83 @@ public class LoadBalancerProperties {
      * Default: 100 (YAML'da override edilebilir)
      */
     private int maxConnections = 100;
+
+    /**
+     * Server'ın zone'u (örn: zone-a), locality aware routing için
+     * Default: null → hiçbir zone'a yerel sayılmaz
+     */
+    private String zone;
+
+    /**
+     * Server'ın region'ı (örn: eu-west)
+     * Default: null
+     */
+    private String region;
+  }
+
+  @Data
+  public static class RouteConfig {
+    /**
+     * Route ismi (log ve admin API'de görünür)
+     * Default: null → "{service}:{pathPrefix}" kullanılır
+     */
+    private String id;
+
+    /**
+     * Hedef servis ismi (services altındaki key)
+     * YAML'dan doldurulması zorunludur
+     */
+    private String service;
+
+    /**
+     * Eşleşecek path prefix'i (segment sınırında eşleşir: /kisakes, /kisakesX'i kapsamaz)
+     * YAML'dan doldurulması zorunludur
+     */
+    private String pathPrefix;
+
+    /**
+     * Eşleşecek host isimleri (örn: api.example.com, *.example.com)
+     * Default: boş → tüm hostlar
+     */
+    private List<String> hosts = new ArrayList<>();
+
+    /**
+     * Eşleşmesi gereken header'lar (değer "*" ise sadece varlığı kontrol edilir)
+     * Default: boş → header koşulu yok
+     */
+    private Map<String, String> headers = new LinkedHashMap<>();
+
+    /**
+     * Backend path şablonu
+     * {path}   → orijinal request path'i
+     * {suffix} → prefix'ten sonra kalan kısım
+     * Default: {path} (path olduğu gibi iletilir)
+     */
+    private String rewrite = "{path}";
+
+    /**
+     * Bu route'un toplam süre bütçesi (milisaniye, opsiyonel)
+     * Default: null → servisin timeout-ms'i, o da yoksa timeouts.request-timeout-ms kullanılır
+     */
+    private Long timeoutMs;
+
+    /**
+     * Bu route için sabit hedge delay (milisaniye, opsiyonel)
+     * Default: null → hedging.delay-ms, o da yoksa servisin canlı p95'i kullanılır
+     */
+    private Long hedgeDelayMs;
+
+    /**
+     * Bu route için toplam deneme sayısı (ilk deneme dahil, opsiyonel)
+     * Default: null → retry.max-attempts kullanılır
+     */
+    private Integer maxAttempts;
+
+    /**
+     * Bu route için tekrar denenecek durumlar (opsiyonel)
+     * Default: null → retry.retry-on kullanılır
+     */
+    private List<String> retryOn;
   }
 
   public enum Algorithm {
@@ -120,7 +401,8 @@ public class LoadBalancerProperties {
     LEAST_CONNECTIONS,     // En az bağlantısı olana gönder
     IP_HASH,              // Client IP'sine göre hash
     WEIGHTED_ROUND_ROBIN, // Ağırlıklı dağıtım
-    RANDOM                // Rastgele
+    RANDOM,               // Rastgele
+    LOAD_AWARE            // Backend yük raporlarına göre ağırlıklı
   }
 
   // Circuit Breaker Configuration
@@ -186,6 +468,703 @@ public class LoadBalancerProperties {
     private String algorithm = "TOKEN_BUCKET";
   }
 
+  // Adaptive Concurrency Limit Configuration
+  @Data
+  public static class ConcurrencyLimitConfig {
+    /**
+     * Servis başına adaptive concurrency limit aktif mi?
+     * Default: false (YAML'da override edilebilir)
+     */
+    private boolean enabled = false;
+
+    /**
+     * Limit tahmin algoritması
+     * Olası değerler: GRADIENT, VEGAS
+     * Default: GRADIENT (YAML'da override edilebilir)
+     */
+    private String algorithm = "GRADIENT";
+
+    /**
+     * Başlangıç in-flight limiti
+     * Default: 20 (YAML'da override edilebilir)
+     */
+    private int initialLimit = 20;
+
+    /**
+     * Limitin inebileceği en düşük değer
+     * Default: 4 (YAML'da override edilebilir)
+     */
+    private int minLimit = 4;
+
+    /**
+     * Limitin çıkabileceği en yüksek değer
+     * Default: 500 (YAML'da override edilebilir)
+     */
+    private int maxLimit = 500;
+
+    /**
+     * Yeni tahminin limite yansıma oranı (0.0 - 1.0)
+     * Default: 0.2 (YAML'da override edilebilir)
+     */
+    private double smoothing = 0.2;
+
+    /**
+     * GRADIENT: kısa dönem RTT'nin uzun dönem RTT'yi kaç kat aşmasına tolerans gösterilir
+     * Default: 1.5 (YAML'da override edilebilir)
+     */
+    private double rttTolerance = 1.5;
+
+    /**
+     * Reddedilen request'lere dönülen Retry-After değeri (saniye)
+     * Default: 1s (YAML'da override edilebilir)
+     */
+    private long retryAfterSeconds = 1;
+  }
+
+  // Load Shedding Configuration
+  @Data
+  public static class LoadSheddingConfig {
+    /**
+     * Priority-aware load shedding aktif mi?
+     * Default: false (YAML'da override edilebilir)
+     */
+    private boolean enabled = false;
+
+    /**
+     * Kabul edilebilir kuyruk bekleme süresi (milisaniye, CoDel target)
+     * Default: 5ms (YAML'da override edilebilir)
+     */
+    private long targetDelayMs = 5;
+
+    /**
+     * Min bekleme süresinin değerlendirildiği pencere (milisaniye, CoDel interval)
+     * Default: 100ms (YAML'da override edilebilir)
+     */
+    private long intervalMs = 100;
+
+    /**
+     * Hiçbir sınıfa uymayan request'lerin önceliği
+     * Olası değerler: CRITICAL, NORMAL, SHEDDABLE
+     * Default: NORMAL (YAML'da override edilebilir)
+     */
+    private String defaultPriority = "NORMAL";
+
+    /**
+     * Reddedilen request'lere dönülen Retry-After değeri (saniye)
+     * Default: 1s (YAML'da override edilebilir)
+     */
+    private long retryAfterSeconds = 1;
+
+    /**
+     * Request sınıfları (ilk eşleşen kazanır)
+     * Default: boş liste → tüm request'ler default önceliği alır
+     */
+    private List<RequestClassConfig> requestClasses = new ArrayList<>();
+  }
+
+  @Data
+  public static class RequestClassConfig {
+    /**
+     * Sınıf ismi (metric tag'i olarak kullanılır)
+     * YAML'dan doldurulması zorunludur
+     */
+    private String name;
+
+    /**
+     * Sınıfın önceliği
+     * Olası değerler: CRITICAL, NORMAL, SHEDDABLE
+     * Default: NORMAL (YAML'da override edilebilir)
+     */
+    private String priority = "NORMAL";
+
+    /**
+     * Eşleşecek HTTP metodları
+     * Default: boş → tüm metodlar
+     */
+    private List<String> methods = new ArrayList<>();
+
+    /**
+     * Eşleşecek path pattern'i (örn: /kisakes/kisakes/{code}, /{service}/actuator/**)
+     * Default: null → tüm path'ler
+     */
+    private String pathPattern;
+  }
+
+  // Hedged Requests Configuration
+  @Data
+  public static class HedgingConfig {
+    /**
+     * Idempotent request'ler için hedging aktif mi?
+     * Default: false (YAML'da override edilebilir)
+     */
+    private boolean enabled = false;
+
+    /**
+     * Hedge edilecek HTTP metodları (sadece idempotent metodlar verilmeli)
+     * Default: GET, HEAD (YAML'da override edilebilir)
+     */
+    private List<String> methods = new ArrayList<>(List.of("GET", "HEAD"));
+
+    /**
+     * Sabit hedge delay (milisaniye)
+     * Default: null → servisin canlı p95 response süresi kullanılır
+     */
+    private Long delayMs;
+
+    /**
+     * p95'ten türetilen delay'in alt sınırı (milisaniye)
+     * Default: 5ms (YAML'da override edilebilir)
+     */
+    private long minDelayMs = 5;
+
+    /**
+     * Hedge request'lerin trafiğe oranla üst sınırı (yüzde)
+     * Default: 10 (YAML'da override edilebilir)
+     */
+    private double budgetPercent = 10;
+  }
+
+  // Traffic Mirroring Configuration
+  @Data
+  public static class MirroringConfig {
+    /**
+     * Servislerin mirror ayarına göre trafik aynalama aktif mi?
+     * Default: false (YAML'da override edilebilir)
+     */
+    private boolean enabled = false;
+
+    /**
+     * Aynalanacak HTTP metodları (yan etkisi olan metodlar bilinçli eklenmeli)
+     * Default: GET, HEAD (YAML'da override edilebilir)
+     */
+    private List<String> methods = new ArrayList<>(List.of("GET", "HEAD"));
+
+    /**
+     * Aynı anda en fazla kaç kopya request (dolunca yeni kopyalar düşürülür)
+     * Default: 64 (YAML'da override edilebilir)
+     */
+    private int maxConcurrent = 64;
+
+    /**
+     * Kopya request'lerin HTTP client thread sayısı
+     * Default: 2 (YAML'da override edilebilir)
+     */
+    private int threads = 2;
+
+    /**
+     * Kopya request timeout'u (milisaniye)
+     * Default: 5000 (YAML'da override edilebilir)
+     */
+    private long timeoutMs = 5000;
+
+    /**
+     * Kopya request'e eklenen header (değer: true); backend yan etkileri atlayabilsin
+     * Default: X-Shadow-Request (YAML'da override edilebilir)
+     */
+    private String shadowHeader = "X-Shadow-Request";
+  }
+
+  // Retry Configuration
+  @Data
+  public static class RetryConfig {
+    /**
+     * Başka upstream'lerde retry aktif mi?
+     * Default: false (YAML'da override edilebilir)
+     */
+    private boolean enabled = false;
+
+    /**
+     * Toplam deneme sayısı (ilk deneme dahil)
+     * Default: 2 (YAML'da override edilebilir)
+     */
+    private int maxAttempts = 2;
+
+    /**
+     * Tekrar denenecek durumlar
+     * Olası değerler: CONNECT_FAILURE, RESET, TIMEOUT veya HTTP status kodu (örn: 503)
+     * CONNECT_FAILURE her metod için, diğerleri sadece idempotent metodlar için uygulanır
+     * Default: CONNECT_FAILURE, RESET, 503 (YAML'da override edilebilir)
+     */
+    private List<String> retryOn = new ArrayList<>(List.of("CONNECT_FAILURE", "RESET", "503"));
+
+    /**
+     * Idempotent kabul edilen HTTP metodları
+     * Default: GET, HEAD, OPTIONS, PUT, DELETE (YAML'da override edilebilir)
+     */
+    private List<String> idempotentMethods = new ArrayList<>(
+        List.of("GET", "HEAD", "OPTIONS", "PUT", "DELETE"));
+
+    /**
+     * Retry'ların trafiğe oranla üst sınırı (yüzde)
+     * Default: 10 (YAML'da override edilebilir)
+     */
+    private double budgetPercent = 10;
+  }
+
+  // Response Cache Configuration
+  @Data
+  public static class CacheConfig {
+    /**
+     * Load balancer içi HTTP response cache aktif mi?
+     * Default: false (YAML'da override edilebilir)
+     */
+    private boolean enabled = false;
+
+    /**
+     * Body'ler için ayrılacak toplam off-heap bellek (MB)
+     * Default: 64 (YAML'da override edilebilir)
+     */
+    private int maxSizeMb = 64;
+
+    /**
+     * Off-heap sayfa boyutu (byte); her body en az bir sayfa kaplar
+     * Default: 4096 (YAML'da override edilebilir)
+     */
+    private int pageSizeBytes = 4096;
+
+    /**
+     * Tek seferde ayrılan direct buffer slab boyutu (MB)
+     * Default: 4 (YAML'da override edilebilir)
+     */
+    private int slabSizeMb = 4;
+
+    /**
+     * Bu boyuttan büyük cevaplar cache'lenmez (KB)
+     * Default: 1024 (YAML'da override edilebilir)
+     */
+    private int maxEntrySizeKb = 1024;
+  }
+
+  // Request Coalescing Configuration
+  @Data
+  public static class CoalescingConfig {
+    /**
+     * Özdeş eşzamanlı request'lerin tek upstream çağrısını paylaşması aktif mi?
+     * Default: false (YAML'da override edilebilir)
+     */
+    private boolean enabled = false;
+
+    /**
+     * Birleştirilebilecek HTTP metodları
+     * Default: GET, HEAD (YAML'da override edilebilir)
+     */
+    private List<String> methods = new ArrayList<>(List.of("GET", "HEAD"));
+
+    /**
+     * Request'lerin özdeş sayılması için aynı olması gereken header'lar
+     * Default: Accept, Accept-Encoding, Accept-Language (YAML'da override edilebilir)
+     */
+    private List<String> varyHeaders = new ArrayList<>(
+        List.of("Accept", "Accept-Encoding", "Accept-Language"));
+
+    /**
+     * Follower'ın leader cevabını bekleyeceği en uzun süre (milisaniye)
+     * Süre dolarsa follower kendi upstream çağrısını yapar
+     * Default: 1000ms (YAML'da override edilebilir)
+     */
+    private long maxWaitMs = 1000;
+  }
+
+  // Response Compression Configuration
+  @Data
+  public static class CompressionConfig {
+    /**
+     * Cevapların load balancer'da gzip'lenmesi aktif mi?
+     * Default: false (YAML'da override edilebilir)
+     */
+    private boolean enabled = false;
+
+    /**
+     * Deflate seviyesi (1 = en hızlı, 9 = en küçük)
+     * Default: 5 (YAML'da override edilebilir)
+     */
+    private int level = 5;
+
+    /**
+     * Bu boyuttan küçük body'ler sıkıştırılmaz (byte)
+     * Default: 1024 (YAML'da override edilebilir)
+     */
+    private int minSizeBytes = 1024;
+
+    /**
+     * Sıkıştırılacak content-type'lar (wildcard desteklenir, örn: text/*)
+     * Default: JSON, XML, JavaScript, SVG ve text/* (YAML'da override edilebilir)
+     */
+    private List<String> contentTypes = new ArrayList<>(List.of(
+        "application/json", "application/*+json", "application/xml", "application/javascript",
+        "image/svg+xml", "text/*"));
+
+    /**
+     * Tekrar eden cevapların sıkıştırılmış halleri için ayrılan bellek (MB)
+     * Default: 8 (YAML'da override edilebilir)
+     */
+    private int variantCacheSizeMb = 8;
+  }
+
+  // Locality Aware Routing Configuration
+  @Data
+  public static class LocalityConfig {
+    /**
+     * Aynı zone'daki upstream'leri tercih et
+     * Default: false (YAML'da override edilebilir)
+     */
+    private boolean enabled = false;
+
+    /**
+     * Load balancer instance'ının zone'u (enabled ise zorunlu)
+     * Default: null (YAML'da veya LOADBALANCER_LOCALITY_ZONE ile verilmeli)
+     */
+    private String zone;
+
+    /**
+     * Load balancer instance'ının region'ı, taşan trafik önce bu region'daki zone'lara gider
+     * Default: null (YAML'da override edilebilir)
+     */
+    private String region;
+
+    /**
+     * Sağlıklı yerel server oranı bunun altına düşünce trafik orantılı olarak dışarı taşar
+     * Default: 70 (YAML'da override edilebilir)
+     */
+    private int minHealthyPercent = 70;
+
+    /**
+     * Yerel in-flight / max-connections oranı bunu aşınca trafik orantılı olarak dışarı taşar
+     * Default: 80 (YAML'da override edilebilir)
+     */
+    private int maxUtilizationPercent = 80;
+  }
+
+  // File Discovery Configuration
+  @Data
+  public static class FileDiscoveryConfig {
+    /**
+     * Upstream tanımlarını izlenen dosyadan oku
+     * Default: false (YAML'da override edilebilir)
+     */
+    private boolean enabled = false;
+
+    /**
+     * İzlenecek YAML/JSON dosyası (enabled ise zorunlu)
+     * Default: null (YAML'da override edilebilir)
+     */
+    private String path;
+
+    /**
+     * Son dosya değişikliğinden sonra reload için beklenecek süre (milisaniye)
+     * Default: 200 (YAML'da override edilebilir)
+     */
+    private long debounceMs = 200;
+  }
+
+  // DNS Discovery Configuration
+  @Data
+  public static class DnsDiscoveryConfig {
+    /**
+     * dns ayarı olan servislerin hostname'lerini periyodik çözümle
+     * Default: false (YAML'da override edilebilir)
+     */
+    private boolean enabled = false;
+
+    /**
+     * Resolver TTL vermediğinde (JDK resolver) kullanılacak yenileme aralığı (saniye)
+     * Default: 30 (YAML'da override edilebilir)
+     */
+    private long defaultTtlSeconds = 30;
+
+    /**
+     * TTL alt sınırı (saniye), çok kısa TTL'lerin resolver'ı boğmasını önler
+     * Default: 1 (YAML'da override edilebilir)
+     */
+    private long minTtlSeconds = 1;
+
+    /**
+     * TTL üst sınırı (saniye), uzun TTL'de bile kayıt değişikliği bu sürede fark edilir
+     * Default: 300 (YAML'da override edilebilir)
+     */
+    private long maxTtlSeconds = 300;
+
+    /**
+     * Çözümleme başarısız olunca tekrar deneme aralığı (saniye)
+     * Default: 5 (YAML'da override edilebilir)
+     */
+    private long failureRetrySeconds = 5;
+
+    /**
+     * Stub resolver dosyası ("hostname ttl ip..." satırları; offline test ve yerel ortam için)
+     * Default: null → JDK resolver kullanılır (YAML'da override edilebilir)
+     */
+    private String stubFile;
+  }
+
+  // Connection Draining Configuration
+  @Data
+  public static class DrainConfig {
+    /**
+     * Drain edilen server'ın in-flight request/WebSocket'lerinin bitmesi için en uzun bekleme
+     * (saniye); dolunca server DRAINED sayılır ve kalan WebSocket'ler kapatılır
+     * Default: 30 (YAML'da override edilebilir)
+     */
+    private long timeoutSeconds = 30;
+
+    /**
+     * Drain bitince havuzdaki boşta upstream bağlantılarını kapat
+     * Default: true (YAML'da override edilebilir)
+     */
+    private boolean closeIdleConnections = true;
+  }
+
+  // Deployment (Blue-Green / Canary Traffic Split) Configuration
+  @Data
+  public static class DeploymentConfig {
+    /**
+     * Environment'ı trafik payından bağımsız seçen header (değer: blue/green), ör.
+     * X-Deployment-Environment; yeni versiyonu trafik vermeden test etmek için
+     * Default: null → kapalı (YAML'da override edilebilir)
+     */
+    private String environmentHeader;
+
+    /**
+     * Kullanıcıyı bir environment'a sabitleyen key header'ı (değerin hash'i kullanılır)
+     * Default: X-User-Id (YAML'da override edilebilir)
+     */
+    private String keyHeader = "X-User-Id";
+
+    /**
+     * Key header'ı yoksa kullanıcıyı sabitleyen cookie
+     * Default: LB_SESSION_ID (YAML'da override edilebilir)
+     */
+    private String keyCookie = "LB_SESSION_ID";
+  }
+
+  // Canary Analysis Configuration
+  @Data
+  public static class CanaryAnalysisConfig {
+    /**
+     * Kademeli switch'in her adımı canary/baseline karşılaştırmasıyla mı ilerlesin?
+     * Başarısız adım otomatik rollback yapar. false → adımlar sadece süreye göre ilerler
+     * Default: true (YAML'da override edilebilir)
+     */
+    private boolean enabled = true;
+
+    /**
+     * Karar için adım penceresinde her environment'ın alması gereken en az request
+     * Default: 100 (YAML'da override edilebilir)
+     */
+    private long minimumRequests = 100;
+
+    /**
+     * Yetersiz veride adımın kaç aralık daha uzatılacağı; sonra rollback yapılır
+     * Default: 3 (YAML'da override edilebilir)
+     */
+    private int maxInconclusiveIntervals = 3;
+
+    /**
+     * Hata oranı testi (tek yönlü iki oran z-testi) için kritik değer; 2.33 ≈ %99 güven
+     * Default: 2.33 (YAML'da override edilebilir)
+     */
+    private double errorRateZScore = 2.33;
+
+    /**
+     * Canary hata oranının baseline'ı en fazla kaç puan aşabileceği (anlamlı olsa bile)
+     * Default: 1.0 (YAML'da override edilebilir)
+     */
+    private double errorRateMarginPercent = 1.0;
+
+    /**
+     * Canary p99 latency'sinin baseline p99'una en yüksek oranı
+     * Default: 1.2 (YAML'da override edilebilir)
+     */
+    private double maxLatencyRatio = 1.2;
+
+    /**
+     * p99 karşılaştırmasında oranın üstüne eklenen mutlak pay (milisaniye)
+     * Default: 10 (YAML'da override edilebilir)
+     */
+    private double latencyToleranceMs = 10;
+
+    /**
+     * Canary serverlarının en yüksek ortalama doluluğu (in-flight / max connection, yüzde)
+     * Default: 80 (YAML'da override edilebilir)
+     */
+    private double maxSaturationPercent = 80;
+
+    /**
+     * Request başına CPU'nun (backend yük raporundan) baseline'a en yüksek oranı
+     * Default: 1.5 (YAML'da override edilebilir)
+     */
+    private double maxCpuRatio = 1.5;
+
+    /**
+     * Doluluk ve CPU örnekleme aralığı (milisaniye)
+     * Default: 1000 (YAML'da override edilebilir)
+     */
+    private long sampleIntervalMs = 1000;
+  }
+
+  // Outlier Detection Configuration
+  @Data
+  public static class OutlierDetectionConfig {
+    /**
+     * Gerçek trafiğe göre pasif outlier ejection aktif mi?
+     * Default: false (YAML'da override edilebilir)
+     */
+    private boolean enabled = false;
+
+    /**
+     * Değerlendirme aralığı (milisaniye)
+     * Default: 10000 (YAML'da override edilebilir)
+     */
+    private long intervalMs = 10000;
+
+    /**
+     * Anında ejection için art arda gateway hatası sayısı (502/503/504, bağlantı hatası)
+     * Default: 5 (YAML'da override edilebilir)
+     */
+    private int consecutiveGatewayFailures = 5;
+
+    /**
+     * Bir interval içinde bu oranda (yüzde) 5xx dönen server eject edilir
+     * Default: 20 (YAML'da override edilebilir)
+     */
+    private int failurePercentThreshold = 20;
+
+    /**
+     * Oran ve latency değerlendirmesi için server başına minimum request sayısı (interval içinde)
+     * Default: 20 (YAML'da override edilebilir)
+     */
+    private int minimumRequests = 20;
+
+    /**
+     * Ortalama latency'si diğer serverların medyanının bu katını aşan server eject edilir
+     * Default: 3.0 (YAML'da override edilebilir)
+     */
+    private double latencyFactor = 3.0;
+
+    /**
+     * Latency karşılaştırması için minimum request sayısına ulaşmış server sayısı
+     * Default: 3 (YAML'da override edilebilir)
+     */
+    private int minimumHosts = 3;
+
+    /**
+     * İlk ejection süresi, her tekrar eden ejection'da ikiye katlanır (milisaniye)
+     * Default: 30000 (YAML'da override edilebilir)
+     */
+    private long baseEjectionMs = 30000;
+
+    /**
+     * Ejection süresinin üst sınırı (milisaniye)
+     * Default: 300000 (YAML'da override edilebilir)
+     */
+    private long maxEjectionMs = 300000;
+
+    /**
+     * Bir servisin aynı anda ejected olabilecek server oranı (yüzde, en az bir server)
+     * Default: 50 (YAML'da override edilebilir)
+     */
+    private int maxEjectionPercent = 50;
+  }
+
+  // Timeout / Deadline Configuration
+  @Data
+  public static class TimeoutConfig {
+    /**
+     * Route/servis için bütçe tanımlı değilse kullanılan toplam süre bütçesi (milisaniye)
+     * Default: 30000ms (YAML'da override edilebilir)
+     */
+    private long requestTimeoutMs = 30000;
+
+    /**
+     * Upstream bağlantı kurma timeout'u (milisaniye)
+     * Default: 2000ms (YAML'da override edilebilir)
+     */
+    private long connectTimeoutMs = 2000;
+
+    /**
+     * Kalan bütçe bu değerin altındaysa upstream'e gidilmeden 504 dönülür (milisaniye)
+     * Default: 10ms (YAML'da override edilebilir)
+     */
+    private long minRemainingBudgetMs = 10;
+
+    /**
+     * Deadline'ın taşındığı header (değer: epoch milisaniye)
+     * Client bu header'ı gönderirse route bütçesiyle karşılaştırılır ve erken olan kullanılır
+     * Default: X-Request-Deadline (YAML'da override edilebilir)
+     */
+    private String deadlineHeader = "X-Request-Deadline";
+  }
+
+  // WebSocket Relay Configuration
+  @Data
+  public static class WebSocketRelayConfig {
+    /**
+     * Her yönün (client → backend, backend → client) session başına gönderim buffer'ı (KB);
+     * aşılınca overflow policy uygulanır
+     * Default: 512 (YAML'da override edilebilir)
+     */
+    private int sendBufferSizeKb = 512;
+
+    /**
+     * Tek bir frame gönderiminin en uzun süresi (milisaniye); aşan session kapatılır
+     * Default: 10000 (YAML'da override edilebilir)
+     */
+    private long sendTimeLimitMs = 10000;
+
+    /**
+     * Buffer dolunca: DROP → en eski mesajlar düşürülür, CLOSE → session kapatılır,
+     * PAUSE → karşı tarafın okuması buffer yarıya inene kadar duraklatılır
+     * Default: PAUSE (YAML'da override edilebilir)
+     */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.PAUSE;
+
+    /**
+     * Backend'e giden frame'leri gönderen ve session'ları kapatan relay thread sayısı; client'a
+     * gönderimler asenkron yapıldığından thread tutmaz
+     * Default: 8 (YAML'da override edilebilir)
+     */
+    private int relayThreads = 8;
+
+    /**
+     * WebSocket upgrade'inde server'ı strategy yerine açık socket sayısına (ağırlığa göre) göre
+     * seç; false → servisin algoritması (ör. IP_HASH ile affinity)
+     * Default: true (YAML'da override edilebilir)
+     */
+    private boolean selectBySocketCount = true;
+
+    /**
+     * Scale-out sonrası dengesizlikte fazla yüklü serverların socket'lerinin bir kısmını 1012
+     * (Service Restart) ile kapat; client'lar yeniden bağlanıp boş serverlara dağılır
+     * Default: false (YAML'da override edilebilir)
+     */
+    private boolean rebalanceEnabled = false;
+
+    /**
+     * Dengesizlik kontrol aralığı (milisaniye); her aralıkta en fazla bir tur kapatma yapılır
+     * Default: 10000 (YAML'da override edilebilir)
+     */
+    private long rebalanceIntervalMs = 10000;
+
+    /**
+     * Server'ın socket sayısı ağırlık payının bu yüzde fazlasını aşarsa fazla yüklü sayılır
+     * Default: 25 (YAML'da override edilebilir)
+     */
+    private double rebalanceThresholdPercent = 25;
+
+    /**
+     * Fazla yüklü server'da bir turda kapatılacak socket'lerin oranı (en az 1, payın
+     * üzerindeki fazlayı aşmaz)
+     * Default: 5 (YAML'da override edilebilir)
+     */
+    private double rebalanceClosePercent = 5;
+  }
+
+  public enum OverflowPolicy {
+    DROP,   // En eski buffer'daki mesajları düşür (anlık veri, ör. fiyat akışı)
+    CLOSE,  // Session'ı kapat, client yeniden bağlansın
+    PAUSE   // Kaynağın okumasını duraklat (TCP backpressure)
+  }
+
   // SSL Configuration
   @Data
   public static class SslConfig {
@@ -239,6 +1218,23 @@ public class LoadBalancerProperties {
   // Features (default values burada tanımlı)
   private CircuitBreakerConfig circuitBreaker = new CircuitBreakerConfig();
   private RateLimitConfig rateLimit = new RateLimitConfig();
+  private ConcurrencyLimitConfig concurrencyLimit = new ConcurrencyLimitConfig();
+  private LoadSheddingConfig loadShedding = new LoadSheddingConfig();
+  private TimeoutConfig timeouts = new TimeoutConfig();
+  private HedgingConfig hedging = new HedgingConfig();
+  private MirroringConfig mirroring = new MirroringConfig();
+  private RetryConfig retry = new RetryConfig();
+  private CacheConfig cache = new CacheConfig();
+  private CoalescingConfig coalescing = new CoalescingConfig();
+  private CompressionConfig compression = new CompressionConfig();
+  private OutlierDetectionConfig outlierDetection = new OutlierDetectionConfig();
+  private LocalityConfig locality = new LocalityConfig();
+  private FileDiscoveryConfig fileDiscovery = new FileDiscoveryConfig();
+  private DnsDiscoveryConfig dnsDiscovery = new DnsDiscoveryConfig();
+  private DrainConfig drain = new DrainConfig();
+  private DeploymentConfig deployment = new DeploymentConfig();
+  private CanaryAnalysisConfig canaryAnalysis = new CanaryAnalysisConfig();
+  private WebSocketRelayConfig websocket = new WebSocketRelayConfig();
   private SslConfig ssl = new SslConfig();
   private StickySessionConfig stickySession = new StickySessionConfig();
 }
\ No newline at end of file
@@ -2,23 +2,47 @@ package com.degerli.loadbalancer.controller;
 
 import com.degerli.loadbalancer.config.LoadBalancerProperties;
 import com.degerli.loadbalancer.config.LoadBalancerProperties.Algorithm;
+import com.degerli.loadbalancer.cache.ResponseCache;
 import com.degerli.loadbalancer.circuitbreaker.CircuitBreaker;
+import com.degerli.loadbalancer.coalescing.RequestCoalescer;
+import com.degerli.loadbalancer.compression.ResponseCompressor;
+import com.degerli.loadbalancer.concurrency.ConcurrencyLimiter;
+import com.degerli.loadbalancer.deployment.BlueGreenDeploymentManager;
+import com.degerli.loadbalancer.deployment.TrafficSplitter;
+import com.degerli.loadbalancer.discovery.DnsDiscovery;
+import com.degerli.loadbalancer.drain.ConnectionDrainer;
+import com.degerli.loadbalancer.discovery.FileDiscovery;
+import com.degerli.loadbalancer.health.HealthChecker;
+import com.degerli.loadbalancer.hedging.HedgingManager;
 import com.degerli.loadbalancer.model.Server;
+import com.degerli.loadbalancer.locality.LocalityRouter;
+import com.degerli.loadbalancer.mirroring.TrafficMirror;
+import com.degerli.loadbalancer.outlier.OutlierDetector;
 import com.degerli.loadbalancer.ratelimit.RateLimiter;
 import com.degerli.loadbalancer.registry.ServiceRegistry;
+import com.degerli.loadbalancer.retry.RetryManager;
+import com.degerli.loadbalancer.routing.Route;
+import com.degerli.loadbalancer.routing.RouteTable;
 import com.degerli.loadbalancer.session.StickySessionManager;
+import com.degerli.loadbalancer.shedding.LoadShedder;
+import com.degerli.loadbalancer.websocket.WebSocketRelayStats;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
@@ -30,9 +54,26 @@ import org.springframework.web.bind.annotation.RestController;
 public class AdminController {
 
   private final ServiceRegistry serviceRegistry;
+  private final HealthChecker healthChecker;
+  private final RouteTable routeTable;
   private final CircuitBreaker circuitBreaker;
   private final RateLimiter rateLimiter;
+  private final ConcurrencyLimiter concurrencyLimiter;
+  private final LoadShedder loadShedder;
+  private final HedgingManager hedgingManager;
+  private final RetryManager retryManager;
+  private final ResponseCache responseCache;
+  private final RequestCoalescer requestCoalescer;
+  private final ResponseCompressor responseCompressor;
+  private final OutlierDetector outlierDetector;
+  private final LocalityRouter localityRouter;
+  private final FileDiscovery fileDiscovery;
+  private final DnsDiscovery dnsDiscovery;
+  private final ConnectionDrainer connectionDrainer;
+  private final BlueGreenDeploymentManager deploymentManager;
+  private final TrafficMirror trafficMirror;
   private final StickySessionManager stickySessionManager;
+  private final WebSocketRelayStats webSocketRelayStats;
   private final LoadBalancerProperties properties;
 
   /**
@@ -66,10 +107,10 @@ public class AdminController {
   public ResponseEntity<Map<String, Object>> getServiceDetails(
       @PathVariable
       String serviceName) {
-    List<Server> servers = serviceRegistry.getServers(serviceName);
-    if (servers.isEmpty()) {
+    if (serviceRegistry.getService(serviceName) == null) {
       return ResponseEntity.notFound().build();
     }
+    List<Server> servers = serviceRegistry.getServers(serviceName);
 
     Map<String, Object> details = new HashMap<>();
     details.put("serviceName", serviceName);
@@ -94,6 +135,14 @@ public class AdminController {
     return ResponseEntity.ok(details);
   }
 
+  /**
+   * Health check probe'ları (servisler arası paylaşılanlar tek probe olarak görünür)
+   */
+  @GetMapping("/health-checks")
+  public ResponseEntity<List<HealthChecker.ProbeInfo>> getHealthChecks() {
+    return ResponseEntity.ok(healthChecker.getProbes());
+  }
+
   /**
    * Algoritma değiştir
    */
@@ -114,6 +163,317 @@ public class AdminController {
     }
   }
 
+  /**
+   * Runtime'da servis ekle (otomatik route'ları hemen aktif olur)
+   */
+  @PostMapping("/services/{serviceName}")
+  public ResponseEntity<Map<String, Object>> addService(
+      @PathVariable
+      String serviceName,
+      @RequestBody
+      LoadBalancerProperties.ServiceConfig config) {
+
+    try {
+      serviceRegistry.addService(serviceName, config);
+      return ResponseEntity.ok(Map.of("message", "Service added", "service", serviceName,
+          "upstreams", config.getUpstreams().size()));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+  }
+
+  /**
+   * Runtime'da servis kaldır
+   */
+  @DeleteMapping("/services/{serviceName}")
+  public ResponseEntity<Map<String, String>> removeService(
+      @PathVariable
+      String serviceName) {
+
+    try {
+      serviceRegistry.removeService(serviceName);
+      return ResponseEntity.ok(Map.of("message", "Service removed", "service", serviceName));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+  }
+
+  /**
+   * Servise upstream ekle
+   */
+  @PostMapping("/services/{serviceName}/upstreams")
+  public ResponseEntity<Map<String, Object>> addUpstream(
+      @PathVariable
+      String serviceName,
+      @RequestBody
+      LoadBalancerProperties.ServerConfig upstream) {
+
+    try {
+      return ResponseEntity.ok(serverToMap(serviceRegistry.addServer(serviceName, upstream)));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+  }
+
+  /**
+   * Servisten upstream kaldır
+   */
+  @DeleteMapping("/services/{serviceName}/upstreams")
+  public ResponseEntity<Map<String, String>> removeUpstream(
+      @PathVariable
+      String serviceName,
+      @RequestParam
+      String url) {
+
+    try {
+      serviceRegistry.removeServer(serviceName, url);
+      return ResponseEntity.ok(Map.of("message", "Upstream removed", "service", serviceName,
+          "url", url));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+  }
+
+  /**
+   * Upstream'i drain et (draining=false → tekrar rotasyona al)
+   * İlerleme GET /admin/drains ile izlenir.
+   */
+  @PostMapping("/services/{serviceName}/upstreams/drain")
+  public ResponseEntity<Map<String, Object>> drainUpstream(
+      @PathVariable
+      String serviceName,
+      @RequestParam
+      String url,
+      @RequestParam(defaultValue = "true")
+      boolean draining) {
+
+    try {
+      return ResponseEntity.ok(
+          serverToMap(serviceRegistry.setDraining(serviceName, url, draining)));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+  }
+
+  /**
+   * Devam eden ve son 10 dakikada tamamlanan drain'ler
+   * Deploy script'leri state DRAINED olana kadar poll edip instance'ı kapatabilir.
+   */
+  @GetMapping("/drains")
+  public ResponseEntity<List<Map<String, Object>>> getDrains(
+      @RequestParam(required = false)
+      String service,
+      @RequestParam(required = false)
+      String url) {
+
+    return ResponseEntity.ok(connectionDrainer.getStatus(service, url));
+  }
+
+  /**
+   * Servisin blue/green environment'larını tanımla (trafik green-traffic-percent'e göre
+   * bölünür)
+   */
+  @PostMapping("/deployment/{serviceName}/environments")
+  public ResponseEntity<Object> defineEnvironments(
+      @PathVariable
+      String serviceName,
+      @RequestBody
+      LoadBalancerProperties.BlueGreenConfig config) {
+
+    return deploymentAction(serviceName, () -> deploymentManager.defineEnvironments(
+        serviceName, config.getBlue(), config.getGreen(), config.getGreenTrafficPercent()));
+  }
+
+  /**
+   * Servisin environment'larını kaldır (trafik tekrar tüm upstream'lere dağılır)
+   */
+  @DeleteMapping("/deployment/{serviceName}")
+  public ResponseEntity<Map<String, String>> removeEnvironments(
+      @PathVariable
+      String serviceName) {
+
+    deploymentManager.removeEnvironments(serviceName);
+    return ResponseEntity.ok(Map.of("message", "Environments removed", "service", serviceName));
+  }
+
+  /**
+   * Green'e giden trafik payını ayarla (canary, %0.1 çözünürlük)
+   */
+  @PostMapping("/deployment/{serviceName}/traffic")
+  public ResponseEntity<Object> setGreenTraffic(
+      @PathVariable
+      String serviceName,
+      @RequestParam
+      double greenPercent) {
+
+    return deploymentAction(serviceName,
+        () -> deploymentManager.setGreenTraffic(serviceName, greenPercent));
+  }
+
+  @PostMapping("/deployment/{serviceName}/switch/instant")
+  public ResponseEntity<Object> switchInstant(
+      @PathVariable
+      String serviceName) {
+
+    return deploymentAction(serviceName, () -> deploymentManager.switchInstant(serviceName));
+  }
+
+  @PostMapping("/deployment/{serviceName}/switch/gradual")
+  public ResponseEntity<Object> switchGradual(
+      @PathVariable
+      String serviceName,
+      @RequestParam(defaultValue = "300")
+      long durationSeconds,
+      @RequestParam(defaultValue = "10")
+      int steps) {
+
+    return deploymentAction(serviceName, () -> deploymentManager.switchGradual(serviceName,
+        Duration.ofSeconds(durationSeconds), steps));
+  }
+
+  @PostMapping("/deployment/{serviceName}/switch/scheduled")
+  public ResponseEntity<Object> switchScheduled(
+      @PathVariable
+      String serviceName,
+      @RequestParam
+      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+      LocalDateTime switchTime) {
+
+    return deploymentAction(serviceName,
+        () -> deploymentManager.switchScheduled(serviceName, switchTime));
+  }
+
+  @PostMapping("/deployment/{serviceName}/rollback")
+  public ResponseEntity<Object> rollback(
+      @PathVariable
+      String serviceName) {
+
+    return deploymentAction(serviceName, () -> deploymentManager.rollback(serviceName));
+  }
+
+  /**
+   * Deployment durumu (aktif environment, trafik payı, gözlenen dağılım, drain ilerlemesi)
+   */
+  @GetMapping("/deployment/{serviceName}/status")
+  public ResponseEntity<Object> getDeploymentStatus(
+      @PathVariable
+      String serviceName) {
+
+    try {
+      return ResponseEntity.ok(deploymentManager.getStatus(serviceName));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.notFound().build();
+    }
+  }
+
+  /**
+   * Kademeli switch'in canary analizi kararları (en yenisi başta, ölçümler ve gerekçelerle)
+   */
+  @GetMapping("/deployment/{serviceName}/decisions")
+  public ResponseEntity<Object> getDeploymentDecisions(
+      @PathVariable
+      String serviceName) {
+
+    try {
+      return ResponseEntity.ok(deploymentManager.getDecisions(serviceName));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.notFound().build();
+    }
+  }
+
+  /**
+   * Deployment işlemini uygula ve güncel durumu döndür
+   */
+  private ResponseEntity<Object> deploymentAction(String serviceName, Runnable action) {
+    try {
+      action.run();
+      return ResponseEntity.ok(deploymentManager.getStatus(serviceName));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+  }
+
+  /**
+   * Servisin trafiğinin bir kısmını environment'a (blue/green) veya başka bir servise aynala
+   */
+  @PostMapping("/mirroring/{serviceName}")
+  public ResponseEntity<Map<String, Object>> setMirror(
+      @PathVariable
+      String serviceName,
+      @RequestParam
+      double percent,
+      @RequestParam(required = false)
+      String environment,
+      @RequestParam(required = false)
+      String service) {
+
+    if (!properties.getMirroring().isEnabled()) {
+      return ResponseEntity.badRequest().body(Map.of("error", "Mirroring is disabled"));
+    }
+    if (serviceRegistry.getService(serviceName) == null) {
+      return ResponseEntity.notFound().build();
+    }
+    TrafficSplitter.Environment target = TrafficSplitter.Environment.parse(environment);
+    if (environment != null && target == null) {
+      return ResponseEntity.badRequest().body(
+          Map.of("error", "Unknown environment: " + environment));
+    }
+    try {
+      trafficMirror.setRule(serviceName, new TrafficMirror.MirrorRule(percent, target, service));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+    return ResponseEntity.ok(Map.of("message", "Mirroring updated", "service", serviceName,
+        "percent", percent));
+  }
+
+  /**
+   * Servisin aynalamasını durdur
+   */
+  @DeleteMapping("/mirroring/{serviceName}")
+  public ResponseEntity<Map<String, String>> removeMirror(
+      @PathVariable
+      String serviceName) {
+
+    trafficMirror.removeRule(serviceName);
+    return ResponseEntity.ok(Map.of("message", "Mirroring stopped", "service", serviceName));
+  }
+
+  /**
+   * Servis başına aynalama sayaçları ve primary/kopya status ve latency karşılaştırması
+   */
+  @GetMapping("/mirroring/status")
+  public ResponseEntity<Map<String, TrafficMirror.MirrorInfo>> getMirroringStatus() {
+    if (!properties.getMirroring().isEnabled()) {
+      return ResponseEntity.ok(Map.of());
+    }
+
+    return ResponseEntity.ok(trafficMirror.getStats());
+  }
+
+  /**
+   * Servis başına WebSocket relay istatistikleri (yön başına mesaj/byte, düşürülen mesajlar,
+   * buffer high-water mark'ı)
+   */
+  @GetMapping("/websocket/status")
+  public ResponseEntity<Map<String, WebSocketRelayStats.WebSocketInfo>> getWebSocketStatus() {
+    return ResponseEntity.ok(webSocketRelayStats.getStats());
+  }
+
+  /**
+   * Discovery durumu (dosya: son reload süresi ve hata, DNS: çözümlenen adresler ve TTL'ler)
+   */
+  @GetMapping("/discovery/status")
+  public ResponseEntity<Map<String, Object>> getDiscoveryStatus() {
+    Map<String, Object> status = new HashMap<>();
+    status.put("file", properties.getFileDiscovery().isEnabled()
+        ? fileDiscovery.getStatus() : Map.of("enabled", false));
+    status.put("dns", properties.getDnsDiscovery().isEnabled()
+        ? dnsDiscovery.getStatus() : Map.of("enabled", false));
+
+    return ResponseEntity.ok(status);
+  }
+
   /**
    * Tüm servislerin listesi
    */
@@ -122,6 +482,28 @@ public class AdminController {
     return ResponseEntity.ok(serviceRegistry.getServiceNames());
   }
 
+  /**
+   * Derlenmiş route table (değerlendirme sırasıyla)
+   */
+  @GetMapping("/routes")
+  public ResponseEntity<List<Map<String, Object>>> listRoutes() {
+    return ResponseEntity.ok(
+        routeTable.getRoutes().stream().map(this::routeToMap).collect(Collectors.toList()));
+  }
+
+  private Map<String, Object> routeToMap(Route route) {
+    Map<String, Object> map = new HashMap<>();
+    map.put("id", route.getId());
+    map.put("pathPrefix", route.getPathPrefix());
+    map.put("service", route.getServiceName());
+    map.put("hosts", route.getHosts());
+    map.put("rewrite", route.getRewriteTemplate());
+    map.put("timeoutMs", route.getTimeoutMs());
+    map.put("hedgeDelayMs", route.getHedgeDelayMs());
+    map.put("maxAttempts", route.getRetryPolicy().getMaxAttempts());
+    return map;
+  }
+
   /**
    * Server bilgisini Map'e çevir
    */
@@ -129,12 +511,21 @@ public class AdminController {
     Map<String, Object> map = new HashMap<>();
     map.put("url", server.getUrl());
     map.put("healthy", server.isHealthy());
+    map.put("ejected", server.isEjected());
+    map.put("draining", server.isDraining());
+    map.put("drainState", server.getDrainState());
+    map.put("zone", server.getZone());
+    map.put("region", server.getRegion());
     map.put("weight", server.getWeight());
+    map.put("effectiveWeight", server.getWeight() * server.getWeightFactor());
+    map.put("slowStartRemainingMs", server.getWarmingRemainingMillis());
     map.put("activeConnections", server.getActiveConnections().get());
+    map.put("webSocketConnections", server.getWebSocketConnections().get());
     map.put("totalRequests", server.getTotalRequests().get());
     map.put("failedRequests", server.getFailedRequests().get());
     map.put("averageResponseTime", server.getAverageResponseTime());
     map.put("lastHealthCheck", server.getLastHealthCheck());
+    map.put("loadReport", server.getLoadReport());
     return map;
   }
 
@@ -179,6 +570,142 @@ public class AdminController {
     return ResponseEntity.ok(rateLimiter.getRateLimitInfo(clientId));
   }
 
+  /**
+   * Servis başına adaptive concurrency limit durumu
+   */
+  @GetMapping("/concurrency-limit/status")
+  public ResponseEntity<Map<String, ConcurrencyLimiter.LimitInfo>> getConcurrencyLimitStatus() {
+    if (!properties.getConcurrencyLimit().isEnabled()) {
+      return ResponseEntity.ok(Map.of());
+    }
+
+    return ResponseEntity.ok(concurrencyLimiter.getStats());
+  }
+
+  /**
+   * Servis başına hedging sayaçları, kalan bütçe ve güncel hedge delay
+   */
+  @GetMapping("/hedging/status")
+  public ResponseEntity<Map<String, HedgingManager.HedgingInfo>> getHedgingStatus() {
+    if (!properties.getHedging().isEnabled()) {
+      return ResponseEntity.ok(Map.of());
+    }
+
+    return ResponseEntity.ok(hedgingManager.getStats());
+  }
+
+  /**
+   * Servis başına retry sayaçları ve kalan retry bütçesi
+   */
+  @GetMapping("/retry/status")
+  public ResponseEntity<Map<String, RetryManager.RetryInfo>> getRetryStatus() {
+    if (!properties.getRetry().isEnabled()) {
+      return ResponseEntity.ok(Map.of());
+    }
+
+    return ResponseEntity.ok(retryManager.getStats());
+  }
+
+  /**
+   * Servis başına coalescing sayaçları ve oranı
+   */
+  @GetMapping("/coalescing/status")
+  public ResponseEntity<Map<String, RequestCoalescer.CoalescingInfo>> getCoalescingStatus() {
+    if (!properties.getCoalescing().isEnabled()) {
+      return ResponseEntity.ok(Map.of());
+    }
+
+    return ResponseEntity.ok(requestCoalescer.getStats());
+  }
+
+  /**
+   * Servis başına sıkıştırma oranı, kazanılan byte'lar ve harcanan CPU süresi
+   */
+  @GetMapping("/compression/status")
+  public ResponseEntity<Map<String, ResponseCompressor.CompressionInfo>> getCompressionStatus() {
+    if (!properties.getCompression().isEnabled()) {
+      return ResponseEntity.ok(Map.of());
+    }
+
+    return ResponseEntity.ok(responseCompressor.getStats());
+  }
+
+  /**
+   * Server başına son interval istatistikleri, ejection durumu ve son ejection olayları
+   */
+  @GetMapping("/outlier-detection/status")
+  public ResponseEntity<Map<String, Object>> getOutlierDetectionStatus() {
+    Map<String, Object> status = new HashMap<>();
+    status.put("enabled", properties.getOutlierDetection().isEnabled());
+    status.put("services", outlierDetector.getStats());
+    status.put("events", outlierDetector.getRecentEvents());
+
+    return ResponseEntity.ok(status);
+  }
+
+  /**
+   * Load balancer'ın zone'u ve servis başına yerel / aynı region / uzak request sayıları
+   */
+  @GetMapping("/locality/status")
+  public ResponseEntity<Map<String, Object>> getLocalityStatus() {
+    Map<String, Object> status = new HashMap<>();
+    status.put("enabled", properties.getLocality().isEnabled());
+    status.put("zone", localityRouter.getZone());
+    status.put("region", localityRouter.getRegion());
+    status.put("services", localityRouter.getStats());
+
+    return ResponseEntity.ok(status);
+  }
+
+  /**
+   * Response cache doluluğu, W-TinyLFU segmentleri ve servis başına hit/miss sayaçları
+   */
+  @GetMapping("/cache/status")
+  public ResponseEntity<?> getCacheStatus() {
+    if (!properties.getCache().isEnabled()) {
+      return ResponseEntity.ok(Map.of());
+    }
+
+    return ResponseEntity.ok(responseCache.getStats());
+  }
+
+  /**
+   * Cache'ten entry sil
+   * key: tam URI (path + query, örn: /api/v1/info?lang=tr), prefix: URI prefix'i
+   */
+  @DeleteMapping("/cache")
+  public ResponseEntity<Map<String, Object>> purgeCache(
+      @RequestParam(required = false)
+      String key,
+      @RequestParam(required = false)
+      String prefix) {
+
+    if ((key == null) == (prefix == null)) {
+      return ResponseEntity.badRequest()
+          .body(Map.of("error", "Exactly one of 'key' or 'prefix' is required"));
+    }
+
+    int purged = key != null ? responseCache.purge(key) : responseCache.purgePrefix(prefix);
+    return ResponseEntity.ok(Map.of("purged", purged));
+  }
+
+  /**
+   * Load shedding durumu ve request class sayaçları
+   */
+  @GetMapping("/load-shedding/status")
+  public ResponseEntity<Map<String, Object>> getLoadSheddingStatus() {
+    Map<String, Object> status = new HashMap<>();
+    status.put("enabled", properties.getLoadShedding().isEnabled());
+    status.put("overloadLevel", loadShedder.getOverloadLevel());
+    status.put("classes", loadShedder.getRequestClasses().stream()
+        .map(requestClass -> Map.of("name", requestClass.getName(), "priority",
+            requestClass.getPriority().name(), "admitted", requestClass.getAdmittedCount(),
+            "shed", requestClass.getShedCount()))
+        .collect(Collectors.toList()));
+
+    return ResponseEntity.ok(status);
+  }
+
   /**
    * Sticky session istatistikleri
    */
@@ -206,6 +733,60 @@ public class AdminController {
             properties.getRateLimit().getMaxRequests(), "windowSeconds",
             properties.getRateLimit().getWindowSeconds(), "algorithm",
             properties.getRateLimit().getAlgorithm()));
+    features.put("concurrencyLimit",
+        Map.of("enabled", properties.getConcurrencyLimit().isEnabled(), "algorithm",
+            properties.getConcurrencyLimit().getAlgorithm(), "initialLimit",
+            properties.getConcurrencyLimit().getInitialLimit(), "maxLimit",
+            properties.getConcurrencyLimit().getMaxLimit()));
+    features.put("hedging",
+        Map.of("enabled", properties.getHedging().isEnabled(), "methods",
+            properties.getHedging().getMethods(), "budgetPercent",
+            properties.getHedging().getBudgetPercent()));
+    features.put("mirroring",
+        Map.of("enabled", properties.getMirroring().isEnabled(), "methods",
+            properties.getMirroring().getMethods(), "maxConcurrent",
+            properties.getMirroring().getMaxConcurrent()));
+    features.put("websocket",
+        Map.of("sendBufferSizeKb", properties.getWebsocket().getSendBufferSizeKb(),
+            "sendTimeLimitMs", properties.getWebsocket().getSendTimeLimitMs(),
+            "overflowPolicy", properties.getWebsocket().getOverflowPolicy(),
+            "selectBySocketCount", properties.getWebsocket().isSelectBySocketCount(),
+            "rebalanceEnabled", properties.getWebsocket().isRebalanceEnabled()));
+    features.put("retry",
+        Map.of("enabled", properties.getRetry().isEnabled(), "maxAttempts",
+            properties.getRetry().getMaxAttempts(), "retryOn",
+            properties.getRetry().getRetryOn(), "budgetPercent",
+            properties.getRetry().getBudgetPercent()));
+    features.put("cache",
+        Map.of("enabled", properties.getCache().isEnabled(), "maxSizeMb",
+            properties.getCache().getMaxSizeMb(), "maxEntrySizeKb",
+            properties.getCache().getMaxEntrySizeKb()));
+    features.put("coalescing",
+        Map.of("enabled", properties.getCoalescing().isEnabled(), "methods",
+            properties.getCoalescing().getMethods(), "maxWaitMs",
+            properties.getCoalescing().getMaxWaitMs()));
+    features.put("compression",
+        Map.of("enabled", properties.getCompression().isEnabled(), "level",
+            properties.getCompression().getLevel(), "minSizeBytes",
+            properties.getCompression().getMinSizeBytes(), "contentTypes",
+            properties.getCompression().getContentTypes()));
+    features.put("outlierDetection",
+        Map.of("enabled", properties.getOutlierDetection().isEnabled(), "intervalMs",
+            properties.getOutlierDetection().getIntervalMs(), "failurePercentThreshold",
+            properties.getOutlierDetection().getFailurePercentThreshold(), "latencyFactor",
+            properties.getOutlierDetection().getLatencyFactor(), "maxEjectionPercent",
+            properties.getOutlierDetection().getMaxEjectionPercent()));
+    features.put("locality",
+        Map.of("enabled", properties.getLocality().isEnabled(), "zone",
+            String.valueOf(properties.getLocality().getZone()), "region",
+            String.valueOf(properties.getLocality().getRegion()), "minHealthyPercent",
+            properties.getLocality().getMinHealthyPercent(), "maxUtilizationPercent",
+            properties.getLocality().getMaxUtilizationPercent()));
+    features.put("dnsDiscovery",
+        Map.of("enabled", properties.getDnsDiscovery().isEnabled(), "resolver",
+            String.valueOf(properties.getDnsDiscovery().getStubFile() != null
+                ? properties.getDnsDiscovery().getStubFile() : "system"), "defaultTtlSeconds",
+            properties.getDnsDiscovery().getDefaultTtlSeconds()));
     features.put("stickySession",
         Map.of("enabled", properties.getStickySession().isEnabled(), "sessionTimeoutMinutes",
             properties.getStickySession().getSessionTimeoutMinutes()));
@@ -1,58 +1,88 @@
 package com.degerli.loadbalancer.controller;
 
+import com.degerli.loadbalancer.cache.ResponseCache;
+import com.degerli.loadbalancer.coalescing.RequestCoalescer;
+import com.degerli.loadbalancer.compression.ResponseCompressor;
 import com.degerli.loadbalancer.config.LoadBalancerProperties;
+import com.degerli.loadbalancer.deployment.TrafficSplitter;
+import com.degerli.loadbalancer.deployment.TrafficSplitter.Environment;
+import com.degerli.loadbalancer.filter.RequestArrivalFilter;
+import com.degerli.loadbalancer.hedging.HedgingManager;
 import com.degerli.loadbalancer.circuitbreaker.CircuitBreaker;
 import com.degerli.loadbalancer.metrics.LoadBalancerMetrics;
+import com.degerli.loadbalancer.mirroring.TrafficMirror;
+import com.degerli.loadbalancer.model.LoadReport;
 import com.degerli.loadbalancer.model.Server;
+import com.degerli.loadbalancer.outlier.OutlierDetector;
 import com.degerli.loadbalancer.ratelimit.RateLimiter;
-import com.degerli.loadbalancer.registry.ServiceRegistry;
+import com.degerli.loadbalancer.retry.RetryManager;
+import com.degerli.loadbalancer.retry.RetryPolicy;
+import com.degerli.loadbalancer.routing.Route;
+import com.degerli.loadbalancer.routing.RouteTable;
 import com.degerli.loadbalancer.session.StickySessionManager;
+import com.degerli.loadbalancer.shedding.LoadShedder;
 import com.degerli.loadbalancer.strategy.LoadBalancingStrategy;
+import com.degerli.loadbalancer.upstream.Deadline;
+import com.degerli.loadbalancer.upstream.HopByHopHeaders;
+import com.degerli.loadbalancer.upstream.UpstreamClient;
 import jakarta.servlet.http.HttpServletRequest;
-import java.util.Collections;
+import java.io.IOException;
+import java.net.http.HttpTimeoutException;
+import java.util.ArrayList;
+import java.util.Enumeration;
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
 
 @Slf4j
 @RestController
 @RequiredArgsConstructor
 public class ProxyController {
 
-  private final ServiceRegistry serviceRegistry;
-  private final RestTemplate restTemplate = new RestTemplate();
+  private final RouteTable routeTable;
+  private final UpstreamClient upstreamClient;
   private final LoadBalancerProperties properties;
   private final CircuitBreaker circuitBreaker;
   private final RateLimiter rateLimiter;
   private final StickySessionManager stickySessionManager;
   private final LoadBalancerMetrics metrics;
-  private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
-      "connection", "keep-alive", "proxy-authenticate", "proxy-authorization",
-      "te", "trailer", "transfer-encoding", "upgrade"
-  );
-
-  @RequestMapping(value = "/{serviceName}/**",
+  private final LoadShedder loadShedder;
+  private final HedgingManager hedgingManager;
+  private final RetryManager retryManager;
+  private final ResponseCache responseCache;
+  private final RequestCoalescer requestCoalescer;
+  private final ResponseCompressor responseCompressor;
+  private final OutlierDetector outlierDetector;
+  private final TrafficSplitter trafficSplitter;
+  private final TrafficMirror trafficMirror;
+
+  @RequestMapping(value = "/**",
       method = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE,
           RequestMethod.PATCH, RequestMethod.OPTIONS})
   public ResponseEntity<?> proxyRequest(
-      @PathVariable String serviceName,
       HttpServletRequest request,
-      @RequestBody(required = false) String body) {
+      @RequestBody(required = false) byte[] body) {
 
     long startTime = System.currentTimeMillis();
+
+    // 0. Load Shedding (worker queueing delay, sampled before the body is read)
+    if (isShed(request)) {
+      return createLoadShedResponse();
+    }
+
     String clientIp = getClientIp(request);
 
     // 1. Rate Limit Check
@@ -60,50 +90,133 @@ public class ProxyController {
       return createRateLimitResponse();
     }
 
-    // 2. Server Selection
-    Server server = resolveTargetServer(serviceName, clientIp, request);
+    // 2. Route Resolution
+    Route route = routeTable.resolve(request);
+    if (route == null) {
+      return createNoRouteResponse(request);
+    }
 
-    // 3. Circuit Breaker Check
-    if (isCircuitOpen(server)) {
-      return createServiceUnavailableResponse(server);
+    // 2a. Traffic Split (blue-green/canary environment'ı; cache ve coalescing anahtarına girer)
+    trafficSplitter.assign(route.getServiceName(), request);
+
+    // 2b. Response Cache (taze kopya varsa upstream'e gidilmez)
+    ResponseEntity<byte[]> cached = lookupCache(route, request);
+    if (cached != null) {
+      return compressResponse(route, request, createResponseWithSession(cached, request));
     }
 
-    try {
-      // 4. Prepare Request
-      LoadBalancingStrategy strategy = serviceRegistry.getStrategy(serviceName);
-      strategy.onRequestStart(server);
+    // 2c. Request Coalescing (eşzamanlı özdeş request'ler tek upstream çağrısını paylaşır)
+    ResponseEntity<?> response;
+    if (isCoalescable(request)) {
+      RequestCoalescer.Result result = requestCoalescer.execute(route, request,
+          () -> forwardToUpstream(route, request, body, clientIp, startTime));
+      response = result.shared()
+          ? createSharedResponse(result.response(), request) : result.response();
+    } else {
+      response = forwardToUpstream(route, request, body, clientIp, startTime);
+    }
 
-      String backendUrl = buildBackendUrl(request, server, serviceName);
-      HttpEntity<String> httpEntity = prepareRequestEntity(request, body, clientIp);
+    // 12. Response Compression (client'ın Accept-Encoding'ine göre)
+    return compressResponse(route, request, response);
+  }
 
-      log.info("Proxying: {} {} -> {} (client: {})", request.getMethod(), request.getRequestURI(), backendUrl, clientIp);
+  /**
+   * Deadline kontrolünden upstream cevabına kadar olan adımlar
+   */
+  private ResponseEntity<?> forwardToUpstream(Route route, HttpServletRequest request,
+      byte[] body, String clientIp, long startTime) {
 
-      // 5. Execute Request
-      ResponseEntity<String> response = restTemplate.exchange(
-          backendUrl,
-          HttpMethod.valueOf(request.getMethod()),
-          httpEntity,
-          String.class);
+    // 3. Deadline Check (route bütçesi ve client deadline'ından erken olanı)
+    Deadline deadline = resolveDeadline(route, request);
+    if (isBudgetExhausted(route, deadline, request)) {
+      return createDeadlineExceededResponse(deadline);
+    }
 
-      // 6. Handle Success
-      long duration = System.currentTimeMillis() - startTime;
-      handleSuccess(server, serviceName, duration, strategy);
+    // 4. Server Selection
+    Server server = resolveTargetServer(route, clientIp, request);
+
+    // 5. Circuit Breaker Check
+    if (isCircuitOpen(server)) {
+      return createServiceUnavailableResponse(server);
+    }
+
+    // 6. Concurrency Limit Check
+    if (isConcurrencyLimited(route)) {
+      return createConcurrencyLimitResponse(route);
+    }
 
-      log.info("Response: {} in {}ms from {}", response.getStatusCode(), duration, server.getUrl());
+    List<Server> tried = new ArrayList<>(2);
+    long upstreamStart = System.nanoTime();
+    TrafficMirror.Mirror mirror = null;
+    UpstreamResponse upstream;
+    try {
+      // 7. Prepare Request
+      HttpHeaders headers = prepareRequestHeaders(request, clientIp, deadline);
+
+      // 7a. Traffic Mirroring (kopya fire-and-forget gönderilir, cevabı client'a dönmez)
+      mirror = startMirror(route, request, headers, body);
+
+      // 8. Execute Request (retry politikasına göre başka server'larda tekrar denenebilir)
+      upstream = executeWithRetries(route, server, request, headers, body, deadline, clientIp,
+          tried);
+    } catch (HttpTimeoutException e) {
+      // 10. Handle Timeout (son denenen server'a kaydedilir)
+      Server lastServer = tried.isEmpty() ? server : tried.get(tried.size() - 1);
+      long duration = System.currentTimeMillis() - startTime;
+      metrics.recordDeadlineExceeded(route.getMeters());
+      handleFailure(lastServer, route, duration, true, e.getMessage());
+      completeMirror(mirror, HttpStatus.GATEWAY_TIMEOUT.value(), upstreamStart);
 
-      return createResponseWithSession(response, request);
+      return createGatewayTimeoutResponse(lastServer);
 
     } catch (Exception e) {
-      // 7. Handle Failure
+      // 11. Handle Failure
+      if (e instanceof InterruptedException) {
+        Thread.currentThread().interrupt();
+      }
+      Server lastServer = tried.isEmpty() ? server : tried.get(tried.size() - 1);
       long duration = System.currentTimeMillis() - startTime;
-      handleFailure(server, serviceName, duration, e);
+      handleFailure(lastServer, route, duration, true, e.getMessage());
+      completeMirror(mirror, HttpStatus.BAD_GATEWAY.value(), upstreamStart);
 
       return createErrorResponse(e);
     }
+
+    // 9. Handle Response (limiter slot'u burada bir kez bırakılır; sonraki adımların hataları
+    // upstream hatası sayılmaz)
+    ResponseEntity<byte[]> response = upstream.response();
+    Server responder = upstream.server();
+    long duration = System.currentTimeMillis() - startTime;
+    if (response.getStatusCode().isError()) {
+      handleFailure(responder, route, duration, response.getStatusCode().is5xxServerError(),
+          "HTTP " + response.getStatusCode().value());
+    } else {
+      handleSuccess(responder, route, duration, System.nanoTime() - upstreamStart);
+    }
+
+    log.info("Response: {} in {}ms from {}", response.getStatusCode(), duration,
+        responder.getUrl());
+    completeMirror(mirror, response.getStatusCode().value(), upstreamStart);
+
+    storeInCache(route, request, response);
+
+    return createResponseWithSession(response, request);
   }
 
   // --- Helper Methods ---
 
+  private boolean isShed(HttpServletRequest request) {
+    if (properties.getLoadShedding().isEnabled()) {
+      LoadShedder.RequestClass requestClass = loadShedder.classify(request);
+      if (!loadShedder.admit(requestClass, RequestArrivalFilter.queueDelayNanos(request))) {
+        log.warn("Load shed: {} {} (class: {}, level: {})", request.getMethod(),
+            request.getRequestURI(), requestClass.getName(), loadShedder.getOverloadLevel());
+        return true;
+      }
+    }
+    return false;
+  }
+
   private boolean isRateLimited(String clientIp) {
     if (properties.getRateLimit().isEnabled()) {
       if (!rateLimiter.allowRequest(clientIp)) {
@@ -114,15 +227,17 @@ public class ProxyController {
     return false;
   }
 
-  private Server resolveTargetServer(String serviceName, String clientIp, HttpServletRequest request) {
+  private Server resolveTargetServer(Route route, String clientIp, HttpServletRequest request) {
+    // Blue-green/canary: request başında atanan environment'ın serverları arasından seçilir
+    Environment environment = TrafficSplitter.environment(request);
     if (properties.getStickySession().isEnabled()) {
       String sessionId = getSessionId(request);
       if (sessionId != null) {
-        Server tempServer = serviceRegistry.selectServer(serviceName, clientIp);
+        Server tempServer = route.getService().selectServer(clientIp, environment);
         return stickySessionManager.getOrAssignServer(sessionId, tempServer);
       }
     }
-    return serviceRegistry.selectServer(serviceName, clientIp);
+    return route.getService().selectServer(clientIp, environment);
   }
 
   private boolean isCircuitOpen(Server server) {
@@ -135,34 +250,97 @@ public class ProxyController {
     return false;
   }
 
-  private String buildBackendUrl(HttpServletRequest request, Server server, String serviceName) {
-    String fullPath = request.getRequestURI();
-    String queryString = request.getQueryString();
+  private ResponseEntity<?> compressResponse(Route route, HttpServletRequest request,
+      ResponseEntity<?> response) {
+    if (properties.getCompression().isEnabled()) {
+      return responseCompressor.compress(route.getServiceName(), request, response);
+    }
+    return response;
+  }
 
-    String pathSuffix = fullPath.substring(("/" + serviceName).length());
-    String backendPath;
+  private TrafficMirror.Mirror startMirror(Route route, HttpServletRequest request,
+      HttpHeaders headers, byte[] body) {
+    if (properties.getMirroring().isEnabled()) {
+      return trafficMirror.mirror(route, request, headers, body);
+    }
+    return null;
+  }
 
-    // Actuator Path Stripping Logic
-    if (pathSuffix.startsWith("/actuator")) {
-      backendPath = pathSuffix;
-      log.debug("Actuator request detected, stripping service name. Path: {}", backendPath);
-    } else {
-      backendPath = fullPath;
+  /**
+   * Primary'nin client'a dönen sonucunu kopyanın karşılaştırması için bildir
+   */
+  private void completeMirror(TrafficMirror.Mirror mirror, int status, long upstreamStart) {
+    if (mirror != null) {
+      mirror.onPrimaryResponse(status, System.nanoTime() - upstreamStart);
     }
+  }
+
+  private boolean isCoalescable(HttpServletRequest request) {
+    return properties.getCoalescing().isEnabled() && requestCoalescer.isCoalescable(request);
+  }
 
-    if (queryString != null) {
-      backendPath += "?" + queryString;
+  private ResponseEntity<byte[]> lookupCache(Route route, HttpServletRequest request) {
+    if (properties.getCache().isEnabled()) {
+      ResponseEntity<byte[]> cached = responseCache.lookup(route, request);
+      if (cached != null) {
+        log.debug("Cache hit: {} {}", request.getMethod(), request.getRequestURI());
+        return cached;
+      }
     }
+    return null;
+  }
 
-    return server.getUrl() + backendPath;
+  private void storeInCache(Route route, HttpServletRequest request,
+      ResponseEntity<byte[]> response) {
+    if (properties.getCache().isEnabled()) {
+      responseCache.store(route, request, response);
+    }
   }
 
-  private HttpEntity<String> prepareRequestEntity(HttpServletRequest request, String body, String clientIp) {
+  private Deadline resolveDeadline(Route route, HttpServletRequest request) {
+    Deadline deadline = Deadline.after(RequestArrivalFilter.arrivalNanos(request),
+        route.getTimeoutMs());
+
+    String clientDeadline = request.getHeader(properties.getTimeouts().getDeadlineHeader());
+    if (clientDeadline != null) {
+      try {
+        return deadline.earliest(Long.parseLong(clientDeadline.trim()));
+      } catch (NumberFormatException e) {
+        log.debug("Ignoring malformed deadline header: {}", clientDeadline);
+      }
+    }
+    return deadline;
+  }
+
+  private boolean isBudgetExhausted(Route route, Deadline deadline, HttpServletRequest request) {
+    if (deadline.remainingMillis() < properties.getTimeouts().getMinRemainingBudgetMs()) {
+      log.warn("Deadline exceeded before proxying: {} {} ({})", request.getMethod(),
+          request.getRequestURI(), deadline);
+      metrics.recordDeadlineExceeded(route.getMeters());
+      return true;
+    }
+    return false;
+  }
+
+  private HttpHeaders prepareRequestHeaders(HttpServletRequest request, String clientIp,
+      Deadline deadline) {
     HttpHeaders headers = new HttpHeaders();
-    Collections.list(request.getHeaderNames()).forEach(headerName -> {
-      List<String> headerValues = Collections.list(request.getHeaders(headerName));
-      headers.addAll(headerName, headerValues);
-    });
+
+    // Servlet header'ları tek geçişte kopyalanır; hop-by-hop ve Connection'da listelenenler atlanır
+    List<String> connectionTokens =
+        HopByHopHeaders.connectionTokens(request.getHeader(HttpHeaders.CONNECTION));
+    Enumeration<String> headerNames = request.getHeaderNames();
+    while (headerNames.hasMoreElements()) {
+      String headerName = headerNames.nextElement();
+      if (HopByHopHeaders.isExcludedFromRequest(headerName)
+          || HopByHopHeaders.isConnectionToken(connectionTokens, headerName)) {
+        continue;
+      }
+      Enumeration<String> headerValues = request.getHeaders(headerName);
+      while (headerValues.hasMoreElements()) {
+        headers.add(headerName, headerValues.nextElement());
+      }
+    }
 
     // Standard Proxy Headers
     headers.set("X-Forwarded-For", clientIp);
@@ -175,22 +353,343 @@ public class ProxyController {
     String hostWithPort = (port == 80 || port == 443) ? host : host + ":" + port;
     headers.set("X-Forwarded-Host", hostWithPort);
 
-    return new HttpEntity<>(body, headers);
+    // Deadline Propagation (epoch ms)
+    headers.set(properties.getTimeouts().getDeadlineHeader(),
+        String.valueOf(deadline.toEpochMillis()));
+
+    return headers;
+  }
+
+  /**
+   * Request'i route'un retry politikasına göre gönder
+   * <p>
+   * Tekrar denenebilir bir sonuç alınırsa (bkz. {@link RetryPolicy}) daha önce denenmemiş
+   * başka bir server seçilir. Retry'lar servisin retry bütçesiyle sınırlıdır ve hiçbir deneme
+   * request deadline'ını aşamaz. Tekrar denenen başarısız denemeler circuit breaker'a burada
+   * kaydedilir; son deneme çağıran tarafa kalır (son denemenin primary'si tried'ın
+   * sonundadır, gönderilen hedge server'ları ondan öncedir).
+   */
+  private UpstreamResponse executeWithRetries(Route route, Server primary,
+      HttpServletRequest request, HttpHeaders headers, byte[] body, Deadline deadline,
+      String clientIp, List<Server> tried) throws IOException, InterruptedException {
+
+    RetryPolicy policy = route.getRetryPolicy();
+    RetryManager.ServiceRetries retries = retryManager.getRetries(route.getServiceName());
+    if (properties.getRetry().isEnabled()) {
+      retries.onRequest();
+    }
+
+    LoadBalancingStrategy strategy = route.getService().getStrategy();
+    String method = request.getMethod();
+    Server server = primary;
+    int attempt = 0;
+
+    while (true) {
+      tried.add(server);
+      attempt++;
+      int remainingAttempts = policy.getMaxAttempts() - attempt + 1;
+      Deadline attemptDeadline = deadline.forAttempt(
+          policy.isSplitBudget() ? remainingAttempts : 1);
+
+      UpstreamResponse upstream = null;
+      IOException error = null;
+      long attemptStart = System.nanoTime();
+      server.incrementConnections();
+      strategy.onRequestStart(server);
+      try {
+        String backendUrl = route.buildBackendUrl(server, request);
+        log.info("Proxying: {} {} -> {} (client: {}, budget: {}ms, attempt: {})", method,
+            request.getRequestURI(), backendUrl, clientIp, attemptDeadline.remainingMillis(),
+            attempt);
+
+        upstream = executeRequest(route, server, backendUrl, request, headers, body,
+            attemptDeadline, clientIp, tried);
+      } catch (IOException e) {
+        error = e;
+      } finally {
+        server.decrementConnections();
+        strategy.onRequestComplete(server);
+      }
+      // Cevap veren server'ın kendi çağrısının süresi (hedge kazandıysa hedge'in başlangıcından)
+      long latencyNanos = System.nanoTime()
+          - (upstream != null ? upstream.startNanos() : attemptStart);
+      recordOutlierResult(route, server, upstream, error, latencyNanos);
+      recordResponseStats(server, upstream, error, latencyNanos);
+
+      boolean retryable = remainingAttempts > 1 && (error != null
+          ? policy.isRetryable(method, error)
+          : policy.isRetryable(method, upstream.response().getStatusCode().value()));
+      Server next = retryable ? selectRetryServer(route, clientIp, tried, deadline) : null;
+
+      if (next == null || !retries.tryRetry()) {
+        if (error != null) {
+          throw error;
+        }
+        if (attempt > 1 && !upstream.response().getStatusCode().isError()) {
+          retries.onRetrySuccess();
+        }
+        return upstream;
+      }
+
+      Server failed = upstream != null ? upstream.server() : server;
+      log.warn("Retrying {} {} on {} after '{}' from {}", method, request.getRequestURI(),
+          next.getUrl(), error != null ? error.toString()
+              : "HTTP " + upstream.response().getStatusCode().value(), failed.getUrl());
+      recordAttemptFailure(failed);
+      server = next;
+    }
+  }
+
+  private Server selectRetryServer(Route route, String clientIp, List<Server> tried,
+      Deadline deadline) {
+    if (deadline.remainingMillis() < properties.getTimeouts().getMinRemainingBudgetMs()) {
+      return null;
+    }
+    return selectAlternateServer(route, clientIp, tried);
+  }
+
+  /**
+   * Tek bir denemeyi primary server'a gönder
+   * <p>
+   * Hedging uygunsa ve primary hedge delay içinde cevap vermezse request stratejinin seçtiği
+   * ikinci bir server'a da gönderilir. İlk gelen cevap kazanır, diğeri iptal edilir.
+   * Primary'nin hatası çağıran tarafından, hedge server'ınki burada kaydedilir. Hedge kazanırsa
+   * iptal edilen primary'nin o ana kadar beklediği süre latency alt sınırı olarak kaydedilir;
+   * aksi halde yavaş server'ın en yavaş cevapları hiç örneklenmez.
+   */
+  private UpstreamResponse executeRequest(Route route, Server primary, String backendUrl,
+      HttpServletRequest request, HttpHeaders headers, byte[] body, Deadline deadline,
+      String clientIp, List<Server> tried) throws IOException, InterruptedException {
+
+    HttpMethod method = HttpMethod.valueOf(request.getMethod());
+    long primaryStart = System.nanoTime();
+    CompletableFuture<ResponseEntity<byte[]>> primaryCall = upstreamClient.exchangeAsync(
+        method, backendUrl, headers, body, deadline.remainingNanos(),
+        report -> primary.setLoadReport(LoadReport.parse(report)));
+
+    if (!isHedgeable(route, request)) {
+      return new UpstreamResponse(primary, upstreamClient.await(primaryCall), primaryStart);
+    }
+
+    HedgingManager.ServiceHedging hedging = hedgingManager.getHedging(route.getServiceName());
+    hedging.onRequest();
+
+    long hedgeDelayNanos = hedgingManager.hedgeDelayNanos(route);
+    if (hedgeDelayNanos >= deadline.remainingNanos()) {
+      return new UpstreamResponse(primary, upstreamClient.await(primaryCall), primaryStart);
+    }
+
+    try {
+      return new UpstreamResponse(primary,
+          primaryCall.get(hedgeDelayNanos, TimeUnit.NANOSECONDS), primaryStart);
+    } catch (TimeoutException e) {
+      // Primary hedge delay içinde cevap vermedi → hedge
+    } catch (ExecutionException e) {
+      return new UpstreamResponse(primary, upstreamClient.await(primaryCall), primaryStart);
+    }
+
+    Server hedgeServer = selectAlternateServer(route, clientIp, tried);
+    if (hedgeServer == null || !hedging.tryHedge()) {
+      return new UpstreamResponse(primary, upstreamClient.await(primaryCall), primaryStart);
+    }
+
+    log.info("Hedging: {} {} -> {} (primary {} slower than {}ms)", request.getMethod(),
+        request.getRequestURI(), hedgeServer.getUrl(), primary.getUrl(),
+        TimeUnit.NANOSECONDS.toMillis(hedgeDelayNanos));
+
+    // Retry hedge server'ını tekrar seçmesin; denemenin primary'si listenin sonunda kalır
+    tried.add(tried.size() - 1, hedgeServer);
+
+    LoadBalancingStrategy strategy = route.getService().getStrategy();
+    hedgeServer.incrementConnections();
+    strategy.onRequestStart(hedgeServer);
+    long hedgeStart = System.nanoTime();
+    CompletableFuture<ResponseEntity<byte[]>> hedgeCall = upstreamClient.exchangeAsync(method,
+        route.buildBackendUrl(hedgeServer, request), headers, body, deadline.remainingNanos(),
+        report -> hedgeServer.setLoadReport(LoadReport.parse(report)));
+    hedgeCall.whenComplete((response, error) -> {
+      hedgeServer.decrementConnections();
+      strategy.onRequestComplete(hedgeServer);
+    });
+
+    UpstreamResponse winner = null;
+    try {
+      winner = upstreamClient.await(
+          firstResponse(primary, primaryStart, primaryCall, hedgeServer, hedgeStart, hedgeCall));
+      if (winner.server() == hedgeServer) {
+        hedging.onHedgeWin();
+      }
+      return winner;
+    } finally {
+      // Kaybeden request iptal edilir (tamamlanmışsa no-op). İptal edilen future HttpClient
+      // tarafından CompletionException ile de tamamlanabildiğinden hata sayılmaz.
+      boolean primaryCancelled = primaryCall.cancel(true);
+      boolean hedgeCancelled = hedgeCall.cancel(true);
+
+      if (!hedgeCancelled && hedgeCall.isCompletedExceptionally()) {
+        recordAttemptFailure(hedgeServer);
+        recordOutlierFailure(route, hedgeServer);
+      }
+      if (winner != null && winner.server() == hedgeServer) {
+        if (primaryCancelled) {
+          recordLowerBoundLatency(route, primary, System.nanoTime() - primaryStart);
+        } else if (primaryCall.isCompletedExceptionally()) {
+          recordAttemptFailure(primary);
+          recordOutlierFailure(route, primary);
+        }
+      }
+    }
+  }
+
+  private boolean isHedgeable(Route route, HttpServletRequest request) {
+    return properties.getHedging().isEnabled()
+        && hedgingManager.isHedgeable(request.getMethod())
+        && route.getService().getServers().size() > 1;
+  }
+
+  /**
+   * Daha önce denenmemiş ve circuit'i açık olmayan bir server seç (yoksa null)
+   */
+  private Server selectAlternateServer(Route route, String clientIp, List<Server> excluded) {
+    try {
+      Server candidate = route.getService().selectServer(clientIp, excluded);
+      if (LoadBalancingStrategy.isExcluded(candidate, excluded) || isCircuitOpen(candidate)) {
+        return null;
+      }
+      return candidate;
+    } catch (IllegalStateException e) {
+      return null;
+    }
+  }
+
+  /**
+   * İki denemeden ilk cevap vereni döndürür; ikisi de hata verirse son hata ile tamamlanır
+   */
+  private CompletableFuture<UpstreamResponse> firstResponse(Server primary, long primaryStart,
+      CompletableFuture<ResponseEntity<byte[]>> primaryCall, Server hedgeServer, long hedgeStart,
+      CompletableFuture<ResponseEntity<byte[]>> hedgeCall) {
+
+    CompletableFuture<UpstreamResponse> first = new CompletableFuture<>();
+    AtomicInteger failures = new AtomicInteger(0);
+
+    primaryCall.whenComplete((response, error) ->
+        completeFirst(first, failures, primary, primaryStart, response, error));
+    hedgeCall.whenComplete((response, error) ->
+        completeFirst(first, failures, hedgeServer, hedgeStart, response, error));
+
+    return first;
+  }
+
+  private void completeFirst(CompletableFuture<UpstreamResponse> first, AtomicInteger failures,
+      Server server, long startNanos, ResponseEntity<byte[]> response, Throwable error) {
+    if (error == null) {
+      first.complete(new UpstreamResponse(server, response, startNanos));
+    } else if (failures.incrementAndGet() == 2) {
+      first.completeExceptionally(error);
+    }
+  }
+
+  private void recordAttemptFailure(Server server) {
+    if (properties.getCircuitBreaker().isEnabled()) {
+      circuitBreaker.recordFailure(server);
+    }
+  }
+
+  /**
+   * Denemenin sonucunu outlier detection'a bildir
+   * latencyNanos cevap veren server'ın süresidir (hata varsa denenen server'ın).
+   */
+  private void recordOutlierResult(Route route, Server server, UpstreamResponse upstream,
+      IOException error, long latencyNanos) {
+    if (!properties.getOutlierDetection().isEnabled()) {
+      return;
+    }
+    if (error != null) {
+      outlierDetector.recordError(route.getServiceName(), server, true);
+      return;
+    }
+
+    Server responder = upstream.server();
+    int status = upstream.response().getStatusCode().value();
+    if (status == 502 || status == 503 || status == 504) {
+      outlierDetector.recordError(route.getServiceName(), responder, true);
+    } else if (status >= 500) {
+      outlierDetector.recordError(route.getServiceName(), responder, false);
+    } else {
+      outlierDetector.recordSuccess(route.getServiceName(), responder, latencyNanos);
+    }
   }
 
-  private void handleSuccess(Server server, String serviceName, long duration, LoadBalancingStrategy strategy) {
+  /**
+   * Denemenin sonucunu cevap veren server'ın istatistiklerine kaydet (canary analizi)
+   * Bağlantı hataları, timeout'lar ve 5xx cevaplar hata sayılır.
+   */
+  private void recordResponseStats(Server server, UpstreamResponse upstream, IOException error,
+      long latencyNanos) {
+    if (error != null) {
+      server.getResponseStats().record(latencyNanos, true);
+      return;
+    }
+    Server responder = upstream.server();
+    responder.getResponseStats().record(latencyNanos,
+        upstream.response().getStatusCode().is5xxServerError());
+  }
+
+  /**
+   * Hedge'e kaybeden primary'nin iptal anına kadarki süresi (gerçek latency en az bu kadardır)
+   */
+  private void recordLowerBoundLatency(Route route, Server server, long elapsedNanos) {
+    server.getResponseStats().recordLatency(elapsedNanos);
+    if (properties.getOutlierDetection().isEnabled()) {
+      outlierDetector.recordLatency(route.getServiceName(), server, elapsedNanos);
+    }
+  }
+
+  private void recordOutlierFailure(Route route, Server server) {
+    if (properties.getOutlierDetection().isEnabled()) {
+      outlierDetector.recordError(route.getServiceName(), server, true);
+    }
+  }
+
+  private boolean isConcurrencyLimited(Route route) {
+    if (properties.getConcurrencyLimit().isEnabled()) {
+      if (!route.getLimiter().tryAcquire()) {
+        log.warn("Concurrency limit reached for service: {} (limit: {})",
+            route.getServiceName(), route.getLimiter().getLimit());
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void handleSuccess(Server server, Route route, long duration, long upstreamNanos) {
     server.updateResponseTime(duration);
-    metrics.recordSuccess(serviceName, duration);
-    strategy.onRequestComplete(server);
+    metrics.recordSuccess(route.getMeters(), duration);
+
+    if (properties.getConcurrencyLimit().isEnabled()) {
+      route.getLimiter().onSuccess(upstreamNanos);
+    }
 
     if (properties.getCircuitBreaker().isEnabled()) {
       circuitBreaker.recordSuccess(server);
     }
   }
 
-  private void handleFailure(Server server, String serviceName, long duration, Exception e) {
-    metrics.recordError(serviceName, duration);
-    log.error("Proxy error for {} in {}ms: {}", server.getUrl(), duration, e.getMessage());
+  /**
+   * @param overloadSignal false ise (4xx) hata backend'in yük durumu hakkında bilgi vermez
+   */
+  private void handleFailure(Server server, Route route, long duration, boolean overloadSignal,
+      String reason) {
+    metrics.recordError(route.getMeters(), duration);
+    log.error("Proxy error for {} in {}ms: {}", server.getUrl(), duration, reason);
+
+    if (properties.getConcurrencyLimit().isEnabled()) {
+      if (overloadSignal) {
+        route.getLimiter().onDropped();
+      } else {
+        route.getLimiter().onIgnore();
+      }
+    }
 
     if (properties.getCircuitBreaker().isEnabled()) {
       // Re-select server to ensure we are recording failure for the correct instance logic
@@ -199,44 +698,70 @@ public class ProxyController {
     }
   }
 
-  private ResponseEntity<?> createResponseWithSession(ResponseEntity<String> response, HttpServletRequest request) {
-    ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+  private ResponseEntity<?> createResponseWithSession(ResponseEntity<byte[]> response,
+      HttpServletRequest request) {
+    // Hop-by-hop header'lar UpstreamClient'ta zaten ayıklandı; cevap kopyalanmadan yazılır
+    if (!properties.getStickySession().isEnabled()) {
+      return response;
+    }
 
-    // Filter out hop-by-hop headers
-    response.getHeaders().forEach((key, value) -> {
-      if (!HOP_BY_HOP_HEADERS.contains(key.toLowerCase())) {
-        responseBuilder.header(key, value.toArray(new String[0]));
-      }
-    });
+    ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode())
+        .headers(response.getHeaders());
 
-    if (properties.getStickySession().isEnabled()) {
-      String sessionId = getSessionId(request);
-      if (sessionId == null) {
-        sessionId = stickySessionManager.generateSessionId();
-      }
-      addStickySessionCookie(responseBuilder, sessionId);
+    String sessionId = getSessionId(request);
+    if (sessionId == null) {
+      sessionId = stickySessionManager.generateSessionId();
     }
+    addStickySessionCookie(responseBuilder, sessionId);
 
     return responseBuilder.body(response.getBody());
   }
 
+  /**
+   * Başka bir request'in cevabını paylaşan follower için cevap
+   * Leader'ın sticky session cookie'si follower'ınkiyle değiştirilir.
+   */
+  private ResponseEntity<?> createSharedResponse(ResponseEntity<?> shared,
+      HttpServletRequest request) {
+    String cookiePrefix = properties.getStickySession().getCookieName() + "=";
+    List<String> cookies = shared.getHeaders().get(HttpHeaders.SET_COOKIE);
+    if (!properties.getStickySession().isEnabled() || cookies == null
+        || cookies.stream().noneMatch(cookie -> cookie.startsWith(cookiePrefix))) {
+      return shared;
+    }
+
+    List<String> otherCookies = cookies.stream()
+        .filter(cookie -> !cookie.startsWith(cookiePrefix))
+        .toList();
+    ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(shared.getStatusCode())
+        .headers(shared.getHeaders())
+        .headers(headers -> headers.put(HttpHeaders.SET_COOKIE, new ArrayList<>(otherCookies)));
+
+    String sessionId = getSessionId(request);
+    addStickySessionCookie(responseBuilder,
+        sessionId != null ? sessionId : stickySessionManager.generateSessionId());
+    return responseBuilder.body(shared.getBody());
+  }
+
   private void addStickySessionCookie(ResponseEntity.BodyBuilder responseBuilder, String sessionId) {
     long maxAge = properties.getStickySession().getSessionTimeoutMinutes() * 60;
-    String cookieValue = String.format("%s=%s; Path=/; HttpOnly; Max-Age=%d",
-        properties.getStickySession().getCookieName(), sessionId, maxAge);
-    responseBuilder.header("Set-Cookie", cookieValue);
+    responseBuilder.header(HttpHeaders.SET_COOKIE, properties.getStickySession().getCookieName()
+        + "=" + sessionId + "; Path=/; HttpOnly; Max-Age=" + maxAge);
   }
 
   private ResponseEntity<?> createErrorResponse(Exception e) {
-    HttpStatus status = HttpStatus.BAD_GATEWAY;
-    String message = "Load Balancer Error: " + e.getMessage();
+    return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+        .body("Load Balancer Error: " + e.getMessage());
+  }
 
-    if (e instanceof HttpStatusCodeException) {
-      status = (HttpStatus) ((HttpStatusCodeException) e).getStatusCode();
-      message = ((HttpStatusCodeException) e).getResponseBodyAsString();
-    }
+  private ResponseEntity<?> createGatewayTimeoutResponse(Server server) {
+    return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+        .body("Upstream timeout: " + server.getUrl());
+  }
 
-    return ResponseEntity.status(status).body(message);
+  private ResponseEntity<?> createDeadlineExceededResponse(Deadline deadline) {
+    return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+        .body("Deadline exceeded (remaining budget: " + deadline.remainingMillis() + "ms)");
   }
 
   private ResponseEntity<?> createRateLimitResponse() {
@@ -246,6 +771,27 @@ public class ProxyController {
         .body("Rate limit exceeded. Please try again later.");
   }
 
+  private ResponseEntity<?> createNoRouteResponse(HttpServletRequest request) {
+    log.warn("No route for: {} {}", request.getMethod(), request.getRequestURI());
+    return ResponseEntity.status(HttpStatus.NOT_FOUND)
+        .body("No route for: " + request.getRequestURI());
+  }
+
+  private ResponseEntity<?> createLoadShedResponse() {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER,
+            String.valueOf(properties.getLoadShedding().getRetryAfterSeconds()))
+        .body("Load balancer overloaded, please retry later.");
+  }
+
+  private ResponseEntity<?> createConcurrencyLimitResponse(Route route) {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER,
+            String.valueOf(properties.getConcurrencyLimit().getRetryAfterSeconds()))
+        .header("X-Concurrency-Limit", String.valueOf(route.getLimiter().getLimit()))
+        .body("Service overloaded, please retry: " + route.getServiceName());
+  }
+
   private ResponseEntity<?> createServiceUnavailableResponse(Server server) {
     return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
         .body("Service temporarily unavailable: " + server.getUrl());
@@ -262,6 +808,14 @@ public class ProxyController {
     return null;
   }
 
+  /**
+   * Upstream cevabı ve cevabı veren server (hedging'de primary olmayabilir)
+   *
+   * @param startNanos Cevap veren server'a yapılan çağrının başlangıcı (latency için)
+   */
+  private record UpstreamResponse(Server server, ResponseEntity<byte[]> response,
+      long startNanos) {}
+
   private String getClientIp(HttpServletRequest request) {
     String xForwardedFor = request.getHeader("X-Forwarded-For");
     if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
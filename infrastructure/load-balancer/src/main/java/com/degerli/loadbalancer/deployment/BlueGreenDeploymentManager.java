@@ -1,17 +1,35 @@
 package com.degerli.loadbalancer.deployment;
 
+import com.degerli.loadbalancer.config.LoadBalancerProperties.BlueGreenConfig;
+import com.degerli.loadbalancer.config.LoadBalancerProperties.ServiceConfig;
+import com.degerli.loadbalancer.deployment.CanaryAnalyzer.Analysis;
+import com.degerli.loadbalancer.deployment.CanaryAnalyzer.EnvironmentMetrics;
+import com.degerli.loadbalancer.deployment.CanaryAnalyzer.Verdict;
+import com.degerli.loadbalancer.deployment.TrafficSplitter.Environment;
 import com.degerli.loadbalancer.model.Server;
+import com.degerli.loadbalancer.model.Server.DrainState;
+import com.degerli.loadbalancer.registry.RegisteredService;
+import com.degerli.loadbalancer.registry.RegistryListener;
+import com.degerli.loadbalancer.registry.ServiceRegistry;
+import jakarta.annotation.PostConstruct;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import lombok.Data;
+import java.util.concurrent.atomic.LongAdder;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
 
 /**
  * Blue-Green Deployment Manager
@@ -23,201 +41,499 @@ import lombok.extern.slf4j.Slf4j;
  * 1. Instant: Anında switch
  * 2. Gradual: Kademeli trafik artırma (canary)
  * 3. Scheduled: Zamanlanmış switch
+ * <p>
+ * Environment'lar servisin upstream url'leriyle tanımlanır; trafik payı request başına
+ * {@link TrafficSplitter} ile uygulanır (%0.1 çözünürlük). Switch sonrası yeni aktif
+ * environment'ın serverları registry'de rotasyona alınır, eski environment'ınkiler drain
+ * edilir: yeni request almazlar, in-flight request ve WebSocket session'ları bitince DRAINED
+ * olurlar. Yeni bir switch/rollback, bekleyen kademeli veya zamanlanmış adımları iptal eder.
+ * <p>
+ * Kademeli switch'te her adım {@link CanaryAnalyzer} ile kapılanır: adım penceresinde hedef
+ * environment (canary) aktif environment'la (baseline) karşılaştırılır; geçerse pay artar,
+ * veri yetersizse adım uzar, başarısızsa otomatik rollback yapılır. Kararlar servis başına
+ * son {@value #MAX_DECISIONS} kayıtla tutulur.
  */
 @Slf4j
-public class BlueGreenDeploymentManager {
+@Component
+public class BlueGreenDeploymentManager implements RegistryListener {
+
+  private static final int FULL_PERMILLE = 1000;
+  private static final int MAX_DECISIONS = 100;
+
+  private final Map<String, Deployment> services = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService scheduler =
+      Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "blue-green-deployment");
+        thread.setDaemon(true);
+        return thread;
+      });
+  private final ServiceRegistry serviceRegistry;
+  private final TrafficSplitter trafficSplitter;
+  private final CanaryAnalyzer canaryAnalyzer;
+  private final Map<Action, LongAdder> decisionCounts = new EnumMap<>(Action.class);
+
+  public BlueGreenDeploymentManager(ServiceRegistry serviceRegistry,
+      TrafficSplitter trafficSplitter, CanaryAnalyzer canaryAnalyzer) {
+    this.serviceRegistry = serviceRegistry;
+    this.trafficSplitter = trafficSplitter;
+    this.canaryAnalyzer = canaryAnalyzer;
+    for (Action action : Action.values()) {
+      decisionCounts.put(action, new LongAdder());
+    }
+  }
 
-  private final Map<String, DeploymentEnvironment> services = new ConcurrentHashMap<>();
-  private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+  @PostConstruct
+  public void initialize() {
+    // Runtime'da (admin API, file discovery) eklenen servislerin deployment ayarı da uygulanır
+    serviceRegistry.addListener(this);
+    serviceRegistry.getServiceNames().forEach(this::applyConfig);
+  }
+
+  // Listener'lar registry kilidi altında çağrılır, switch'ler ise manager kilidini tutarken
+  // registry'yi çağırır; kilit sırası ters dönmesin diye iş manager thread'ine bırakılır.
+  @Override
+  public void onServiceAdded(RegisteredService service) {
+    scheduler.execute(() -> applyConfig(service.getName()));
+  }
+
+  @Override
+  public void onServiceRemoved(RegisteredService service) {
+    scheduler.execute(() -> removeEnvironments(service.getName()));
+  }
+
+  private void applyConfig(String serviceName) {
+    ServiceConfig serviceConfig = serviceRegistry.getServiceConfig(serviceName);
+    BlueGreenConfig config = serviceConfig != null ? serviceConfig.getDeployment() : null;
+    if (config == null) {
+      return;
+    }
+    try {
+      defineEnvironments(serviceName, config.getBlue(), config.getGreen(),
+          config.getGreenTrafficPercent());
+    } catch (IllegalArgumentException e) {
+      log.error("Invalid deployment config for service '{}': {}", serviceName, e.getMessage());
+    }
+  }
 
   /**
-   * Servis için environment'ları tanımla
+   * Servis için environment'ları tanımla ve trafiği bölmeye başla
+   * Green payı %100 ise green aktif environment sayılır.
+   *
+   * @throws IllegalArgumentException servis yoksa, listeler boşsa veya kesişiyorsa
    */
-  public void defineEnvironments(String serviceName, List<Server> blueServers,
-      List<Server> greenServers) {
-    DeploymentEnvironment env = new DeploymentEnvironment(serviceName, blueServers,
-        greenServers);
-    services.put(serviceName, env);
-    log.info("Defined environments for service: {} (blue: {}, green: {})", serviceName,
-        blueServers.size(), greenServers.size());
+  public synchronized void defineEnvironments(String serviceName, List<String> blueUrls,
+      List<String> greenUrls, double greenTrafficPercent) {
+    if (serviceRegistry.getService(serviceName) == null) {
+      throw new IllegalArgumentException("Unknown service: " + serviceName);
+    }
+    if (blueUrls.isEmpty() || greenUrls.isEmpty()) {
+      throw new IllegalArgumentException("Both blue and green upstreams are required");
+    }
+    Set<String> overlap = new HashSet<>(blueUrls);
+    overlap.retainAll(greenUrls);
+    if (!overlap.isEmpty()) {
+      throw new IllegalArgumentException("Upstreams in both environments: " + overlap);
+    }
+    int greenPermille = toPermille(greenTrafficPercent);
+
+    Deployment previous = services.get(serviceName);
+    if (previous != null) {
+      previous.cancelPending();
+    }
+    Deployment deployment = new Deployment(serviceName, Set.copyOf(blueUrls),
+        Set.copyOf(greenUrls));
+    deployment.activeEnvironment =
+        greenPermille == FULL_PERMILLE ? Environment.GREEN : Environment.BLUE;
+    services.put(serviceName, deployment);
+    trafficSplitter.split(serviceName, blueUrls, greenUrls, greenPermille);
+
+    log.info("Defined environments for service: {} (blue: {}, green: {}, green traffic: {}%)",
+        serviceName, blueUrls.size(), greenUrls.size(), greenPermille / 10.0);
   }
 
   /**
-   * Aktif serverları al (mevcut traffic dağılımına göre)
+   * Servisin environment'larını kaldır (trafik tekrar tüm serverlara dağılır)
    */
-  public List<Server> getActiveServers(String serviceName) {
-    DeploymentEnvironment env = services.get(serviceName);
-    if (env == null) {
-      throw new IllegalArgumentException("Unknown service: " + serviceName);
+  public synchronized void removeEnvironments(String serviceName) {
+    Deployment deployment = services.remove(serviceName);
+    if (deployment != null) {
+      deployment.cancelPending();
+      trafficSplitter.remove(serviceName);
+      log.info("Removed environments of service: {}", serviceName);
     }
+  }
 
-    return env.getActiveServers();
+  /**
+   * Green'e giden trafik payını ayarla (canary), aktif environment değişmez
+   *
+   * @param greenTrafficPercent 0-100, %0.1 çözünürlük
+   */
+  public synchronized void setGreenTraffic(String serviceName, double greenTrafficPercent) {
+    Deployment deployment = requireDeployment(serviceName);
+    int greenPermille = toPermille(greenTrafficPercent);
+    deployment.cancelPending();
+
+    // Trafik alacak environment önceki bir switch'te drain edilmiş olabilir
+    if (greenPermille > 0) {
+      setDraining(deployment, Environment.GREEN, false);
+    }
+    if (greenPermille < FULL_PERMILLE) {
+      setDraining(deployment, Environment.BLUE, false);
+    }
+    trafficSplitter.setGreenPermille(serviceName, greenPermille);
+    log.info("Green traffic for {} set to {}%", serviceName, greenPermille / 10.0);
   }
 
   /**
    * Anında switch yap
    */
-  public void switchInstant(String serviceName) {
-    DeploymentEnvironment env = services.get(serviceName);
-    if (env == null) {
-      throw new IllegalArgumentException("Unknown service: " + serviceName);
-    }
+  public synchronized void switchInstant(String serviceName) {
+    Deployment deployment = requireDeployment(serviceName);
+    deployment.cancelPending();
 
-    env.switchInstant();
+    switchTo(deployment, deployment.inactiveEnvironment());
     log.info("Instant switch completed for service: {} (now active: {})", serviceName,
-        env.getActiveEnvironment());
+        deployment.activeEnvironment);
   }
 
   /**
    * Kademeli switch başlat (Canary deployment)
+   * Pasif environment'ın payı her adımda eşit artar; son adımda switch tamamlanır. Canary
+   * analizi açıksa her adım, adım penceresinde canary ile baseline karşılaştırılıp geçerse
+   * ilerler; başarısız adım aktif environment'a otomatik rollback yapar.
    */
-  public void switchGradual(String serviceName, Duration duration, int steps) {
-    DeploymentEnvironment env = services.get(serviceName);
-    if (env == null) {
-      throw new IllegalArgumentException("Unknown service: " + serviceName);
+  public synchronized void switchGradual(String serviceName, Duration duration, int steps) {
+    Deployment deployment = requireDeployment(serviceName);
+    if (steps < 1 || duration.isNegative()) {
+      throw new IllegalArgumentException("Steps must be positive and duration non-negative");
     }
+    deployment.cancelPending();
+
+    Environment target = deployment.inactiveEnvironment();
+    setDraining(deployment, target, false);
 
-    long delayMs = duration.toMillis() / steps;
-    int incrementPerStep = 100 / steps;
+    Rollout rollout = new Rollout(target, deployment.activeEnvironment,
+        trafficSplitter.getGreenPermille(serviceName),
+        target == Environment.GREEN ? FULL_PERMILLE : 0, steps, duration.toMillis() / steps);
+    deployment.rollout = rollout;
+    startWindow(deployment, rollout);
 
-    log.info("Starting gradual switch for service: {} ({} steps over {} seconds)", serviceName,
-        steps, duration.getSeconds());
+    log.info("Starting gradual switch for service: {} to {} ({} steps over {} seconds, "
+            + "canary analysis: {})", serviceName, target, steps, duration.getSeconds(),
+        canaryAnalyzer.isEnabled() ? "on" : "off");
+
+    if (canaryAnalyzer.isEnabled()) {
+      long interval = Math.max(1, canaryAnalyzer.getSampleIntervalMs());
+      deployment.pending.add(scheduler.scheduleAtFixedRate(() -> sample(deployment, rollout),
+          0, interval, TimeUnit.MILLISECONDS));
+    }
+    deployment.pending.add(scheduler.schedule(() -> completeStep(deployment, rollout),
+        rollout.stepMs, TimeUnit.MILLISECONDS));
+  }
 
-    for (int i = 1; i <= steps; i++) {
-      final int greenPercentage = Math.min(i * incrementPerStep, 100);
-      scheduler.schedule(() -> {
-        env.setGreenTrafficPercentage(greenPercentage);
-        log.info("Gradual switch progress for {}: {}% green traffic", serviceName,
-            greenPercentage);
-      }, delayMs * i, TimeUnit.MILLISECONDS);
+  /**
+   * Adım süresi doldu: canary analizine göre sonraki adıma geç, bekle veya rollback yap
+   * İki environment da trafik almıyorsa (ör. ilk adım öncesi) karşılaştırma yapılmaz.
+   */
+  private synchronized void completeStep(Deployment deployment, Rollout rollout) {
+    if (deployment.rollout != rollout || services.get(deployment.serviceName) != deployment) {
+      return;
+    }
+    String serviceName = deployment.serviceName;
+    int greenPermille = trafficSplitter.getGreenPermille(serviceName);
+
+    if (canaryAnalyzer.isEnabled() && greenPermille > 0 && greenPermille < FULL_PERMILLE) {
+      CanaryDecision decision = analyzeStep(deployment, rollout, greenPermille);
+      record(deployment, decision);
+
+      if (decision.action() == Action.ROLLBACK) {
+        deployment.cancelPending();
+        switchTo(deployment, rollout.baseline);
+        log.warn("Canary analysis failed for service: {} at step {}/{}, rolled back to {}: {}",
+            serviceName, rollout.step, rollout.steps, rollout.baseline, decision.reasons());
+        return;
+      }
+      if (decision.action() == Action.HOLD) {
+        // Pencere sıfırlanmaz, veri birikmeye devam eder
+        log.info("Canary analysis inconclusive for service: {}, holding step {}/{}: {}",
+            serviceName, rollout.step, rollout.steps, decision.reasons());
+        deployment.pending.add(scheduler.schedule(() -> completeStep(deployment, rollout),
+            rollout.stepMs, TimeUnit.MILLISECONDS));
+        return;
+      }
     }
 
-    // Son adımda tam switch
-    scheduler.schedule(() -> {
-      env.switchInstant();
+    rollout.step++;
+    rollout.inconclusiveIntervals = 0;
+    if (rollout.step >= rollout.steps) {
+      deployment.cancelPending();
+      switchTo(deployment, rollout.target);
       log.info("Gradual switch completed for service: {}", serviceName);
-    }, duration.toMillis() + 1000, TimeUnit.MILLISECONDS);
+      return;
+    }
+
+    // Adım payları yuvarlanır; toplam sapma bir adımda birikmez
+    int nextPermille = rollout.fromPermille + (int) Math.round(
+        (rollout.toPermille - rollout.fromPermille) * (double) rollout.step / rollout.steps);
+    trafficSplitter.setGreenPermille(serviceName, nextPermille);
+    startWindow(deployment, rollout);
+    log.info("Gradual switch progress for {}: {}% green traffic", serviceName,
+        nextPermille / 10.0);
+    deployment.pending.add(scheduler.schedule(() -> completeStep(deployment, rollout),
+        rollout.stepMs, TimeUnit.MILLISECONDS));
+  }
+
+  private CanaryDecision analyzeStep(Deployment deployment, Rollout rollout,
+      int greenPermille) {
+    EnvironmentMetrics baseline = rollout.baselineWindow.metrics(
+        servers(deployment, rollout.baseline));
+    EnvironmentMetrics canary = rollout.canaryWindow.metrics(
+        servers(deployment, rollout.target));
+    Analysis analysis = canaryAnalyzer.analyze(baseline, canary);
+
+    Action action = switch (analysis.verdict()) {
+      case PASS -> Action.PROMOTE;
+      case FAIL -> Action.ROLLBACK;
+      case INCONCLUSIVE -> ++rollout.inconclusiveIntervals
+          > canaryAnalyzer.getMaxInconclusiveIntervals() ? Action.ROLLBACK : Action.HOLD;
+    };
+    double canaryPercent = (rollout.target == Environment.GREEN ? greenPermille
+        : FULL_PERMILLE - greenPermille) / 10.0;
+    return new CanaryDecision(LocalDateTime.now(), rollout.step, rollout.steps, canaryPercent,
+        analysis.verdict(), action, analysis.reasons(), baseline, canary);
+  }
+
+  private void startWindow(Deployment deployment, Rollout rollout) {
+    rollout.baselineWindow = new CanaryWindow(rollout.baseline,
+        servers(deployment, rollout.baseline));
+    rollout.canaryWindow = new CanaryWindow(rollout.target,
+        servers(deployment, rollout.target));
+  }
+
+  private synchronized void sample(Deployment deployment, Rollout rollout) {
+    if (deployment.rollout == rollout) {
+      rollout.baselineWindow.sample(servers(deployment, rollout.baseline));
+      rollout.canaryWindow.sample(servers(deployment, rollout.target));
+    }
+  }
+
+  private void record(Deployment deployment, CanaryDecision decision) {
+    decisionCounts.get(decision.action()).increment();
+    deployment.decisions.addFirst(decision);
+    if (deployment.decisions.size() > MAX_DECISIONS) {
+      deployment.decisions.removeLast();
+    }
+  }
+
+  /**
+   * Servisin canary analizi kararları (en yenisi başta)
+   */
+  public synchronized List<CanaryDecision> getDecisions(String serviceName) {
+    return new ArrayList<>(requireDeployment(serviceName).decisions);
+  }
+
+  /**
+   * Tüm servislerde verilen karar sayısı (metrics)
+   */
+  public long getDecisionCount(Action action) {
+    return decisionCounts.get(action).sum();
   }
 
   /**
    * Zamanlanmış switch
    */
-  public void switchScheduled(String serviceName, LocalDateTime switchTime) {
-    DeploymentEnvironment env = services.get(serviceName);
-    if (env == null) {
-      throw new IllegalArgumentException("Unknown service: " + serviceName);
-    }
+  public synchronized void switchScheduled(String serviceName, LocalDateTime switchTime) {
+    Deployment deployment = requireDeployment(serviceName);
 
     Duration delay = Duration.between(LocalDateTime.now(), switchTime);
     if (delay.isNegative()) {
       throw new IllegalArgumentException("Switch time must be in the future");
     }
+    deployment.cancelPending();
 
-    log.info("Scheduled switch for service: {} at {}", serviceName, switchTime);
+    Environment target = deployment.inactiveEnvironment();
+    log.info("Scheduled switch for service: {} to {} at {}", serviceName, target, switchTime);
 
-    scheduler.schedule(() -> {
-      env.switchInstant();
+    deployment.pending.add(scheduler.schedule(() -> {
+      synchronized (this) {
+        switchTo(deployment, target);
+      }
       log.info("Scheduled switch executed for service: {}", serviceName);
-    }, delay.toMillis(), TimeUnit.MILLISECONDS);
+    }, delay.toMillis(), TimeUnit.MILLISECONDS));
   }
 
   /**
-   * Rollback yap (green'den blue'ya geri dön)
+   * Rollback yap (green'den blue'ya geri dön, devam eden canary'yi geri al)
    */
-  public void rollback(String serviceName) {
-    DeploymentEnvironment env = services.get(serviceName);
-    if (env == null) {
-      throw new IllegalArgumentException("Unknown service: " + serviceName);
-    }
+  public synchronized void rollback(String serviceName) {
+    Deployment deployment = requireDeployment(serviceName);
+    deployment.cancelPending();
 
-    if (env.getActiveEnvironment() == Environment.BLUE) {
+    if (deployment.activeEnvironment == Environment.BLUE
+        && trafficSplitter.getGreenPermille(serviceName) == 0) {
       log.warn("Already on blue environment, cannot rollback: {}", serviceName);
       return;
     }
 
-    env.switchInstant();
+    switchTo(deployment, Environment.BLUE);
     log.info("Rollback completed for service: {} (reverted to blue)", serviceName);
   }
 
   /**
-   * Deployment durumu
+   * Trafiği tamamen hedef environment'a ver; hedefi rotasyona al, diğerini drain et
    */
-  public DeploymentStatus getStatus(String serviceName) {
-    DeploymentEnvironment env = services.get(serviceName);
-    if (env == null) {
-      throw new IllegalArgumentException("Unknown service: " + serviceName);
+  private void switchTo(Deployment deployment, Environment target) {
+    // Manager'dan kaldırılmış veya yeniden tanımlanmışsa eski adım uygulanmaz
+    if (services.get(deployment.serviceName) != deployment) {
+      return;
     }
+    deployment.activeEnvironment = target;
+    setDraining(deployment, target, false);
+    trafficSplitter.setGreenPermille(deployment.serviceName,
+        target == Environment.GREEN ? FULL_PERMILLE : 0);
+    setDraining(deployment, target == Environment.GREEN ? Environment.BLUE : Environment.GREEN,
+        true);
+  }
 
-    return new DeploymentStatus(serviceName, env.getActiveEnvironment(),
-        env.getGreenTrafficPercentage(), env.getBlueServers().size(),
-        env.getGreenServers().size());
+  /**
+   * Environment'ın registry'de kayıtlı serverlarını drain et veya rotasyona al
+   */
+  private void setDraining(Deployment deployment, Environment environment, boolean draining) {
+    servers(deployment, environment).forEach(server -> {
+      try {
+        serviceRegistry.setDraining(deployment.serviceName, server.getUrl(), draining);
+      } catch (IllegalArgumentException e) {
+        log.warn("Blue-green switch of {}: {}", deployment.serviceName, e.getMessage());
+      }
+    });
+  }
+
+  private List<Server> servers(Deployment deployment, Environment environment) {
+    Set<String> urls = environment == Environment.GREEN ? deployment.greenUrls
+        : deployment.blueUrls;
+    return serviceRegistry.getServers(deployment.serviceName).stream()
+        .filter(server -> urls.contains(server.getUrl()))
+        .toList();
+  }
+
+  private Deployment requireDeployment(String serviceName) {
+    Deployment deployment = services.get(serviceName);
+    if (deployment == null) {
+      throw new IllegalArgumentException("No deployment environments for: " + serviceName);
+    }
+    return deployment;
+  }
+
+  private static int toPermille(double percent) {
+    if (!(percent >= 0 && percent <= 100)) {
+      throw new IllegalArgumentException("Traffic percent must be between 0 and 100: "
+          + percent);
+    }
+    return (int) Math.round(percent * 10);
   }
 
   /**
-   * Deployment Environment
+   * Deployment durumu (pasif environment'ın drain ilerlemesi ve gözlenen trafik payıyla)
    */
-  @Data
-  private static class DeploymentEnvironment {
+  public synchronized DeploymentStatus getStatus(String serviceName) {
+    Deployment deployment = requireDeployment(serviceName);
+
+    List<Server> inactive = servers(deployment, deployment.inactiveEnvironment());
+    Map<String, Object> traffic = trafficSplitter.getStats(serviceName);
+    return new DeploymentStatus(serviceName, deployment.activeEnvironment,
+        trafficSplitter.getGreenPermille(serviceName) / 10.0,
+        servers(deployment, Environment.BLUE).size(),
+        servers(deployment, Environment.GREEN).size(),
+        (int) inactive.stream().filter(s -> s.getDrainState() == DrainState.DRAINING).count(),
+        (int) inactive.stream().filter(s -> s.getDrainState() == DrainState.DRAINED).count(),
+        deployment.pending.stream().anyMatch(step -> !step.isDone()),
+        traffic, deployment.decisions.peekFirst());
+  }
+
+  /**
+   * Bir servisin environment'ları ve bekleyen switch adımları
+   */
+  private static class Deployment {
     private final String serviceName;
-    private final List<Server> blueServers;
-    private final List<Server> greenServers;
+    private final Set<String> blueUrls;
+    private final Set<String> greenUrls;
+    private final List<ScheduledFuture<?>> pending = new ArrayList<>();
+    private final Deque<CanaryDecision> decisions = new ArrayDeque<>();
 
     private volatile Environment activeEnvironment = Environment.BLUE;
-    private volatile int greenTrafficPercentage = 0; // 0-100
+    private Rollout rollout;
 
-    DeploymentEnvironment(String serviceName, List<Server> blueServers,
-        List<Server> greenServers) {
+    private Deployment(String serviceName, Set<String> blueUrls, Set<String> greenUrls) {
       this.serviceName = serviceName;
-      this.blueServers = new ArrayList<>(blueServers);
-      this.greenServers = new ArrayList<>(greenServers);
+      this.blueUrls = blueUrls;
+      this.greenUrls = greenUrls;
     }
 
-    void switchInstant() {
-      activeEnvironment = (activeEnvironment == Environment.BLUE) ? Environment.GREEN
-          : Environment.BLUE;
-      greenTrafficPercentage = (activeEnvironment == Environment.GREEN) ? 100 : 0;
+    private Environment inactiveEnvironment() {
+      return activeEnvironment == Environment.BLUE ? Environment.GREEN : Environment.BLUE;
     }
 
-    List<Server> getActiveServers() {
-      if (greenTrafficPercentage == 0) {
-        return new ArrayList<>(blueServers);
-      } else if (greenTrafficPercentage == 100) {
-        return new ArrayList<>(greenServers);
-      } else {
-        // Karma: Percentage'e göre blue ve green'den server seç
-        List<Server> mixed = new ArrayList<>();
+    private void cancelPending() {
+      // Çalışmakta olan adım iptal edilemez; rollout'un değiştiğini görüp durur
+      rollout = null;
+      pending.forEach(step -> step.cancel(false));
+      pending.clear();
+    }
+  }
 
-        int totalCount = 10; // Sabit pool size
-        int greenCount = (totalCount * greenTrafficPercentage) / 100;
-        int blueCount = totalCount - greenCount;
+  /**
+   * @param traffic      Request sayaçları ve gözlenen green payı
+   * @param lastDecision Son canary analizi kararı (yoksa null)
+   */
+  public record DeploymentStatus(String serviceName, Environment activeEnvironment,
+      double greenTrafficPercent, int blueServerCount, int greenServerCount,
+      int drainingServerCount, int drainedServerCount, boolean switchInProgress,
+      Map<String, Object> traffic, CanaryDecision lastDecision) {}
 
-        for (int i = 0; i < blueCount && i < blueServers.size(); i++) {
-          mixed.add(blueServers.get(i % blueServers.size()));
-        }
-        for (int i = 0; i < greenCount && i < greenServers.size(); i++) {
-          mixed.add(greenServers.get(i % greenServers.size()));
-        }
+  /**
+   * Canary analizi kararı
+   *
+   * @param step          Kararın verildiği adım (0 → ilk adım öncesi, mevcut canary payı)
+   * @param canaryPercent Adımda hedef environment'ın trafik payı
+   */
+  public record CanaryDecision(LocalDateTime time, int step, int steps, double canaryPercent,
+      Verdict verdict, Action action, List<String> reasons, EnvironmentMetrics baseline,
+      EnvironmentMetrics canary) {}
 
-        return mixed;
-      }
-    }
+  /**
+   * PROMOTE: sonraki adıma geç, HOLD: veri yetersiz, adımı uzat, ROLLBACK: aktif
+   * environment'a dön
+   */
+  public enum Action {
+    PROMOTE,
+    HOLD,
+    ROLLBACK
   }
 
-  public enum Environment {
-    BLUE,
-    GREEN
+  /**
+   * Devam eden kademeli switch: adım planı ve adımın ölçüm pencereleri
+   */
+  private static class Rollout {
+    private final Environment target;
+    private final Environment baseline;
+    private final int fromPermille;
+    private final int toPermille;
+    private final int steps;
+    private final long stepMs;
+
+    private int step;
+    private int inconclusiveIntervals;
+    private CanaryWindow baselineWindow;
+    private CanaryWindow canaryWindow;
+
+    private Rollout(Environment target, Environment baseline, int fromPermille,
+        int toPermille, int steps, long stepMs) {
+      this.target = target;
+      this.baseline = baseline;
+      this.fromPermille = fromPermille;
+      this.toPermille = toPermille;
+      this.steps = steps;
+      this.stepMs = stepMs;
+    }
   }
-
-  public record DeploymentStatus(String serviceName, Environment activeEnvironment,
-      int greenTrafficPercentage, int blueServerCount, int greenServerCount) {}
 }
-
-/**
- * Admin API için endpoint'ler:
- * <p>
- * POST /admin/deployment/{serviceName}/switch/instant
- * POST /admin/deployment/{serviceName}/switch/gradual?durationSeconds=300&steps=10
- * POST /admin/deployment/{serviceName}/switch/scheduled?switchTime=2024-12-07T02:00:00
- * POST /admin/deployment/{serviceName}/rollback
- * GET  /admin/deployment/{serviceName}/status
- */
\ No newline at end of file
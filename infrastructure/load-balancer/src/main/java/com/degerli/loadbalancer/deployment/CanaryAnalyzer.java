@@ -0,0 +1,123 @@
+package com.degerli.loadbalancer.deployment;
+
+import com.degerli.loadbalancer.config.LoadBalancerProperties;
+import com.degerli.loadbalancer.config.LoadBalancerProperties.CanaryAnalysisConfig;
+import com.degerli.loadbalancer.deployment.TrafficSplitter.Environment;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import org.springframework.stereotype.Component;
+
+/**
+ * Kademeli switch adımında canary'yi (hedef environment) baseline ile (aktif environment)
+ * karşılaştırır
+ * <p>
+ * Kontroller:
+ * 1. Hata oranı: tek yönlü iki oran z-testi; canary anlamlı derecede kötüyse VE fark
+ * margin'i aşıyorsa başarısız (yüksek trafikte küçük farklar rollback yaptırmaz)
+ * 2. p99 latency: canary p99'u baseline p99 * oran + toleransı aşarsa başarısız
+ * 3. Doluluk: canary serverlarının ortalama in-flight / max connection oranı eşiği ve
+ * baseline'ı aşarsa; backend'ler yük raporu gönderiyorsa request başına CPU baseline'ın
+ * oranını aşarsa başarısız
+ * <p>
+ * Environment'lardan biri adım penceresinde minimumRequests'e ulaşmadıysa karar verilmez.
+ */
+@Component
+public class CanaryAnalyzer {
+
+  private final CanaryAnalysisConfig config;
+
+  public CanaryAnalyzer(LoadBalancerProperties properties) {
+    this.config = properties.getCanaryAnalysis();
+  }
+
+  public boolean isEnabled() {
+    return config.isEnabled();
+  }
+
+  public long getSampleIntervalMs() {
+    return config.getSampleIntervalMs();
+  }
+
+  public int getMaxInconclusiveIntervals() {
+    return config.getMaxInconclusiveIntervals();
+  }
+
+  /**
+   * Adım penceresinin ölçümlerini karşılaştır
+   */
+  public Analysis analyze(EnvironmentMetrics baseline, EnvironmentMetrics canary) {
+    long minimum = config.getMinimumRequests();
+    if (baseline.requests() < minimum || canary.requests() < minimum) {
+      return new Analysis(Verdict.INCONCLUSIVE, List.of(String.format(Locale.ROOT,
+          "Not enough requests (baseline: %d, canary: %d, required: %d)",
+          baseline.requests(), canary.requests(), minimum)));
+    }
+
+    List<String> failures = new ArrayList<>();
+
+    double zScore = errorRateZScore(baseline, canary);
+    double increasePercent = (canary.errorRate() - baseline.errorRate()) * 100;
+    if (zScore > config.getErrorRateZScore()
+        && increasePercent > config.getErrorRateMarginPercent()) {
+      failures.add(String.format(Locale.ROOT, "Error rate %.2f%% vs baseline %.2f%% (z=%.2f)",
+          canary.errorRate() * 100, baseline.errorRate() * 100, zScore));
+    }
+
+    double latencyLimit = baseline.p99Millis() * config.getMaxLatencyRatio()
+        + config.getLatencyToleranceMs();
+    if (canary.p99Millis() > latencyLimit) {
+      failures.add(String.format(Locale.ROOT,
+          "p99 latency %.1fms vs baseline %.1fms (limit: %.1fms)", canary.p99Millis(),
+          baseline.p99Millis(), latencyLimit));
+    }
+
+    if (canary.saturationPercent() > config.getMaxSaturationPercent()
+        && canary.saturationPercent() > baseline.saturationPercent()) {
+      failures.add(String.format(Locale.ROOT, "Saturation %.1f%% vs baseline %.1f%%",
+          canary.saturationPercent(), baseline.saturationPercent()));
+    }
+
+    if (canary.cpuPerRequest() != null && baseline.cpuPerRequest() != null
+        && baseline.cpuPerRequest() > 0
+        && canary.cpuPerRequest() > baseline.cpuPerRequest() * config.getMaxCpuRatio()) {
+      failures.add(String.format(Locale.ROOT, "CPU per request %.2fx baseline",
+          canary.cpuPerRequest() / baseline.cpuPerRequest()));
+    }
+
+    return failures.isEmpty() ? new Analysis(Verdict.PASS, List.of("All checks passed"))
+        : new Analysis(Verdict.FAIL, failures);
+  }
+
+  /**
+   * Canary hata oranının baseline'dan büyüklüğü için z değeri (birleşik oranla)
+   */
+  private static double errorRateZScore(EnvironmentMetrics baseline,
+      EnvironmentMetrics canary) {
+    double pooled = (double) (baseline.errors() + canary.errors())
+        / (baseline.requests() + canary.requests());
+    double standardError = Math.sqrt(pooled * (1 - pooled)
+        * (1.0 / baseline.requests() + 1.0 / canary.requests()));
+    // İki environment'ta da hiç hata yoksa (veya hepsi hataysa) fark yok
+    return standardError > 0 ? (canary.errorRate() - baseline.errorRate()) / standardError : 0;
+  }
+
+  public enum Verdict {
+    PASS,
+    FAIL,
+    INCONCLUSIVE
+  }
+
+  public record Analysis(Verdict verdict, List<String> reasons) {}
+
+  /**
+   * Bir environment'ın adım penceresindeki ölçümleri
+   *
+   * @param saturationPercent Ortalama in-flight / max connection (yüzde)
+   * @param cpuPerRequest     Ortalama CPU / server başına saniyelik request (yük raporu yoksa
+   *                          null)
+   */
+  public record EnvironmentMetrics(Environment environment, int servers, long requests,
+      long errors, double errorRate, double p99Millis, double saturationPercent,
+      Double cpuPerRequest) {}
+}
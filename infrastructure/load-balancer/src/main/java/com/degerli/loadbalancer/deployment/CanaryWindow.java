@@ -0,0 +1,82 @@
+package com.degerli.loadbalancer.deployment;
+
+import com.degerli.loadbalancer.deployment.CanaryAnalyzer.EnvironmentMetrics;
+import com.degerli.loadbalancer.deployment.TrafficSplitter.Environment;
+import com.degerli.loadbalancer.model.LoadReport;
+import com.degerli.loadbalancer.model.ResponseStats.Snapshot;
+import com.degerli.loadbalancer.model.Server;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bir environment'ın kademeli switch adımındaki ölçüm penceresi
+ * Başlangıçta serverların istatistik snapshot'ı alınır; pencere sonunda farkı alınarak adımın
+ * hata oranı ve p99'u bulunur. Doluluk ve CPU periyodik örneklenip ortalanır. Pencere
+ * sırasında eklenen serverlar sıfırdan sayılır (aynı URL'le yeniden eklenen server yeni
+ * nesnedir, snapshot'lar nesneye göre tutulur).
+ */
+class CanaryWindow {
+
+  private static final long REPORT_STALE_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+  private final Environment environment;
+  private final long startNanos = System.nanoTime();
+  private final Map<Server, Snapshot> start = new IdentityHashMap<>();
+
+  private double saturationSum;
+  private int saturationSamples;
+  private double cpuSum;
+  private int cpuSamples;
+
+  CanaryWindow(Environment environment, List<Server> servers) {
+    this.environment = environment;
+    servers.forEach(server -> start.put(server, server.getResponseStats().snapshot()));
+  }
+
+  /**
+   * Doluluk ve (yük raporu varsa) CPU örneği al
+   */
+  void sample(List<Server> servers) {
+    long inFlight = 0;
+    long capacity = 0;
+    for (Server server : servers) {
+      inFlight += server.getActiveConnections().get();
+      capacity += server.getMaxConnections();
+
+      LoadReport report = server.getLoadReport();
+      if (report != null && !report.isStale(REPORT_STALE_NANOS)
+          && report.cpuUtilization() >= 0) {
+        cpuSum += report.cpuUtilization();
+        cpuSamples++;
+      }
+    }
+    if (capacity > 0) {
+      saturationSum += inFlight * 100.0 / capacity;
+      saturationSamples++;
+    }
+  }
+
+  /**
+   * Pencere başından bu yana ölçümler
+   */
+  EnvironmentMetrics metrics(List<Server> servers) {
+    Snapshot total = Snapshot.EMPTY;
+    for (Server server : servers) {
+      total = total.plus(server.getResponseStats().snapshot()
+          .minus(start.getOrDefault(server, Snapshot.EMPTY)));
+    }
+
+    Double cpuPerRequest = null;
+    if (cpuSamples > 0 && total.requests() > 0) {
+      double seconds = Math.max(0.001, (System.nanoTime() - startNanos) / 1e9);
+      double requestsPerServer = total.requests() / seconds / servers.size();
+      cpuPerRequest = cpuSum / cpuSamples / requestsPerServer;
+    }
+
+    return new EnvironmentMetrics(environment, servers.size(), total.requests(),
+        total.errors(), total.errorRate(), total.percentileMillis(0.99),
+        saturationSamples > 0 ? saturationSum / saturationSamples : 0, cpuPerRequest);
+  }
+}
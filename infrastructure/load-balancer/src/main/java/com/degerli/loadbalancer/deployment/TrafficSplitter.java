@@ -0,0 +1,331 @@
+package com.degerli.loadbalancer.deployment;
+
+import com.degerli.loadbalancer.config.LoadBalancerProperties;
+import com.degerli.loadbalancer.model.Server;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Blue-green ve canary deployment'larda servisin trafiğini iki environment arasında böler
+ * <p>
+ * Request önce bir environment'a atanır, server o environment'ın seçime açık serverları
+ * arasından servisin normal stratejisiyle seçilir. Atama kilitsizdir: servis başına bir sayaç
+ * 0-999 bucket'larını sabit bir adımla dolaşır (gcd(619, 1000) = 1), bucket green'in binde
+ * payından küçükse request green'e gider. Ardışık her 1000 request'te oran tam tutar (%0.1
+ * çözünürlük) ve green request'ler araya dağılır.
+ * <p>
+ * Key header'ı veya cookie'si olan request'lerde bucket key'in hash'idir; kullanıcı hep aynı
+ * environment'ta kalır, green payı artarken kullanıcılar sadece blue'dan green'e geçer.
+ * Environment header'ı (açıksa) payı yok sayıp environment'ı doğrudan seçer. Seçilen
+ * environment'ta seçime açık server yoksa tüm liste kullanılır.
+ * <p>
+ * Proxy environment'ı request başında atar ve request attribute'una yazar; response cache ve
+ * request coalescing anahtarları environment'ı içerir, canary cevabı blue kullanıcılara
+ * paylaşılmaz.
+ */
+@Component
+public class TrafficSplitter {
+
+  public static final String ENVIRONMENT_ATTRIBUTE = TrafficSplitter.class.getName()
+      + ".ENVIRONMENT";
+
+  private static final int BUCKETS = 1000;
+  private static final long STRIDE = 619;
+
+  private final String environmentHeader;
+  private final String keyHeader;
+  private final String keyCookie;
+
+  // Service name -> environment'lar ve green payı (bölünmeyen servisler yok)
+  private final Map<String, TrafficSplit> splits = new ConcurrentHashMap<>();
+
+  public TrafficSplitter(LoadBalancerProperties properties) {
+    LoadBalancerProperties.DeploymentConfig config = properties.getDeployment();
+    this.environmentHeader = blankToNull(config.getEnvironmentHeader());
+    this.keyHeader = blankToNull(config.getKeyHeader());
+    this.keyCookie = blankToNull(config.getKeyCookie());
+  }
+
+  /**
+   * Servisin trafiğini environment'lar arasında bölmeye başla (varsa eski bölmenin yerine)
+   * Environment'lara yazılmayan serverlar bölme sürerken seçilmez.
+   *
+   * @param greenPermille Green'in payı (binde, 0-1000)
+   */
+  public void split(String serviceName, Collection<String> blueUrls,
+      Collection<String> greenUrls, int greenPermille) {
+    TrafficSplit split = new TrafficSplit(Set.copyOf(blueUrls), Set.copyOf(greenUrls));
+    split.greenPermille = clamp(greenPermille);
+    splits.put(serviceName, split);
+  }
+
+  /**
+   * Servisin bölmesini kaldır (tüm serverlar tekrar seçime açık)
+   */
+  public void remove(String serviceName) {
+    splits.remove(serviceName);
+  }
+
+  public boolean isSplit(String serviceName) {
+    return splits.containsKey(serviceName);
+  }
+
+  /**
+   * Green'in payını değiştir (binde, 0-1000)
+   *
+   * @throws IllegalArgumentException servis bölünmüyorsa
+   */
+  public void setGreenPermille(String serviceName, int greenPermille) {
+    requireSplit(serviceName).greenPermille = clamp(greenPermille);
+  }
+
+  public int getGreenPermille(String serviceName) {
+    return requireSplit(serviceName).greenPermille;
+  }
+
+  /**
+   * Request'e environment ata ve request attribute'una yaz (servis bölünmüyorsa null)
+   * Header/cookie'si olan request sabitlendiği environment'a, diğerleri paya göre atanır.
+   */
+  public Environment assign(String serviceName, HttpServletRequest request) {
+    TrafficSplit split = splits.get(serviceName);
+    if (split == null) {
+      return null;
+    }
+
+    Environment environment = pinned(split, request);
+    if (environment == null) {
+      environment = split.next();
+    }
+    split.count(environment);
+    request.setAttribute(ENVIRONMENT_ATTRIBUTE, environment);
+    return environment;
+  }
+
+  /**
+   * Request'e atanan environment (atanmadıysa null)
+   */
+  public static Environment environment(HttpServletRequest request) {
+    return request.getAttribute(ENVIRONMENT_ATTRIBUTE) instanceof Environment environment
+        ? environment : null;
+  }
+
+  private Environment pinned(TrafficSplit split, HttpServletRequest request) {
+    if (environmentHeader != null) {
+      Environment explicit = Environment.parse(request.getHeader(environmentHeader));
+      if (explicit != null) {
+        return explicit;
+      }
+    }
+
+    String key = keyHeader != null ? request.getHeader(keyHeader) : null;
+    if ((key == null || key.isEmpty()) && keyCookie != null && request.getCookies() != null) {
+      for (Cookie cookie : request.getCookies()) {
+        if (keyCookie.equals(cookie.getName())) {
+          key = cookie.getValue();
+          break;
+        }
+      }
+    }
+    return key != null && !key.isEmpty() ? split.environmentOf(bucket(key)) : null;
+  }
+
+  /**
+   * Request'in gideceği environment'ın serverları (servis bölünmüyorsa liste olduğu gibi)
+   *
+   * @param environment Atanan environment (null → green payına göre burada atanır)
+   */
+  public List<Server> candidates(String serviceName, List<Server> servers,
+      Environment environment) {
+    TrafficSplit split = splits.get(serviceName);
+    if (split == null) {
+      return servers;
+    }
+
+    if (environment == null) {
+      environment = split.next();
+      split.count(environment);
+    }
+    List<Server> chosen = split.partition(servers).of(environment);
+    if (chosen.isEmpty()) {
+      split.fallbackRequests.increment();
+      return servers;
+    }
+    return chosen;
+  }
+
+  /**
+   * Verilen server'ın environment'ındaki serverlar (retry/hedge aynı environment'ta kalsın)
+   * Servis bölünmüyorsa veya server hiçbir environment'ta değilse liste olduğu gibi döner.
+   */
+  public List<Server> sameEnvironment(String serviceName, List<Server> servers, Server server) {
+    TrafficSplit split = splits.get(serviceName);
+    if (split == null) {
+      return servers;
+    }
+
+    Environment environment = split.environmentOf(server.getUrl());
+    return environment != null ? split.partition(servers).of(environment) : servers;
+  }
+
+  /**
+   * Upstream'in environment'ı (servis bölünmüyorsa veya environment'ı yoksa null)
+   */
+  public Environment environmentOf(String serviceName, String url) {
+    TrafficSplit split = splits.get(serviceName);
+    return split != null ? split.environmentOf(url) : null;
+  }
+
+  /**
+   * Admin API için durum (servis bölünmüyorsa null)
+   */
+  public Map<String, Object> getStats(String serviceName) {
+    TrafficSplit split = splits.get(serviceName);
+    if (split == null) {
+      return null;
+    }
+
+    long blue = split.blueRequests.sum();
+    long green = split.greenRequests.sum();
+    Map<String, Object> stats = new LinkedHashMap<>();
+    stats.put("greenTrafficPercent", split.greenPermille / 10.0);
+    stats.put("blueUrls", split.blueUrls);
+    stats.put("greenUrls", split.greenUrls);
+    stats.put("blueRequests", blue);
+    stats.put("greenRequests", green);
+    stats.put("fallbackRequests", split.fallbackRequests.sum());
+    stats.put("observedGreenPercent",
+        blue + green > 0 ? Math.round(green * 1000.0 / (blue + green)) / 10.0 : 0.0);
+    return stats;
+  }
+
+  private TrafficSplit requireSplit(String serviceName) {
+    TrafficSplit split = splits.get(serviceName);
+    if (split == null) {
+      throw new IllegalArgumentException("No deployment environments for: " + serviceName);
+    }
+    return split;
+  }
+
+  /**
+   * Key'in bucket'ı (murmur3 finalizer; ardışık id'ler de bucket'lara dağılsın)
+   */
+  private static int bucket(String key) {
+    int hash = key.hashCode();
+    hash ^= hash >>> 16;
+    hash *= 0x85ebca6b;
+    hash ^= hash >>> 13;
+    hash *= 0xc2b2ae35;
+    hash ^= hash >>> 16;
+    return Math.floorMod(hash, BUCKETS);
+  }
+
+  private static int clamp(int permille) {
+    return Math.max(0, Math.min(BUCKETS, permille));
+  }
+
+  private static String blankToNull(String value) {
+    return value == null || value.isBlank() ? null : value;
+  }
+
+  public enum Environment {
+    BLUE,
+    GREEN;
+
+    /**
+     * Header değerinden environment (tanınmıyorsa null)
+     */
+    public static Environment parse(String value) {
+      if (value == null) {
+        return null;
+      }
+      return switch (value.trim().toLowerCase(Locale.ROOT)) {
+        case "blue" -> BLUE;
+        case "green" -> GREEN;
+        default -> null;
+      };
+    }
+  }
+
+  /**
+   * Bir servisin environment'ları, green payı ve sayaçları
+   */
+  private static class TrafficSplit {
+    private final Set<String> blueUrls;
+    private final Set<String> greenUrls;
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder blueRequests = new LongAdder();
+    private final LongAdder greenRequests = new LongAdder();
+    private final LongAdder fallbackRequests = new LongAdder();
+
+    private volatile int greenPermille;
+    private volatile Partition partition;
+
+    private TrafficSplit(Set<String> blueUrls, Set<String> greenUrls) {
+      this.blueUrls = blueUrls;
+      this.greenUrls = greenUrls;
+    }
+
+    /**
+     * Paya göre sıradaki environment (her 1000 ardışık çağrıda green tam payı kadar)
+     */
+    private Environment next() {
+      return environmentOf(Math.floorMod(sequence.getAndIncrement() * STRIDE, BUCKETS));
+    }
+
+    private void count(Environment environment) {
+      (environment == Environment.GREEN ? greenRequests : blueRequests).increment();
+    }
+
+    private Environment environmentOf(int bucket) {
+      return bucket < greenPermille ? Environment.GREEN : Environment.BLUE;
+    }
+
+    private Environment environmentOf(String url) {
+      if (blueUrls.contains(url)) {
+        return Environment.BLUE;
+      }
+      return greenUrls.contains(url) ? Environment.GREEN : null;
+    }
+
+    /**
+     * Seçim listesinin environment'lara ayrılmış hali (liste değişince yeniden oluşturulur)
+     */
+    private Partition partition(List<Server> servers) {
+      Partition current = partition;
+      if (current == null || current.source != servers) {
+        List<Server> blue = new ArrayList<>();
+        List<Server> green = new ArrayList<>();
+        for (Server server : servers) {
+          Environment environment = environmentOf(server.getUrl());
+          if (environment == Environment.BLUE) {
+            blue.add(server);
+          } else if (environment == Environment.GREEN) {
+            green.add(server);
+          }
+        }
+        current = new Partition(servers, List.copyOf(blue), List.copyOf(green));
+        partition = current;
+      }
+      return current;
+    }
+  }
+
+  private record Partition(List<Server> source, List<Server> blue, List<Server> green) {
+
+    private List<Server> of(Environment environment) {
+      return environment == Environment.GREEN ? green : blue;
+    }
+  }
+}
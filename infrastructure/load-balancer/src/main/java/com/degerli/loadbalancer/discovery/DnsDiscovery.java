@@ -0,0 +1,291 @@
+package com.degerli.loadbalancer.discovery;
+
+import com.degerli.loadbalancer.config.LoadBalancerProperties;
+import com.degerli.loadbalancer.config.LoadBalancerProperties.DnsDiscoveryConfig;
+import com.degerli.loadbalancer.config.LoadBalancerProperties.ServerConfig;
+import com.degerli.loadbalancer.config.LoadBalancerProperties.ServiceConfig;
+import com.degerli.loadbalancer.registry.RegisteredService;
+import com.degerli.loadbalancer.registry.RegistryListener;
+import com.degerli.loadbalancer.registry.ServiceRegistry;
+import java.io.IOException;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+/**
+ * DNS tabanlı service discovery
+ * <p>
+ * {@code dns} ayarı olan servislerde url'deki hostname'in tüm A/AAAA kayıtları ayrı upstream
+ * olur ({@code http://kisakes-app:8081} → {@code http://10.0.0.11:8081}, ...). Upstream URL'leri
+ * IP içerdiğinden connection pool'lar IP'ye bağlıdır ve request path'inde DNS çözümlemesi
+ * yapılmaz. Hostname arka planda, kayıtların TTL'i dolunca (min/max ile sınırlanır) yeniden
+ * çözümlenir; değişen kayıtlar registry'ye artımlı uygulanır, aynı kalan IP'lerin serverları
+ * korunur.
+ * <p>
+ * Sadece http desteklenir: https url'inde hostname'in IP ile değişmesi TLS hostname
+ * doğrulamasını ve SNI'ı bozar (JDK HttpClient bağlantı anında adres sabitlemeye izin vermez).
+ * <p>
+ * Çözümleme başarısız olursa veya kayıt dönmezse mevcut upstream'ler korunur ve
+ * failure-retry-seconds sonra tekrar denenir. Bu servislerin upstream listesi discovery
+ * tarafından yönetilir: liste her çözümlemede servisin sabit upstreams'i + DNS kayıtları olarak
+ * yeniden kurulur.
+ */
+@Slf4j
+public class DnsDiscovery implements SmartLifecycle, RegistryListener {
+
+  private final ServiceRegistry serviceRegistry;
+  private final LoadBalancerProperties properties;
+  private final DnsResolver resolver;
+
+  // Service name -> çözümlenen hostname ve durumu
+  private final Map<String, Target> targets = new ConcurrentHashMap<>();
+
+  private final AtomicLong resolutions = new AtomicLong(0);
+  private final AtomicLong failures = new AtomicLong(0);
+
+  private ScheduledExecutorService scheduler;
+  private volatile boolean running;
+
+  /**
+   * @param resolver Kullanılacak resolver (null → discovery kapalı)
+   */
+  public DnsDiscovery(ServiceRegistry serviceRegistry, LoadBalancerProperties properties,
+      DnsResolver resolver) {
+    this.serviceRegistry = serviceRegistry;
+    this.properties = properties;
+    this.resolver = resolver;
+  }
+
+  @Override
+  public void start() {
+    if (resolver == null) {
+      return;
+    }
+
+    // Bir hostname'in yavaş çözümlenmesi diğerlerini tamamen bekletmesin
+    scheduler = Executors.newScheduledThreadPool(2, runnable -> {
+      Thread thread = new Thread(runnable, "dns-discovery");
+      thread.setDaemon(true);
+      return thread;
+    });
+    running = true;
+
+    // Runtime'da (admin API, file discovery) eklenen servisler de takip edilir
+    serviceRegistry.addListener(this);
+    serviceRegistry.getServiceNames().forEach(this::track);
+    log.info("DNS discovery started with {} resolver for {} services", resolverName(),
+        targets.size());
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  @Override
+  public void onServiceAdded(RegisteredService service) {
+    track(service.getName());
+  }
+
+  @Override
+  public void onServiceRemoved(RegisteredService service) {
+    targets.remove(service.getName());
+  }
+
+  /**
+   * Servisin dns ayarı varsa çözümlemeyi başlat
+   */
+  private void track(String serviceName) {
+    ServiceConfig serviceConfig = serviceRegistry.getServiceConfig(serviceName);
+    if (serviceConfig == null || serviceConfig.getDns() == null) {
+      return;
+    }
+
+    URI uri;
+    try {
+      uri = URI.create(String.valueOf(serviceConfig.getDns().getUrl()));
+    } catch (IllegalArgumentException e) {
+      uri = null;
+    }
+    if (uri == null || uri.getHost() == null || !"http".equals(uri.getScheme())) {
+      log.error("DNS discovery disabled for service '{}': invalid dns url {} (only http is "
+          + "supported)", serviceName, serviceConfig.getDns().getUrl());
+      return;
+    }
+
+    Target target = new Target(serviceName, serviceConfig, uri);
+    if (targets.putIfAbsent(serviceName, target) == null) {
+      schedule(target, 0);
+    }
+  }
+
+  /**
+   * Hostname'i çözümle, registry'yi güncelle ve bir sonraki çözümlemeyi planla
+   * (sadece scheduler thread'lerinde çalışır)
+   */
+  private void resolve(Target target) {
+    if (!running || targets.get(target.serviceName) != target) {
+      return;
+    }
+
+    DnsDiscoveryConfig config = properties.getDnsDiscovery();
+    long delaySeconds;
+    try {
+      DnsResolver.Resolution resolution = resolver.resolve(target.uri.getHost());
+      List<String> urls = resolution.addresses().stream()
+          .map(address -> toUrl(target.uri, address))
+          .distinct()
+          .sorted()
+          .toList();
+      if (urls.isEmpty()) {
+        throw new UnknownHostException("No records for " + target.uri.getHost());
+      }
+
+      if (serviceRegistry.updateUpstreams(target.serviceName, toUpstreams(target, urls))) {
+        log.info("DNS discovery: {} resolved to {} for service '{}'", target.uri.getHost(),
+            urls, target.serviceName);
+      }
+
+      long ttlSeconds = resolution.ttlSeconds() >= 0 ? resolution.ttlSeconds()
+          : config.getDefaultTtlSeconds();
+      delaySeconds = Math.max(config.getMinTtlSeconds(),
+          Math.min(config.getMaxTtlSeconds(), ttlSeconds));
+      target.urls = urls;
+      target.ttlSeconds = ttlSeconds;
+      target.lastResolved = LocalDateTime.now();
+      target.lastError = null;
+      resolutions.incrementAndGet();
+    } catch (IOException | RuntimeException e) {
+      delaySeconds = Math.max(1, config.getFailureRetrySeconds());
+      target.lastError = e.getClass().getSimpleName() + ": " + e.getMessage();
+      failures.incrementAndGet();
+      log.warn("DNS discovery: resolving {} for service '{}' failed, keeping current upstreams:"
+          + " {}", target.uri.getHost(), target.serviceName, target.lastError);
+    }
+
+    target.nextResolveNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(delaySeconds);
+    schedule(target, delaySeconds);
+  }
+
+  private void schedule(Target target, long delaySeconds) {
+    try {
+      scheduler.schedule(() -> resolve(target), delaySeconds, TimeUnit.SECONDS);
+    } catch (RejectedExecutionException e) {
+      // Shutdown sırasında
+    }
+  }
+
+  /**
+   * Servisin sabit upstream'leri + her DNS kaydı için dns ayarlarıyla bir upstream
+   */
+  private static List<ServerConfig> toUpstreams(Target target, List<String> urls) {
+    Map<String, ServerConfig> upstreams = new LinkedHashMap<>();
+    target.serviceConfig.getUpstreams()
+        .forEach(upstream -> upstreams.put(upstream.getUrl(), upstream));
+
+    ServerConfig template = target.serviceConfig.getDns();
+    urls.forEach(url -> upstreams.computeIfAbsent(url, k -> {
+      ServerConfig upstream = new ServerConfig();
+      upstream.setUrl(url);
+      upstream.setWeight(template.getWeight());
+      upstream.setMaxConnections(template.getMaxConnections());
+      upstream.setZone(template.getZone());
+      upstream.setRegion(template.getRegion());
+      return upstream;
+    }));
+    return List.copyOf(upstreams.values());
+  }
+
+  /**
+   * dns url'indeki hostname yerine IP (IPv6 köşeli parantezle, scope id olmadan)
+   */
+  private static String toUrl(URI uri, InetAddress address) {
+    String host = address.getHostAddress();
+    if (address instanceof Inet6Address) {
+      int scope = host.indexOf('%');
+      host = "[" + (scope >= 0 ? host.substring(0, scope) : host) + "]";
+    }
+    return uri.getScheme() + "://" + host + (uri.getPort() >= 0 ? ":" + uri.getPort() : "")
+        + (uri.getRawPath() != null ? uri.getRawPath() : "");
+  }
+
+  private String resolverName() {
+    return resolver instanceof StubDnsResolver ? resolver.toString() : "system";
+  }
+
+  public long getResolutions() {
+    return resolutions.get();
+  }
+
+  public long getFailures() {
+    return failures.get();
+  }
+
+  /**
+   * Admin API için durum
+   */
+  public Map<String, Object> getStatus() {
+    Map<String, Object> services = new TreeMap<>();
+    targets.forEach((serviceName, target) -> {
+      Map<String, Object> service = new LinkedHashMap<>();
+      service.put("hostname", target.uri.getHost());
+      service.put("addresses", target.urls);
+      service.put("ttlSeconds", target.ttlSeconds);
+      service.put("lastResolved", target.lastResolved);
+      service.put("nextResolveInMs", target.nextResolveNanos == 0 ? 0 : Math.max(0,
+          TimeUnit.NANOSECONDS.toMillis(target.nextResolveNanos - System.nanoTime())));
+      service.put("lastError", target.lastError);
+      services.put(serviceName, service);
+    });
+
+    Map<String, Object> status = new LinkedHashMap<>();
+    status.put("resolver", resolverName());
+    status.put("resolutions", resolutions.get());
+    status.put("failures", failures.get());
+    status.put("services", services);
+    return status;
+  }
+
+  /**
+   * Bir servisin çözümlenen hostname'i
+   */
+  private static class Target {
+    private final String serviceName;
+    private final ServiceConfig serviceConfig;
+    private final URI uri;
+
+    private volatile List<String> urls = List.of();
+    private volatile long ttlSeconds = -1;
+    private volatile LocalDateTime lastResolved;
+    private volatile long nextResolveNanos;
+    private volatile String lastError;
+
+    private Target(String serviceName, ServiceConfig serviceConfig, URI uri) {
+      this.serviceName = serviceName;
+      this.serviceConfig = serviceConfig;
+      this.uri = uri;
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package com.degerli.loadbalancer.discovery;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.List;
+
+/**
+ * Hostname'i IP adreslerine çözen resolver
+ * <p>
+ * Bloklayan bir çağrıdır; sadece DNS discovery thread'lerinden çağrılır, request path'inde
+ * kullanılmaz.
+ */
+public interface DnsResolver {
+
+  /**
+   * Hostname'in A/AAAA kayıtları
+   *
+   * @throws java.net.UnknownHostException kayıt yoksa veya çözümlenemezse
+   */
+  Resolution resolve(String hostname) throws IOException;
+
+  /**
+   * @param ttlSeconds Kayıtların TTL'i (bilinmiyorsa -1)
+   */
+  record Resolution(List<InetAddress> addresses, long ttlSeconds) {}
+
+  /**
+   * JDK resolver (/etc/hosts + sistem DNS'i)
+   * JDK kayıt TTL'ini vermez ve sonuçları networkaddress.cache.ttl (default 30s) kadar cache'ler.
+   */
+  static DnsResolver system() {
+    return hostname -> new Resolution(List.of(InetAddress.getAllByName(hostname)), -1);
+  }
+}
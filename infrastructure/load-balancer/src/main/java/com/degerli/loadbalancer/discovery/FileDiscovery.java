@@ -0,0 +1,375 @@
+package com.degerli.loadbalancer.discovery;
+
+import com.degerli.loadbalancer.config.LoadBalancerProperties.ServerConfig;
+import com.degerli.loadbalancer.config.LoadBalancerProperties.ServiceConfig;
+import com.degerli.loadbalancer.registry.ServiceRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.context.SmartLifecycle;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+
+/**
+ * Dosya tabanlı service discovery
+ * <p>
+ * Upstream tanımlarını izlenen bir YAML/JSON dosyasından okur. Dosya application.yml'deki
+ * {@code loadbalancer.services} ile aynı formattadır:
+ * <pre>
+ * services:
+ *   dummy-service:
+ *     upstreams:
+ *       - url: http://dummy-service-3:8085
+ *         weight: 2
+ * </pre>
+ * Değişiklikler WatchService ile algılanır, debounce edilir ve içerik gerçekten değiştiyse
+ * registry'deki durumla karşılaştırılarak artımlı uygulanır: dosyadaki yeni servisler eklenir,
+ * mevcut servislerin upstream listesi eşitlenir (URL'i aynı kalan serverlar korunur), daha önce
+ * dosyadan eklenip artık dosyada olmayan servisler kaldırılır. application.yml'de tanımlı
+ * servisler dosyadan çıksa da kaldırılmaz. Dosya okunamaz veya geçersizse mevcut durum korunur.
+ * Uygulanamayan servisler varsa dosya değişmese de reload periyodik olarak tekrarlanır.
+ * <p>
+ * Registry listener'ları (metrics, route table) kaydolduktan sonra başlaması için Spring
+ * lifecycle'ı ile başlatılır.
+ */
+@Slf4j
+public class FileDiscovery implements SmartLifecycle {
+
+  private static final long RETRY_DELAY_MS = 10_000;
+
+  private final ServiceRegistry serviceRegistry;
+  private final Path path;
+  private final long debounceMs;
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  // Dosyadan eklenen servisler (dosyadan çıkınca kaldırılır)
+  private final Set<String> ownedServices = ConcurrentHashMap.newKeySet();
+
+  private final AtomicLong reloads = new AtomicLong(0);
+  private final AtomicLong failures = new AtomicLong(0);
+  private volatile LocalDateTime lastReload;
+  private volatile long lastReloadMicros = -1;
+  private volatile String lastError;
+
+  private ScheduledExecutorService scheduler;
+  private WatchService watchService;
+  private ScheduledFuture<?> pendingReload;
+  private ScheduledFuture<?> pendingRetry;
+  private byte[] lastContent;
+  private volatile boolean running;
+
+  /**
+   * @param path İzlenecek dosya (null → discovery kapalı)
+   */
+  public FileDiscovery(ServiceRegistry serviceRegistry, Path path, long debounceMs) {
+    this.serviceRegistry = serviceRegistry;
+    this.path = path != null ? path.toAbsolutePath() : null;
+    this.debounceMs = debounceMs;
+  }
+
+  @Override
+  public void start() {
+    if (path == null) {
+      return;
+    }
+
+    scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "file-discovery");
+      thread.setDaemon(true);
+      return thread;
+    });
+    running = true;
+    scheduler.execute(this::reload);
+
+    try {
+      watchService = FileSystems.getDefault().newWatchService();
+      // Dizin izlenir: editörlerin rename ile kaydetmesi ve ConfigMap symlink değişimi de
+      // yakalanır; içerik aynıysa reload atlanır
+      path.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+          StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+      Thread watcher = new Thread(this::watch, "file-discovery-watcher");
+      watcher.setDaemon(true);
+      watcher.start();
+      log.info("File discovery watching {} (debounce: {}ms)", path, debounceMs);
+    } catch (IOException e) {
+      log.error("File discovery cannot watch {}, only the initial load is applied", path, e);
+    }
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+    }
+    if (watchService != null) {
+      try {
+        watchService.close();
+      } catch (IOException e) {
+        log.debug("Watch service close failed", e);
+      }
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  private void watch() {
+    try {
+      while (running) {
+        WatchKey key = watchService.take();
+        key.pollEvents();
+        scheduleReload();
+        if (!key.reset()) {
+          log.error("File discovery stopped: {} is no longer accessible", path.getParent());
+          return;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ClosedWatchServiceException e) {
+      // stop()
+    }
+  }
+
+  /**
+   * Art arda gelen event'leri tek reload'a indir
+   */
+  private synchronized void scheduleReload() {
+    if (pendingReload != null) {
+      pendingReload.cancel(false);
+    }
+    pendingReload = scheduler.schedule(this::reload, debounceMs, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Dosyayı oku ve değiştiyse uygula (sadece scheduler thread'inde çalışır)
+   * <p>
+   * İçerik yalnızca tamamı uygulandığında hatırlanır; hatalı servisler sonraki reload'da
+   * (event veya retry) tekrar denenir.
+   */
+  void reload() {
+    long start = System.nanoTime();
+    try {
+      byte[] content = Files.readAllBytes(path);
+      if (Arrays.equals(content, lastContent)) {
+        return;
+      }
+
+      int errors = apply(parse(content));
+      lastReload = LocalDateTime.now();
+      lastReloadMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+      reloads.incrementAndGet();
+      if (errors == 0) {
+        lastContent = content;
+        lastError = null;
+        log.info("File discovery applied {} in {}us", path, lastReloadMicros);
+      } else {
+        scheduleRetry();
+        log.warn("File discovery applied {} with {} failed services, retrying in {}ms", path,
+            errors, RETRY_DELAY_MS);
+      }
+    } catch (NoSuchFileException e) {
+      fail("File not found: " + path);
+    } catch (IOException | RuntimeException e) {
+      fail(e.getClass().getSimpleName() + ": " + e.getMessage());
+    }
+  }
+
+  /**
+   * Hatalı servisleri tekrar dene (bekleyen tek bir retry tutulur)
+   */
+  private synchronized void scheduleRetry() {
+    if (scheduler == null || !running) {
+      return;
+    }
+    if (pendingRetry != null) {
+      pendingRetry.cancel(false);
+    }
+    pendingRetry = scheduler.schedule(this::reload, RETRY_DELAY_MS, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Dosyayı servis ayarlarına çevir
+   * <p>
+   * Servis ayarları application.yml ile aynı Binder'la (relaxed binding, tip dönüşümleri)
+   * bağlanır. Upstream'ler ise doğrudan okunur: Binder binlerce upstream'de reload'u yüzlerce
+   * milisaniyeye çıkarıyor. .json dosyaları YAML parser'ından çok daha hızlı olan Jackson ile
+   * okunur.
+   */
+  private Map<String, ServiceConfig> parse(byte[] content) throws IOException {
+    Object document = path.getFileName().toString().endsWith(".json")
+        ? objectMapper.readValue(content, Object.class)
+        : new Yaml(new SafeConstructor(new LoaderOptions()))
+            .load(new ByteArrayInputStream(content));
+    if (document == null) {
+      return Map.of();
+    }
+
+    Map<String, ServiceConfig> services = new LinkedHashMap<>();
+    asMap(asMap(document, "file").get("services"), "services").forEach((name, value) -> {
+      String serviceName = String.valueOf(name);
+      Map<String, Object> settings = new LinkedHashMap<>();
+      List<ServerConfig> upstreams = new ArrayList<>();
+
+      asMap(value, serviceName).forEach((key, setting) -> {
+        if ("upstreams".equals(normalize(key))) {
+          asList(setting, serviceName + ".upstreams")
+              .forEach(upstream -> upstreams.add(toServerConfig(asMap(upstream, serviceName))));
+        } else {
+          flatten("service." + key, setting, settings);
+        }
+      });
+
+      ServiceConfig config = new Binder(new MapConfigurationPropertySource(settings))
+          .bind("service", ServiceConfig.class)
+          .orElseGet(ServiceConfig::new);
+      config.setUpstreams(upstreams);
+      services.put(serviceName, config);
+    });
+    return services;
+  }
+
+  private static ServerConfig toServerConfig(Map<?, ?> upstream) {
+    ServerConfig server = new ServerConfig();
+    upstream.forEach((key, value) -> {
+      String text = value != null ? value.toString() : null;
+      switch (normalize(key)) {
+        case "url" -> server.setUrl(text);
+        case "weight" -> server.setWeight(Integer.parseInt(text));
+        case "maxconnections" -> server.setMaxConnections(Integer.parseInt(text));
+        case "zone" -> server.setZone(text);
+        case "region" -> server.setRegion(text);
+        default -> throw new IllegalArgumentException("Unknown upstream property: " + key);
+      }
+    });
+    return server;
+  }
+
+  /**
+   * İç içe map/list'i Binder'ın beklediği düz property isimlerine çevir
+   */
+  private static void flatten(String name, Object value, Map<String, Object> properties) {
+    if (value instanceof Map<?, ?> map) {
+      map.forEach((key, child) -> flatten(name + "." + key, child, properties));
+    } else if (value instanceof List<?> list) {
+      for (int i = 0; i < list.size(); i++) {
+        flatten(name + "[" + i + "]", list.get(i), properties);
+      }
+    } else if (value != null) {
+      properties.put(name, value);
+    }
+  }
+
+  /**
+   * maxConnections, max-connections ve max_connections aynı property'dir
+   */
+  private static String normalize(Object key) {
+    return String.valueOf(key).replace("-", "").replace("_", "").toLowerCase(Locale.ROOT);
+  }
+
+  private static Map<?, ?> asMap(Object value, String name) {
+    if (value == null) {
+      return Map.of();
+    }
+    if (value instanceof Map<?, ?> map) {
+      return map;
+    }
+    throw new IllegalArgumentException(name + " must be a map");
+  }
+
+  private static List<?> asList(Object value, String name) {
+    if (value == null) {
+      return List.of();
+    }
+    if (value instanceof List<?> list) {
+      return list;
+    }
+    throw new IllegalArgumentException(name + " must be a list");
+  }
+
+  /**
+   * Dosyadaki servisleri registry'ye uygula
+   *
+   * @return Uygulanamayan servis sayısı (diğer servisler yine uygulanır)
+   */
+  private int apply(Map<String, ServiceConfig> services) {
+    int errors = 0;
+    for (Map.Entry<String, ServiceConfig> entry : services.entrySet()) {
+      String serviceName = entry.getKey();
+      try {
+        if (serviceRegistry.getService(serviceName) == null) {
+          serviceRegistry.addService(serviceName, entry.getValue());
+          ownedServices.add(serviceName);
+        } else {
+          serviceRegistry.updateUpstreams(serviceName, entry.getValue().getUpstreams());
+        }
+      } catch (IllegalArgumentException e) {
+        errors++;
+        fail(serviceName + ": " + e.getMessage());
+      }
+    }
+
+    for (String serviceName : List.copyOf(ownedServices)) {
+      if (!services.containsKey(serviceName)) {
+        try {
+          serviceRegistry.removeService(serviceName);
+          ownedServices.remove(serviceName);
+        } catch (IllegalArgumentException e) {
+          errors++;
+          fail(serviceName + ": " + e.getMessage());
+        }
+      }
+    }
+    return errors;
+  }
+
+  private void fail(String error) {
+    failures.incrementAndGet();
+    lastError = error;
+    log.warn("File discovery: {}", error);
+  }
+
+  /**
+   * Admin API için durum
+   */
+  public Map<String, Object> getStatus() {
+    Map<String, Object> status = new LinkedHashMap<>();
+    status.put("path", path != null ? path.toString() : null);
+    status.put("reloads", reloads.get());
+    status.put("failures", failures.get());
+    status.put("lastReload", lastReload);
+    status.put("lastReloadMicros", lastReloadMicros);
+    status.put("lastError", lastError);
+    status.put("ownedServices", List.copyOf(ownedServices));
+    return status;
+  }
+}
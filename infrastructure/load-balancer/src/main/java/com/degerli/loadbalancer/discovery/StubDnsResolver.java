@@ -0,0 +1,59 @@
+package com.degerli.loadbalancer.discovery;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Dosyadaki sabit kayıtlarla çalışan resolver (offline test ve yerel ortam için)
+ * <p>
+ * Her satır bir hostname'in TTL'i ve adresleridir. Dosya her çözümlemede yeniden okunur;
+ * kayıtlar çalışırken değiştirilebilir:
+ * <pre>
+ * # hostname    ttl  ip...
+ * kisakes-app   5    10.0.0.11 10.0.0.12 fd00::11
+ * </pre>
+ */
+public class StubDnsResolver implements DnsResolver {
+
+  // Sadece IP literal'leri; hostname yazılırsa InetAddress gerçek DNS'e gitmesin
+  private static final Pattern IP_LITERAL =
+      Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}|[0-9A-Fa-f.]*:[0-9A-Fa-f:.]*");
+
+  private final Path file;
+
+  public StubDnsResolver(Path file) {
+    this.file = file;
+  }
+
+  @Override
+  public Resolution resolve(String hostname) throws IOException {
+    for (String line : Files.readAllLines(file)) {
+      String[] fields = line.strip().split("\\s+");
+      if (fields.length < 3 || fields[0].startsWith("#")
+          || !fields[0].equalsIgnoreCase(hostname)) {
+        continue;
+      }
+
+      List<InetAddress> addresses = new ArrayList<>(fields.length - 2);
+      for (int i = 2; i < fields.length; i++) {
+        if (!IP_LITERAL.matcher(fields[i]).matches()) {
+          throw new UnknownHostException("Not an IP address in " + file + ": " + fields[i]);
+        }
+        addresses.add(InetAddress.getByName(fields[i]));
+      }
+      return new Resolution(addresses, Long.parseLong(fields[1]));
+    }
+    throw new UnknownHostException(hostname + " not found in " + file);
+  }
+
+  @Override
+  public String toString() {
+    return "stub:" + file;
+  }
+}
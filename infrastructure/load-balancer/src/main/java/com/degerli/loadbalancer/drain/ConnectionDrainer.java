@@ -0,0 +1,217 @@
+package com.degerli.loadbalancer.drain;
+
+import com.degerli.loadbalancer.config.LoadBalancerProperties;
+import com.degerli.loadbalancer.model.Server;
+import com.degerli.loadbalancer.model.Server.DrainState;
+import com.degerli.loadbalancer.upstream.UpstreamClient;
+import jakarta.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Server drain lifecycle'ı: ACTIVE → DRAINING → DRAINED
+ * <p>
+ * Drain edilen server yeni request almaz (registry seçim listesinden çıkarır). In-flight
+ * request'ler ve açık WebSocket session'ları periyodik olarak kontrol edilir; sıfıra inince
+ * veya drain timeout'u dolunca server DRAINED olur, havuzdaki boşta bağlantılar kapatılır ve
+ * listener'lar (WebSocket proxy kalan session'ları kapatır) bilgilendirilir.
+ * <p>
+ * Deploy script'leri admin API'den ilerlemeyi izleyip DRAINED olan instance'ı kapatabilir.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConnectionDrainer {
+
+  private static final long CHECK_INTERVAL_MS = 100;
+
+  // Tamamlanan drain'ler admin API'de bu süre kadar görünür
+  private static final long COMPLETED_RETENTION_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+  private final LoadBalancerProperties properties;
+  private final UpstreamClient upstreamClient;
+
+  // Devam eden ve yakın zamanda tamamlanan drain'ler (aynı URL farklı serverlarda olabilir)
+  private final List<Drain> drains = new CopyOnWriteArrayList<>();
+
+  private final List<Consumer<Server>> drainedListeners = new CopyOnWriteArrayList<>();
+
+  private final ScheduledExecutorService scheduler =
+      Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "connection-drainer");
+        thread.setDaemon(true);
+        return thread;
+      });
+
+  @PostConstruct
+  public void start() {
+    scheduler.scheduleWithFixedDelay(this::check, CHECK_INTERVAL_MS, CHECK_INTERVAL_MS,
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Server DRAINED olunca çağrılacak callback (drain thread'inde çalışır)
+   */
+  public void addDrainedListener(Consumer<Server> listener) {
+    drainedListeners.add(listener);
+  }
+
+  /**
+   * Server'ı drain etmeye başla (zaten drain ediliyorsa bir şey yapmaz)
+   * Çağıran, server'ı seçim listesinden çıkarmalıdır (registry snapshot'ı).
+   */
+  public synchronized void drain(String serviceName, Server server) {
+    Drain existing = find(server);
+    if (existing != null && server.isDraining()) {
+      return;
+    }
+    if (existing != null) {
+      drains.remove(existing);
+    }
+
+    server.setDrainState(DrainState.DRAINING);
+    Drain drain = new Drain(serviceName, server, server.getActiveConnections().get(),
+        TimeUnit.SECONDS.toNanos(Math.max(0, properties.getDrain().getTimeoutSeconds())));
+    drains.add(drain);
+    log.info("Draining upstream {} of service '{}' ({} in flight, timeout {}s)",
+        server.getUrl(), serviceName, drain.initialInFlight,
+        properties.getDrain().getTimeoutSeconds());
+  }
+
+  /**
+   * Drain'i iptal et ve server'ı tekrar ACTIVE yap
+   */
+  public synchronized void cancel(Server server) {
+    Drain drain = find(server);
+    if (drain != null) {
+      drains.remove(drain);
+    }
+    server.setDrainState(DrainState.ACTIVE);
+  }
+
+  private Drain find(Server server) {
+    return drains.stream()
+        .filter(drain -> drain.server == server)
+        .findFirst()
+        .orElse(null);
+  }
+
+  /**
+   * In-flight'ı sıfıra inen veya timeout'u dolan drain'leri tamamla
+   */
+  private void check() {
+    try {
+      long now = System.nanoTime();
+      boolean drained = false;
+      for (Drain drain : drains) {
+        if (drain.completedNanos != 0) {
+          if (now - drain.completedNanos > COMPLETED_RETENTION_NANOS) {
+            drains.remove(drain);
+          }
+          continue;
+        }
+
+        // Seçimi drain başlamadan hemen önce yapılmış request'lerin sayaca girmesi için en az
+        // bir kontrol aralığı beklenir
+        long elapsed = now - drain.startedNanos;
+        int inFlight = drain.server.getActiveConnections().get();
+        boolean timedOut = elapsed >= drain.timeoutNanos;
+        if ((inFlight > 0 || elapsed < TimeUnit.MILLISECONDS.toNanos(CHECK_INTERVAL_MS))
+            && !timedOut) {
+          continue;
+        }
+
+        if (!complete(drain, inFlight, now)) {
+          continue;
+        }
+        drained = true;
+        drainedListeners.forEach(listener -> listener.accept(drain.server));
+      }
+
+      if (drained && properties.getDrain().isCloseIdleConnections()) {
+        upstreamClient.closeIdleConnections();
+      }
+    } catch (RuntimeException e) {
+      log.error("Connection drain check failed", e);
+    }
+  }
+
+  private synchronized boolean complete(Drain drain, int inFlight, long now) {
+    // cancel() ile aynı anda çalışmış olabilir
+    if (!drains.contains(drain) || drain.server.getDrainState() != DrainState.DRAINING) {
+      return false;
+    }
+    drain.remainingInFlight = Math.max(0, inFlight);
+    drain.completedAt = LocalDateTime.now();
+    drain.completedNanos = now;
+    drain.server.setDrainState(DrainState.DRAINED);
+
+    if (inFlight > 0) {
+      log.warn("Drain timeout for upstream {} of service '{}', {} still in flight",
+          drain.server.getUrl(), drain.serviceName, inFlight);
+    } else {
+      log.info("Drained upstream {} of service '{}' in {}ms", drain.server.getUrl(),
+          drain.serviceName, TimeUnit.NANOSECONDS.toMillis(now - drain.startedNanos));
+    }
+    return true;
+  }
+
+  /**
+   * Admin API için drain durumları (filtreler null → hepsi)
+   */
+  public List<Map<String, Object>> getStatus(String serviceName, String url) {
+    long now = System.nanoTime();
+    return drains.stream()
+        .filter(drain -> serviceName == null || serviceName.equals(drain.serviceName))
+        .filter(drain -> url == null || url.equals(drain.server.getUrl()))
+        .map(drain -> {
+          long end = drain.completedNanos != 0 ? drain.completedNanos : now;
+          Map<String, Object> status = new LinkedHashMap<>();
+          status.put("service", drain.serviceName);
+          status.put("url", drain.server.getUrl());
+          status.put("state", drain.server.getDrainState());
+          status.put("inFlight", drain.server.getActiveConnections().get());
+          status.put("initialInFlight", drain.initialInFlight);
+          status.put("elapsedMs", TimeUnit.NANOSECONDS.toMillis(end - drain.startedNanos));
+          status.put("timeoutMs", TimeUnit.NANOSECONDS.toMillis(drain.timeoutNanos));
+          status.put("startedAt", drain.startedAt);
+          status.put("completedAt", drain.completedAt);
+          status.put("timedOut", drain.completedNanos != 0 && drain.remainingInFlight > 0);
+          return status;
+        })
+        .toList();
+  }
+
+  /**
+   * Bir server'ın drain'i
+   */
+  private static class Drain {
+    private final String serviceName;
+    private final Server server;
+    private final int initialInFlight;
+    private final long timeoutNanos;
+    private final long startedNanos = System.nanoTime();
+    private final LocalDateTime startedAt = LocalDateTime.now();
+
+    private volatile long completedNanos;
+    private volatile LocalDateTime completedAt;
+    private volatile int remainingInFlight;
+
+    private Drain(String serviceName, Server server, int initialInFlight, long timeoutNanos) {
+      this.serviceName = serviceName;
+      this.server = server;
+      this.initialInFlight = initialInFlight;
+      this.timeoutNanos = timeoutNanos;
+    }
+  }
+}
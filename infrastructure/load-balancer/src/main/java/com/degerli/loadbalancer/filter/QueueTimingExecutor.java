@@ -0,0 +1,66 @@
+package com.degerli.loadbalancer.filter;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.tomcat.util.threads.TaskQueue;
+import org.apache.tomcat.util.threads.TaskThreadFactory;
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+
+/**
+ * Görevlerin kuyruğa giriş zamanını işaretleyen Tomcat worker havuzu
+ * <p>
+ * Connector okunabilir bir socket'in işini bu havuza verir; boş worker yoksa iş kuyrukta
+ * bekler. Görev çalışırken kuyruğa giriş zamanı worker thread'inden bir kez alınabilir
+ * ({@link #takeEnqueuedNanos()}); böylece request'in LB'ye varışı worker beklemesini de
+ * kapsar. Tomcat'in kendi havuzu gibi kuyruk, thread'ler max'a ulaşana kadar iş biriktirmez.
+ */
+public class QueueTimingExecutor extends ThreadPoolExecutor {
+
+  private static final ThreadLocal<Long> ENQUEUED_NANOS = new ThreadLocal<>();
+
+  private QueueTimingExecutor(int minSpareThreads, int maxThreads, TaskQueue queue,
+      TaskThreadFactory threadFactory) {
+    super(minSpareThreads, maxThreads, 60, TimeUnit.SECONDS, queue, threadFactory);
+  }
+
+  /**
+   * Tomcat'in varsayılan havuzuyla aynı davranan (TaskQueue, daemon thread'ler) havuz
+   */
+  public static QueueTimingExecutor create(int minSpareThreads, int maxThreads,
+      int maxQueueCapacity, String namePrefix) {
+    TaskQueue queue = new TaskQueue(maxQueueCapacity);
+    QueueTimingExecutor executor = new QueueTimingExecutor(minSpareThreads, maxThreads, queue,
+        new TaskThreadFactory(namePrefix, true, Thread.NORM_PRIORITY));
+    queue.setParent(executor);
+    return executor;
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    super.execute(new TimedTask(command, System.nanoTime()));
+  }
+
+  /**
+   * Çalışan görevin kuyruğa giriş zamanı; görev başına bir kez döner (aynı görevde işlenen
+   * sonraki request'ler kuyrukta beklemedi), yoksa null
+   */
+  public static Long takeEnqueuedNanos() {
+    Long enqueued = ENQUEUED_NANOS.get();
+    if (enqueued != null) {
+      ENQUEUED_NANOS.remove();
+    }
+    return enqueued;
+  }
+
+  private record TimedTask(Runnable task, long enqueuedNanos) implements Runnable {
+
+    @Override
+    public void run() {
+      ENQUEUED_NANOS.set(enqueuedNanos);
+      try {
+        task.run();
+      } finally {
+        ENQUEUED_NANOS.remove();
+      }
+    }
+  }
+}
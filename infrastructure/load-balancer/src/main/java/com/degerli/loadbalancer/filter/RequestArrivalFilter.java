@@ -0,0 +1,56 @@
+package com.degerli.loadbalancer.filter;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import java.io.IOException;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Request'in LB'ye giriş zamanını işaretler
+ * <p>
+ * Giriş zamanı, connector'ın socket işini worker kuyruğuna verdiği andır
+ * ({@link QueueTimingExecutor}); havuz değiştirilmemişse filter'ın çalıştığı an kullanılır.
+ * Filter zincirinin en başında, request body okunmadan önce kuyruk bekleme süresi (queueing
+ * delay) örneklenir; yavaş yüklenen body overload gibi görünmez.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestArrivalFilter implements Filter {
+
+  public static final String ARRIVAL_NANOS_ATTRIBUTE = RequestArrivalFilter.class.getName()
+      + ".ARRIVAL_NANOS";
+  public static final String QUEUE_DELAY_NANOS_ATTRIBUTE = RequestArrivalFilter.class.getName()
+      + ".QUEUE_DELAY_NANOS";
+
+  @Override
+  public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+      throws IOException, ServletException {
+    long now = System.nanoTime();
+    Long enqueued = QueueTimingExecutor.takeEnqueuedNanos();
+    long arrival = enqueued != null && now - enqueued >= 0 ? enqueued : now;
+    request.setAttribute(ARRIVAL_NANOS_ATTRIBUTE, arrival);
+    request.setAttribute(QUEUE_DELAY_NANOS_ATTRIBUTE, now - arrival);
+    chain.doFilter(request, response);
+  }
+
+  /**
+   * Request'in worker kuyruğunda beklediği süre (işaret yoksa 0)
+   */
+  public static long queueDelayNanos(ServletRequest request) {
+    Object delay = request.getAttribute(QUEUE_DELAY_NANOS_ATTRIBUTE);
+    return delay instanceof Long queueDelayNanos ? queueDelayNanos : 0;
+  }
+
+  /**
+   * Request'in giriş zamanı (işaret yoksa şu an); süre bütçesi bu andan itibaren işler
+   */
+  public static long arrivalNanos(ServletRequest request) {
+    Object arrival = request.getAttribute(ARRIVAL_NANOS_ATTRIBUTE);
+    return arrival instanceof Long arrivalNanos ? arrivalNanos : System.nanoTime();
+  }
+}
@@ -2,143 +2,372 @@ package com.degerli.loadbalancer.health;
 
 import com.degerli.loadbalancer.config.LoadBalancerProperties;
 import com.degerli.loadbalancer.model.Server;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
 
 /**
  * Backend servislerin sağlık kontrolünü yapar
- * Retry mechanism ile geliştirilmiş versiyon
+ * <p>
+ * Check'ler asenkron HTTP client ile gönderilir; scheduler thread'i sadece zamanlamayı yapar,
+ * yavaş veya cevap vermeyen bir server diğer check'leri geciktirmez. Her probe'un bir sonraki
+ * çalışması bir önceki tamamlanınca, interval'e rastgele sapma eklenerek planlanır; ilk
+ * check'ten sonra probe'lar interval boyunca rastgele fazlara dağıtılır.
+ * <p>
+ * Aynı upstream URL'i birden fazla serviste aynı check ayarlarıyla tanımlıysa tek probe
+ * çalışır ve sonuç tüm servislerdeki server'lara uygulanır. Durum değişikliği rise/fall
+ * eşikleriyle yapılır (art arda başarılı/başarısız check sayısı); ilk check'in sonucu doğrudan
+ * uygulanır.
  */
 @Slf4j
 @Component
 public class HealthChecker {
 
-  private final RestTemplate restTemplate;
   private final LoadBalancerProperties properties;
+  private final MeterRegistry meterRegistry;
+  private final HttpClient httpClient;
   private final ScheduledExecutorService scheduler;
 
-  // Retry configuration
-  private static final int MAX_RETRIES = 3;
-  private static final long RETRY_DELAY_MS = 100;
+  // URL + check ayarları -> probe (servisler arası paylaşılır)
+  private final Map<ProbeKey, Probe> probes = new ConcurrentHashMap<>();
 
-  public HealthChecker(LoadBalancerProperties properties) {
+  public HealthChecker(LoadBalancerProperties properties, MeterRegistry meterRegistry) {
     this.properties = properties;
-    this.restTemplate = new RestTemplate();
-    this.restTemplate.setRequestFactory(
-        new org.springframework.http.client.SimpleClientHttpRequestFactory() {{
-          setConnectTimeout((int) properties.getHealthCheckTimeout());
-          setReadTimeout((int) properties.getHealthCheckTimeout());
-        }});
-    this.scheduler = Executors.newScheduledThreadPool(4);
+    this.meterRegistry = meterRegistry;
+    this.httpClient = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .followRedirects(HttpClient.Redirect.NEVER)
+        .connectTimeout(Duration.ofMillis(properties.getHealthCheckTimeout()))
+        .build();
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "health-check-scheduler");
+      thread.setDaemon(true);
+      return thread;
+    });
   }
 
   /**
-   * Bir server için health check başlat
+   * Bir servisin server'ı için health check başlat
+   * Aynı URL ve ayarlarla çalışan probe varsa server ona eklenir.
    */
-  public void startHealthCheck(Server server) {
+  public void startHealthCheck(String serviceName,
+      LoadBalancerProperties.ServiceConfig serviceConfig, Server server) {
     if (!properties.isHealthCheckEnabled()) {
       log.info("Health check disabled, marking server as healthy: {}", server.getUrl());
       server.setHealthy(true);
       return;
     }
 
-    // İlk check hemen yap
-    checkHealthWithRetry(server);
+    ProbeSpec spec = resolveSpec(serviceConfig);
+    ProbeKey key = new ProbeKey(server.getUrl(), spec);
+    boolean[] created = {false};
+    Probe probe = probes.computeIfAbsent(key, k -> {
+      created[0] = true;
+      return new Probe(k);
+    });
+    probe.addServer(server);
 
-    // Periyodik check başlat
-    scheduler.scheduleAtFixedRate(() -> checkHealthWithRetry(server),
-        properties.getHealthCheckInterval(), properties.getHealthCheckInterval(),
-        TimeUnit.MILLISECONDS);
+    if (created[0]) {
+      // İlk check hemen
+      scheduler.execute(probe::run);
+      log.info("Health check started for: {}{} (interval: {}ms, rise: {}, fall: {})",
+          server.getUrl(), spec.path(), spec.intervalMs(), spec.rise(), spec.fall());
+    } else {
+      log.info("Health check for {}{} shared with service '{}'", server.getUrl(), spec.path(),
+          serviceName);
+    }
+  }
+
+  /**
+   * Server'ı probe'undan çıkar; probe'u kullanan başka server kalmadıysa probe durdurulur
+   * Başlatılırken verilen servis ayarlarıyla çağrılmalıdır (probe anahtarı ayarlardan oluşur).
+   */
+  public void stopHealthCheck(String serviceName,
+      LoadBalancerProperties.ServiceConfig serviceConfig, Server server) {
+    if (!properties.isHealthCheckEnabled()) {
+      return;
+    }
 
-    log.info("Health check started for: {} (interval: {}ms)", server.getUrl(),
-        properties.getHealthCheckInterval());
+    ProbeKey key = new ProbeKey(server.getUrl(), resolveSpec(serviceConfig));
+    probes.computeIfPresent(key, (k, probe) -> {
+      probe.servers.removeIf(registered -> registered == server);
+      if (!probe.servers.isEmpty()) {
+        return probe;
+      }
+      probe.stop();
+      log.info("Health check stopped for: {}{}", k.url(), k.spec().path());
+      return null;
+    });
   }
 
   /**
-   * Retry mechanism ile health check
+   * Çalışan probe'ların durumu
    */
-  private void checkHealthWithRetry(Server server) {
-    int attempt = 0;
-    boolean success = false;
-    Exception lastException = null;
+  public List<ProbeInfo> getProbes() {
+    return probes.values().stream()
+        .map(probe -> new ProbeInfo(probe.key.url() + probe.key.spec().path(), probe.healthy,
+            probe.servers.size(), probe.consecutiveSuccesses, probe.consecutiveFailures,
+            probe.lastLatencyMs, probe.lastError, probe.lastCheck))
+        .toList();
+  }
 
-    while (attempt < MAX_RETRIES && !success) {
-      attempt++;
-      try {
-        long startTime = System.currentTimeMillis();
+  /**
+   * Servis ayarlarını global default'larla birleştir
+   */
+  private ProbeSpec resolveSpec(LoadBalancerProperties.ServiceConfig serviceConfig) {
+    LoadBalancerProperties.HealthCheckConfig config = serviceConfig != null
+        && serviceConfig.getHealthCheck() != null ? serviceConfig.getHealthCheck()
+        : new LoadBalancerProperties.HealthCheckConfig();
+
+    return new ProbeSpec(
+        config.getPath() != null ? config.getPath() : properties.getHealthCheckPath(),
+        config.getExpectedStatuses() != null ? List.copyOf(config.getExpectedStatuses())
+            : List.of(),
+        config.getExpectedBody(),
+        config.getIntervalMs() != null ? config.getIntervalMs()
+            : properties.getHealthCheckInterval(),
+        config.getTimeoutMs() != null ? config.getTimeoutMs()
+            : properties.getHealthCheckTimeout(),
+        Math.max(1, config.getRise() != null ? config.getRise()
+            : properties.getHealthCheckRise()),
+        Math.max(1, config.getFall() != null ? config.getFall()
+            : properties.getHealthCheckFall()));
+  }
+
+  /**
+   * Interval'e ±jitter ekle
+   */
+  private long jittered(long intervalMs) {
+    long jitter = intervalMs * properties.getHealthCheckJitterPercent() / 100;
+    return jitter <= 0 ? intervalMs
+        : intervalMs + ThreadLocalRandom.current().nextLong(-jitter, jitter + 1);
+  }
 
-        String healthUrl = server.getUrl() + "/actuator/health";
-        String response = restTemplate.getForObject(healthUrl, String.class);
+  private void schedule(Probe probe, long delayMs) {
+    try {
+      scheduler.schedule(probe::run, delayMs, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      // Shutdown sırasında
+    }
+  }
 
-        long responseTime = System.currentTimeMillis() - startTime;
+  /**
+   * Shutdown
+   */
+  public void shutdown() {
+    scheduler.shutdownNow();
+  }
 
-        boolean wasHealthy = server.isHealthy();
-        server.setHealthy(true);
-        server.setLastHealthCheck(LocalDateTime.now());
-        server.updateResponseTime(responseTime);
+  /**
+   * Check ayarları (servis override'ları uygulanmış)
+   * expectedStatuses boşsa 2xx başarılı sayılır.
+   */
+  record ProbeSpec(String path, List<Integer> expectedStatuses, String expectedBody,
+      long intervalMs, long timeoutMs, int rise, int fall) {
 
-        if (!wasHealthy) {
-          log.info("✓ Server recovered: {} (response time: {}ms, attempt: {}/{})",
-              server.getUrl(), responseTime, attempt, MAX_RETRIES);
-        } else {
-          log.debug("✓ Health check OK: {} (response time: {}ms)", server.getUrl(),
-              responseTime);
-        }
+    /**
+     * Cevap beklentiyi karşılamıyorsa sebebi, karşılıyorsa null
+     */
+    String mismatch(HttpResponse<String> response) {
+      int status = response.statusCode();
+      boolean statusOk = expectedStatuses.isEmpty() ? status >= 200 && status < 300
+          : expectedStatuses.contains(status);
+      if (!statusOk) {
+        return "HTTP " + status;
+      }
+      if (expectedBody != null && (response.body() == null
+          || !response.body().contains(expectedBody))) {
+        return "Body does not contain " + expectedBody;
+      }
+      return null;
+    }
+  }
+
+  record ProbeKey(String url, ProbeSpec spec) {}
 
-        success = true;
+  /**
+   * Tek bir URL için periyodik check
+   * Bir sonraki çalışma önceki tamamlanınca planlandığından aynı probe'un check'leri üst üste
+   * binmez; state alanları sadece check tamamlanma callback'inden yazılır.
+   */
+  private class Probe {
+    private final ProbeKey key;
+    private final URI uri;
+    private final List<Server> servers = new CopyOnWriteArrayList<>();
+    // Timer'lar ilk check'te scheduler thread'inde oluşturulur: binlerce upstream eklenirken
+    // meter kaydı registry güncellemesini bekletmez
+    private Timer successTimer;
+    private Timer failureTimer;
 
-      } catch (Exception e) {
-        lastException = e;
+    private volatile Boolean healthy;
+    private volatile int consecutiveSuccesses;
+    private volatile int consecutiveFailures;
+    private volatile long lastLatencyMs = -1;
+    private volatile String lastError;
+    private volatile LocalDateTime lastCheck;
+    private boolean phased;
+    private volatile boolean stopped;
 
-        if (attempt < MAX_RETRIES) {
-          try {
-            long delay = RETRY_DELAY_MS * attempt;
-            log.debug("Health check failed for {}, retrying in {}ms (attempt {}/{})",
-                server.getUrl(), delay, attempt, MAX_RETRIES);
-            Thread.sleep(delay);
-          } catch (InterruptedException ie) {
-            Thread.currentThread().interrupt();
-            break;
+    private Probe(ProbeKey key) {
+      this.key = key;
+      this.uri = URI.create(key.url() + key.spec().path());
+    }
+
+    private Timer probeTimer(String result) {
+      return Timer.builder("loadbalancer.health.probe.duration")
+          .tag("target", key.url())
+          .tag("result", result)
+          .description("Health check probe latency")
+          .publishPercentileHistogram()
+          .minimumExpectedValue(Duration.ofMillis(1))
+          .maximumExpectedValue(Duration.ofMillis(Math.max(1, key.spec().timeoutMs())))
+          .register(meterRegistry);
+    }
+
+    private void addServer(Server server) {
+      servers.add(server);
+      Boolean current = healthy;
+      if (current != null) {
+        server.setHealthy(current);
+      }
+    }
+
+    private void stop() {
+      stopped = true;
+      try {
+        scheduler.execute(() -> {
+          if (successTimer != null) {
+            meterRegistry.remove(successTimer);
+            meterRegistry.remove(failureTimer);
           }
-        }
+        });
+      } catch (RejectedExecutionException e) {
+        // Shutdown sırasında
       }
     }
 
-    if (!success) {
-      boolean wasHealthy = server.isHealthy();
-      server.setHealthy(false);
-      server.setLastHealthCheck(LocalDateTime.now());
-      server.recordFailure();
+    private void run() {
+      if (stopped) {
+        return;
+      }
+      if (successTimer == null) {
+        successTimer = probeTimer("success");
+        failureTimer = probeTimer("failure");
+      }
+      ProbeSpec spec = key.spec();
+      HttpRequest request = HttpRequest.newBuilder(uri)
+          .timeout(Duration.ofMillis(spec.timeoutMs()))
+          .GET()
+          .build();
+
+      long start = System.nanoTime();
+      httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+          .whenComplete((response, error) -> {
+            try {
+              long latencyNanos = System.nanoTime() - start;
+              Throwable cause = error instanceof CompletionException && error.getCause() != null
+                  ? error.getCause() : error;
+              String failure = cause != null ? cause.toString() : spec.mismatch(response);
+              onResult(failure, latencyNanos);
+            } catch (RuntimeException e) {
+              log.error("Health check result handling failed for {}", uri, e);
+            } finally {
+              scheduleNext();
+            }
+          });
+    }
 
-      if (wasHealthy) {
-        log.error("✗ Server became unhealthy after {} attempts: {} - {}",
-            MAX_RETRIES, server.getUrl(),
-            lastException != null ? lastException.getMessage() : "Unknown error");
+    private void scheduleNext() {
+      if (stopped) {
+        return;
+      }
+      long intervalMs = key.spec().intervalMs();
+      if (!phased) {
+        // İlk check'ten sonra probe'u interval içinde rastgele bir faza yerleştir
+        phased = true;
+        schedule(this, ThreadLocalRandom.current().nextLong(Math.max(1, intervalMs)));
       } else {
-        log.debug("✗ Health check failed after {} attempts: {} - {}", MAX_RETRIES,
-            server.getUrl(),
-            lastException != null ? lastException.getMessage() : "Unknown error");
+        schedule(this, jittered(intervalMs));
       }
     }
-  }
 
-  /**
-   * Shutdown
-   */
-  public void shutdown() {
-    scheduler.shutdown();
-    try {
-      if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-        scheduler.shutdownNow();
+    private void onResult(String failure, long latencyNanos) {
+      if (stopped) {
+        return;
+      }
+      ProbeSpec spec = key.spec();
+      lastCheck = LocalDateTime.now();
+      lastLatencyMs = TimeUnit.NANOSECONDS.toMillis(latencyNanos);
+      lastError = failure;
+      (failure == null ? successTimer : failureTimer).record(latencyNanos, TimeUnit.NANOSECONDS);
+
+      if (failure == null) {
+        consecutiveSuccesses++;
+        consecutiveFailures = 0;
+      } else {
+        consecutiveFailures++;
+        consecutiveSuccesses = 0;
+      }
+
+      Boolean wasHealthy = healthy;
+      boolean nowHealthy;
+      if (wasHealthy == null) {
+        nowHealthy = failure == null;
+      } else if (wasHealthy) {
+        nowHealthy = consecutiveFailures < spec.fall();
+      } else {
+        nowHealthy = consecutiveSuccesses >= spec.rise();
+      }
+      healthy = nowHealthy;
+
+      boolean recovered = Boolean.FALSE.equals(wasHealthy) && nowHealthy;
+      for (Server server : servers) {
+        server.setHealthy(nowHealthy);
+        if (recovered) {
+          server.startWarming();
+        }
+        server.setLastHealthCheck(lastCheck);
+        if (failure == null) {
+          server.updateResponseTime(lastLatencyMs);
+        } else {
+          server.recordFailure();
+        }
+      }
+
+      if (wasHealthy == null || wasHealthy != nowHealthy) {
+        if (nowHealthy) {
+          log.info("✓ Server healthy: {} (response time: {}ms)", uri, lastLatencyMs);
+        } else {
+          log.error("✗ Server unhealthy: {} - {} ({} consecutive failures)", uri, failure,
+              consecutiveFailures);
+        }
+      } else if (failure != null) {
+        log.debug("✗ Health check failed: {} - {} ({}/{})", uri, failure,
+            consecutiveFailures, spec.fall());
+      } else {
+        log.debug("✓ Health check OK: {} (response time: {}ms)", uri, lastLatencyMs);
       }
-    } catch (InterruptedException e) {
-      scheduler.shutdownNow();
-      Thread.currentThread().interrupt();
     }
   }
-}
\ No newline at end of file
+
+  public record ProbeInfo(String target, Boolean healthy, int servers,
+      int consecutiveSuccesses, int consecutiveFailures, long lastLatencyMs, String lastError,
+      LocalDateTime lastCheck) {}
+}
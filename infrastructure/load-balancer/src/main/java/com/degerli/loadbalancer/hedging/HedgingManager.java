@@ -0,0 +1,175 @@
+package com.degerli.loadbalancer.hedging;
+
+import com.degerli.loadbalancer.routing.Route;
+import com.degerli.loadbalancer.upstream.RequestBudget;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hedged Requests - idempotent request'lerde tail latency azaltma
+ * <p>
+ * Primary upstream hedge delay içinde cevap vermezse aynı request strateji tarafından seçilen
+ * ikinci bir server'a da gönderilir; ilk gelen cevap kazanır, diğeri iptal edilir.
+ * <p>
+ * Hedge delay route'ta sabit verilebilir, verilmezse servisin canlı p95 süresinden türetilir
+ * (request'lerin ~%5'i hedge adayı olur). Ek yük servis başına {@link RequestBudget} ile
+ * sınırlanır.
+ */
+@Slf4j
+public class HedgingManager {
+
+  private static final double DELAY_PERCENTILE = 0.95;
+  private static final long DELAY_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+  private static final int BUDGET_MAX_TOKENS = 10;
+
+  private final Map<String, ServiceHedging> serviceHedging = new ConcurrentHashMap<>();
+
+  private final Set<String> methods;
+  private final Long delayMs;
+  private final long minDelayMs;
+  private final double budgetRatio;
+
+  public HedgingManager(Set<String> methods, Long delayMs, long minDelayMs,
+      double budgetRatio) {
+    this.methods = methods;
+    this.delayMs = delayMs;
+    this.minDelayMs = minDelayMs;
+    this.budgetRatio = budgetRatio;
+  }
+
+  /**
+   * Bu HTTP metodu hedge edilebilir mi? (sadece idempotent metodlar)
+   */
+  public boolean isHedgeable(String method) {
+    return methods.contains(method);
+  }
+
+  /**
+   * Servisin hedging state'ini al veya oluştur
+   */
+  public ServiceHedging getHedging(String serviceName) {
+    return serviceHedging.computeIfAbsent(serviceName, ServiceHedging::new);
+  }
+
+  /**
+   * Route için hedge delay (nanosaniye)
+   * Öncelik: route hedge-delay-ms → global delay-ms → servisin canlı p95'i
+   */
+  public long hedgeDelayNanos(Route route) {
+    if (route.getHedgeDelayMs() != null) {
+      return TimeUnit.MILLISECONDS.toNanos(route.getHedgeDelayMs());
+    }
+    if (delayMs != null) {
+      return TimeUnit.MILLISECONDS.toNanos(delayMs);
+    }
+    return getHedging(route.getServiceName()).p95DelayNanos(route.getMeters().duration());
+  }
+
+  /**
+   * Servis başına hedging istatistikleri
+   */
+  public Map<String, HedgingInfo> getStats() {
+    Map<String, HedgingInfo> stats = new ConcurrentHashMap<>();
+    serviceHedging.forEach((serviceName, hedging) -> stats.put(serviceName,
+        new HedgingInfo(hedging.getRequests(), hedging.getHedged(), hedging.getWins(),
+            hedging.getBudgetExhausted(), hedging.budget.getAvailableTokens(),
+            hedging.cachedDelayNanos == Long.MAX_VALUE
+                ? -1 : TimeUnit.NANOSECONDS.toMillis(hedging.cachedDelayNanos))));
+    return stats;
+  }
+
+  /**
+   * Tek bir servisin hedging bütçesi ve sayaçları
+   */
+  public class ServiceHedging {
+    private final String serviceName;
+    private final RequestBudget budget = new RequestBudget(budgetRatio, BUDGET_MAX_TOKENS);
+    private final AtomicLong requests = new AtomicLong(0);
+    private final AtomicLong hedged = new AtomicLong(0);
+    private final AtomicLong wins = new AtomicLong(0);
+    private final AtomicLong budgetExhausted = new AtomicLong(0);
+
+    // p95 snapshot'ı pahalı olduğu için saniyede bir hesaplanır
+    private volatile long cachedDelayNanos = Long.MAX_VALUE;
+    private volatile long delayComputedAt = System.nanoTime() - DELAY_REFRESH_NANOS;
+
+    ServiceHedging(String serviceName) {
+      this.serviceName = serviceName;
+    }
+
+    /**
+     * Hedge edilebilir bir request geldi (bütçeye katkı yapar)
+     */
+    public void onRequest() {
+      requests.incrementAndGet();
+      budget.deposit();
+    }
+
+    /**
+     * Hedge göndermek için bütçeden token al
+     */
+    public boolean tryHedge() {
+      if (budget.tryWithdraw()) {
+        hedged.incrementAndGet();
+        return true;
+      }
+      budgetExhausted.incrementAndGet();
+      log.debug("Hedging budget exhausted for service: {}", serviceName);
+      return false;
+    }
+
+    /**
+     * Hedge request'i primary'den önce cevap verdi
+     */
+    public void onHedgeWin() {
+      wins.incrementAndGet();
+    }
+
+    public long getRequests() {
+      return requests.get();
+    }
+
+    public long getHedged() {
+      return hedged.get();
+    }
+
+    public long getWins() {
+      return wins.get();
+    }
+
+    public long getBudgetExhausted() {
+      return budgetExhausted.get();
+    }
+
+    private long p95DelayNanos(Timer timer) {
+      long now = System.nanoTime();
+      if (now - delayComputedAt >= DELAY_REFRESH_NANOS) {
+        delayComputedAt = now;
+        cachedDelayNanos = computeDelay(timer);
+      }
+      return cachedDelayNanos;
+    }
+
+    private long computeDelay(Timer timer) {
+      for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+        if (value.percentile() == DELAY_PERCENTILE) {
+          double p95Nanos = value.value(TimeUnit.NANOSECONDS);
+          // Henüz örnek yoksa hedge yapma
+          return p95Nanos > 0
+              ? Math.max(TimeUnit.MILLISECONDS.toNanos(minDelayMs), (long) p95Nanos)
+              : Long.MAX_VALUE;
+        }
+      }
+      return Long.MAX_VALUE;
+    }
+  }
+
+  public record HedgingInfo(long requests, long hedged, long wins, long budgetExhausted,
+      double availableTokens, long delayMs) {}
+}
@@ -0,0 +1,220 @@
+package com.degerli.loadbalancer.locality;
+
+import com.degerli.loadbalancer.model.Server;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.Getter;
+
+/**
+ * Zone/region farkındalıklı routing: trafiği load balancer ile aynı zone'daki upstream'lere
+ * yönlendirir, yerel kapasite düşünce kalanı önce aynı region'a, sonra diğer region'lara taşır
+ * <p>
+ * Yerel payı iki oran belirler: sağlıklı yerel server oranı min-healthy-percent'in, boş
+ * connection oranı (1 - in-flight / max-connections toplamı) ise
+ * (100 - max-utilization-percent)'in altına düşünce trafik aynı oranda dışarı taşar. Örn.
+ * eşik %70 iken yerel server'ların yarısı sağlıklıysa trafiğin ~%71'i yerelde kalır.
+ * <p>
+ * Strateji sadece seçilen katmanın server'ları arasından seçim yapar; böylece tüm algoritmalar
+ * aynı şekilde yerelliği uygular. Katmanlar seçim listesi değişince (ejection) yeniden
+ * oluşturulur, request başına liste kopyalanmaz.
+ */
+public class LocalityRouter {
+
+  private final String zone;
+  private final String region;
+  private final double minHealthyFraction;
+  private final double maxUtilization;
+
+  // Service name -> zone katmanları ve sayaçlar
+  private final Map<String, ServiceLocality> services = new ConcurrentHashMap<>();
+
+  /**
+   * @param zone Load balancer'ın zone'u (null → locality kapalı)
+   */
+  public LocalityRouter(String zone, String region, int minHealthyPercent,
+      int maxUtilizationPercent) {
+    this.zone = zone;
+    this.region = region;
+    this.minHealthyFraction = Math.max(1, Math.min(100, minHealthyPercent)) / 100.0;
+    this.maxUtilization = Math.max(0, Math.min(99, maxUtilizationPercent)) / 100.0;
+  }
+
+  public boolean isEnabled() {
+    return zone != null;
+  }
+
+  /**
+   * Request'in gönderileceği katmanın server'ları
+   * Locality kapalıysa veya yerel katman yoksa liste olduğu gibi döner.
+   */
+  public List<Server> candidates(String serviceName, List<Server> servers) {
+    if (zone == null) {
+      return servers;
+    }
+
+    ServiceLocality locality = getServiceLocality(serviceName);
+    Tiers tiers = locality.tiers;
+    if (tiers == null || tiers.source != servers) {
+      // Traffic split'te request'ler iki environment'ın listesi arasında gidip gelir
+      Tiers previous = locality.previousTiers;
+      if (previous != null && previous.source == servers) {
+        tiers = previous;
+      } else {
+        tiers = partition(servers);
+        locality.previousTiers = locality.tiers;
+        locality.tiers = tiers;
+      }
+    }
+
+    double localShare = availability(tiers.local);
+    if (localShare > 0 && (localShare >= 1.0
+        || ThreadLocalRandom.current().nextDouble() < localShare)) {
+      locality.local.increment();
+      return tiers.local;
+    }
+
+    // Taşan trafik: önce aynı region (varsa sağlıklı server'ı olan), sonra diğerleri
+    if (availability(tiers.sameRegion) > 0) {
+      locality.sameRegion.increment();
+      return tiers.sameRegion;
+    }
+    if (availability(tiers.remote) > 0) {
+      locality.remote.increment();
+      return tiers.remote;
+    }
+
+    // Hiçbir katmanda sağlıklı server yok; strateji tüm liste üzerinden fallback yapsın
+    locality.remote.increment();
+    return servers;
+  }
+
+  /**
+   * Bir servisin locality sayaçlarını döner (yoksa oluşturur)
+   */
+  public ServiceLocality getServiceLocality(String serviceName) {
+    return services.computeIfAbsent(serviceName, ServiceLocality::new);
+  }
+
+  /**
+   * Admin API için durum
+   */
+  public Map<String, Object> getStats() {
+    Map<String, Object> stats = new TreeMap<>();
+    services.forEach((serviceName, locality) -> {
+      Tiers tiers = locality.tiers;
+      stats.put(serviceName, Map.of(
+          "localRequests", locality.getLocalRequests(),
+          "sameRegionRequests", locality.getSameRegionRequests(),
+          "remoteRequests", locality.getRemoteRequests(),
+          "crossZoneRatio", locality.getCrossZoneRatio(),
+          "localServers", tiers != null ? tiers.local.size() : 0,
+          "localShare", tiers != null ? availability(tiers.local) : 0.0));
+    });
+    return stats;
+  }
+
+  public String getZone() {
+    return zone;
+  }
+
+  public String getRegion() {
+    return region;
+  }
+
+  /**
+   * Katmanın alması gereken trafik oranı (0..1)
+   */
+  private double availability(List<Server> tier) {
+    if (tier.isEmpty()) {
+      return 0;
+    }
+
+    int healthy = 0;
+    long inFlight = 0;
+    long capacity = 0;
+    for (Server server : tier) {
+      if (server.isHealthy()) {
+        healthy++;
+        inFlight += server.getActiveConnections().get();
+        capacity += server.getMaxConnections();
+      }
+    }
+    if (healthy == 0) {
+      return 0;
+    }
+
+    double healthShare = Math.min(1.0, (double) healthy / tier.size() / minHealthyFraction);
+    double utilization = capacity > 0 ? Math.min(1.0, (double) inFlight / capacity) : 0;
+    double loadShare = utilization <= maxUtilization ? 1.0
+        : (1.0 - utilization) / (1.0 - maxUtilization);
+    return healthShare * loadShare;
+  }
+
+  private Tiers partition(List<Server> servers) {
+    List<Server> local = new ArrayList<>();
+    List<Server> sameRegion = new ArrayList<>();
+    List<Server> remote = new ArrayList<>();
+    for (Server server : servers) {
+      if (zone.equals(server.getZone())) {
+        local.add(server);
+      } else if (region != null && Objects.equals(region, server.getRegion())) {
+        sameRegion.add(server);
+      } else {
+        remote.add(server);
+      }
+    }
+    return new Tiers(servers, List.copyOf(local), List.copyOf(sameRegion),
+        List.copyOf(remote));
+  }
+
+  /**
+   * Seçim listesinin zone katmanları (source referansı değişince yeniden oluşturulur)
+   */
+  private record Tiers(List<Server> source, List<Server> local, List<Server> sameRegion,
+      List<Server> remote) {}
+
+  /**
+   * Servis bazlı katmanlar ve katman başına request sayaçları
+   */
+  public static class ServiceLocality {
+    @Getter
+    private final String serviceName;
+    private final LongAdder local = new LongAdder();
+    private final LongAdder sameRegion = new LongAdder();
+    private final LongAdder remote = new LongAdder();
+    private volatile Tiers tiers;
+    private volatile Tiers previousTiers;
+
+    ServiceLocality(String serviceName) {
+      this.serviceName = serviceName;
+    }
+
+    public long getLocalRequests() {
+      return local.sum();
+    }
+
+    public long getSameRegionRequests() {
+      return sameRegion.sum();
+    }
+
+    public long getRemoteRequests() {
+      return remote.sum();
+    }
+
+    /**
+     * Başka zone'a giden request oranı (0..1)
+     */
+    public double getCrossZoneRatio() {
+      long localCount = local.sum();
+      long crossZone = sameRegion.sum() + remote.sum();
+      long total = localCount + crossZone;
+      return total == 0 ? 0.0 : (double) crossZone / total;
+    }
+  }
+}
@@ -1,15 +1,38 @@
 package com.degerli.loadbalancer.metrics;
 
+import com.degerli.loadbalancer.cache.ResponseCache;
+import com.degerli.loadbalancer.coalescing.RequestCoalescer;
+import com.degerli.loadbalancer.compression.ResponseCompressor;
+import com.degerli.loadbalancer.concurrency.ConcurrencyLimiter;
+import com.degerli.loadbalancer.deployment.BlueGreenDeploymentManager;
+import com.degerli.loadbalancer.deployment.BlueGreenDeploymentManager.Action;
+import com.degerli.loadbalancer.discovery.DnsDiscovery;
+import com.degerli.loadbalancer.hedging.HedgingManager;
+import com.degerli.loadbalancer.locality.LocalityRouter;
 import com.degerli.loadbalancer.model.Server;
+import com.degerli.loadbalancer.outlier.OutlierDetector;
+import com.degerli.loadbalancer.registry.RegisteredService;
+import com.degerli.loadbalancer.registry.RegistryListener;
 import com.degerli.loadbalancer.registry.ServiceRegistry;
+import com.degerli.loadbalancer.retry.RetryManager;
+import com.degerli.loadbalancer.shedding.LoadShedder;
+import com.degerli.loadbalancer.websocket.WebSocketRelayStats;
+import com.degerli.loadbalancer.websocket.WebSocketRelayStats.Direction;
+import com.degerli.loadbalancer.websocket.WebSocketRelayStats.RelayStats;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
 import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
@@ -19,126 +42,582 @@ import org.springframework.stereotype.Component;
  */
 @Component
 @RequiredArgsConstructor
-public class LoadBalancerMetrics {
+public class LoadBalancerMetrics implements RegistryListener {
 
   private final MeterRegistry meterRegistry;
   private final ServiceRegistry serviceRegistry;
+  private final ConcurrencyLimiter concurrencyLimiter;
+  private final LoadShedder loadShedder;
+  private final HedgingManager hedgingManager;
+  private final RetryManager retryManager;
+  private final ResponseCache responseCache;
+  private final RequestCoalescer requestCoalescer;
+  private final ResponseCompressor responseCompressor;
+  private final OutlierDetector outlierDetector;
+  private final LocalityRouter localityRouter;
+  private final DnsDiscovery dnsDiscovery;
+  private final BlueGreenDeploymentManager deploymentManager;
+  private final WebSocketRelayStats webSocketRelayStats;
 
-  // Counters
-  private final ConcurrentMap<String, Counter> requestCounters = new ConcurrentHashMap<>();
-  private final ConcurrentMap<String, Counter> errorCounters = new ConcurrentHashMap<>();
+  // Service name -> Counters + timer with percentiles
+  private final ConcurrentMap<String, ServiceMeters> serviceMeters = new ConcurrentHashMap<>();
 
-  // Timers with percentiles
-  private final ConcurrentMap<String, Timer> requestTimers = new ConcurrentHashMap<>();
+  // "service|url" -> server gauge'leri (upstream kaldırılınca registry taranmadan silinir)
+  private final ConcurrentMap<String, List<Meter>> serverMeterHandles =
+      new ConcurrentHashMap<>();
+
+  // Runtime'da eklenen/kaldırılan upstream'lerin meter kayıtları. Binlerce upstream'de
+  // registry kaydı/silmesi saniyeler sürebildiği için registry güncellemesini bekletmez;
+  // tek thread olduğundan kayıt ve silme sırası korunur.
+  private final ExecutorService registrar = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "metrics-registrar");
+    thread.setDaemon(true);
+    return thread;
+  });
 
   @PostConstruct
   public void initMetrics() {
     serviceRegistry.getServiceNames().forEach(serviceName -> {
-      // Request counter
-      requestCounters.put(serviceName, Counter.builder("loadbalancer.requests.total")
-          .tag("service", serviceName)
-          .description("Total number of requests")
-          .register(meterRegistry));
-
-      // Error counter
-      errorCounters.put(serviceName, Counter.builder("loadbalancer.errors.total")
-          .tag("service", serviceName)
-          .description("Total number of errors")
-          .register(meterRegistry));
-
-      // Request timer with percentiles
-      requestTimers.put(serviceName, Timer.builder("loadbalancer.request.duration")
-          .tag("service", serviceName)
-          .description("Request duration in seconds")
-          .publishPercentiles(0.5, 0.95, 0.99)  // P50, P95, P99
-          .publishPercentileHistogram()
-          .minimumExpectedValue(java.time.Duration.ofMillis(1))
-          .maximumExpectedValue(java.time.Duration.ofSeconds(10))
-          .register(meterRegistry));
-
-      // Server health gauges
-      List<Server> servers = serviceRegistry.getServers(serviceName);
-      servers.forEach(server -> {
-        // Active connections
-        Gauge.builder("loadbalancer.server.connections.active", server,
-                s -> s.getActiveConnections().get())
-            .tag("service", serviceName)
-            .tag("server", server.getUrl())
-            .description("Active connections to server")
-            .register(meterRegistry);
-
-        // Health status (1=healthy, 0=unhealthy)
-        Gauge.builder("loadbalancer.server.health", server, s -> s.isHealthy() ? 1.0 : 0.0)
-            .tag("service", serviceName)
-            .tag("server", server.getUrl())
-            .description("Server health status (1=healthy, 0=unhealthy)")
-            .register(meterRegistry);
-
-        // Total requests
-        Gauge.builder("loadbalancer.server.requests.total", server,
-                s -> s.getTotalRequests().get())
-            .tag("service", serviceName)
-            .tag("server", server.getUrl())
-            .description("Total requests to server")
-            .register(meterRegistry);
-
-        // Failed requests
-        Gauge.builder("loadbalancer.server.requests.failed", server,
-                s -> s.getFailedRequests().get())
-            .tag("service", serviceName)
-            .tag("server", server.getUrl())
-            .description("Failed requests to server")
-            .register(meterRegistry);
-
-        // Average response time
-        Gauge.builder("loadbalancer.server.response.time.avg", server,
-                Server::getAverageResponseTime)
-            .tag("service", serviceName)
-            .tag("server", server.getUrl())
-            .description("Average response time in milliseconds")
-            .register(meterRegistry);
-
-        // Success rate
-        Gauge.builder("loadbalancer.server.success.rate", server, s -> {
-              long total = s.getTotalRequests().get();
-              long failed = s.getFailedRequests().get();
-              if (total == 0) {
-                return 1.0;
-              }
-              return (double) (total - failed) / total;
-            })
-            .tag("service", serviceName)
-            .tag("server", server.getUrl())
-            .description("Success rate (0.0 to 1.0)")
-            .register(meterRegistry);
-      });
+      registerServiceMeters(serviceName);
+      serviceRegistry.getServers(serviceName)
+          .forEach(server -> registerServerMeters(serviceName, server));
     });
+    serviceRegistry.addListener(this);
 
     // Global metrics
     Gauge.builder("loadbalancer.services.total", serviceRegistry,
             reg -> reg.getServiceNames().size())
         .description("Total number of services")
         .register(meterRegistry);
+
+    // Response cache (toplam)
+    Gauge.builder("loadbalancer.cache.entries", responseCache, ResponseCache::getEntryCount)
+        .description("Responses currently in the cache")
+        .register(meterRegistry);
+
+    Gauge.builder("loadbalancer.cache.used.bytes", responseCache, ResponseCache::getUsedBytes)
+        .description("Off-heap bytes used by cached bodies")
+        .baseUnit("bytes")
+        .register(meterRegistry);
+
+    FunctionCounter.builder("loadbalancer.cache.evictions", responseCache,
+            ResponseCache::getEvictions)
+        .description("Cached responses evicted or expired")
+        .register(meterRegistry);
+
+    Gauge.builder("loadbalancer.coalescing.inflight", requestCoalescer,
+            RequestCoalescer::getInFlightCount)
+        .description("Distinct requests currently being coalesced")
+        .register(meterRegistry);
+
+    Gauge.builder("loadbalancer.compression.variant.cache.bytes", responseCompressor,
+            ResponseCompressor::getVariantBytes)
+        .description("Bytes held by precompressed response variants")
+        .baseUnit("bytes")
+        .register(meterRegistry);
+
+    // DNS discovery
+    FunctionCounter.builder("loadbalancer.dns.resolutions", dnsDiscovery,
+            DnsDiscovery::getResolutions)
+        .tag("result", "success")
+        .description("Background DNS resolutions of discovered upstreams")
+        .register(meterRegistry);
+
+    FunctionCounter.builder("loadbalancer.dns.resolutions", dnsDiscovery,
+            DnsDiscovery::getFailures)
+        .tag("result", "failure")
+        .description("Background DNS resolutions of discovered upstreams")
+        .register(meterRegistry);
+
+    // Canary analizi kararları
+    for (Action action : Action.values()) {
+      FunctionCounter.builder("loadbalancer.deployment.canary.decisions", deploymentManager,
+              manager -> manager.getDecisionCount(action))
+          .tag("action", action.name().toLowerCase(Locale.ROOT))
+          .description("Canary analysis decisions of gradual switches")
+          .register(meterRegistry);
+    }
+
+    // Load shedding (request class başına)
+    Gauge.builder("loadbalancer.shedding.level", loadShedder, LoadShedder::getOverloadLevel)
+        .description("Overload level (0=none, 1=sheddable shed, 2=normal shed)")
+        .register(meterRegistry);
+
+    loadShedder.getRequestClasses().forEach(requestClass -> {
+      FunctionCounter.builder("loadbalancer.shedding.admitted", requestClass,
+              LoadShedder.RequestClass::getAdmittedCount)
+          .tag("class", requestClass.getName())
+          .tag("priority", requestClass.getPriority().name())
+          .description("Requests admitted by the load shedder")
+          .register(meterRegistry);
+
+      FunctionCounter.builder("loadbalancer.shedding.shed", requestClass,
+              LoadShedder.RequestClass::getShedCount)
+          .tag("class", requestClass.getName())
+          .tag("priority", requestClass.getPriority().name())
+          .description("Requests shed by the load shedder")
+          .register(meterRegistry);
+    });
+  }
+
+  @Override
+  public void onServiceAdded(RegisteredService service) {
+    // Servis meter'ları route table derlenmeden önce hazır olmalı
+    registerServiceMeters(service.getName());
+    List<Server> servers = service.getServers();
+    registrar.execute(() ->
+        servers.forEach(server -> registerServerMeters(service.getName(), server)));
+  }
+
+  @Override
+  public void onServiceRemoved(RegisteredService service) {
+    serviceMeters.remove(service.getName());
+    registrar.execute(() -> {
+      service.getServers().forEach(server ->
+          serverMeterHandles.remove(serverKey(service.getName(), server)));
+      meterRegistry.getMeters().stream()
+          .filter(meter -> service.getName().equals(meter.getId().getTag("service")))
+          .forEach(meterRegistry::remove);
+    });
+  }
+
+  @Override
+  public void onServerAdded(RegisteredService service, Server server) {
+    registrar.execute(() -> registerServerMeters(service.getName(), server));
+  }
+
+  @Override
+  public void onServerRemoved(RegisteredService service, Server server) {
+    registrar.execute(() -> {
+      List<Meter> meters = serverMeterHandles.remove(serverKey(service.getName(), server));
+      if (meters != null) {
+        meters.forEach(meterRegistry::remove);
+      }
+    });
+  }
+
+  private static String serverKey(String serviceName, Server server) {
+    return serviceName + '|' + server.getUrl();
+  }
+
+  /**
+   * Servisin ve serverlarının meter'larını kaydet
+   */
+  private void registerServiceMeters(String serviceName) {
+    // Request counter
+    Counter requests = Counter.builder("loadbalancer.requests.total")
+        .tag("service", serviceName)
+        .description("Total number of requests")
+        .register(meterRegistry);
+
+    // Error counter
+    Counter errors = Counter.builder("loadbalancer.errors.total")
+        .tag("service", serviceName)
+        .description("Total number of errors")
+        .register(meterRegistry);
+
+    // Request timer with percentiles
+    Timer duration = Timer.builder("loadbalancer.request.duration")
+        .tag("service", serviceName)
+        .description("Request duration in seconds")
+        .publishPercentiles(0.5, 0.95, 0.99)  // P50, P95, P99
+        .publishPercentileHistogram()
+        .minimumExpectedValue(java.time.Duration.ofMillis(1))
+        .maximumExpectedValue(java.time.Duration.ofSeconds(10))
+        .register(meterRegistry);
+
+    // Deadline aşımı (erken abort + upstream timeout)
+    Counter deadlineExceeded = Counter.builder("loadbalancer.deadline.exceeded")
+        .tag("service", serviceName)
+        .description("Requests that ran out of their timeout budget")
+        .register(meterRegistry);
+
+    serviceMeters.put(serviceName,
+        new ServiceMeters(requests, errors, duration, deadlineExceeded));
+
+    // Adaptive concurrency limit
+    ConcurrencyLimiter.ServiceLimiter limiter = concurrencyLimiter.getLimiter(serviceName);
+    Gauge.builder("loadbalancer.concurrency.limit", limiter,
+            ConcurrencyLimiter.ServiceLimiter::getLimit)
+        .tag("service", serviceName)
+        .description("Current adaptive in-flight limit")
+        .register(meterRegistry);
+
+    Gauge.builder("loadbalancer.concurrency.inflight", limiter,
+            ConcurrencyLimiter.ServiceLimiter::getInFlight)
+        .tag("service", serviceName)
+        .description("Requests currently in flight to upstreams")
+        .register(meterRegistry);
+
+    FunctionCounter.builder("loadbalancer.concurrency.rejected", limiter,
+            ConcurrencyLimiter.ServiceLimiter::getRejected)
+        .tag("service", serviceName)
+        .description("Requests rejected by the concurrency limiter")
+        .register(meterRegistry);
+
+    // Hedged requests
+    HedgingManager.ServiceHedging hedging = hedgingManager.getHedging(serviceName);
+    FunctionCounter.builder("loadbalancer.hedging.eligible", hedging,
+            HedgingManager.ServiceHedging::getRequests)
+        .tag("service", serviceName)
+        .description("Requests eligible for hedging")
+        .register(meterRegistry);
+
+    FunctionCounter.builder("loadbalancer.hedging.hedged", hedging,
+            HedgingManager.ServiceHedging::getHedged)
+        .tag("service", serviceName)
+        .description("Hedge requests sent to a second upstream")
+        .register(meterRegistry);
+
+    FunctionCounter.builder("loadbalancer.hedging.wins", hedging,
+            HedgingManager.ServiceHedging::getWins)
+        .tag("service", serviceName)
+        .description("Hedge requests that answered before the primary")
+        .register(meterRegistry);
+
+    FunctionCounter.builder("loadbalancer.hedging.budget.exhausted", hedging,
+            HedgingManager.ServiceHedging::getBudgetExhausted)
+        .tag("service", serviceName)
+        .description("Hedges skipped because the hedging budget was empty")
+        .register(meterRegistry);
+
+    // Retries on alternate upstreams
+    RetryManager.ServiceRetries retries = retryManager.getRetries(serviceName);
+    FunctionCounter.builder("loadbalancer.retries", retries,
+            RetryManager.ServiceRetries::getRetries)
+        .tag("service", serviceName)
+        .description("Retries sent to an alternate upstream")
+        .register(meterRegistry);
+
+    FunctionCounter.builder("loadbalancer.retries.succeeded", retries,
+            RetryManager.ServiceRetries::getRetrySuccesses)
+        .tag("service", serviceName)
+        .description("Requests that succeeded after at least one retry")
+        .register(meterRegistry);
+
+    FunctionCounter.builder("loadbalancer.retries.budget.exhausted", retries,
+            RetryManager.ServiceRetries::getBudgetExhausted)
+        .tag("service", serviceName)
+        .description("Retries skipped because the retry budget was empty")
+        .register(meterRegistry);
+
+    // Response cache
+    ResponseCache.ServiceCacheStats cache = responseCache.getServiceStats(serviceName);
+    FunctionCounter.builder("loadbalancer.cache.hits", cache,
+            ResponseCache.ServiceCacheStats::getHits)
+        .tag("service", serviceName)
+        .description("Requests answered from the response cache")
+        .register(meterRegistry);
+
+    FunctionCounter.builder("loadbalancer.cache.misses", cache,
+            ResponseCache.ServiceCacheStats::getMisses)
+        .tag("service", serviceName)
+        .description("Cacheable requests not found in the response cache")
+        .register(meterRegistry);
+
+    FunctionCounter.builder("loadbalancer.cache.hit.bytes", cache,
+            ResponseCache.ServiceCacheStats::getHitBytes)
+        .tag("service", serviceName)
+        .description("Body bytes served from the response cache")
+        .baseUnit("bytes")
+        .register(meterRegistry);
+
+    Gauge.builder("loadbalancer.cache.stored.bytes", cache,
+            ResponseCache.ServiceCacheStats::getStoredBytes)
+        .tag("service", serviceName)
+        .description("Off-heap bytes held by the service's cached responses")
+        .baseUnit("bytes")
+        .register(meterRegistry);
+
+    // Request coalescing
+    RequestCoalescer.ServiceCoalescing coalescing =
+        requestCoalescer.getCoalescing(serviceName);
+    FunctionCounter.builder("loadbalancer.coalescing.requests", coalescing,
+            RequestCoalescer.ServiceCoalescing::getRequests)
+        .tag("service", serviceName)
+        .description("Requests eligible for coalescing")
+        .register(meterRegistry);
+
+    FunctionCounter.builder("loadbalancer.coalescing.coalesced", coalescing,
+            RequestCoalescer.ServiceCoalescing::getCoalesced)
+        .tag("service", serviceName)
+        .description("Requests answered with another in-flight request's response")
+        .register(meterRegistry);
+
+    FunctionCounter.builder("loadbalancer.coalescing.wait.timeouts", coalescing,
+            RequestCoalescer.ServiceCoalescing::getWaitTimeouts)
+        .tag("service", serviceName)
+        .description("Followers that stopped waiting and proxied independently")
+        .register(meterRegistry);
+
+    // Response compression (kazanılan bant genişliği vs harcanan CPU)
+    ResponseCompressor.ServiceCompression compression =
+        responseCompressor.getCompression(serviceName);
+    FunctionCounter.builder("loadbalancer.compression.responses", compression,
+            ResponseCompressor.ServiceCompression::getCompressed)
+        .tag("service", serviceName)
+        .description("Responses sent gzip-encoded")
+        .register(meterRegistry);
+
+    FunctionCounter.builder("loadbalancer.compression.variant.hits", compression,
+            ResponseCompressor.ServiceCompression::getVariantHits)
+        .tag("service", serviceName)
+        .description("Compressed responses served from the precompressed variant cache")
+        .register(meterRegistry);
+
+    FunctionCounter.builder("loadbalancer.compression.bytes.in", compression,
+            ResponseCompressor.ServiceCompression::getBytesIn)
+        .tag("service", serviceName)
+        .description("Uncompressed bytes of compressed responses")
+        .baseUnit("bytes")
+        .register(meterRegistry);
+
+    FunctionCounter.builder("loadbalancer.compression.bytes.out", compression,
+            ResponseCompressor.ServiceCompression::getBytesOut)
+        .tag("service", serviceName)
+        .description("Bytes sent after compression")
+        .baseUnit("bytes")
+        .register(meterRegistry);
+
+    FunctionCounter.builder("loadbalancer.compression.cpu", compression,
+            ResponseCompressor.ServiceCompression::getCpuSeconds)
+        .tag("service", serviceName)
+        .description("Time spent compressing responses")
+        .baseUnit("seconds")
+        .register(meterRegistry);
+
+    // Outlier detection (sebep başına ejection sayısı ve şu an ejected server sayısı)
+    OutlierDetector.ServiceOutliers outliers = outlierDetector.getServiceOutliers(serviceName);
+    for (OutlierDetector.EjectionReason reason : OutlierDetector.EjectionReason.values()) {
+      FunctionCounter.builder("loadbalancer.outlier.ejections", outliers,
+              o -> o.getEjections(reason))
+          .tag("service", serviceName)
+          .tag("reason", reason.name())
+          .description("Servers ejected by outlier detection")
+          .register(meterRegistry);
+    }
+
+    FunctionCounter.builder("loadbalancer.outlier.ejections.overflow", outliers,
+            OutlierDetector.ServiceOutliers::getOverflows)
+        .tag("service", serviceName)
+        .description("Ejections skipped because max ejection percent was reached")
+        .register(meterRegistry);
+
+    Gauge.builder("loadbalancer.outlier.ejected", outliers,
+            OutlierDetector.ServiceOutliers::getEjectedCount)
+        .tag("service", serviceName)
+        .description("Servers currently ejected from rotation")
+        .register(meterRegistry);
+
+    // Locality aware routing (katman başına request sayısı ve zone dışına giden oran)
+    LocalityRouter.ServiceLocality locality = localityRouter.getServiceLocality(serviceName);
+    FunctionCounter.builder("loadbalancer.locality.requests", locality,
+            LocalityRouter.ServiceLocality::getLocalRequests)
+        .tag("service", serviceName)
+        .tag("locality", "local")
+        .description("Requests routed by locality tier")
+        .register(meterRegistry);
+
+    FunctionCounter.builder("loadbalancer.locality.requests", locality,
+            LocalityRouter.ServiceLocality::getSameRegionRequests)
+        .tag("service", serviceName)
+        .tag("locality", "same_region")
+        .description("Requests routed by locality tier")
+        .register(meterRegistry);
+
+    FunctionCounter.builder("loadbalancer.locality.requests", locality,
+            LocalityRouter.ServiceLocality::getRemoteRequests)
+        .tag("service", serviceName)
+        .tag("locality", "remote")
+        .description("Requests routed by locality tier")
+        .register(meterRegistry);
+
+    Gauge.builder("loadbalancer.locality.cross.zone.ratio", locality,
+            LocalityRouter.ServiceLocality::getCrossZoneRatio)
+        .tag("service", serviceName)
+        .description("Share of requests sent outside the load balancer's zone")
+        .register(meterRegistry);
+
+    // WebSocket relay (yön başına: upstream = client → backend, downstream = backend → client)
+    WebSocketRelayStats.ServiceStats webSocket = webSocketRelayStats.getServiceStats(serviceName);
+    Gauge.builder("loadbalancer.websocket.sessions", webSocket,
+            WebSocketRelayStats.ServiceStats::getSessions)
+        .tag("service", serviceName)
+        .description("Proxied WebSocket sessions currently open")
+        .register(meterRegistry);
+
+    FunctionCounter.builder("loadbalancer.websocket.rebalanced", webSocket,
+            WebSocketRelayStats.ServiceStats::getRebalanced)
+        .tag("service", serviceName)
+        .description("WebSocket sessions closed with 1012 to rebalance upstreams")
+        .register(meterRegistry);
+
+    for (Direction direction : Direction.values()) {
+      RelayStats relay = webSocket.getDirection(direction);
+      String tag = direction.name().toLowerCase(Locale.ROOT);
+      FunctionCounter.builder("loadbalancer.websocket.messages", relay,
+              RelayStats::getMessages)
+          .tag("service", serviceName)
+          .tag("direction", tag)
+          .description("WebSocket messages relayed")
+          .register(meterRegistry);
+
+      FunctionCounter.builder("loadbalancer.websocket.bytes", relay, RelayStats::getBytes)
+          .tag("service", serviceName)
+          .tag("direction", tag)
+          .description("WebSocket payload bytes relayed")
+          .baseUnit("bytes")
+          .register(meterRegistry);
+
+      FunctionCounter.builder("loadbalancer.websocket.dropped", relay, RelayStats::getDropped)
+          .tag("service", serviceName)
+          .tag("direction", tag)
+          .description("WebSocket messages dropped because the send buffer was full")
+          .register(meterRegistry);
+
+      FunctionCounter.builder("loadbalancer.websocket.pauses", relay, RelayStats::getPauses)
+          .tag("service", serviceName)
+          .tag("direction", tag)
+          .description("Times reading was paused because the send buffer was full")
+          .register(meterRegistry);
+
+      FunctionCounter.builder("loadbalancer.websocket.slow.consumer.closes", relay,
+              RelayStats::getCloses)
+          .tag("service", serviceName)
+          .tag("direction", tag)
+          .description("Sessions closed for exceeding the send buffer or send time limit")
+          .register(meterRegistry);
+
+      Gauge.builder("loadbalancer.websocket.buffer.high.water", relay,
+              RelayStats::getHighWaterBytes)
+          .tag("service", serviceName)
+          .tag("direction", tag)
+          .description("Highest send buffer usage of a WebSocket session")
+          .baseUnit("bytes")
+          .register(meterRegistry);
+    }
+  }
+
+  private void registerServerMeters(String serviceName, Server server) {
+    List<Meter> meters = new ArrayList<>(8);
+
+    // Active connections
+    meters.add(Gauge.builder("loadbalancer.server.connections.active", server,
+            s -> s.getActiveConnections().get())
+        .tag("service", serviceName)
+        .tag("server", server.getUrl())
+        .description("Active connections to server")
+        .register(meterRegistry));
+
+    // Açık WebSocket'ler (upgrade seçimi ve rebalance bu sayıya bakar)
+    meters.add(Gauge.builder("loadbalancer.server.websockets", server,
+            s -> s.getWebSocketConnections().get())
+        .tag("service", serviceName)
+        .tag("server", server.getUrl())
+        .description("Open WebSocket sessions proxied to server")
+        .register(meterRegistry));
+
+    // Backend'in raporladığı CPU kullanımı (rapor yoksa NaN)
+    meters.add(Gauge.builder("loadbalancer.server.reported.cpu", server,
+            s -> s.getLoadReport() != null && s.getLoadReport().cpuUtilization() >= 0
+                ? s.getLoadReport().cpuUtilization() : Double.NaN)
+        .tag("service", serviceName)
+        .tag("server", server.getUrl())
+        .description("CPU utilization reported by the backend in its last response")
+        .register(meterRegistry));
+
+    // Health status (1=healthy, 0=unhealthy)
+    meters.add(Gauge.builder("loadbalancer.server.health", server, s -> s.isHealthy() ? 1.0 : 0.0)
+        .tag("service", serviceName)
+        .tag("server", server.getUrl())
+        .description("Server health status (1=healthy, 0=unhealthy)")
+        .register(meterRegistry));
+
+    // Total requests
+    meters.add(Gauge.builder("loadbalancer.server.requests.total", server,
+            s -> s.getTotalRequests().get())
+        .tag("service", serviceName)
+        .tag("server", server.getUrl())
+        .description("Total requests to server")
+        .register(meterRegistry));
+
+    // Failed requests
+    meters.add(Gauge.builder("loadbalancer.server.requests.failed", server,
+            s -> s.getFailedRequests().get())
+        .tag("service", serviceName)
+        .tag("server", server.getUrl())
+        .description("Failed requests to server")
+        .register(meterRegistry));
+
+    // Average response time
+    meters.add(Gauge.builder("loadbalancer.server.response.time.avg", server,
+            Server::getAverageResponseTime)
+        .tag("service", serviceName)
+        .tag("server", server.getUrl())
+        .description("Average response time in milliseconds")
+        .register(meterRegistry));
+
+    // Success rate
+    meters.add(Gauge.builder("loadbalancer.server.success.rate", server, s -> {
+          long total = s.getTotalRequests().get();
+          long failed = s.getFailedRequests().get();
+          if (total == 0) {
+            return 1.0;
+          }
+          return (double) (total - failed) / total;
+        })
+        .tag("service", serviceName)
+        .tag("server", server.getUrl())
+        .description("Success rate (0.0 to 1.0)")
+        .register(meterRegistry));
+
+    serverMeterHandles.put(serverKey(serviceName, server), meters);
+  }
+
+  /**
+   * Servisin metric handle'larını döner (route table derlenirken bir kez çağrılır)
+   */
+  public ServiceMeters getServiceMeters(String serviceName) {
+    return serviceMeters.get(serviceName);
   }
 
   /**
    * Request başarılı
    */
   public void recordSuccess(String serviceName, long durationMs) {
-    requestCounters.get(serviceName).increment();
-    requestTimers.get(serviceName)
-        .record(durationMs, java.util.concurrent.TimeUnit.MILLISECONDS);
+    recordSuccess(serviceMeters.get(serviceName), durationMs);
+  }
+
+  public void recordSuccess(ServiceMeters meters, long durationMs) {
+    meters.requests().increment();
+    meters.duration().record(durationMs, java.util.concurrent.TimeUnit.MILLISECONDS);
   }
 
   /**
    * Request başarısız
    */
   public void recordError(String serviceName, long durationMs) {
-    requestCounters.get(serviceName).increment();
-    errorCounters.get(serviceName).increment();
-    requestTimers.get(serviceName)
-        .record(durationMs, java.util.concurrent.TimeUnit.MILLISECONDS);
+    recordError(serviceMeters.get(serviceName), durationMs);
+  }
+
+  public void recordError(ServiceMeters meters, long durationMs) {
+    meters.requests().increment();
+    meters.errors().increment();
+    meters.duration().record(durationMs, java.util.concurrent.TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Request süre bütçesini aştı
+   */
+  public void recordDeadlineExceeded(ServiceMeters meters) {
+    meters.deadlineExceeded().increment();
   }
+
+  /**
+   * Bir servisin önceden register edilmiş metric handle'ları
+   */
+  public record ServiceMeters(Counter requests, Counter errors, Timer duration,
+      Counter deadlineExceeded) {}
 }
 
 /**
@@ -156,6 +635,46 @@ public class LoadBalancerMetrics {
  * # Success rate (%)
  * (1 - (rate(loadbalancer_errors_total[5m]) / rate(loadbalancer_requests_total[5m]))) * 100
  *
+ * # Concurrency limit vs in-flight
+ * loadbalancer_concurrency_limit{service="kisakes"}
+ * loadbalancer_concurrency_inflight{service="kisakes"}
+ *
+ * # Deadline exceeded rate
+ * rate(loadbalancer_deadline_exceeded_total[5m])
+ *
+ * # Hedge rate and hedge win ratio
+ * rate(loadbalancer_hedging_hedged_total[5m]) / rate(loadbalancer_hedging_eligible_total[5m])
+ * rate(loadbalancer_hedging_wins_total[5m]) / rate(loadbalancer_hedging_hedged_total[5m])
+ *
+ * # Retry ratio (budget caps this at retry.budget-percent)
+ * rate(loadbalancer_retries_total[5m]) / rate(loadbalancer_requests_total[5m])
+ *
+ * # Cache hit ratio
+ * rate(loadbalancer_cache_hits_total[5m])
+ *   / (rate(loadbalancer_cache_hits_total[5m]) + rate(loadbalancer_cache_misses_total[5m]))
+ *
+ * # Coalescing ratio (upstream calls saved)
+ * rate(loadbalancer_coalescing_coalesced_total[5m])
+ *   / rate(loadbalancer_coalescing_requests_total[5m])
+ *
+ * # Bandwidth saved by compression and CPU cost per saved MB
+ * rate(loadbalancer_compression_bytes_in_bytes_total[5m])
+ *   - rate(loadbalancer_compression_bytes_out_bytes_total[5m])
+ * rate(loadbalancer_compression_cpu_seconds_total[5m])
+ *   / ((rate(loadbalancer_compression_bytes_in_bytes_total[5m])
+ *   - rate(loadbalancer_compression_bytes_out_bytes_total[5m])) / 1e6)
+ *
+ * # WebSocket throughput and slow consumers per direction
+ * rate(loadbalancer_websocket_bytes_total[1m])
+ * increase(loadbalancer_websocket_dropped_total[5m])
+ *   + increase(loadbalancer_websocket_slow_consumer_closes_total[5m])
+ *
+ * # Outlier ejections per reason
+ * sum by (service, reason) (increase(loadbalancer_outlier_ejections_total[15m]))
+ *
+ * # Shed ratio per request class
+ * rate(loadbalancer_shedding_shed_total[1m]) / (rate(loadbalancer_shedding_shed_total[1m]) + rate(loadbalancer_shedding_admitted_total[1m]))
+ *
  * # Average response time (ms)
  * rate(loadbalancer_request_duration_seconds_sum[5m]) / rate(loadbalancer_request_duration_seconds_count[5m]) * 1000
  */
\ No newline at end of file
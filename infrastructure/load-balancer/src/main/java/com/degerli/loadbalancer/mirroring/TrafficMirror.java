@@ -0,0 +1,324 @@
+package com.degerli.loadbalancer.mirroring;
+
+import com.degerli.loadbalancer.deployment.TrafficSplitter;
+import com.degerli.loadbalancer.deployment.TrafficSplitter.Environment;
+import com.degerli.loadbalancer.model.ResponseStats;
+import com.degerli.loadbalancer.model.Server;
+import com.degerli.loadbalancer.registry.RegisteredService;
+import com.degerli.loadbalancer.registry.ServiceRegistry;
+import com.degerli.loadbalancer.routing.Route;
+import com.degerli.loadbalancer.shedding.LoadShedder;
+import com.degerli.loadbalancer.upstream.HopByHopHeaders;
+import jakarta.servlet.http.HttpServletRequest;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Traffic Mirroring (shadowing) - canlı trafiğin kopyasını aday environment'a gönderme
+ * <p>
+ * Servisin kuralındaki yüzde kadar request'in kopyası aynı servisin bir environment'ına
+ * (ör. trafik verilmeden önce green) veya başka bir servise gönderilir. Kopya fire-and-forget
+ * gönderilir: kendi thread'leri ve bağlantı havuzu olan ayrı bir HTTP client kullanılır, cevap
+ * body'si okunmadan atılır ve client'a hiçbir şey dönmez. Kopyanın status kodu ve süresi
+ * primary'nin cevabıyla karşılaştırılıp istatistiğe yazılır.
+ * <p>
+ * Primary yolu beklemez: aynı anda en fazla maxConcurrent kopya uçuşta olabilir, dolunca veya
+ * load shedding devredeyken yeni kopyalar kuyruğa alınmadan düşürülür. Hedef serverlar
+ * servisin stratejisinden bağımsız round-robin seçilir; kopyalar server sayaçlarına girmez.
+ */
+@Slf4j
+public class TrafficMirror {
+
+  private final Map<String, MirrorRule> rules = new ConcurrentHashMap<>();
+  private final Map<String, ServiceMirror> serviceMirrors = new ConcurrentHashMap<>();
+
+  private final ServiceRegistry serviceRegistry;
+  private final TrafficSplitter trafficSplitter;
+  private final LoadShedder loadShedder;
+  private final Set<String> methods;
+  private final Semaphore permits;
+  private final Duration timeout;
+  private final String shadowHeader;
+  private final ExecutorService executor;
+  private final HttpClient httpClient;
+
+  public TrafficMirror(ServiceRegistry serviceRegistry, TrafficSplitter trafficSplitter,
+      LoadShedder loadShedder, Set<String> methods, int maxConcurrent, int threads,
+      long timeoutMs, String shadowHeader, Map<String, MirrorRule> rules) {
+    this.serviceRegistry = serviceRegistry;
+    this.trafficSplitter = trafficSplitter;
+    this.loadShedder = loadShedder;
+    this.methods = methods;
+    this.permits = new Semaphore(maxConcurrent);
+    this.timeout = Duration.ofMillis(timeoutMs);
+    this.shadowHeader = shadowHeader;
+    this.rules.putAll(rules);
+
+    if (threads > 0) {
+      AtomicInteger threadCount = new AtomicInteger();
+      this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+        Thread thread = new Thread(runnable, "traffic-mirror-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      });
+      this.httpClient = HttpClient.newBuilder()
+          .version(HttpClient.Version.HTTP_1_1)
+          .followRedirects(HttpClient.Redirect.NEVER)
+          .connectTimeout(timeout)
+          .executor(executor)
+          .build();
+    } else {
+      this.executor = null;
+      this.httpClient = null;
+    }
+  }
+
+  /**
+   * Servisin kopyalarının gönderileceği hedefi ayarla (varsa eskisinin yerine)
+   */
+  public void setRule(String serviceName, MirrorRule rule) {
+    rules.put(serviceName, rule);
+    log.info("Mirroring {}% of {} to {}", rule.percent(), serviceName, rule.describeTarget());
+  }
+
+  public void removeRule(String serviceName) {
+    if (rules.remove(serviceName) != null) {
+      log.info("Stopped mirroring {}", serviceName);
+    }
+  }
+
+  /**
+   * Request'i kurala göre aynala (aynalanmadıysa null)
+   * <p>
+   * Header'lar ve body çağıran thread'de kopyalanmadan okunur; body byte[]'ı değiştirilmez.
+   * Primary tamamlanınca dönen handle'a sonucu verilmelidir.
+   */
+  public Mirror mirror(Route route, HttpServletRequest request, HttpHeaders headers,
+      byte[] body) {
+    MirrorRule rule = rules.get(route.getServiceName());
+    if (rule == null || httpClient == null || !methods.contains(request.getMethod())
+        || ThreadLocalRandom.current().nextDouble(100) >= rule.percent()) {
+      return null;
+    }
+
+    ServiceMirror stats = getServiceMirror(route.getServiceName());
+    if (loadShedder.getOverloadLevel() > 0 || !permits.tryAcquire()) {
+      stats.dropped.incrementAndGet();
+      return null;
+    }
+
+    Server target = selectTarget(route.getServiceName(), rule, stats);
+    if (target == null) {
+      permits.release();
+      stats.unroutable.incrementAndGet();
+      return null;
+    }
+
+    CompletableFuture<HttpResponse<Void>> call;
+    long start = System.nanoTime();
+    try {
+      call = httpClient.sendAsync(buildRequest(route.buildBackendUrl(target, request),
+          request.getMethod(), headers, body), HttpResponse.BodyHandlers.discarding());
+    } catch (RuntimeException e) {
+      permits.release();
+      stats.failed.incrementAndGet();
+      log.debug("Mirror request to {} could not be sent: {}", target.getUrl(), e.getMessage());
+      return null;
+    }
+    stats.mirrored.incrementAndGet();
+
+    Mirror mirror = new Mirror();
+    call.whenComplete((response, error) -> {
+      permits.release();
+      long latencyNanos = System.nanoTime() - start;
+      mirror.primary.thenAccept(primary -> stats.compare(primary,
+          error == null ? response.statusCode() : -1, latencyNanos));
+    });
+    return mirror;
+  }
+
+  private HttpRequest buildRequest(String url, String method, HttpHeaders headers,
+      byte[] body) {
+    HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+        .timeout(timeout)
+        .method(method, body == null || body.length == 0
+            ? HttpRequest.BodyPublishers.noBody()
+            : HttpRequest.BodyPublishers.ofByteArray(body));
+    headers.forEach((name, values) -> {
+      if (!HopByHopHeaders.isExcludedFromRequest(name) && !name.equalsIgnoreCase(shadowHeader)) {
+        values.forEach(value -> builder.header(name, value));
+      }
+    });
+    builder.header(shadowHeader, "true");
+    return builder.build();
+  }
+
+  /**
+   * Hedefin seçime açık serverları arasından round-robin (yoksa null)
+   */
+  private Server selectTarget(String serviceName, MirrorRule rule, ServiceMirror stats) {
+    List<Server> candidates;
+    if (rule.service() != null) {
+      RegisteredService target = serviceRegistry.getService(rule.service());
+      if (target == null) {
+        return null;
+      }
+      candidates = target.getServers().stream().filter(TrafficMirror::isAvailable).toList();
+    } else {
+      RegisteredService service = serviceRegistry.getService(serviceName);
+      if (service == null) {
+        return null;
+      }
+      candidates = service.getServers().stream()
+          .filter(server -> trafficSplitter.environmentOf(serviceName, server.getUrl())
+              == rule.environment())
+          .filter(TrafficMirror::isAvailable)
+          .toList();
+    }
+    if (candidates.isEmpty()) {
+      return null;
+    }
+    return candidates.get(Math.floorMod(stats.next.getAndIncrement(), candidates.size()));
+  }
+
+  private static boolean isAvailable(Server server) {
+    return server.isHealthy() && !server.isEjected() && !server.isDraining();
+  }
+
+  private ServiceMirror getServiceMirror(String serviceName) {
+    return serviceMirrors.computeIfAbsent(serviceName, name -> new ServiceMirror());
+  }
+
+  /**
+   * Servis başına kural ve karşılaştırma istatistikleri
+   */
+  public Map<String, MirrorInfo> getStats() {
+    Map<String, MirrorInfo> stats = new TreeMap<>();
+    rules.forEach((serviceName, rule) -> stats.put(serviceName,
+        getServiceMirror(serviceName).toInfo(rule)));
+    return stats;
+  }
+
+  /**
+   * HTTP client thread'lerini durdur (Spring bean destroy'unda çağrılır)
+   */
+  public void close() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Aynalanan bir request; primary'nin sonucu gelince kopyayla karşılaştırılır
+   */
+  public static class Mirror {
+    private final CompletableFuture<PrimaryResult> primary = new CompletableFuture<>();
+
+    /**
+     * @param status Client'a dönen status (upstream hatasında 502/504)
+     */
+    public void onPrimaryResponse(int status, long latencyNanos) {
+      primary.complete(new PrimaryResult(status, latencyNanos));
+    }
+  }
+
+  private record PrimaryResult(int status, long latencyNanos) {}
+
+  /**
+   * @param percent     Aynalanacak request yüzdesi
+   * @param environment Aynı servisin hedef environment'ı (service verilmişse null)
+   * @param service     Hedef servis (environment verilmişse null)
+   */
+  public record MirrorRule(double percent, Environment environment, String service) {
+
+    public MirrorRule {
+      if (!(percent >= 0 && percent <= 100)) {
+        throw new IllegalArgumentException("Mirror percent must be between 0 and 100: "
+            + percent);
+      }
+      if ((environment == null) == (service == null)) {
+        throw new IllegalArgumentException(
+            "Exactly one of mirror environment or service is required");
+      }
+    }
+
+    String describeTarget() {
+      return service != null ? "service " + service
+          : environment.name().toLowerCase(Locale.ROOT) + " environment";
+    }
+  }
+
+  /**
+   * Bir servisin aynalama sayaçları
+   */
+  private static class ServiceMirror {
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicLong mirrored = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong unroutable = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong statusMatches = new AtomicLong();
+    private final Map<String, AtomicLong> statusMismatches = new ConcurrentHashMap<>();
+    private final ResponseStats primaryStats = new ResponseStats();
+    private final ResponseStats mirrorStats = new ResponseStats();
+
+    /**
+     * @param mirrorStatus Kopyanın status'u (bağlantı hatası/timeout → -1)
+     */
+    private void compare(PrimaryResult primary, int mirrorStatus, long mirrorLatencyNanos) {
+      primaryStats.record(primary.latencyNanos(), primary.status() >= 500);
+      if (mirrorStatus < 0) {
+        failed.incrementAndGet();
+        return;
+      }
+      mirrorStats.record(mirrorLatencyNanos, mirrorStatus >= 500);
+      if (mirrorStatus == primary.status()) {
+        statusMatches.incrementAndGet();
+      } else {
+        statusMismatches.computeIfAbsent(primary.status() + "->" + mirrorStatus,
+            key -> new AtomicLong()).incrementAndGet();
+      }
+    }
+
+    private MirrorInfo toInfo(MirrorRule rule) {
+      Map<String, Long> mismatches = new TreeMap<>();
+      statusMismatches.forEach((statuses, count) -> mismatches.put(statuses, count.get()));
+      ResponseStats.Snapshot primary = primaryStats.snapshot();
+      ResponseStats.Snapshot mirror = mirrorStats.snapshot();
+      return new MirrorInfo(rule.percent(), rule.describeTarget(), mirrored.get(),
+          dropped.get(), unroutable.get(), failed.get(), statusMatches.get(),
+          mismatches.values().stream().mapToLong(Long::longValue).sum(), mismatches,
+          primary.percentileMillis(0.5), mirror.percentileMillis(0.5),
+          primary.percentileMillis(0.99), mirror.percentileMillis(0.99));
+    }
+  }
+
+  /**
+   * @param dropped          Kapasite dolu veya load shedding devredeyken düşürülen kopyalar
+   * @param unroutable       Hedefte seçime açık server olmadığı için gönderilmeyenler
+   * @param failed           Bağlantı hatası/timeout alan kopyalar
+   * @param statusMismatches "primary->mirror" status çiftine göre farklar
+   */
+  public record MirrorInfo(double percent, String target, long mirrored, long dropped,
+      long unroutable, long failed, long statusMatches, long statusMismatchCount,
+      Map<String, Long> statusMismatches, double primaryP50Ms, double mirrorP50Ms,
+      double primaryP99Ms, double mirrorP99Ms) {}
+}
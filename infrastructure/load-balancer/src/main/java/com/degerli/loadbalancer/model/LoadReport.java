@@ -0,0 +1,60 @@
+package com.degerli.loadbalancer.model;
+
+/**
+ * Backend'in cevapla birlikte gönderdiği yük raporu (ORCA tarzı
+ * {@link com.degerli.loadreport.LoadReportFilter#HEADER} header'ı)
+ * <p>
+ * Format: {@code TEXT cpu_utilization=0.42, named_metrics.inflight=3,
+ * named_metrics.queue_depth=0, named_metrics.cost=1.5}. Bilinmeyen alanlar yok sayılır;
+ * raporda olmayan değerler -1'dir.
+ *
+ * @param receivedAtNanos Raporun alındığı an (System.nanoTime), tazelik kontrolü için
+ */
+public record LoadReport(double cpuUtilization, int inFlight, int queueDepth, double cost,
+    long receivedAtNanos) {
+
+  private static final String TEXT_PREFIX = "TEXT ";
+
+  /**
+   * Header değerini parse et (geçersizse null)
+   */
+  public static LoadReport parse(String header) {
+    if (header == null || !header.startsWith(TEXT_PREFIX)) {
+      return null;
+    }
+
+    double cpuUtilization = -1;
+    int inFlight = -1;
+    int queueDepth = -1;
+    double cost = -1;
+    try {
+      for (String metric : header.substring(TEXT_PREFIX.length()).split(",")) {
+        int separator = metric.indexOf('=');
+        if (separator < 0) {
+          continue;
+        }
+        String name = metric.substring(0, separator).trim();
+        String value = metric.substring(separator + 1).trim();
+        switch (name) {
+          case "cpu_utilization" -> cpuUtilization = Double.parseDouble(value);
+          case "named_metrics.inflight" -> inFlight = Integer.parseInt(value);
+          case "named_metrics.queue_depth" -> queueDepth = Integer.parseInt(value);
+          case "named_metrics.cost" -> cost = Double.parseDouble(value);
+          default -> {
+            // Bilinmeyen metrik
+          }
+        }
+      }
+    } catch (NumberFormatException e) {
+      return null;
+    }
+    return new LoadReport(cpuUtilization, inFlight, queueDepth, cost, System.nanoTime());
+  }
+
+  /**
+   * Rapor maxAgeNanos'tan eski mi?
+   */
+  public boolean isStale(long maxAgeNanos) {
+    return System.nanoTime() - receivedAtNanos > maxAgeNanos;
+  }
+}
@@ -0,0 +1,129 @@
+package com.degerli.loadbalancer.model;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Server'ın cevap istatistikleri: request/hata sayıları ve latency histogramı (kümülatif)
+ * <p>
+ * Histogram log-lineer'dir: mikrosaniye cinsinden her 2'nin kuvveti 8 bucket'a bölünür
+ * (göreli hata ~%6), 1µs..~18dk aralığı 224 bucket'tır. Kayıt kilitsizdir; bir zaman
+ * aralığının p99'u iki snapshot'ın farkından hesaplanır (canary analizi).
+ */
+public class ResponseStats {
+
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final long MAX_MICROS = (1L << 30) - 1;
+  private static final int BUCKETS = bucket(MAX_MICROS) + 1;
+
+  private final AtomicLongArray latencyBuckets = new AtomicLongArray(BUCKETS);
+  private final LongAdder requests = new LongAdder();
+  private final LongAdder errors = new LongAdder();
+
+  /**
+   * @param latencyNanos Upstream süresi (bilinmiyorsa negatif)
+   * @param error        5xx veya bağlantı hatası/timeout
+   */
+  public void record(long latencyNanos, boolean error) {
+    requests.increment();
+    if (error) {
+      errors.increment();
+    }
+    recordLatency(latencyNanos);
+  }
+
+  /**
+   * Request sayılmadan sadece latency örneği ekle (ör. hedge'e kaybedip iptal edilen
+   * request'in iptal anına kadarki süresi; gerçek latency'nin alt sınırı)
+   */
+  public void recordLatency(long latencyNanos) {
+    if (latencyNanos >= 0) {
+      latencyBuckets.incrementAndGet(
+          bucket(Math.min(MAX_MICROS, TimeUnit.NANOSECONDS.toMicros(latencyNanos))));
+    }
+  }
+
+  public Snapshot snapshot() {
+    long[] buckets = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      buckets[i] = latencyBuckets.get(i);
+    }
+    return new Snapshot(requests.sum(), errors.sum(), buckets);
+  }
+
+  private static int bucket(long micros) {
+    if (micros < SUB_BUCKETS) {
+      return (int) micros;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(micros);
+    int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  /**
+   * Bucket'ın orta noktası (mikrosaniye)
+   */
+  private static double midpointMicros(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    int shift = bucket / SUB_BUCKETS - 1;
+    long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+    return lower + (1L << shift) / 2.0;
+  }
+
+  /**
+   * İstatistiklerin bir anki hali; aralık değerleri için {@link #minus} kullanılır
+   */
+  public record Snapshot(long requests, long errors, long[] latencyBuckets) {
+
+    public static final Snapshot EMPTY = new Snapshot(0, 0, new long[BUCKETS]);
+
+    public Snapshot minus(Snapshot earlier) {
+      long[] buckets = new long[BUCKETS];
+      for (int i = 0; i < BUCKETS; i++) {
+        buckets[i] = latencyBuckets[i] - earlier.latencyBuckets[i];
+      }
+      return new Snapshot(requests - earlier.requests, errors - earlier.errors, buckets);
+    }
+
+    public Snapshot plus(Snapshot other) {
+      long[] buckets = new long[BUCKETS];
+      for (int i = 0; i < BUCKETS; i++) {
+        buckets[i] = latencyBuckets[i] + other.latencyBuckets[i];
+      }
+      return new Snapshot(requests + other.requests, errors + other.errors, buckets);
+    }
+
+    public double errorRate() {
+      return requests > 0 ? (double) errors / requests : 0;
+    }
+
+    /**
+     * Latency yüzdeliği (milisaniye, örnek yoksa 0)
+     *
+     * @param quantile 0..1 (ör. 0.99)
+     */
+    public double percentileMillis(double quantile) {
+      long count = 0;
+      for (long bucketCount : latencyBuckets) {
+        count += bucketCount;
+      }
+      if (count == 0) {
+        return 0;
+      }
+
+      long rank = Math.max(1, (long) Math.ceil(quantile * count));
+      long seen = 0;
+      for (int i = 0; i < BUCKETS; i++) {
+        seen += latencyBuckets[i];
+        if (seen >= rank) {
+          return midpointMicros(i) / 1000.0;
+        }
+      }
+      return midpointMicros(BUCKETS - 1) / 1000.0;
+    }
+  }
+}
@@ -3,13 +3,20 @@ package com.degerli.loadbalancer.model;
 import java.time.LocalDateTime;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
 
+// Server map key'i olarak kullanılır (circuit breaker); mutable alanlar hash'e girmez
 @Data
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public class Server {
   /**
    * Server URL'i
    */
+  @EqualsAndHashCode.Include
   private String url;
 
   /**
@@ -22,21 +29,61 @@ public class Server {
    */
   private int maxConnections;
 
+  /**
+   * Server'ın zone'u ve region'ı (locality aware routing, tanımsızsa null)
+   */
+  private String zone;
+  private String region;
+
   /**
    * Server sağlıklı mı?
    */
   private volatile boolean healthy = true;
 
+  /**
+   * Outlier detection tarafından geçici olarak rotasyondan çıkarıldı mı?
+   */
+  private volatile boolean ejected = false;
+
+  /**
+   * Drain durumu (registry'den kaldırılan serverlar da drain edilir)
+   */
+  private volatile DrainState drainState = DrainState.ACTIVE;
+
+  /**
+   * Backend'in son cevabıyla gönderdiği yük raporu (göndermiyorsa null)
+   */
+  private volatile LoadReport loadReport;
+
+  /**
+   * Slow start penceresi (nanosaniye, 0 → kapalı), rampa eğrisi ve başlangıç ağırlık oranı
+   */
+  private volatile long slowStartWindowNanos = 0;
+  private volatile double slowStartAggression = 1.0;
+  private volatile double slowStartMinWeightFactor = 0.1;
+
+  /**
+   * Isınma başlangıcı (System.nanoTime, 0 → ısınmıyor)
+   */
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private volatile long warmingSinceNanos = 0;
+
   /**
    * Son health check zamanı
    */
   private volatile LocalDateTime lastHealthCheck;
 
   /**
-   * Aktif connection sayısı
+   * Aktif connection sayısı (in-flight request'ler ve açık WebSocket session'ları)
    */
   private AtomicInteger activeConnections = new AtomicInteger(0);
 
+  /**
+   * Açık WebSocket session sayısı (handshake sürenler dahil; activeConnections'a da dahil)
+   */
+  private AtomicInteger webSocketConnections = new AtomicInteger(0);
+
   /**
    * Toplam işlenen request sayısı
    */
@@ -52,6 +99,11 @@ public class Server {
    */
   private volatile long averageResponseTime = 0;
 
+  /**
+   * Proxy denemelerinin hata sayıları ve latency histogramı (canary analizi)
+   */
+  private final ResponseStats responseStats = new ResponseStats();
+
   public Server(String url, int weight, int maxConnections) {
     this.url = url;
     this.weight = weight;
@@ -88,6 +140,52 @@ public class Server {
     averageResponseTime = (averageResponseTime + responseTime) / 2;
   }
 
+  /**
+   * Slow start'ı başlat (health check / circuit breaker / outlier ejection sonrası geri dönüş)
+   */
+  public void startWarming() {
+    if (slowStartWindowNanos > 0) {
+      // 0 "ısınmıyor" anlamına geldiği için en düşük bit set edilir
+      warmingSinceNanos = System.nanoTime() | 1;
+    }
+  }
+
+  /**
+   * Slow start ağırlık çarpanı (minWeightFactor..1)
+   * Pencere boyunca (geçen süre / pencere)^(1 / aggression) ile artar; aggression 1 → lineer,
+   * daha büyük değerler → başta daha hızlı artış.
+   */
+  public double getWeightFactor() {
+    long since = warmingSinceNanos;
+    if (since == 0) {
+      return 1.0;
+    }
+    long elapsed = System.nanoTime() - since;
+    if (elapsed >= slowStartWindowNanos) {
+      warmingSinceNanos = 0;
+      return 1.0;
+    }
+    double progress = Math.pow((double) elapsed / slowStartWindowNanos,
+        1.0 / slowStartAggression);
+    return Math.max(slowStartMinWeightFactor, progress);
+  }
+
+  /**
+   * Slow start'ta mı? Kalan süre (milisaniye, değilse 0)
+   */
+  public long getWarmingRemainingMillis() {
+    long since = warmingSinceNanos;
+    return since == 0 ? 0
+        : Math.max(0, (slowStartWindowNanos - (System.nanoTime() - since)) / 1_000_000);
+  }
+
+  /**
+   * Drain ediliyor veya drain edildi mi (yeni request almaz)?
+   */
+  public boolean isDraining() {
+    return drainState != DrainState.ACTIVE;
+  }
+
   /**
    * Server capacity'si doldu mu?
    */
@@ -100,4 +198,15 @@ public class Server {
     return String.format("Server{url='%s', healthy=%s, connections=%d/%d, totalRequests=%d}",
         url, healthy, activeConnections.get(), maxConnections, totalRequests.get());
   }
-}
\ No newline at end of file
+
+  /**
+   * ACTIVE → DRAINING → DRAINED
+   * DRAINING: yeni request almaz, in-flight request ve WebSocket session'larının bitmesi
+   * beklenir. DRAINED: in-flight kalmadı (veya drain timeout'u doldu), instance kapatılabilir.
+   */
+  public enum DrainState {
+    ACTIVE,
+    DRAINING,
+    DRAINED
+  }
+}
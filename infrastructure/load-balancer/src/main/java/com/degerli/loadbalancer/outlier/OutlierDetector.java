@@ -0,0 +1,383 @@
+package com.degerli.loadbalancer.outlier;
+
+import com.degerli.loadbalancer.model.Server;
+import com.degerli.loadbalancer.registry.RegisteredService;
+import com.degerli.loadbalancer.registry.RegistryListener;
+import com.degerli.loadbalancer.registry.ServiceRegistry;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Outlier Detection (pasif ejection)
+ * <p>
+ * Health check'lerden bağımsız olarak gerçek trafikten toplanan istatistiklerle çalışır. Her
+ * interval sonunda server başına 5xx oranı ve ortalama latency değerlendirilir; art arda gelen
+ * gateway hataları (502/503/504, bağlantı hatası) ise anında ejection tetikler.
+ * <p>
+ * Ejected server, süre dolana kadar servisin seçim listesinden çıkarılır. Süre her tekrar eden
+ * ejection'da ikiye katlanır (max ile sınırlı); trafik alıp sorunsuz geçen her interval
+ * katsayıyı bir azaltır. Bir servisteki serverların en fazla maxEjectionPercent'i (en az bir
+ * tanesi) aynı anda ejected olabilir.
+ */
+@Slf4j
+public class OutlierDetector implements RegistryListener {
+
+  private static final int MAX_EVENTS = 100;
+
+  private final ServiceRegistry serviceRegistry;
+  private final long intervalMs;
+  private final int consecutiveGatewayFailures;
+  private final int failurePercentThreshold;
+  private final int minimumRequests;
+  private final double latencyFactor;
+  private final int minimumHosts;
+  private final long baseEjectionMs;
+  private final long maxEjectionMs;
+  private final int maxEjectionPercent;
+
+  private final Map<String, ServiceOutliers> serviceOutliers = new ConcurrentHashMap<>();
+  private final Deque<OutlierEvent> events = new ArrayDeque<>();
+  private ScheduledExecutorService scheduler;
+
+  public OutlierDetector(ServiceRegistry serviceRegistry, long intervalMs,
+      int consecutiveGatewayFailures, int failurePercentThreshold, int minimumRequests,
+      double latencyFactor, int minimumHosts, long baseEjectionMs, long maxEjectionMs,
+      int maxEjectionPercent) {
+    this.serviceRegistry = serviceRegistry;
+    this.intervalMs = intervalMs;
+    this.consecutiveGatewayFailures = consecutiveGatewayFailures;
+    this.failurePercentThreshold = failurePercentThreshold;
+    this.minimumRequests = minimumRequests;
+    this.latencyFactor = latencyFactor;
+    this.minimumHosts = minimumHosts;
+    this.baseEjectionMs = baseEjectionMs;
+    this.maxEjectionMs = maxEjectionMs;
+    this.maxEjectionPercent = maxEjectionPercent;
+  }
+
+  /**
+   * Periyodik değerlendirmeyi başlat
+   */
+  public void start() {
+    scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "outlier-detector");
+      thread.setDaemon(true);
+      return thread;
+    });
+    scheduler.scheduleAtFixedRate(this::evaluateSafely, intervalMs, intervalMs,
+        TimeUnit.MILLISECONDS);
+    log.info("Outlier detection started (interval: {}ms)", intervalMs);
+  }
+
+  /**
+   * Başarılı (5xx olmayan) upstream cevabı
+   * Latency bilinmiyorsa -1 verilir.
+   */
+  public void recordSuccess(String serviceName, Server server, long latencyNanos) {
+    HostStats stats = getHost(serviceName, server);
+    stats.requests.incrementAndGet();
+    stats.consecutiveGatewayFailures.set(0);
+    if (latencyNanos >= 0) {
+      stats.latencyNanos.addAndGet(latencyNanos);
+      stats.latencySamples.incrementAndGet();
+    }
+  }
+
+  /**
+   * Request sayılmadan latency örneği (hedge'e kaybedip iptal edilen request'in alt sınırı)
+   */
+  public void recordLatency(String serviceName, Server server, long latencyNanos) {
+    HostStats stats = getHost(serviceName, server);
+    stats.latencyNanos.addAndGet(latencyNanos);
+    stats.latencySamples.incrementAndGet();
+  }
+
+  /**
+   * 5xx cevap veya bağlantı hatası
+   * gatewayFailure: 502/503/504 veya upstream'e ulaşılamadı
+   */
+  public void recordError(String serviceName, Server server, boolean gatewayFailure) {
+    HostStats stats = getHost(serviceName, server);
+    stats.requests.incrementAndGet();
+    stats.errors.incrementAndGet();
+
+    if (!gatewayFailure) {
+      stats.consecutiveGatewayFailures.set(0);
+      return;
+    }
+    if (stats.consecutiveGatewayFailures.incrementAndGet() >= consecutiveGatewayFailures
+        && !server.isEjected()) {
+      ServiceOutliers outliers = getServiceOutliers(serviceName);
+      synchronized (outliers) {
+        if (eject(serviceName, outliers, server, stats,
+            EjectionReason.CONSECUTIVE_GATEWAY_FAILURE)) {
+          refreshSelection(serviceName);
+        }
+      }
+    }
+  }
+
+  @Override
+  public void onServiceRemoved(RegisteredService service) {
+    serviceOutliers.remove(service.getName());
+  }
+
+  @Override
+  public void onServerRemoved(RegisteredService service, Server server) {
+    ServiceOutliers outliers = serviceOutliers.get(service.getName());
+    if (outliers != null) {
+      outliers.hosts.remove(server.getUrl());
+    }
+  }
+
+  /**
+   * Servisin outlier sayaçlarını al veya oluştur
+   */
+  public ServiceOutliers getServiceOutliers(String serviceName) {
+    return serviceOutliers.computeIfAbsent(serviceName, name -> new ServiceOutliers());
+  }
+
+  /**
+   * Servis başına server durumları
+   */
+  public Map<String, List<HostInfo>> getStats() {
+    long now = System.nanoTime();
+    Map<String, List<HostInfo>> stats = new HashMap<>();
+    serviceOutliers.forEach((serviceName, outliers) -> {
+      List<HostInfo> hosts = new ArrayList<>();
+      outliers.hosts.forEach((url, host) -> hosts.add(new HostInfo(url, host.server.isEjected(),
+          host.server.isEjected() ? Math.max(0, (host.ejectedUntilNanos - now) / 1_000_000) : 0,
+          host.ejectionMultiplier, host.lastRequests, host.lastErrors,
+          host.lastMeanLatencyMs)));
+      stats.put(serviceName, hosts);
+    });
+    return stats;
+  }
+
+  /**
+   * Son ejection / geri alma olayları (en yenisi başta)
+   */
+  public List<OutlierEvent> getRecentEvents() {
+    synchronized (events) {
+      return new ArrayList<>(events);
+    }
+  }
+
+  public void shutdown() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+    }
+  }
+
+  private HostStats getHost(String serviceName, Server server) {
+    return getServiceOutliers(serviceName).hosts
+        .computeIfAbsent(server.getUrl(), url -> new HostStats(server));
+  }
+
+  private void evaluateSafely() {
+    try {
+      serviceOutliers.forEach(this::evaluate);
+    } catch (RuntimeException e) {
+      log.error("Outlier detection sweep failed", e);
+    }
+  }
+
+  /**
+   * Interval sonu değerlendirmesi: süresi dolanları geri al, 5xx oranı ve latency'ye göre eject et
+   */
+  private void evaluate(String serviceName, ServiceOutliers outliers) {
+    synchronized (outliers) {
+      long now = System.nanoTime();
+      boolean changed = false;
+
+      // Interval sayaçlarını oku ve sıfırla
+      List<HostStats> candidates = new ArrayList<>();
+      for (HostStats host : outliers.hosts.values()) {
+        host.lastRequests = host.requests.getAndSet(0);
+        host.lastErrors = host.errors.getAndSet(0);
+        long samples = host.latencySamples.getAndSet(0);
+        long latencyNanos = host.latencyNanos.getAndSet(0);
+        host.lastMeanLatencyMs = samples == 0 ? -1 : latencyNanos / 1e6 / samples;
+
+        if (host.server.isEjected()) {
+          if (now - host.ejectedUntilNanos >= 0) {
+            uneject(serviceName, outliers, host);
+            changed = true;
+          }
+        } else if (host.lastRequests >= minimumRequests) {
+          candidates.add(host);
+        } else if (host.lastRequests > 0 && host.lastErrors == 0
+            && host.ejectionMultiplier > 0) {
+          host.ejectionMultiplier--;
+        }
+      }
+
+      for (HostStats host : candidates) {
+        EjectionReason reason = null;
+        if (host.lastErrors * 100 >= (long) failurePercentThreshold * host.lastRequests) {
+          reason = EjectionReason.FAILURE_PERCENTAGE;
+        } else if (isLatencyOutlier(host, candidates)) {
+          reason = EjectionReason.LATENCY;
+        }
+
+        if (reason != null) {
+          changed |= eject(serviceName, outliers, host.server, host, reason);
+        } else if (host.ejectionMultiplier > 0) {
+          host.ejectionMultiplier--;
+        }
+      }
+
+      if (changed) {
+        refreshSelection(serviceName);
+      }
+    }
+  }
+
+  /**
+   * Ortalama latency, diğer serverların ortalamalarının medyanının latencyFactor katını aşıyor mu?
+   */
+  private boolean isLatencyOutlier(HostStats host, List<HostStats> candidates) {
+    if (host.lastMeanLatencyMs < 0 || candidates.size() < minimumHosts) {
+      return false;
+    }
+    double[] peers = candidates.stream()
+        .filter(peer -> peer != host && peer.lastMeanLatencyMs >= 0 && !peer.server.isEjected())
+        .mapToDouble(peer -> peer.lastMeanLatencyMs)
+        .sorted()
+        .toArray();
+    if (peers.length == 0) {
+      return false;
+    }
+    double median = peers.length % 2 == 1 ? peers[peers.length / 2]
+        : (peers[peers.length / 2 - 1] + peers[peers.length / 2]) / 2;
+    return host.lastMeanLatencyMs > latencyFactor * Math.max(median, 1.0);
+  }
+
+  private boolean eject(String serviceName, ServiceOutliers outliers, Server server,
+      HostStats host, EjectionReason reason) {
+
+    if (server.isEjected()) {
+      return false;
+    }
+    int total = serviceRegistry.getServers(serviceName).size();
+    long ejected = outliers.hosts.values().stream().filter(h -> h.server.isEjected()).count();
+    if (ejected >= Math.max(1, total * maxEjectionPercent / 100)) {
+      outliers.overflows.incrementAndGet();
+      log.debug("Outlier {} not ejected: max ejection percent reached for {}",
+          server.getUrl(), serviceName);
+      return false;
+    }
+
+    host.ejectionMultiplier++;
+    long durationMs = Math.min(maxEjectionMs,
+        baseEjectionMs << Math.min(host.ejectionMultiplier - 1, 20));
+    host.ejectedUntilNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(durationMs);
+    host.consecutiveGatewayFailures.set(0);
+    server.setEjected(true);
+    outliers.ejections.get(reason).incrementAndGet();
+
+    log.warn("Ejected outlier {} from {} for {}ms ({})", server.getUrl(), serviceName,
+        durationMs, reason);
+    addEvent(new OutlierEvent(Instant.now(), serviceName, server.getUrl(), "EJECTED", reason,
+        durationMs, host.ejectionMultiplier));
+    return true;
+  }
+
+  private void uneject(String serviceName, ServiceOutliers outliers, HostStats host) {
+    host.server.setEjected(false);
+    host.server.startWarming();
+    log.info("Returned {} to {} rotation", host.server.getUrl(), serviceName);
+    addEvent(new OutlierEvent(Instant.now(), serviceName, host.server.getUrl(), "RETURNED",
+        null, 0, host.ejectionMultiplier));
+  }
+
+  private void refreshSelection(String serviceName) {
+    RegisteredService service = serviceRegistry.getService(serviceName);
+    if (service != null) {
+      service.refreshSelectableServers();
+    }
+  }
+
+  private void addEvent(OutlierEvent event) {
+    synchronized (events) {
+      events.addFirst(event);
+      if (events.size() > MAX_EVENTS) {
+        events.removeLast();
+      }
+    }
+  }
+
+  public enum EjectionReason {
+    CONSECUTIVE_GATEWAY_FAILURE, FAILURE_PERCENTAGE, LATENCY
+  }
+
+  /**
+   * Tek bir server'ın interval sayaçları ve ejection durumu
+   */
+  private static class HostStats {
+    private final Server server;
+    private final AtomicLong requests = new AtomicLong(0);
+    private final AtomicLong errors = new AtomicLong(0);
+    private final AtomicLong latencyNanos = new AtomicLong(0);
+    private final AtomicLong latencySamples = new AtomicLong(0);
+    private final AtomicInteger consecutiveGatewayFailures = new AtomicInteger(0);
+
+    // Aşağıdakiler ServiceOutliers kilidi altında güncellenir
+    private volatile long ejectedUntilNanos;
+    private volatile int ejectionMultiplier;
+    private volatile long lastRequests;
+    private volatile long lastErrors;
+    private volatile double lastMeanLatencyMs = -1;
+
+    private HostStats(Server server) {
+      this.server = server;
+    }
+  }
+
+  /**
+   * Tek bir servisin server istatistikleri ve ejection sayaçları
+   */
+  public static class ServiceOutliers {
+    private final Map<String, HostStats> hosts = new ConcurrentHashMap<>();
+    private final Map<EjectionReason, AtomicLong> ejections = new EnumMap<>(EjectionReason.class);
+    private final AtomicLong overflows = new AtomicLong(0);
+
+    private ServiceOutliers() {
+      for (EjectionReason reason : EjectionReason.values()) {
+        ejections.put(reason, new AtomicLong(0));
+      }
+    }
+
+    public long getEjections(EjectionReason reason) {
+      return ejections.get(reason).get();
+    }
+
+    public long getOverflows() {
+      return overflows.get();
+    }
+
+    public long getEjectedCount() {
+      return hosts.values().stream().filter(host -> host.server.isEjected()).count();
+    }
+  }
+
+  public record HostInfo(String url, boolean ejected, long remainingEjectionMs,
+      int ejectionMultiplier, long lastIntervalRequests, long lastIntervalErrors,
+      double lastIntervalMeanLatencyMs) {}
+
+  public record OutlierEvent(Instant timestamp, String service, String server, String action,
+      EjectionReason reason, long durationMs, int ejectionMultiplier) {}
+}
@@ -0,0 +1,156 @@
+package com.degerli.loadbalancer.registry;
+
+import com.degerli.loadbalancer.deployment.TrafficSplitter;
+import com.degerli.loadbalancer.deployment.TrafficSplitter.Environment;
+import com.degerli.loadbalancer.locality.LocalityRouter;
+import com.degerli.loadbalancer.model.Server;
+import com.degerli.loadbalancer.strategy.LoadBalancingStrategy;
+import java.util.Collection;
+import java.util.List;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Registry'deki bir servisin kaydı: upstream serverlar ve aktif strategy
+ * <p>
+ * Route'lar bu nesneyi doğrudan tutar; algoritma veya upstream değişikliği route table yeniden
+ * derlenmeden görünür olur. Serverlar, seçime açık serverlar ve strategy tek bir immutable
+ * snapshot'ta tutulur; her değişiklik yeni snapshot'ı tek volatile yazma ile yayınlar. Request
+ * snapshot'ı bir kez okur, yarım güncellenmiş liste görmez.
+ * <p>
+ * Seçim sırası: deployment environment'ı (traffic split), zone katmanı (locality), strategy.
+ */
+@Getter
+public class RegisteredService {
+
+  private final String name;
+
+  @Getter(AccessLevel.NONE)
+  private final LocalityRouter localityRouter;
+
+  @Getter(AccessLevel.NONE)
+  private final TrafficSplitter trafficSplitter;
+
+  private volatile Snapshot snapshot;
+
+  RegisteredService(String name, List<Server> servers, LoadBalancingStrategy strategy,
+      LocalityRouter localityRouter, TrafficSplitter trafficSplitter) {
+    this.name = name;
+    this.localityRouter = localityRouter;
+    this.trafficSplitter = trafficSplitter;
+    this.snapshot = Snapshot.of(servers, strategy);
+  }
+
+  /**
+   * Servisin serverları (immutable)
+   */
+  public List<Server> getServers() {
+    return snapshot.servers();
+  }
+
+  public LoadBalancingStrategy getStrategy() {
+    return snapshot.strategy();
+  }
+
+  /**
+   * Bu servis için server seç
+   */
+  public Server selectServer(String clientIp) {
+    return selectServer(clientIp, (Environment) null);
+  }
+
+  /**
+   * Bu servis için server seç
+   *
+   * @param environment Request'in sabitlendiği deployment environment'ı (null → trafik
+   *                    payına göre atanır; servis bölünmüyorsa etkisiz)
+   */
+  public Server selectServer(String clientIp, Environment environment) {
+    Snapshot current = snapshot;
+    if (current.selectable().isEmpty()) {
+      throw new IllegalStateException("No available servers for service: " + name);
+    }
+    List<Server> candidates = trafficSplitter.candidates(name, current.selectable(),
+        environment);
+    return current.strategy().selectServer(localityRouter.candidates(name, candidates),
+        clientIp);
+  }
+
+  /**
+   * Servisin strategy'si yerine verilen strategy ile server seç (environment ve locality
+   * katmanı aynı; ör. WebSocket upgrade'lerinde açık socket sayısı)
+   */
+  public Server selectServerWith(String clientIp, LoadBalancingStrategy strategy) {
+    Snapshot current = snapshot;
+    if (current.selectable().isEmpty()) {
+      throw new IllegalStateException("No available servers for service: " + name);
+    }
+    List<Server> candidates = trafficSplitter.candidates(name, current.selectable(), null);
+    return strategy.selectServer(localityRouter.candidates(name, candidates), clientIp);
+  }
+
+  /**
+   * Verilen serverlar hariç server seç
+   *
+   * @throws IllegalStateException uygun başka server yoksa
+   */
+  public Server selectServer(String clientIp, Collection<Server> excluded) {
+    Snapshot current = snapshot;
+    // Retry/hedge önce ilk denenen server'ın environment'ında ve aynı katmanda denenir;
+    // denenmemiş server kalmadıysa bir üst liste
+    List<Server> environment = excluded.isEmpty() ? current.selectable()
+        : trafficSplitter.sameEnvironment(name, current.selectable(),
+            excluded.iterator().next());
+    if (environment != current.selectable() && allExcluded(environment, excluded)) {
+      environment = current.selectable();
+    }
+    List<Server> candidates = localityRouter.candidates(name, environment);
+    if (candidates != environment && allExcluded(candidates, excluded)) {
+      candidates = environment;
+    }
+    return current.strategy().selectServer(candidates, clientIp, excluded);
+  }
+
+  private static boolean allExcluded(List<Server> servers, Collection<Server> excluded) {
+    return servers.stream()
+        .allMatch(server -> LoadBalancingStrategy.isExcluded(server, excluded));
+  }
+
+  /**
+   * Seçim listesini ejection/drain durumuna göre yeniden oluştur
+   */
+  public synchronized void refreshSelectableServers() {
+    Snapshot current = snapshot;
+    snapshot = Snapshot.of(current.servers(), current.strategy());
+  }
+
+  synchronized void setServers(List<Server> servers) {
+    snapshot = Snapshot.of(servers, snapshot.strategy());
+  }
+
+  synchronized void setStrategy(LoadBalancingStrategy strategy) {
+    snapshot = Snapshot.of(snapshot.servers(), strategy);
+  }
+
+  /**
+   * Servisin bir anki hali
+   *
+   * @param selectable Seçime açık serverlar: drain edilmeyen ve ejected olmayanlar. Tümü
+   *                   ejected ise (olmaması gerekir) drain edilmeyenlerin hepsi seçime açık
+   *                   kalır.
+   */
+  public record Snapshot(List<Server> servers, List<Server> selectable,
+      LoadBalancingStrategy strategy) {
+
+    static Snapshot of(List<Server> servers, LoadBalancingStrategy strategy) {
+      List<Server> immutable = List.copyOf(servers);
+      List<Server> active = immutable.stream()
+          .filter(server -> !server.isDraining())
+          .toList();
+      List<Server> selectable = active.stream()
+          .filter(server -> !server.isEjected())
+          .toList();
+      return new Snapshot(immutable, selectable.isEmpty() ? active : selectable, strategy);
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package com.degerli.loadbalancer.registry;
+
+import com.degerli.loadbalancer.model.Server;
+
+/**
+ * Registry değişikliklerini takip eden bileşenler (metrics, route table, outlier detection)
+ * <p>
+ * Callback'ler değişiklik yayınlandıktan sonra, registry'nin yazma kilidi altında ve
+ * kayıt sırasıyla çağrılır. Startup'taki servisler için çağrılmaz.
+ */
+public interface RegistryListener {
+
+  /**
+   * Servis ve ilk serverları eklendi
+   */
+  default void onServiceAdded(RegisteredService service) {
+  }
+
+  /**
+   * Servis kaldırıldı (serverları için ayrıca onServerRemoved çağrılmaz)
+   */
+  default void onServiceRemoved(RegisteredService service) {
+  }
+
+  default void onServerAdded(RegisteredService service, Server server) {
+  }
+
+  default void onServerRemoved(RegisteredService service, Server server) {
+  }
+}
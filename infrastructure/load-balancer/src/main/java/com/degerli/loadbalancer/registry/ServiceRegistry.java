@@ -2,7 +2,12 @@ package com.degerli.loadbalancer.registry;
 
 import com.degerli.loadbalancer.config.LoadBalancerProperties;
 import com.degerli.loadbalancer.config.LoadBalancerProperties.Algorithm;
+import com.degerli.loadbalancer.config.LoadBalancerProperties.ServerConfig;
+import com.degerli.loadbalancer.config.LoadBalancerProperties.ServiceConfig;
+import com.degerli.loadbalancer.deployment.TrafficSplitter;
+import com.degerli.loadbalancer.drain.ConnectionDrainer;
 import com.degerli.loadbalancer.health.HealthChecker;
+import com.degerli.loadbalancer.locality.LocalityRouter;
 import com.degerli.loadbalancer.model.Server;
 import com.degerli.loadbalancer.strategy.LoadBalancingStrategy;
 import com.degerli.loadbalancer.strategy.LoadBalancingStrategyFactory;
@@ -11,13 +16,25 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
  * Backend servisleri ve load balancing stratejilerini yönetir
+ * <p>
+ * Servis ve upstream'ler startup'ta konfigürasyondan oluşturulur, runtime'da admin API ile
+ * eklenip çıkarılabilir. Değişiklikler bu sınıfta tek tek (synchronized) uygulanır ve her biri
+ * servisin yeni snapshot'ını atomik olarak yayınlar; request path'i kilit almaz.
  */
 @Slf4j
 @Component
@@ -27,91 +44,372 @@ public class ServiceRegistry {
     private final LoadBalancerProperties properties;
     private final LoadBalancingStrategyFactory strategyFactory;
     private final HealthChecker healthChecker;
+    private final LocalityRouter localityRouter;
+    private final ConnectionDrainer connectionDrainer;
+    private final TrafficSplitter trafficSplitter;
 
-    // Service name -> Server list mapping
-    private final Map<String, List<Server>> serviceServers = new ConcurrentHashMap<>();
+    // Service name -> Registered service (servers + strategy)
+    private final Map<String, RegisteredService> services = new ConcurrentHashMap<>();
 
-    // Service name -> Strategy mapping
-    private final Map<String, LoadBalancingStrategy> serviceStrategies = new ConcurrentHashMap<>();
+    // Service name -> Servis ayarları (runtime'da eklenenler dahil; bound properties değişmez)
+    private final Map<String, ServiceConfig> serviceConfigs = new ConcurrentHashMap<>();
+
+    // Registry değişikliklerini takip eden bileşenler (kayıt sırasıyla çağrılır)
+    private final List<RegistryListener> listeners = new CopyOnWriteArrayList<>();
 
     @PostConstruct
     public void initialize() {
         log.info("Initializing Service Registry with {} services", properties.getServices().size());
 
-        properties.getServices().forEach((serviceName, config) -> {
-            // Serverları oluştur
-            List<Server> servers = config.getUpstreams().stream()
-                    .map(upstream -> new Server(
-                            upstream.getUrl(),
-                            upstream.getWeight(),
-                            upstream.getMaxConnections()
-                    ))
-                    .collect(Collectors.toList());
+        properties.getServices().forEach(this::registerService);
 
-            serviceServers.put(serviceName, servers);
+        log.info("Service Registry initialized successfully");
+    }
 
-            // Strategy oluştur (servis özel veya global)
-            Algorithm algorithm = config.getAlgorithm() != null
-                    ? config.getAlgorithm()
-                    : properties.getAlgorithm();
+    /**
+     * Registry değişikliklerini dinle (startup'taki servisler için callback çağrılmaz,
+     * listener kendi init'inde registry'yi okur)
+     */
+    public void addListener(RegistryListener listener) {
+        listeners.add(listener);
+    }
 
-            LoadBalancingStrategy strategy = strategyFactory.createStrategy(algorithm);
-            serviceStrategies.put(serviceName, strategy);
+    /**
+     * Runtime'da servis ekle
+     *
+     * @throws IllegalArgumentException servis zaten varsa
+     */
+    public synchronized RegisteredService addService(String serviceName, ServiceConfig config) {
+        if (services.containsKey(serviceName)) {
+            throw new IllegalArgumentException("Service already exists: " + serviceName);
+        }
+        validateUpstreams(config.getUpstreams());
+
+        RegisteredService service = registerService(serviceName, config);
+        listeners.forEach(listener -> listener.onServiceAdded(service));
+        return service;
+    }
 
-            log.info("Registered service '{}' with {} upstreams using {} algorithm",
-                    serviceName, servers.size(), algorithm);
+    /**
+     * Runtime'da servis kaldır
+     * Serverları drain edilir; sticky session'lar başka servise bağlanmaz.
+     *
+     * @throws IllegalArgumentException servis yoksa veya explicit bir route kullanıyorsa
+     */
+    public synchronized void removeService(String serviceName) {
+        RegisteredService service = requireService(serviceName);
+        boolean referenced = properties.getRoutes().stream()
+                .anyMatch(route -> serviceName.equals(route.getService()));
+        if (referenced) {
+            throw new IllegalArgumentException(
+                    "Service is referenced by a configured route: " + serviceName);
+        }
 
-            // Health check başlat
-            servers.forEach(healthChecker::startHealthCheck);
+        ServiceConfig config = serviceConfigs.get(serviceName);
+        services.remove(serviceName);
+        service.getServers().forEach(server -> {
+            healthChecker.stopHealthCheck(serviceName, config, server);
+            connectionDrainer.drain(serviceName, server);
         });
+        serviceConfigs.remove(serviceName);
+        listeners.forEach(listener -> listener.onServiceRemoved(service));
 
-        log.info("Service Registry initialized successfully");
+        log.info("Removed service '{}' ({} upstreams)", serviceName, service.getServers().size());
+    }
+
+    /**
+     * Runtime'da servise upstream ekle
+     * Yeni server ilk health check'e kadar seçilmez ve slow start ayarı varsa ısınarak başlar.
+     *
+     * @throws IllegalArgumentException servis yoksa veya URL zaten kayıtlıysa
+     */
+    public synchronized Server addServer(String serviceName, ServerConfig upstream) {
+        RegisteredService service = requireService(serviceName);
+        validateUpstreams(List.of(upstream));
+        if (findServer(service, upstream.getUrl()) != null) {
+            throw new IllegalArgumentException(
+                    "Upstream already registered for " + serviceName + ": " + upstream.getUrl());
+        }
+
+        ServiceConfig config = serviceConfigs.get(serviceName);
+        Server server = createServer(config, upstream);
+        server.setHealthy(!properties.isHealthCheckEnabled());
+        server.startWarming();
+
+        List<Server> servers = new ArrayList<>(service.getServers());
+        servers.add(server);
+        service.setServers(servers);
+
+        healthChecker.startHealthCheck(serviceName, config, server);
+        listeners.forEach(listener -> listener.onServerAdded(service, server));
+
+        log.info("Added upstream {} to service '{}'", server.getUrl(), serviceName);
+        return server;
+    }
+
+    /**
+     * Runtime'da upstream kaldır
+     * Yeni request almaz; devam eden request'ler kendi server referanslarıyla tamamlanır,
+     * ilerleme {@link ConnectionDrainer} ile izlenir.
+     *
+     * @throws IllegalArgumentException servis veya upstream yoksa
+     */
+    public synchronized void removeServer(String serviceName, String url) {
+        RegisteredService service = requireService(serviceName);
+        Server server = requireServer(service, url);
+
+        List<Server> servers = new ArrayList<>(service.getServers());
+        servers.remove(server);
+        connectionDrainer.drain(serviceName, server);
+        service.setServers(servers);
+
+        healthChecker.stopHealthCheck(serviceName, serviceConfigs.get(serviceName), server);
+        listeners.forEach(listener -> listener.onServerRemoved(service, server));
+
+        log.info("Removed upstream {} from service '{}'", url, serviceName);
+    }
+
+    /**
+     * Servisin upstream listesini verilen listeyle eşitle (tek snapshot yayını)
+     * URL'i aynı kalan serverlar aynı nesne olarak kalır; istatistikleri, circuit breaker
+     * durumu ve sticky session'ları korunur, sadece weight/max-connections/zone güncellenir.
+     *
+     * @return Değişiklik yapıldıysa true
+     * @throws IllegalArgumentException servis yoksa veya URL geçersizse
+     */
+    public synchronized boolean updateUpstreams(String serviceName,
+                                                List<ServerConfig> upstreams) {
+        RegisteredService service = requireService(serviceName);
+        validateUpstreams(upstreams);
+        ServiceConfig config = serviceConfigs.get(serviceName);
+
+        Map<String, Server> current = new HashMap<>();
+        service.getServers().forEach(server -> current.put(server.getUrl(), server));
+
+        List<Server> servers = new ArrayList<>(upstreams.size());
+        List<Server> added = new ArrayList<>();
+        boolean changed = false;
+        for (ServerConfig upstream : upstreams) {
+            Server server = current.remove(upstream.getUrl());
+            if (server == null) {
+                server = createServer(config, upstream);
+                server.setHealthy(!properties.isHealthCheckEnabled());
+                server.startWarming();
+                added.add(server);
+            } else if (server.getWeight() != upstream.getWeight()
+                    || server.getMaxConnections() != upstream.getMaxConnections()
+                    || !Objects.equals(server.getZone(), upstream.getZone())
+                    || !Objects.equals(server.getRegion(), upstream.getRegion())) {
+                server.setWeight(upstream.getWeight());
+                server.setMaxConnections(upstream.getMaxConnections());
+                server.setZone(upstream.getZone());
+                server.setRegion(upstream.getRegion());
+                changed = true;
+            }
+            servers.add(server);
+        }
+        Collection<Server> removed = current.values();
+        if (!changed && added.isEmpty() && removed.isEmpty()) {
+            return false;
+        }
+
+        removed.forEach(server -> connectionDrainer.drain(serviceName, server));
+        service.setServers(servers);
+
+        removed.forEach(server -> {
+            healthChecker.stopHealthCheck(serviceName, config, server);
+            listeners.forEach(listener -> listener.onServerRemoved(service, server));
+        });
+        added.forEach(server -> {
+            healthChecker.startHealthCheck(serviceName, config, server);
+            listeners.forEach(listener -> listener.onServerAdded(service, server));
+        });
+
+        log.info("Updated upstreams of service '{}': {} added, {} removed, {} total",
+                serviceName, added.size(), removed.size(), servers.size());
+        return true;
+    }
+
+    /**
+     * Upstream'i drain et (yeni seçim almaz, kayıtlı kalır) veya tekrar rotasyona al
+     *
+     * @throws IllegalArgumentException servis veya upstream yoksa
+     */
+    public synchronized Server setDraining(String serviceName, String url, boolean draining) {
+        RegisteredService service = requireService(serviceName);
+        Server server = requireServer(service, url);
+
+        if (server.isDraining() != draining) {
+            if (draining) {
+                connectionDrainer.drain(serviceName, server);
+            } else {
+                connectionDrainer.cancel(server);
+                server.startWarming();
+            }
+            service.refreshSelectableServers();
+            log.info("Upstream {} of service '{}' {}", url, serviceName,
+                    draining ? "draining" : "back in rotation");
+        }
+        return server;
+    }
+
+    private RegisteredService registerService(String serviceName, ServiceConfig config) {
+        // Serverları oluştur
+        List<Server> servers = config.getUpstreams().stream()
+                .map(upstream -> createServer(config, upstream))
+                .collect(Collectors.toList());
+
+        // Strategy oluştur (servis özel veya global)
+        Algorithm algorithm = config.getAlgorithm() != null
+                ? config.getAlgorithm()
+                : properties.getAlgorithm();
+
+        LoadBalancingStrategy strategy = strategyFactory.createStrategy(algorithm);
+        RegisteredService service = new RegisteredService(serviceName, servers, strategy,
+                localityRouter, trafficSplitter);
+        serviceConfigs.put(serviceName, config);
+        services.put(serviceName, service);
+
+        log.info("Registered service '{}' with {} upstreams using {} algorithm",
+                serviceName, servers.size(), algorithm);
+
+        // Health check başlat
+        servers.forEach(server -> healthChecker.startHealthCheck(serviceName, config, server));
+        return service;
+    }
+
+    private Server createServer(ServiceConfig config, ServerConfig upstream) {
+        Server server = new Server(
+                upstream.getUrl(),
+                upstream.getWeight(),
+                upstream.getMaxConnections()
+        );
+        server.setZone(upstream.getZone());
+        server.setRegion(upstream.getRegion());
+        applySlowStart(config != null ? config.getSlowStart() : null, server);
+        return server;
+    }
+
+    /**
+     * Servisin slow start ayarlarını server'a uygula
+     */
+    private void applySlowStart(LoadBalancerProperties.SlowStartConfig slowStart, Server server) {
+        if (slowStart == null || slowStart.getWindowSeconds() <= 0) {
+            return;
+        }
+        server.setSlowStartWindowNanos(TimeUnit.SECONDS.toNanos(slowStart.getWindowSeconds()));
+        server.setSlowStartAggression(Math.max(0.1, slowStart.getAggression()));
+        server.setSlowStartMinWeightFactor(
+                Math.min(100, Math.max(1, slowStart.getMinWeightPercent())) / 100.0);
+    }
+
+    private void validateUpstreams(List<ServerConfig> upstreams) {
+        Set<String> urls = new HashSet<>();
+        for (ServerConfig upstream : upstreams) {
+            if (upstream.getUrl() == null || !upstream.getUrl().matches("https?://.+")) {
+                throw new IllegalArgumentException("Invalid upstream url: " + upstream.getUrl());
+            }
+            if (!urls.add(upstream.getUrl())) {
+                throw new IllegalArgumentException("Duplicate upstream url: " + upstream.getUrl());
+            }
+        }
+    }
+
+    private RegisteredService requireService(String serviceName) {
+        RegisteredService service = services.get(serviceName);
+        if (service == null) {
+            throw new IllegalArgumentException("Unknown service: " + serviceName);
+        }
+        return service;
+    }
+
+    private Server requireServer(RegisteredService service, String url) {
+        Server server = findServer(service, url);
+        if (server == null) {
+            throw new IllegalArgumentException(
+                    "Unknown upstream for " + service.getName() + ": " + url);
+        }
+        return server;
+    }
+
+    private Server findServer(RegisteredService service, String url) {
+        return service.getServers().stream()
+                .filter(server -> server.getUrl().equals(url))
+                .findFirst()
+                .orElse(null);
     }
 
     /**
      * Bir servis için server seç
      */
     public Server selectServer(String serviceName, String clientIp) {
-        List<Server> servers = serviceServers.get(serviceName);
-        if (servers == null || servers.isEmpty()) {
+        RegisteredService service = services.get(serviceName);
+        if (service == null) {
+            throw new IllegalArgumentException("Unknown service: " + serviceName);
+        }
+        return service.selectServer(clientIp);
+    }
+
+    /**
+     * Bir servis için verilen strategy ile server seç (ör. WebSocket upgrade'leri)
+     */
+    public Server selectServer(String serviceName, String clientIp,
+                               LoadBalancingStrategy strategy) {
+        RegisteredService service = services.get(serviceName);
+        if (service == null) {
             throw new IllegalArgumentException("Unknown service: " + serviceName);
         }
+        return service.selectServerWith(clientIp, strategy);
+    }
 
-        LoadBalancingStrategy strategy = serviceStrategies.get(serviceName);
-        return strategy.selectServer(servers, clientIp);
+    /**
+     * Servis kaydını al (yoksa null)
+     */
+    public RegisteredService getService(String serviceName) {
+        return services.get(serviceName);
+    }
+
+    /**
+     * Servisin ayarlarını al (yoksa null)
+     * Runtime'da eklenen servisler de dahildir; bound properties yerine bunu kullanın.
+     */
+    public ServiceConfig getServiceConfig(String serviceName) {
+        return serviceConfigs.get(serviceName);
     }
 
     /**
      * Servis için strategy al
      */
     public LoadBalancingStrategy getStrategy(String serviceName) {
-        return serviceStrategies.get(serviceName);
+        RegisteredService service = services.get(serviceName);
+        return service != null ? service.getStrategy() : null;
     }
 
     /**
      * Tüm servis isimlerini döner
      */
     public List<String> getServiceNames() {
-        return List.copyOf(serviceServers.keySet());
+        return List.copyOf(services.keySet());
     }
 
     /**
-     * Bir servisin tüm serverlarını döner
+     * Bir servisin tüm serverlarını döner (immutable snapshot)
      */
     public List<Server> getServers(String serviceName) {
-        return serviceServers.getOrDefault(serviceName, List.of());
+        RegisteredService service = services.get(serviceName);
+        return service != null ? service.getServers() : List.of();
     }
 
     /**
      * Runtime'da algoritma değiştir
      */
     public void changeAlgorithm(String serviceName, Algorithm algorithm) {
-        if (!serviceServers.containsKey(serviceName)) {
+        RegisteredService service = services.get(serviceName);
+        if (service == null) {
             throw new IllegalArgumentException("Unknown service: " + serviceName);
         }
 
-        LoadBalancingStrategy newStrategy = strategyFactory.createStrategy(algorithm);
-        serviceStrategies.put(serviceName, newStrategy);
+        service.setStrategy(strategyFactory.createStrategy(algorithm));
 
         log.info("Algorithm changed for service '{}' to {}", serviceName, algorithm);
     }
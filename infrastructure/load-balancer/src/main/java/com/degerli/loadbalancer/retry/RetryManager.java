@@ -0,0 +1,108 @@
+package com.degerli.loadbalancer.retry;
+
+import com.degerli.loadbalancer.upstream.RequestBudget;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Servis başına retry bütçesi ve sayaçları
+ * <p>
+ * Retry'lar {@link RequestBudget} ile trafiğin sabit bir yüzdesiyle sınırlanır. Upstream
+ * tamamen çöktüğünde bütçe hızla tükenir ve retry'lar yükü katlamak yerine kesilir.
+ */
+@Slf4j
+public class RetryManager {
+
+  private static final int BUDGET_MAX_TOKENS = 10;
+
+  private final Map<String, ServiceRetries> serviceRetries = new ConcurrentHashMap<>();
+
+  private final double budgetRatio;
+
+  public RetryManager(double budgetRatio) {
+    this.budgetRatio = budgetRatio;
+  }
+
+  /**
+   * Servisin retry state'ini al veya oluştur
+   */
+  public ServiceRetries getRetries(String serviceName) {
+    return serviceRetries.computeIfAbsent(serviceName, ServiceRetries::new);
+  }
+
+  /**
+   * Servis başına retry istatistikleri
+   */
+  public Map<String, RetryInfo> getStats() {
+    Map<String, RetryInfo> stats = new ConcurrentHashMap<>();
+    serviceRetries.forEach((serviceName, retries) -> stats.put(serviceName,
+        new RetryInfo(retries.getRequests(), retries.getRetries(), retries.getRetrySuccesses(),
+            retries.getBudgetExhausted(), retries.budget.getAvailableTokens())));
+    return stats;
+  }
+
+  /**
+   * Tek bir servisin retry bütçesi ve sayaçları
+   */
+  public class ServiceRetries {
+    private final String serviceName;
+    private final RequestBudget budget = new RequestBudget(budgetRatio, BUDGET_MAX_TOKENS);
+    private final AtomicLong requests = new AtomicLong(0);
+    private final AtomicLong retries = new AtomicLong(0);
+    private final AtomicLong retrySuccesses = new AtomicLong(0);
+    private final AtomicLong budgetExhausted = new AtomicLong(0);
+
+    ServiceRetries(String serviceName) {
+      this.serviceName = serviceName;
+    }
+
+    /**
+     * Yeni bir request geldi (bütçeye katkı yapar)
+     */
+    public void onRequest() {
+      requests.incrementAndGet();
+      budget.deposit();
+    }
+
+    /**
+     * Retry için bütçeden token al
+     */
+    public boolean tryRetry() {
+      if (budget.tryWithdraw()) {
+        retries.incrementAndGet();
+        return true;
+      }
+      budgetExhausted.incrementAndGet();
+      log.warn("Retry budget exhausted for service: {}", serviceName);
+      return false;
+    }
+
+    /**
+     * Retry edilen request sonunda başarılı oldu
+     */
+    public void onRetrySuccess() {
+      retrySuccesses.incrementAndGet();
+    }
+
+    public long getRequests() {
+      return requests.get();
+    }
+
+    public long getRetries() {
+      return retries.get();
+    }
+
+    public long getRetrySuccesses() {
+      return retrySuccesses.get();
+    }
+
+    public long getBudgetExhausted() {
+      return budgetExhausted.get();
+    }
+  }
+
+  public record RetryInfo(long requests, long retries, long retrySuccesses,
+      long budgetExhausted, double availableTokens) {}
+}
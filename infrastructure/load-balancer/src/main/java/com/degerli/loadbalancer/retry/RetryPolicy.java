@@ -0,0 +1,77 @@
+package com.degerli.loadbalancer.retry;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.util.Set;
+import lombok.Getter;
+
+/**
+ * Route'un retry politikası: hangi hatalar, hangi metodlarda, kaç denemeye kadar tekrarlanır
+ * <p>
+ * Bağlantı kurulamadıysa request upstream'e hiç ulaşmamıştır; bu durum her metod için güvenle
+ * tekrarlanabilir. Diğer hatalarda (reset, timeout, 503) upstream request'i işlemiş olabilir,
+ * bu yüzden sadece idempotent metodlar tekrarlanır.
+ */
+@Getter
+public class RetryPolicy {
+
+  public static final RetryPolicy NONE = new RetryPolicy(1, Set.of(), Set.of(), Set.of());
+
+  private final int maxAttempts;
+  private final Set<Condition> conditions;
+  private final Set<Integer> statuses;
+  private final Set<String> idempotentMethods;
+
+  public RetryPolicy(int maxAttempts, Set<Condition> conditions, Set<Integer> statuses,
+      Set<String> idempotentMethods) {
+    this.maxAttempts = Math.max(1, maxAttempts);
+    this.conditions = conditions;
+    this.statuses = statuses;
+    this.idempotentMethods = idempotentMethods;
+  }
+
+  /**
+   * Upstream hatası tekrar denenebilir mi?
+   */
+  public boolean isRetryable(String method, IOException error) {
+    Condition condition = classify(error);
+    if (!conditions.contains(condition)) {
+      return false;
+    }
+    return condition == Condition.CONNECT_FAILURE || idempotentMethods.contains(method);
+  }
+
+  /**
+   * Upstream cevabı tekrar denenebilir mi? (örn: 503)
+   */
+  public boolean isRetryable(String method, int status) {
+    return statuses.contains(status) && idempotentMethods.contains(method);
+  }
+
+  /**
+   * Timeout'lar tekrarlanıyorsa kalan bütçe denemelere bölünür; aksi halde ilk deneme
+   * bütçenin tamamını kullanabilir
+   */
+  public boolean isSplitBudget() {
+    return maxAttempts > 1 && conditions.contains(Condition.TIMEOUT);
+  }
+
+  static Condition classify(IOException error) {
+    if (error instanceof HttpConnectTimeoutException || error instanceof ConnectException
+        || error.getCause() instanceof ConnectException) {
+      return Condition.CONNECT_FAILURE;
+    }
+    if (error instanceof HttpTimeoutException) {
+      return Condition.TIMEOUT;
+    }
+    return Condition.RESET;
+  }
+
+  public enum Condition {
+    CONNECT_FAILURE, // Bağlantı kurulamadı (request upstream'e ulaşmadı)
+    RESET,           // Cevap gelmeden bağlantı koptu
+    TIMEOUT          // Deneme süresi doldu
+  }
+}
@@ -0,0 +1,96 @@
+package com.degerli.loadbalancer.routing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Derlenmiş backend path şablonu
+ * <p>
+ * "{path}" ve "{suffix}" değişkenleri startup'ta parçalara ayrılır; request başına sadece
+ * thread'e ait StringBuilder'a append yapılır, ara String oluşturulmaz.
+ */
+final class RewriteTemplate {
+
+  private static final int LITERAL = 0;
+  private static final int PATH = 1;
+  private static final int SUFFIX = 2;
+
+  private static final ThreadLocal<StringBuilder> BUFFER =
+      ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+  private final String source;
+  private final int[] kinds;
+  private final String[] literals;
+
+  private RewriteTemplate(String source, int[] kinds, String[] literals) {
+    this.source = source;
+    this.kinds = kinds;
+    this.literals = literals;
+  }
+
+  static RewriteTemplate compile(String template) {
+    List<Integer> kinds = new ArrayList<>();
+    List<String> literals = new ArrayList<>();
+
+    int i = 0;
+    while (i < template.length()) {
+      int open = template.indexOf('{', i);
+      if (open < 0) {
+        kinds.add(LITERAL);
+        literals.add(template.substring(i));
+        break;
+      }
+      if (open > i) {
+        kinds.add(LITERAL);
+        literals.add(template.substring(i, open));
+      }
+      int close = template.indexOf('}', open);
+      if (close < 0) {
+        throw new IllegalArgumentException("Unclosed variable in rewrite template: " + template);
+      }
+      String variable = template.substring(open + 1, close);
+      switch (variable) {
+        case "path" -> kinds.add(PATH);
+        case "suffix" -> kinds.add(SUFFIX);
+        default -> throw new IllegalArgumentException(
+            "Unknown variable '" + variable + "' in rewrite template: " + template);
+      }
+      literals.add(null);
+      i = close + 1;
+    }
+
+    return new RewriteTemplate(template,
+        kinds.stream().mapToInt(Integer::intValue).toArray(),
+        literals.toArray(new String[0]));
+  }
+
+  /**
+   * Backend URL'ini oluştur: baseUrl + şablon + (varsa) query string
+   *
+   * @param prefixLength Route prefix'inin request path'indeki uzunluğu ({suffix} başlangıcı)
+   */
+  String expand(String baseUrl, String requestPath, int prefixLength, String queryString) {
+    StringBuilder sb = BUFFER.get();
+    sb.setLength(0);
+    sb.append(baseUrl);
+
+    for (int i = 0; i < kinds.length; i++) {
+      switch (kinds[i]) {
+        case PATH -> sb.append(requestPath);
+        case SUFFIX -> sb.append(requestPath, prefixLength, requestPath.length());
+        default -> sb.append(literals[i]);
+      }
+    }
+
+    if (queryString != null) {
+      sb.append('?').append(queryString);
+    }
+
+    return sb.toString();
+  }
+
+  @Override
+  public String toString() {
+    return source;
+  }
+}
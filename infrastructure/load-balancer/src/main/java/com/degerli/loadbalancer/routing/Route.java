@@ -0,0 +1,123 @@
+package com.degerli.loadbalancer.routing;
+
+import com.degerli.loadbalancer.concurrency.ConcurrencyLimiter.ServiceLimiter;
+import com.degerli.loadbalancer.metrics.LoadBalancerMetrics.ServiceMeters;
+import com.degerli.loadbalancer.model.Server;
+import com.degerli.loadbalancer.registry.RegisteredService;
+import com.degerli.loadbalancer.retry.RetryPolicy;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.List;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Startup'ta derlenmiş route
+ * <p>
+ * Request başına gereken her şeyi (servis kaydı, metric handle'ları, concurrency limiter,
+ * rewrite şablonu, süre bütçesi, retry politikası) tek nesnede tutar; proxy tek lookup ile
+ * tüm bilgilere ulaşır.
+ */
+@Getter
+public class Route {
+
+  private final String id;
+  private final String pathPrefix;
+  private final RegisteredService service;
+  private final ServiceMeters meters;
+  private final ServiceLimiter limiter;
+  @Getter(AccessLevel.NONE)
+  private final RewriteTemplate rewrite;
+  private final List<String> hosts;
+  private final String[] headerNames;
+  private final String[] headerValues;
+  private final long timeoutMs;
+  private final Long hedgeDelayMs;
+  private final RetryPolicy retryPolicy;
+
+  Route(String id, String pathPrefix, RegisteredService service, ServiceMeters meters,
+      ServiceLimiter limiter, RewriteTemplate rewrite, List<String> hosts,
+      String[] headerNames, String[] headerValues, long timeoutMs, Long hedgeDelayMs,
+      RetryPolicy retryPolicy) {
+    this.id = id;
+    this.pathPrefix = pathPrefix;
+    this.service = service;
+    this.meters = meters;
+    this.limiter = limiter;
+    this.rewrite = rewrite;
+    this.hosts = hosts;
+    this.headerNames = headerNames;
+    this.headerValues = headerValues;
+    this.timeoutMs = timeoutMs;
+    this.hedgeDelayMs = hedgeDelayMs;
+    this.retryPolicy = retryPolicy;
+  }
+
+  public String getServiceName() {
+    return service.getName();
+  }
+
+  public String getRewriteTemplate() {
+    return rewrite.toString();
+  }
+
+  /**
+   * Seçilen server için backend URL'ini oluştur
+   */
+  public String buildBackendUrl(Server server, HttpServletRequest request) {
+    return rewrite.expand(server.getUrl(), request.getRequestURI(), prefixLength(),
+        request.getQueryString());
+  }
+
+  /**
+   * Host ve header koşulları sağlanıyor mu? (path prefix trie tarafından kontrol edilir)
+   */
+  boolean matches(HttpServletRequest request) {
+    return matchesHost(request.getServerName()) && matchesHeaders(request);
+  }
+
+  private int prefixLength() {
+    // "/" prefix'i suffix'ten bir şey kesmez
+    return pathPrefix.length() == 1 ? 0 : pathPrefix.length();
+  }
+
+  private boolean matchesHost(String host) {
+    if (hosts.isEmpty()) {
+      return true;
+    }
+    if (host == null) {
+      return false;
+    }
+    for (String pattern : hosts) {
+      if (pattern.startsWith("*.")) {
+        int suffixLength = pattern.length() - 1;
+        if (host.length() > suffixLength
+            && host.regionMatches(true, host.length() - suffixLength, pattern, 1,
+            suffixLength)) {
+          return true;
+        }
+      } else if (pattern.equalsIgnoreCase(host)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean matchesHeaders(HttpServletRequest request) {
+    for (int i = 0; i < headerNames.length; i++) {
+      String actual = request.getHeader(headerNames[i]);
+      if (actual == null) {
+        return false;
+      }
+      if (!"*".equals(headerValues[i]) && !headerValues[i].equals(actual)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Route{id='%s', prefix='%s', service='%s', rewrite='%s'}", id,
+        pathPrefix, service.getName(), rewrite);
+  }
+}
@@ -0,0 +1,273 @@
+package com.degerli.loadbalancer.routing;
+
+import com.degerli.loadbalancer.concurrency.ConcurrencyLimiter;
+import com.degerli.loadbalancer.config.LoadBalancerProperties;
+import com.degerli.loadbalancer.config.LoadBalancerProperties.RetryConfig;
+import com.degerli.loadbalancer.config.LoadBalancerProperties.RouteConfig;
+import com.degerli.loadbalancer.config.LoadBalancerProperties.ServiceConfig;
+import com.degerli.loadbalancer.metrics.LoadBalancerMetrics;
+import com.degerli.loadbalancer.registry.RegisteredService;
+import com.degerli.loadbalancer.registry.RegistryListener;
+import com.degerli.loadbalancer.registry.ServiceRegistry;
+import com.degerli.loadbalancer.retry.RetryPolicy;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Konfigürasyondan startup'ta derlenen route table
+ * Registry'ye servis eklenip çıkarılınca yeniden derlenir ve atomik olarak yayınlanır.
+ * <p>
+ * Path prefix'leri karakter bazlı bir trie'de tutulur. Eşleşme en uzun prefix'ten başlar,
+ * aynı prefix'teki route'lar tanım sırasına göre host/header koşullarıyla denenir.
+ * <p>
+ * Her servis için iki route otomatik eklenir (explicit route'lardan sonra değerlendirilir):
+ * <ul>
+ *   <li>/{service}/actuator → /actuator{suffix} (servis adı silinir)</li>
+ *   <li>/{service} → {path} (path olduğu gibi iletilir)</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RouteTable implements RegistryListener {
+
+  private final LoadBalancerProperties properties;
+  private final ServiceRegistry serviceRegistry;
+  private final LoadBalancerMetrics metrics;
+  private final ConcurrencyLimiter concurrencyLimiter;
+
+  private volatile Node root = new Node();
+  private volatile List<Route> routes = List.of();
+
+  @PostConstruct
+  public void init() {
+    compile();
+    serviceRegistry.addListener(this);
+  }
+
+  /**
+   * Route table'ı yeniden derle ve atomik olarak yayınla
+   */
+  public synchronized void compile() {
+    List<Route> compiled = new ArrayList<>();
+
+    for (RouteConfig config : properties.getRoutes()) {
+      compiled.add(compileRoute(config));
+    }
+
+    // Servis bazlı otomatik route'lar (explicit olanlardan sonra)
+    for (String serviceName : serviceRegistry.getServiceNames()) {
+      compiled.add(compileRoute(defaultRoute(serviceName, "/" + serviceName + "/actuator",
+          "/actuator{suffix}")));
+      compiled.add(compileRoute(defaultRoute(serviceName, "/" + serviceName, "{path}")));
+    }
+
+    Node newRoot = new Node();
+    compiled.forEach(route -> newRoot.insert(route.getPathPrefix()).add(route));
+
+    this.routes = List.copyOf(compiled);
+    this.root = newRoot;
+
+    compiled.forEach(route -> log.info("Compiled {}", route));
+    log.info("Route table compiled with {} routes", compiled.size());
+  }
+
+  /**
+   * Yeni servisin otomatik route'ları eklenir
+   */
+  @Override
+  public void onServiceAdded(RegisteredService service) {
+    compile();
+  }
+
+  /**
+   * Kaldırılan servisin otomatik route'ları silinir
+   */
+  @Override
+  public void onServiceRemoved(RegisteredService service) {
+    compile();
+  }
+
+  /**
+   * Request'i bir route'a çöz (eşleşme yoksa null)
+   */
+  public Route resolve(HttpServletRequest request) {
+    return match(root, request.getRequestURI(), 0, request);
+  }
+
+  /**
+   * Derlenmiş tüm route'lar (tanım sırasıyla)
+   */
+  public List<Route> getRoutes() {
+    return routes;
+  }
+
+  private Route match(Node node, String path, int depth, HttpServletRequest request) {
+    // Önce daha uzun prefix'i dene
+    if (depth < path.length()) {
+      Node child = node.child(path.charAt(depth));
+      if (child != null) {
+        Route route = match(child, path, depth + 1, request);
+        if (route != null) {
+          return route;
+        }
+      }
+    }
+
+    if (node.routes.length > 0 && isSegmentBoundary(path, depth)) {
+      for (Route route : node.routes) {
+        if (route.matches(request)) {
+          return route;
+        }
+      }
+    }
+    return null;
+  }
+
+  private boolean isSegmentBoundary(String path, int depth) {
+    return depth == path.length() || path.charAt(depth) == '/' || path.charAt(depth - 1) == '/';
+  }
+
+  private Route compileRoute(RouteConfig config) {
+    RegisteredService service = serviceRegistry.getService(config.getService());
+    if (service == null) {
+      throw new IllegalArgumentException(
+          "Route references unknown service: " + config.getService());
+    }
+
+    String prefix = normalizePrefix(config.getPathPrefix());
+    String id = config.getId() != null ? config.getId() : config.getService() + ":" + prefix;
+
+    String[] headerNames = config.getHeaders().keySet().toArray(new String[0]);
+    String[] headerValues = config.getHeaders().values().toArray(new String[0]);
+
+    return new Route(id, prefix, service, metrics.getServiceMeters(service.getName()),
+        concurrencyLimiter.getLimiter(service.getName()),
+        RewriteTemplate.compile(config.getRewrite()), List.copyOf(config.getHosts()),
+        headerNames, headerValues, resolveTimeoutMs(config), config.getHedgeDelayMs(),
+        compileRetryPolicy(config));
+  }
+
+  /**
+   * Route'un retry politikası (route override'ları yoksa global retry ayarları)
+   */
+  private RetryPolicy compileRetryPolicy(RouteConfig config) {
+    RetryConfig retry = properties.getRetry();
+    if (!retry.isEnabled()) {
+      return RetryPolicy.NONE;
+    }
+
+    int maxAttempts = config.getMaxAttempts() != null
+        ? config.getMaxAttempts() : retry.getMaxAttempts();
+    List<String> retryOn = config.getRetryOn() != null
+        ? config.getRetryOn() : retry.getRetryOn();
+
+    Set<RetryPolicy.Condition> conditions = EnumSet.noneOf(RetryPolicy.Condition.class);
+    Set<Integer> statuses = new HashSet<>();
+    for (String entry : retryOn) {
+      String value = entry.trim().toUpperCase();
+      if (!value.isEmpty() && Character.isDigit(value.charAt(0))) {
+        statuses.add(Integer.parseInt(value));
+      } else {
+        conditions.add(RetryPolicy.Condition.valueOf(value));
+      }
+    }
+
+    Set<String> idempotentMethods = new HashSet<>();
+    retry.getIdempotentMethods().forEach(method -> idempotentMethods.add(method.toUpperCase()));
+
+    return new RetryPolicy(maxAttempts, Set.copyOf(conditions), Set.copyOf(statuses),
+        Set.copyOf(idempotentMethods));
+  }
+
+  /**
+   * Bütçe önceliği: route → servis → global request timeout
+   */
+  private long resolveTimeoutMs(RouteConfig config) {
+    if (config.getTimeoutMs() != null) {
+      return config.getTimeoutMs();
+    }
+    ServiceConfig serviceConfig = serviceRegistry.getServiceConfig(config.getService());
+    if (serviceConfig != null && serviceConfig.getTimeoutMs() != null) {
+      return serviceConfig.getTimeoutMs();
+    }
+    return properties.getTimeouts().getRequestTimeoutMs();
+  }
+
+  private RouteConfig defaultRoute(String serviceName, String prefix, String rewrite) {
+    RouteConfig config = new RouteConfig();
+    config.setService(serviceName);
+    config.setPathPrefix(prefix);
+    config.setRewrite(rewrite);
+    return config;
+  }
+
+  private String normalizePrefix(String prefix) {
+    if (prefix == null || prefix.isEmpty()) {
+      return "/";
+    }
+    String normalized = prefix.startsWith("/") ? prefix : "/" + prefix;
+    while (normalized.length() > 1 && normalized.endsWith("/")) {
+      normalized = normalized.substring(0, normalized.length() - 1);
+    }
+    return normalized;
+  }
+
+  /**
+   * Trie node'u: sıralı karakter dizisi + binary search (boxing yok)
+   */
+  private static final class Node {
+    private char[] keys = new char[0];
+    private Node[] children = new Node[0];
+    private Route[] routes = new Route[0];
+
+    Node child(char c) {
+      int index = Arrays.binarySearch(keys, c);
+      return index >= 0 ? children[index] : null;
+    }
+
+    Node insert(String prefix) {
+      Node node = this;
+      for (int i = 0; i < prefix.length(); i++) {
+        node = node.getOrAdd(prefix.charAt(i));
+      }
+      return node;
+    }
+
+    void add(Route route) {
+      routes = Arrays.copyOf(routes, routes.length + 1);
+      routes[routes.length - 1] = route;
+    }
+
+    private Node getOrAdd(char c) {
+      int index = Arrays.binarySearch(keys, c);
+      if (index >= 0) {
+        return children[index];
+      }
+
+      int insertAt = -index - 1;
+      char[] newKeys = new char[keys.length + 1];
+      Node[] newChildren = new Node[children.length + 1];
+      System.arraycopy(keys, 0, newKeys, 0, insertAt);
+      System.arraycopy(children, 0, newChildren, 0, insertAt);
+      newKeys[insertAt] = c;
+      newChildren[insertAt] = new Node();
+      System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+      System.arraycopy(children, insertAt, newChildren, insertAt + 1,
+          children.length - insertAt);
+
+      keys = newKeys;
+      children = newChildren;
+      return newChildren[insertAt];
+    }
+  }
+}
@@ -41,7 +41,9 @@ public class StickySessionManager {
 
     String finalSessionId = sessionId;
     SessionBinding binding = sessionBindings.compute(sessionId, (key, existing) -> {
-      if (existing == null || existing.isExpired(sessionTimeout)) {
+      // Drain edilen veya kaldırılan server'a bağlı session yeniden atanır
+      if (existing == null || existing.isExpired(sessionTimeout)
+          || existing.getServer().isDraining()) {
         // Yeni binding oluştur
         log.info("Creating new session binding: {} -> {}", finalSessionId,
             defaultServer.getUrl());
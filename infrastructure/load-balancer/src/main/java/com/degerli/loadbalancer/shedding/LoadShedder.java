@@ -0,0 +1,183 @@
+package com.degerli.loadbalancer.shedding;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+
+/**
+ * Priority-aware Load Shedder (CoDel tabanlı overload tespiti)
+ * <p>
+ * Kuyruk bekleme süresi (request'in connector'dan worker kuyruğuna girişinden bir worker'ın
+ * onu almasına kadar geçen süre) interval'lar halinde izlenir. Bir interval
+ * boyunca görülen EN KÜÇÜK bekleme süresi bile hedefi aşıyorsa kuyruk kalıcı olarak dolmuş
+ * demektir (CoDel). Her ardışık kötü interval overload seviyesini bir artırır:
+ * <ul>
+ *   <li>Seviye 0: Tüm sınıflar kabul edilir</li>
+ *   <li>Seviye 1: SHEDDABLE sınıflar reddedilir</li>
+ *   <li>Seviye 2: SHEDDABLE ve NORMAL sınıflar reddedilir</li>
+ * </ul>
+ * CRITICAL sınıflar hiçbir seviyede reddedilmez. İyi bir interval seviyeyi sıfırlar.
+ * Az sayıda örnek içeren interval'lar (düşük trafik, warm-up) overload sayılmaz.
+ */
+@Slf4j
+public class LoadShedder {
+
+  private static final int MAX_LEVEL = Priority.values().length - 1;
+  private static final int MIN_SAMPLES_PER_INTERVAL = 10;
+
+  private final List<RequestClass> requestClasses;
+  private final RequestClass defaultClass;
+  private final long targetDelayNanos;
+  private final long intervalNanos;
+  private final boolean needsPath;
+
+  // CoDel state
+  private final AtomicLong intervalMinDelay = new AtomicLong(Long.MAX_VALUE);
+  private final AtomicInteger intervalSamples = new AtomicInteger(0);
+  private volatile long intervalStart = System.nanoTime();
+  private volatile int overloadLevel = 0;
+
+  public LoadShedder(List<RequestClass> requestClasses, RequestClass defaultClass,
+      long targetDelayMs, long intervalMs) {
+    this.requestClasses = List.copyOf(requestClasses);
+    this.defaultClass = defaultClass;
+    this.targetDelayNanos = TimeUnit.MILLISECONDS.toNanos(targetDelayMs);
+    this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMs);
+    this.needsPath = requestClasses.stream().anyMatch(c -> c.getPathPattern() != null);
+  }
+
+  /**
+   * Request'i sınıflandır (ilk eşleşen kural, yoksa default sınıf)
+   */
+  public RequestClass classify(HttpServletRequest request) {
+    PathContainer path = needsPath ? PathContainer.parsePath(request.getRequestURI()) : null;
+    String method = request.getMethod();
+
+    for (RequestClass requestClass : requestClasses) {
+      if (requestClass.matches(method, path)) {
+        return requestClass;
+      }
+    }
+    return defaultClass;
+  }
+
+  /**
+   * Bekleme süresini detector'a besle ve request'in kabul edilip edilmeyeceğine karar ver
+   *
+   * @param queueDelayNanos Request'in worker kuyruğunda beklediği süre
+   */
+  public boolean admit(RequestClass requestClass, long queueDelayNanos) {
+    observe(queueDelayNanos, System.nanoTime());
+
+    if (isShed(requestClass.getPriority(), overloadLevel)) {
+      requestClass.shed.incrementAndGet();
+      return false;
+    }
+    requestClass.admitted.incrementAndGet();
+    return true;
+  }
+
+  public int getOverloadLevel() {
+    return overloadLevel;
+  }
+
+  /**
+   * Tanımlı tüm sınıflar (default sınıf en sonda)
+   */
+  public List<RequestClass> getRequestClasses() {
+    List<RequestClass> all = new ArrayList<>(requestClasses);
+    all.add(defaultClass);
+    return all;
+  }
+
+  private boolean isShed(Priority priority, int level) {
+    return level > 0 && priority.ordinal() >= Priority.values().length - level;
+  }
+
+  private void observe(long delayNanos, long now) {
+    intervalMinDelay.accumulateAndGet(delayNanos, Math::min);
+    intervalSamples.incrementAndGet();
+
+    if (now - intervalStart < intervalNanos) {
+      return;
+    }
+
+    synchronized (this) {
+      if (now - intervalStart < intervalNanos) {
+        return;
+      }
+      long minDelay = intervalMinDelay.getAndSet(Long.MAX_VALUE);
+      int samples = intervalSamples.getAndSet(0);
+      int previous = overloadLevel;
+
+      if (samples >= MIN_SAMPLES_PER_INTERVAL && minDelay > targetDelayNanos) {
+        overloadLevel = Math.min(previous + 1, MAX_LEVEL);
+      } else {
+        overloadLevel = 0;
+      }
+      intervalStart = now;
+
+      if (previous != overloadLevel) {
+        log.warn("Load shedding level changed: {} -> {} (min queue delay: {}us, target: {}us)",
+            previous, overloadLevel, TimeUnit.NANOSECONDS.toMicros(minDelay),
+            TimeUnit.NANOSECONDS.toMicros(targetDelayNanos));
+      }
+    }
+  }
+
+  /**
+   * Request sınıfı: method + path pattern kuralı ve sayaçları
+   */
+  @Getter
+  public static class RequestClass {
+    private final String name;
+    private final Priority priority;
+    private final Set<String> methods;
+    private final PathPattern pathPattern;
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong admitted = new AtomicLong(0);
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong shed = new AtomicLong(0);
+
+    public RequestClass(String name, Priority priority, Set<String> methods,
+        PathPattern pathPattern) {
+      this.name = name;
+      this.priority = priority;
+      this.methods = methods;
+      this.pathPattern = pathPattern;
+    }
+
+    boolean matches(String method, PathContainer path) {
+      if (!methods.isEmpty() && !methods.contains(method)) {
+        return false;
+      }
+      return pathPattern == null || pathPattern.matches(path);
+    }
+
+    public long getAdmittedCount() {
+      return admitted.get();
+    }
+
+    public long getShedCount() {
+      return shed.get();
+    }
+  }
+
+  /**
+   * Önem sırasına göre (en önemli önce)
+   */
+  public enum Priority {
+    CRITICAL,
+    NORMAL,
+    SHEDDABLE
+  }
+}
@@ -21,10 +21,10 @@ public class LeastConnectionsStrategy implements LoadBalancingStrategy {
         .filter(Server::isHealthy)
         .filter(s -> !s.isAtCapacity())
         .min((s1, s2) -> {
-          // Önce connection sayısına göre
-          int connCompare = Integer.compare(
-              s1.getActiveConnections().get(),
-              s2.getActiveConnections().get()
+          // Önce connection sayısına göre (slow start'taki server çarpanla cezalandırılır)
+          int connCompare = Double.compare(
+              (s1.getActiveConnections().get() + 1) / s1.getWeightFactor(),
+              (s2.getActiveConnections().get() + 1) / s2.getWeightFactor()
           );
           if (connCompare != 0) {
             return connCompare;
@@ -41,14 +41,12 @@ public class LeastConnectionsStrategy implements LoadBalancingStrategy {
 
   @Override
   public void onRequestStart(Server server) {
-    server.incrementConnections();
     log.trace("Connection started: {} (now: {})",
         server.getUrl(), server.getActiveConnections().get());
   }
 
   @Override
   public void onRequestComplete(Server server) {
-    server.decrementConnections();
     log.trace("Connection completed: {} (now: {})",
         server.getUrl(), server.getActiveConnections().get());
   }
@@ -0,0 +1,44 @@
+package com.degerli.loadbalancer.strategy;
+
+import com.degerli.loadbalancer.model.Server;
+import java.util.Comparator;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Least WebSockets: Ağırlığına göre en az açık WebSocket'i olan servera gönderir
+ * WebSocket upgrade'lerinde kullanılır; uzun ömürlü bağlantılarda request sayısı yükü
+ * göstermez (eski serverlar binlerce açık socket tutarken yeni eklenen server boş kalır).
+ */
+@Slf4j
+public class LeastWebSocketsStrategy implements LoadBalancingStrategy {
+
+  private static final Comparator<Server> BY_SOCKETS =
+      Comparator.comparingDouble(LeastWebSocketsStrategy::socketLoad)
+          .thenComparingInt(server -> server.getActiveConnections().get());
+
+  @Override
+  public Server selectServer(List<Server> servers, String clientIp) {
+    if (servers.isEmpty()) {
+      throw new IllegalStateException("No available servers");
+    }
+
+    Server selected = servers.stream()
+        .filter(Server::isHealthy)
+        .filter(s -> !s.isAtCapacity())
+        .min(BY_SOCKETS)
+        .orElseThrow(() -> new IllegalStateException("No healthy servers available"));
+
+    log.debug("Least WebSockets selected: {} (sockets: {})",
+        selected.getUrl(), selected.getWebSocketConnections().get());
+    return selected;
+  }
+
+  /**
+   * Ağırlık başına açık socket (slow start'taki server çarpanla cezalandırılır)
+   */
+  public static double socketLoad(Server server) {
+    return (server.getWebSocketConnections().get() + 1)
+        / (Math.max(1, server.getWeight()) * server.getWeightFactor());
+  }
+}
@@ -0,0 +1,99 @@
+package com.degerli.loadbalancer.strategy;
+
+import com.degerli.loadbalancer.model.LoadReport;
+import com.degerli.loadbalancer.model.Server;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Load Aware: Backend'lerin cevaplarla gönderdiği yük raporlarına göre ağırlıklı rastgele seçim
+ * <p>
+ * Server'ın ağırlığı, raporladığı boş CPU kapasitesiyle (1 - cpu_utilization) çarpılır,
+ * worker kuyruğunda bekleyen request varsa kuyruk derinliğine ve server'daki in-flight request
+ * sayısına (LB'nin kendi açık connection'ları ile raporlanan in-flight'ın büyüğü) bölünür.
+ * CPU'su doymuş bir instance birkaç cevap içinde trafiğin çoğunu kaybeder; GC'de takılan bir
+ * instance'ın cevapları dönmediği için LB'deki in-flight'ı anında artar. Raporu bayatlayan
+ * server'ın ağırlığı yaşıyla azalır (rapor gelmemesi sağlıklı bir sinyal değildir); hiç rapor
+ * göndermemiş server'lar nötr kabul edilir. Tamamen aç bırakılmaması için alt sınır vardır
+ * (rapor sadece trafik alan server'dan gelebilir).
+ */
+@Slf4j
+public class LoadAwareStrategy implements LoadBalancingStrategy {
+
+  private static final long STALE_AFTER_NANOS = TimeUnit.SECONDS.toNanos(2);
+  private static final double NEUTRAL_HEADROOM = 0.5;
+  private static final double MIN_HEADROOM = 0.05;
+
+  @Override
+  public Server selectServer(List<Server> servers, String clientIp) {
+    if (servers.isEmpty()) {
+      throw new IllegalStateException("No available servers");
+    }
+
+    double[] weights = new double[servers.size()];
+    double totalWeight = 0;
+    long now = System.nanoTime();
+    for (int i = 0; i < servers.size(); i++) {
+      Server server = servers.get(i);
+      if (server.isHealthy() && !server.isAtCapacity()) {
+        weights[i] = Math.max(1, server.getWeight()) * server.getWeightFactor()
+            * weightFactor(server.getLoadReport(), server.getActiveConnections().get(), now);
+        totalWeight += weights[i];
+      }
+    }
+
+    if (totalWeight == 0) {
+      throw new IllegalStateException("No healthy servers available");
+    }
+
+    double pick = ThreadLocalRandom.current().nextDouble(totalWeight);
+    int selected = 0;
+    while (selected < weights.length - 1 && (pick -= weights[selected]) >= 0) {
+      selected++;
+    }
+    // Float yuvarlaması son elemana düşürürse ağırlığı 0 olan server'ı atla
+    while (weights[selected] == 0) {
+      selected--;
+    }
+
+    log.debug("Load aware selected: {} (weight: {} of {})", servers.get(selected).getUrl(),
+        weights[selected], totalWeight);
+    return servers.get(selected);
+  }
+
+  /**
+   * Server'ın boş kapasitesinin in-flight request başına payı
+   *
+   * @param activeConnections LB'nin bu server'da açık request'leri
+   */
+  static double weightFactor(LoadReport report, int activeConnections, long nowNanos) {
+    return headroom(report, nowNanos)
+        / (1 + Math.max(activeConnections, reportedInFlight(report, nowNanos)));
+  }
+
+  /**
+   * Server'ın boş kapasitesi (MIN_HEADROOM..1)
+   */
+  static double headroom(LoadReport report, long nowNanos) {
+    if (report == null || report.cpuUtilization() < 0) {
+      return NEUTRAL_HEADROOM;
+    }
+    double headroom = 1.0 - report.cpuUtilization();
+    if (report.queueDepth() > 0) {
+      headroom /= 1 + report.queueDepth();
+    }
+    // Bayat rapor: son bilinen kapasite yaşla orantılı azalır (2s → aynı, 4s → yarısı, ...)
+    long age = nowNanos - report.receivedAtNanos();
+    if (age > STALE_AFTER_NANOS) {
+      headroom *= (double) STALE_AFTER_NANOS / age;
+    }
+    return Math.max(MIN_HEADROOM, headroom);
+  }
+
+  private static int reportedInFlight(LoadReport report, long nowNanos) {
+    return report == null || nowNanos - report.receivedAtNanos() > STALE_AFTER_NANOS
+        ? 0 : Math.max(0, report.inFlight());
+  }
+}
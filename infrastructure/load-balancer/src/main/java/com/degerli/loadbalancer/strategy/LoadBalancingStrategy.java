@@ -1,7 +1,9 @@
 package com.degerli.loadbalancer.strategy;
 
 import com.degerli.loadbalancer.model.Server;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Load balancing stratejilerinin temel interface'i
@@ -17,6 +19,46 @@ public interface LoadBalancingStrategy {
    */
   Server selectServer(List<Server> servers, String clientIp);
 
+  /**
+   * Daha önce denenmiş serverlar hariç bir server seç (hedging ve retry için)
+   *
+   * @param excluded Seçilmemesi gereken serverlar
+   */
+  default Server selectServer(List<Server> servers, String clientIp,
+      Collection<Server> excluded) {
+    if (excluded.isEmpty()) {
+      return selectServer(servers, clientIp);
+    }
+    // Önce stratejinin kendi seçimini dene (sıralı stratejiler bu metodu override eder)
+    for (int i = 0; i < servers.size(); i++) {
+      Server candidate = selectServer(servers, clientIp);
+      if (!isExcluded(candidate, excluded)) {
+        return candidate;
+      }
+    }
+    // Strateji hep hariç tutulan server'ı seçiyor (örn: IP_HASH); kalanlar arasından seç
+    List<Server> candidates = servers.stream()
+        .filter(server -> !isExcluded(server, excluded))
+        .toList();
+    return selectServer(candidates, clientIp);
+  }
+
+  /**
+   * Server hariç tutulanlar arasında mı? (Server mutable olduğu için referans karşılaştırılır)
+   */
+  static boolean isExcluded(Server server, Collection<Server> excluded) {
+    return excluded.stream().anyMatch(tried -> tried == server);
+  }
+
+  /**
+   * Slow start'taki server'ı ağırlık çarpanı olasılığıyla kabul et (ısınmış server her zaman)
+   * Sıralı stratejiler reddedilen server'ın sırasını bir sonrakine bırakır.
+   */
+  static boolean admitWarming(Server server) {
+    double factor = server.getWeightFactor();
+    return factor >= 1.0 || ThreadLocalRandom.current().nextDouble() < factor;
+  }
+
   /**
    * Bir request tamamlandığında bildirim
    *
@@ -28,6 +70,7 @@ public interface LoadBalancingStrategy {
 
   /**
    * Bir request başladığında bildirim
+   * Server'ın aktif connection sayacını proxy tutar (tüm algoritmalarda, drain için de).
    *
    * @param server Request'i işleyecek server
    */
@@ -19,6 +19,7 @@ public class LoadBalancingStrategyFactory {
       case IP_HASH -> new IpHashStrategy();
       case WEIGHTED_ROUND_ROBIN -> new WeightedRoundRobinStrategy();
       case RANDOM -> new RandomStrategy();
+      case LOAD_AWARE -> new LoadAwareStrategy();
     };
   }
 }
\ No newline at end of file
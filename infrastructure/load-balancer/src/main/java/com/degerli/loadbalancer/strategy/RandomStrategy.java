@@ -32,6 +32,13 @@ public class RandomStrategy implements LoadBalancingStrategy {
     int index = random.nextInt(healthyServers.size());
     Server selected = healthyServers.get(index);
 
+    // Slow start'taki server ağırlık çarpanı oranında kabul edilir, değilse tekrar çekilir
+    for (int i = 0; i < healthyServers.size() && !LoadBalancingStrategy.admitWarming(selected);
+        i++) {
+      index = random.nextInt(healthyServers.size());
+      selected = healthyServers.get(index);
+    }
+
     log.debug("Random selected: {} (index: {} of {})", selected.getUrl(), index,
         healthyServers.size());
     return selected;
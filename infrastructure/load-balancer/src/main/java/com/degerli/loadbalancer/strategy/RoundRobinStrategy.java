@@ -1,6 +1,7 @@
 package com.degerli.loadbalancer.strategy;
 
 import com.degerli.loadbalancer.model.Server;
+import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 import lombok.extern.slf4j.Slf4j;
@@ -21,6 +22,7 @@ public class RoundRobinStrategy implements LoadBalancingStrategy {
 
     int maxAttempts = servers.size();
     int attempts = 0;
+    Server warming = null;
 
     while (attempts < maxAttempts) {
       // Circular index: 0, 1, 2, ..., n-1, 0, 1, ...
@@ -28,13 +30,21 @@ public class RoundRobinStrategy implements LoadBalancingStrategy {
       Server server = servers.get(index);
 
       if (server.isHealthy() && !server.isAtCapacity()) {
-        log.debug("Round Robin selected: {} (index: {})", server.getUrl(), index);
-        return server;
+        if (LoadBalancingStrategy.admitWarming(server)) {
+          log.debug("Round Robin selected: {} (index: {})", server.getUrl(), index);
+          return server;
+        }
+        warming = warming == null ? server : warming;
       }
 
       attempts++;
     }
 
+    // Sadece slow start'taki serverlar uygun
+    if (warming != null) {
+      return warming;
+    }
+
     // Tüm serverlar dolu veya unhealthy, en az yüklü olanı seç
     log.warn("All servers at capacity or unhealthy, selecting least loaded");
     return servers.stream()
@@ -43,4 +53,26 @@ public class RoundRobinStrategy implements LoadBalancingStrategy {
             s2.getActiveConnections().get()))
         .orElseThrow(() -> new IllegalStateException("No healthy servers available"));
   }
+
+  /**
+   * Sıradaki uygun server'ı sayacı ilerletmeden seç; hedge/retry seçimleri normal
+   * dağılımı kaydırmaz
+   */
+  @Override
+  public Server selectServer(List<Server> servers, String clientIp,
+      Collection<Server> excluded) {
+    if (excluded.isEmpty()) {
+      return selectServer(servers, clientIp);
+    }
+
+    int start = currentIndex.get();
+    for (int i = 0; i < servers.size(); i++) {
+      Server server = servers.get(Math.abs((start + i) % servers.size()));
+      if (server.isHealthy() && !server.isAtCapacity()
+          && !LoadBalancingStrategy.isExcluded(server, excluded)) {
+        return server;
+      }
+    }
+    return LoadBalancingStrategy.super.selectServer(servers, clientIp, excluded);
+  }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.degerli.loadbalancer.strategy;
 
 import com.degerli.loadbalancer.model.Server;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 import lombok.extern.slf4j.Slf4j;
@@ -14,8 +15,7 @@ import lombok.extern.slf4j.Slf4j;
 public class WeightedRoundRobinStrategy implements LoadBalancingStrategy {
 
   private final AtomicInteger currentIndex = new AtomicInteger(0);
-  private volatile List<Server> weightedServers = new ArrayList<>();
-  private volatile List<Server> lastServers = new ArrayList<>();
+  private volatile WeightedList weightedList = new WeightedList(List.of(), new int[0], List.of());
 
   @Override
   public Server selectServer(List<Server> servers, String clientIp) {
@@ -23,32 +23,32 @@ public class WeightedRoundRobinStrategy implements LoadBalancingStrategy {
       throw new IllegalStateException("No available servers");
     }
 
-    // Server listesi değiştiyse, weighted listeyi yeniden oluştur
-    if (!servers.equals(lastServers)) {
-      buildWeightedList(servers);
-      lastServers = new ArrayList<>(servers);
-    }
-
-    if (weightedServers.isEmpty()) {
-      buildWeightedList(servers);
-    }
-
+    List<Server> weightedServers = weightedFor(servers);
     int maxAttempts = weightedServers.size();
     int attempts = 0;
+    Server warming = null;
 
     while (attempts < maxAttempts) {
       int index = Math.abs(currentIndex.getAndIncrement() % weightedServers.size());
       Server server = weightedServers.get(index);
 
       if (server.isHealthy() && !server.isAtCapacity()) {
-        log.debug("Weighted RR selected: {} (weight: {}, index: {})", server.getUrl(),
-            server.getWeight(), index);
-        return server;
+        // Slow start'taki server'ın her entry'si çarpan oranında kabul edilir
+        if (LoadBalancingStrategy.admitWarming(server)) {
+          log.debug("Weighted RR selected: {} (weight: {}, index: {})", server.getUrl(),
+              server.getWeight(), index);
+          return server;
+        }
+        warming = warming == null ? server : warming;
       }
 
       attempts++;
     }
 
+    if (warming != null) {
+      return warming;
+    }
+
     // Fallback: en az yüklü server
     return servers.stream()
         .filter(Server::isHealthy)
@@ -57,12 +57,62 @@ public class WeightedRoundRobinStrategy implements LoadBalancingStrategy {
         .orElseThrow(() -> new IllegalStateException("No healthy servers available"));
   }
 
+  /**
+   * Sıradaki uygun server'ı sayacı ilerletmeden seç; hedge/retry seçimleri ağırlıklı
+   * dağılımı kaydırmaz
+   */
+  @Override
+  public Server selectServer(List<Server> servers, String clientIp,
+      Collection<Server> excluded) {
+    if (excluded.isEmpty() || servers.isEmpty()) {
+      return LoadBalancingStrategy.super.selectServer(servers, clientIp, excluded);
+    }
+
+    List<Server> weighted = weightedFor(servers);
+    if (weighted.isEmpty()) {
+      return LoadBalancingStrategy.super.selectServer(servers, clientIp, excluded);
+    }
+
+    int start = currentIndex.get();
+    for (int i = 0; i < weighted.size(); i++) {
+      Server server = weighted.get(Math.abs((start + i) % weighted.size()));
+      if (server.isHealthy() && !server.isAtCapacity()
+          && !LoadBalancingStrategy.isExcluded(server, excluded)) {
+        return server;
+      }
+    }
+    return LoadBalancingStrategy.super.selectServer(servers, clientIp, excluded);
+  }
+
+  /**
+   * Verilen server listesinin weighted listesi
+   * <p>
+   * Strateji aynı servisin farklı katmanlarına (blue/green, locality) ortak olduğundan kaynak
+   * ve weighted liste tek bir immutable kayıt olarak okunup yazılır; bir çağrı başka katmanın
+   * listesiyle indekslenmez. Server eşitliği URL'e dayandığından ve weight yerinde
+   * güncellendiğinden (upstream reload) kayıt, oluşturulduğu andaki weight'leri de tutar.
+   */
+  private List<Server> weightedFor(List<Server> servers) {
+    WeightedList cached = weightedList;
+    if ((servers == cached.source() || servers.equals(cached.source()))
+        && cached.hasWeightsOf(servers)) {
+      return cached.entries();
+    }
+    int[] weights = new int[servers.size()];
+    for (int i = 0; i < weights.length; i++) {
+      weights[i] = servers.get(i).getWeight();
+    }
+    List<Server> weighted = buildWeightedList(servers);
+    weightedList = new WeightedList(servers, weights, weighted);
+    return weighted;
+  }
+
   /**
    * Weight'e göre server listesi oluştur
    * Örnek: Server A (weight=3), Server B (weight=1)
    * Liste: [A, A, A, B]
    */
-  private void buildWeightedList(List<Server> servers) {
+  private List<Server> buildWeightedList(List<Server> servers) {
     List<Server> weighted = new ArrayList<>();
 
     for (Server server : servers) {
@@ -72,8 +122,20 @@ public class WeightedRoundRobinStrategy implements LoadBalancingStrategy {
       }
     }
 
-    this.weightedServers = weighted;
-    log.info("Built weighted server list: {} total entries for {} servers", weighted.size(),
+    log.debug("Built weighted server list: {} total entries for {} servers", weighted.size(),
         servers.size());
+    return List.copyOf(weighted);
+  }
+
+  private record WeightedList(List<Server> source, int[] weights, List<Server> entries) {
+
+    private boolean hasWeightsOf(List<Server> servers) {
+      for (int i = 0; i < weights.length; i++) {
+        if (servers.get(i).getWeight() != weights[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
   }
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.degerli.loadbalancer.upstream;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request'in bitmesi gereken an
+ * <p>
+ * İçeride monotonic {@link System#nanoTime()} ile tutulur; upstream'e giden header için
+ * epoch milisaniyeye çevrilir. Client'ın gönderdiği deadline ile route bütçesinden erken olan
+ * kullanılır, böylece client'ın vazgeçtiği request'ler backend kapasitesi tüketmez.
+ */
+public final class Deadline {
+
+  private final long deadlineNanos;
+
+  private Deadline(long deadlineNanos) {
+    this.deadlineNanos = deadlineNanos;
+  }
+
+  /**
+   * startNanos anından itibaren budgetMillis süre tanıyan deadline
+   */
+  public static Deadline after(long startNanos, long budgetMillis) {
+    return new Deadline(startNanos + TimeUnit.MILLISECONDS.toNanos(budgetMillis));
+  }
+
+  /**
+   * Client'ın gönderdiği deadline (epoch ms) daha erkense onu döndür
+   */
+  public Deadline earliest(long clientDeadlineEpochMillis) {
+    long now = System.nanoTime();
+    long nowMillis = System.currentTimeMillis();
+    if (clientDeadlineEpochMillis <= nowMillis) {
+      return new Deadline(now);
+    }
+    long remainingMillis = clientDeadlineEpochMillis - nowMillis;
+    // Milisaniyede karşılaştırılır: uzak bir deadline nanosaniyeye çevrilince taşar
+    if (remainingMillis >= TimeUnit.NANOSECONDS.toMillis(deadlineNanos - now)) {
+      return this;
+    }
+    return new Deadline(now + TimeUnit.MILLISECONDS.toNanos(remainingMillis));
+  }
+
+  public long remainingNanos() {
+    return deadlineNanos - System.nanoTime();
+  }
+
+  public long remainingMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(remainingNanos());
+  }
+
+  public boolean isExpired() {
+    return remainingNanos() <= 0;
+  }
+
+  /**
+   * Upstream'e iletilecek header değeri
+   */
+  public long toEpochMillis() {
+    return System.currentTimeMillis() + remainingMillis();
+  }
+
+  /**
+   * Tek bir denemeye ayrılan süre (nanosaniye)
+   * <p>
+   * Kalan bütçe kalan deneme sayısına eşit bölünür; ilk deneme zaman aşımına uğrasa bile
+   * sonraki denemelere süre kalır ve toplam asla deadline'ı aşmaz.
+   */
+  public long attemptTimeoutNanos(int remainingAttempts) {
+    return Math.max(0, remainingNanos()) / Math.max(1, remainingAttempts);
+  }
+
+  /**
+   * Tek bir denemenin deadline'ı (bkz. {@link #attemptTimeoutNanos(int)})
+   */
+  public Deadline forAttempt(int remainingAttempts) {
+    return new Deadline(System.nanoTime() + attemptTimeoutNanos(remainingAttempts));
+  }
+
+  @Override
+  public String toString() {
+    return "Deadline[remaining=" + remainingMillis() + "ms]";
+  }
+}
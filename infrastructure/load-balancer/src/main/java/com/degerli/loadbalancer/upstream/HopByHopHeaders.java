@@ -0,0 +1,117 @@
+package com.degerli.loadbalancer.upstream;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Proxy'den geçirilmeyecek header'lar
+ * <p>
+ * Hop-by-hop header'lar ve Connection header'ında listelenenler sadece tek bir bağlantı için
+ * geçerlidir, karşı tarafa iletilmez. Lookup isim uzunluğuna göre gruplanmış sabit tabloda
+ * equalsIgnoreCase ile yapılır; header başına toLowerCase() gibi yeni String üretilmez.
+ */
+public final class HopByHopHeaders {
+
+  private static final String[] HOP_BY_HOP = {
+      "connection", "keep-alive", "proxy-authenticate", "proxy-authorization",
+      "proxy-connection", "te", "trailer", "transfer-encoding", "upgrade"
+  };
+
+  // Upstream HTTP client'ın kendisinin yazdığı request header'ları
+  private static final String[] CLIENT_MANAGED = {"host", "content-length", "expect"};
+
+  private static final String[][] RESPONSE_EXCLUDED = indexByLength(HOP_BY_HOP);
+  private static final String[][] REQUEST_EXCLUDED = indexByLength(concat(HOP_BY_HOP,
+      CLIENT_MANAGED));
+
+  private HopByHopHeaders() {
+  }
+
+  /**
+   * Upstream'e iletilmeyecek request header'ı mı?
+   */
+  public static boolean isExcludedFromRequest(String name) {
+    return lookup(REQUEST_EXCLUDED, name);
+  }
+
+  /**
+   * Client'a iletilmeyecek response header'ı mı?
+   */
+  public static boolean isExcludedFromResponse(String name) {
+    return lookup(RESPONSE_EXCLUDED, name);
+  }
+
+  /**
+   * Connection header'ında listelenen ek header isimleri
+   * En yaygın değerler (keep-alive, close) için liste oluşturulmaz.
+   */
+  public static List<String> connectionTokens(String connectionHeader) {
+    if (connectionHeader == null || "keep-alive".equalsIgnoreCase(connectionHeader)
+        || "close".equalsIgnoreCase(connectionHeader)) {
+      return List.of();
+    }
+
+    List<String> tokens = new ArrayList<>(2);
+    for (String token : connectionHeader.split(",")) {
+      String name = token.trim();
+      if (!name.isEmpty() && !"close".equalsIgnoreCase(name)
+          && !lookup(RESPONSE_EXCLUDED, name)) {
+        tokens.add(name);
+      }
+    }
+    return tokens;
+  }
+
+  /**
+   * Header, Connection header'ında listelenmiş mi?
+   */
+  public static boolean isConnectionToken(List<String> connectionTokens, String name) {
+    for (int i = 0; i < connectionTokens.size(); i++) {
+      if (connectionTokens.get(i).equalsIgnoreCase(name)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean lookup(String[][] table, String name) {
+    if (name.length() >= table.length) {
+      return false;
+    }
+    String[] candidates = table[name.length()];
+    for (String candidate : candidates) {
+      if (candidate.equalsIgnoreCase(name)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String[][] indexByLength(String[] names) {
+    int maxLength = 0;
+    for (String name : names) {
+      maxLength = Math.max(maxLength, name.length());
+    }
+
+    List<List<String>> buckets = new ArrayList<>();
+    for (int i = 0; i <= maxLength; i++) {
+      buckets.add(new ArrayList<>());
+    }
+    for (String name : names) {
+      buckets.get(name.length()).add(name);
+    }
+
+    String[][] table = new String[maxLength + 1][];
+    for (int i = 0; i <= maxLength; i++) {
+      table[i] = buckets.get(i).toArray(new String[0]);
+    }
+    return table;
+  }
+
+  private static String[] concat(String[] first, String[] second) {
+    String[] result = new String[first.length + second.length];
+    System.arraycopy(first, 0, result, 0, first.length);
+    System.arraycopy(second, 0, result, first.length, second.length);
+    return result;
+  }
+}
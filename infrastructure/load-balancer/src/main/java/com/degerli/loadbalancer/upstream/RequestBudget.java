@@ -0,0 +1,58 @@
+package com.degerli.loadbalancer.upstream;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ek upstream denemeleri (hedge, retry) için oransal token bucket
+ * <p>
+ * Her normal request bütçeye ratio kadar token ekler, her ek deneme 1 token harcar.
+ * Böylece ek yük trafiğin sabit bir yüzdesini aşamaz; upstream zaten zorlanırken
+ * denemeler yükü katlayamaz. Düşük trafikte çalışabilmesi için bütçe dolu başlar.
+ */
+public class RequestBudget {
+
+  // 1 token = 1000 birim (kesirli depozitler için)
+  private static final long UNIT = 1000;
+
+  private final long depositUnits;
+  private final long maxUnits;
+  private final AtomicLong balance;
+
+  /**
+   * @param ratio     Normal request başına eklenen token (örn: 0.1 → trafiğin %10'u)
+   * @param maxTokens Biriktirilebilecek en fazla token
+   */
+  public RequestBudget(double ratio, int maxTokens) {
+    this.depositUnits = Math.round(ratio * UNIT);
+    this.maxUnits = maxTokens * UNIT;
+    this.balance = new AtomicLong(maxUnits);
+  }
+
+  /**
+   * Normal bir request geldi
+   */
+  public void deposit() {
+    balance.accumulateAndGet(depositUnits, (current, units) -> Math.min(maxUnits, current + units));
+  }
+
+  /**
+   * Ek deneme için token harca
+   *
+   * @return bütçe yetersizse false
+   */
+  public boolean tryWithdraw() {
+    while (true) {
+      long current = balance.get();
+      if (current < UNIT) {
+        return false;
+      }
+      if (balance.compareAndSet(current, current - UNIT)) {
+        return true;
+      }
+    }
+  }
+
+  public double getAvailableTokens() {
+    return (double) balance.get() / UNIT;
+  }
+}
@@ -0,0 +1,170 @@
+package com.degerli.loadbalancer.upstream;
+
+import com.degerli.loadbalancer.config.LoadBalancerProperties;
+import com.degerli.loadreport.LoadReportFilter;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * Backend'lere request gönderen HTTP client
+ * <p>
+ * Her request kendi timeout'u ile gönderilir (RestTemplate'te timeout client başına sabittir).
+ * Timeout response body'si okunana kadar tüm exchange'i kapsar; süre dolduğunda
+ * bağlantı iptal edilir ve {@link HttpTimeoutException} fırlatılır.
+ * <p>
+ * Redirect'ler takip edilmez, body'ler byte[] olarak olduğu gibi taşınır.
+ */
+@Component
+public class UpstreamClient {
+
+  private final LoadBalancerProperties properties;
+  private volatile HttpClient httpClient;
+
+  public UpstreamClient(LoadBalancerProperties properties) {
+    this.properties = properties;
+    this.httpClient = newHttpClient();
+  }
+
+  private HttpClient newHttpClient() {
+    return HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .followRedirects(HttpClient.Redirect.NEVER)
+        .connectTimeout(Duration.ofMillis(properties.getTimeouts().getConnectTimeoutMs()))
+        .build();
+  }
+
+  /**
+   * Havuzdaki boşta bağlantıları kapat (drain edilen upstream'lere açık bağlantı kalmasın)
+   * <p>
+   * JDK HttpClient host bazında havuz kontrolü sunmadığından client yenisiyle değiştirilir:
+   * eski client devam eden exchange'leri tamamlar ve boşta bağlantılarını kapatır, diğer
+   * upstream'ler sonraki request'te yeniden bağlanır. Eski client'ı değişimden hemen önce
+   * okumuş request'ler için kapatma kısa süre ertelenir.
+   */
+  public synchronized void closeIdleConnections() {
+    HttpClient retired = httpClient;
+    httpClient = newHttpClient();
+    CompletableFuture.delayedExecutor(1, TimeUnit.SECONDS).execute(retired::shutdown);
+  }
+
+  public ResponseEntity<byte[]> exchange(HttpMethod method, String url, HttpHeaders headers,
+      byte[] body, long timeoutNanos) throws IOException, InterruptedException {
+    return await(exchangeAsync(method, url, headers, body, timeoutNanos));
+  }
+
+  /**
+   * Request'i asenkron gönder
+   * <p>
+   * Dönen future cancel edilirse veya timeout'a uğrarsa upstream bağlantısı da iptal edilir
+   * (hedging'de kaybeden request bu şekilde durdurulur).
+   */
+  public CompletableFuture<ResponseEntity<byte[]>> exchangeAsync(HttpMethod method, String url,
+      HttpHeaders headers, byte[] body, long timeoutNanos) {
+    return exchangeAsync(method, url, headers, body, timeoutNanos, null);
+  }
+
+  /**
+   * Request'i asenkron gönder; backend'in yük raporu header'ı loadReportSink'e verilir
+   * <p>
+   * Yük raporu header'ı sink verilmese de client'a iletilmez.
+   */
+  public CompletableFuture<ResponseEntity<byte[]>> exchangeAsync(HttpMethod method, String url,
+      HttpHeaders headers, byte[] body, long timeoutNanos, Consumer<String> loadReportSink) {
+
+    if (timeoutNanos <= 0) {
+      return CompletableFuture.failedFuture(
+          new HttpTimeoutException("Deadline exceeded before sending request"));
+    }
+
+    HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+        .timeout(Duration.ofNanos(timeoutNanos))
+        .method(method.name(), body == null || body.length == 0
+            ? HttpRequest.BodyPublishers.noBody()
+            : HttpRequest.BodyPublishers.ofByteArray(body));
+
+    // JDK HttpClient'ın kendisinin yönettiği header'lar (host, content-length, ...) atlanır
+    headers.forEach((name, values) -> {
+      if (!HopByHopHeaders.isExcludedFromRequest(name)) {
+        values.forEach(value -> builder.header(name, value));
+      }
+    });
+
+    CompletableFuture<HttpResponse<byte[]>> sent =
+        httpClient.sendAsync(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+
+    CompletableFuture<ResponseEntity<byte[]>> result = sent
+        .thenApply(response -> toResponseEntity(response, loadReportSink))
+        .orTimeout(timeoutNanos, TimeUnit.NANOSECONDS);
+
+    result.whenComplete((response, error) -> {
+      if (error != null) {
+        sent.cancel(true);
+      }
+    });
+    return result;
+  }
+
+  /**
+   * Future'ın sonucunu bekle; hataları exchange() ile aynı exception tiplerine çevir
+   */
+  public <T> T await(CompletableFuture<T> future) throws IOException, InterruptedException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      throw e;
+    } catch (ExecutionException e) {
+      throw toIOException(e.getCause());
+    }
+  }
+
+  private static IOException toIOException(Throwable error) {
+    while (error instanceof CompletionException && error.getCause() != null) {
+      error = error.getCause();
+    }
+    if (error instanceof IOException ioException) {
+      return ioException;
+    }
+    if (error instanceof TimeoutException) {
+      return new HttpTimeoutException("Upstream did not respond within the timeout budget");
+    }
+    return new IOException(error);
+  }
+
+  private static ResponseEntity<byte[]> toResponseEntity(HttpResponse<byte[]> response,
+      Consumer<String> loadReportSink) {
+    // Hop-by-hop header'lar burada bir kez ayıklanır; sonraki adımlar cevabı kopyalamadan taşır
+    HttpHeaders responseHeaders = new HttpHeaders();
+    List<String> connectionTokens = HopByHopHeaders.connectionTokens(
+        response.headers().firstValue(HttpHeaders.CONNECTION).orElse(null));
+    response.headers().map().forEach((name, values) -> {
+      if (LoadReportFilter.HEADER.equalsIgnoreCase(name)) {
+        if (loadReportSink != null && !values.isEmpty()) {
+          loadReportSink.accept(values.get(0));
+        }
+      } else if (!HopByHopHeaders.isExcludedFromResponse(name)
+          && !HopByHopHeaders.isConnectionToken(connectionTokens, name)) {
+        responseHeaders.addAll(name, values);
+      }
+    });
+    return ResponseEntity.status(response.statusCode())
+        .headers(responseHeaders)
+        .body(response.body());
+  }
+}
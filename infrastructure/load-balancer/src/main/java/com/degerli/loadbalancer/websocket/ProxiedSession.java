@@ -0,0 +1,187 @@
+package com.degerli.loadbalancer.websocket;
+
+import com.degerli.loadbalancer.config.LoadBalancerProperties.OverflowPolicy;
+import com.degerli.loadbalancer.model.Server;
+import com.degerli.loadbalancer.websocket.WebSocketRelayStats.Direction;
+import com.degerli.loadbalancer.websocket.WebSocketRelayStats.ServiceStats;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tomcat.websocket.WsSession;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+/**
+ * Proxy'lenen bir client session'ı: seçilen upstream ve backend'e giden relay
+ * <p>
+ * Client session'ın attribute'larında tutulur ({@link #ATTRIBUTE}), frame başına map araması
+ * yapılmaz. Backend handshake'i sürerken client frame'leri relay buffer'ı kadar bekletilir;
+ * aşılırsa overflow policy uygulanır (PAUSE'da client okuması handshake bitene kadar durur).
+ * Upstream seçildiği andan session kapanana kadar server'ın aktif connection'ı ve açık
+ * WebSocket'i sayılır.
+ */
+@Slf4j
+class ProxiedSession {
+
+  static final String ATTRIBUTE = ProxiedSession.class.getName();
+
+  private static final CloseStatus NOT_READY =
+      CloseStatus.SERVICE_OVERLOAD.withReason("Backend connection not ready");
+
+  private final WebSocketSession clientSession;
+  private final Server server;
+  private final ServiceStats stats;
+  private final long pendingLimit;
+  private final OverflowPolicy overflowPolicy;
+  private final AtomicBoolean released = new AtomicBoolean();
+  private final long openedNanos = System.nanoTime();
+
+  // Handshake sürerken gelen frame'ler (this ile korunur)
+  private final Queue<WebSocketMessage<?>> pending = new ArrayDeque<>();
+  private long pendingBytes;
+  private WsSession pausedClient;
+  private CloseStatus closeStatus;
+
+  private volatile RelaySession toBackend;
+
+  ProxiedSession(WebSocketSession clientSession, Server server, ServiceStats stats,
+      long pendingLimit, OverflowPolicy overflowPolicy) {
+    this.clientSession = clientSession;
+    this.server = server;
+    this.stats = stats;
+    this.pendingLimit = pendingLimit;
+    this.overflowPolicy = overflowPolicy;
+    server.incrementConnections();
+    server.getWebSocketConnections().incrementAndGet();
+    stats.onSessionOpened();
+  }
+
+  static ProxiedSession of(WebSocketSession clientSession) {
+    return (ProxiedSession) clientSession.getAttributes().get(ATTRIBUTE);
+  }
+
+  WebSocketSession getClientSession() {
+    return clientSession;
+  }
+
+  Server getServer() {
+    return server;
+  }
+
+  ServiceStats getStats() {
+    return stats;
+  }
+
+  long getOpenedNanos() {
+    return openedNanos;
+  }
+
+  /**
+   * Client frame'ini backend'e ilet (handshake bitmediyse beklet)
+   */
+  void send(WebSocketMessage<?> message) throws IOException {
+    RelaySession relay = toBackend;
+    if (relay == null) {
+      synchronized (this) {
+        relay = toBackend;
+        if (relay == null) {
+          buffer(message);
+          return;
+        }
+      }
+    }
+    relay.sendMessage(message);
+  }
+
+  private void buffer(WebSocketMessage<?> message) throws IOException {
+    if (closeStatus != null) {
+      return;
+    }
+    pending.add(RelaySession.retain(message));
+    pendingBytes += RelaySession.payloadLength(message);
+    if (pendingBytes <= pendingLimit) {
+      return;
+    }
+
+    switch (overflowPolicy) {
+      case DROP -> {
+        while (pendingBytes > pendingLimit && !pending.isEmpty()) {
+          pendingBytes -= RelaySession.payloadLength(pending.poll());
+          stats.getDirection(Direction.UPSTREAM).onDropped();
+        }
+      }
+      case CLOSE -> clientSession.close(NOT_READY);
+      case PAUSE -> {
+        WsSession client = RelaySession.tomcatSession(clientSession);
+        if (client == null) {
+          clientSession.close(NOT_READY);
+        } else if (pausedClient == null) {
+          pausedClient = client;
+          stats.getDirection(Direction.UPSTREAM).onPaused();
+          client.suspend();
+        }
+      }
+    }
+  }
+
+  /**
+   * Backend handshake'i tamamlandı: bekleyen frame'leri sırayla relay'e aktar
+   */
+  synchronized void connected(RelaySession relay) {
+    if (closeStatus != null) {
+      // Client handshake sürerken kapandı
+      relay.close(closeStatus);
+      return;
+    }
+    if (pausedClient != null) {
+      pausedClient.resume();
+      pausedClient = null;
+    }
+    pending.forEach(relay::enqueue);
+    pending.clear();
+    pendingBytes = 0;
+    toBackend = relay;
+  }
+
+  /**
+   * Client kapandı: backend'i kapat (handshake sürüyorsa tamamlanınca kapatılır)
+   */
+  void close(CloseStatus status) {
+    RelaySession relay;
+    synchronized (this) {
+      closeStatus = status;
+      pending.clear();
+      relay = toBackend;
+    }
+    if (relay != null) {
+      relay.close(status);
+    }
+  }
+
+  /**
+   * Client'ı kapat; relay kurulduysa kapatma relay executor'ında yapılır (yavaş client
+   * çağıranı bekletmez) ve backend de kapanır
+   */
+  void closeClient(CloseStatus status) throws IOException {
+    RelaySession relay = toBackend;
+    if (relay != null) {
+      relay.close(status);
+    } else if (clientSession.isOpen()) {
+      clientSession.close(status);
+    }
+  }
+
+  /**
+   * Server connection'ını bırak (bir kez)
+   */
+  void release() {
+    if (released.compareAndSet(false, true)) {
+      server.decrementConnections();
+      server.getWebSocketConnections().decrementAndGet();
+      stats.onSessionClosed();
+    }
+  }
+}
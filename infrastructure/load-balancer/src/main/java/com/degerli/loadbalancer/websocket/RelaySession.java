@@ -0,0 +1,381 @@
+package com.degerli.loadbalancer.websocket;
+
+import com.degerli.loadbalancer.config.LoadBalancerProperties.OverflowPolicy;
+import com.degerli.loadbalancer.websocket.WebSocketRelayStats.RelayStats;
+import jakarta.websocket.RemoteEndpoint;
+import jakarta.websocket.SendHandler;
+import jakarta.websocket.SendResult;
+import jakarta.websocket.Session;
+import jakarta.websocket.server.ServerContainer;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tomcat.websocket.Constants;
+import org.apache.tomcat.websocket.WsSession;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.NativeWebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+/**
+ * Relay'in bir yönü: hedef session'a giden frame'leri sınırlı bir buffer'da toplar ve sırayla
+ * asenkron gönderir
+ * <p>
+ * Hedef server container'ının session'ıysa (client'a giden yön) gönderimler JSR-356 async
+ * remote ile yapılır; bir frame'in gönderimi tamamlanınca (Tomcat'in callback'inde) sıradaki
+ * gönderilir ve yavaş client'lar thread tutmaz. Client container'ı (backend'e giden yön) async
+ * gönderimi de çağıran thread'de bloklayarak yaptığından bu yönde gönderimler relay
+ * executor'ında sırayla yapılır. Her iki durumda da kaynağın okuyan thread'i hedefin
+ * socket'inde beklemez ve aynı session'a eşzamanlı gönderim olmaz.
+ * Buffer (gönderilmekte olan frame dahil) limiti aşınca policy uygulanır:
+ * DROP en eski mesajları düşürür, CLOSE iki tarafı da kapatır, PAUSE kaynağın okumasını
+ * (Tomcat suspend) buffer yarıya inene kadar durdurur; TCP penceresi dolunca karşı taraf da
+ * yavaşlar. Kaynak Tomcat session'ı değilse PAUSE, CLOSE gibi davranır.
+ * <p>
+ * Text frame'ler kopyalanmadan iletilir. Binary frame'lerde Tomcat okuma buffer'ını
+ * callback döndükten sonra yeniden kullandığı için payload kuyruğa alınırken bir kez kopyalanır.
+ */
+@Slf4j
+class RelaySession extends WebSocketSessionDecorator {
+
+  private static final CloseStatus BUFFER_OVERFLOW =
+      CloseStatus.SESSION_NOT_RELIABLE.withReason("Send buffer limit exceeded");
+  private static final CloseStatus SEND_TIME_EXCEEDED =
+      CloseStatus.SESSION_NOT_RELIABLE.withReason("Send time limit exceeded");
+  private static final CloseStatus SEND_FAILED =
+      CloseStatus.SERVER_ERROR.withReason("Send failed");
+
+  private final WebSocketSession source;
+  private final WsSession pausableSource;
+  private final RelayStats stats;
+  private final Executor executor;
+  private final RemoteEndpoint.Async asyncDestination;
+  private final long bufferSizeLimit;
+  private final long sendTimeLimitNanos;
+  private final OverflowPolicy overflowPolicy;
+
+  private final Queue<WebSocketMessage<?>> buffer = new ConcurrentLinkedQueue<>();
+  private final AtomicLong bufferSize = new AtomicLong();
+  private final AtomicBoolean draining = new AtomicBoolean();
+  private final AtomicBoolean closing = new AtomicBoolean();
+
+  // Süren gönderimin başlangıcı (System.nanoTime, 0 → gönderim yok)
+  private volatile long sendStartNanos;
+
+  // Kaynağın okuması duraklatıldı mı? (suspend/resume sırası için değişimi synchronized)
+  private volatile boolean paused;
+
+  /**
+   * @param destination Frame'lerin gönderileceği session
+   * @param source      Frame'lerin okunduğu karşı session (PAUSE'da okuması duraklatılır)
+   */
+  RelaySession(WebSocketSession destination, WebSocketSession source, RelayStats stats,
+      Executor executor, long bufferSizeLimit, long sendTimeLimitMs,
+      OverflowPolicy overflowPolicy) {
+    super(destination);
+    this.source = source;
+    this.stats = stats;
+    this.executor = executor;
+    this.bufferSizeLimit = bufferSizeLimit;
+    this.sendTimeLimitNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeLimitMs);
+    this.pausableSource = overflowPolicy == OverflowPolicy.PAUSE ? tomcatSession(source) : null;
+    this.overflowPolicy = overflowPolicy == OverflowPolicy.PAUSE && pausableSource == null
+        ? OverflowPolicy.CLOSE : overflowPolicy;
+
+    this.asyncDestination = asyncRemote(destination);
+    if (asyncDestination != null) {
+      asyncDestination.setSendTimeout(sendTimeLimitMs);
+    }
+
+    // Bloklayan gönderim (close frame'i dahil) de süre limitinde başarısız olsun
+    WsSession nativeDestination = tomcatSession(destination);
+    if (nativeDestination != null) {
+      nativeDestination.getUserProperties()
+          .put(Constants.BLOCKING_SEND_TIMEOUT_PROPERTY, sendTimeLimitMs);
+    }
+  }
+
+  /**
+   * Frame'i buffer'a ekle; çağıran thread gönderimi beklemez
+   */
+  @Override
+  public void sendMessage(WebSocketMessage<?> message) {
+    enqueue(retain(message));
+  }
+
+  /**
+   * Zaten kopyalanmış ({@link #retain}) frame'i buffer'a ekle
+   */
+  void enqueue(WebSocketMessage<?> message) {
+    if (closing.get()) {
+      return;
+    }
+    long started = sendStartNanos;
+    if (started != 0 && System.nanoTime() - started > sendTimeLimitNanos) {
+      abort(SEND_TIME_EXCEEDED);
+      return;
+    }
+
+    buffer.add(message);
+    long buffered = bufferSize.addAndGet(payloadLength(message));
+    stats.onBuffered(buffered);
+    if (buffered > bufferSizeLimit) {
+      onOverflow();
+    }
+    scheduleDrain();
+  }
+
+  /**
+   * Bu yönde buffer'da bekleyen byte'lar (gönderilmekte olan frame dahil)
+   */
+  long getBufferedBytes() {
+    return bufferSize.get();
+  }
+
+  private void onOverflow() {
+    switch (overflowPolicy) {
+      case DROP -> {
+        WebSocketMessage<?> oldest;
+        while (bufferSize.get() > bufferSizeLimit && (oldest = buffer.poll()) != null) {
+          bufferSize.addAndGet(-payloadLength(oldest));
+          stats.onDropped();
+        }
+      }
+      case CLOSE -> abort(BUFFER_OVERFLOW);
+      case PAUSE -> pauseSource();
+    }
+  }
+
+  private synchronized void pauseSource() {
+    if (!paused) {
+      paused = true;
+      stats.onPaused();
+      pausableSource.suspend();
+      log.debug("WebSocket {} paused reading, {} bytes buffered for {}", source.getId(),
+          bufferSize.get(), getId());
+      // Suspend'den önce drain buffer'ı boşalttıysa resume kaçırılmasın
+      resumeIfDrained();
+    }
+  }
+
+  private void scheduleDrain() {
+    if (draining.compareAndSet(false, true)) {
+      if (asyncDestination != null) {
+        sendNext();
+      } else {
+        executor.execute(this::drain);
+      }
+    }
+  }
+
+  /**
+   * Buffer'daki ilk frame'i asenkron gönder; tamamlanınca {@link #onSent} sıradakine geçer
+   */
+  private void sendNext() {
+    WebSocketMessage<?> message = buffer.poll();
+    if (message == null || closing.get() || !isOpen()) {
+      draining.set(false);
+      // Bayrak bırakılmadan önce eklenen frame varsa tekrar planla
+      if (message == null && !buffer.isEmpty()) {
+        scheduleDrain();
+      }
+      return;
+    }
+
+    int length = payloadLength(message);
+    long started = System.nanoTime();
+    sendStartNanos = started;
+    SendHandler handler = result -> onSent(length, started, result);
+    try {
+      if (message instanceof TextMessage text) {
+        asyncDestination.sendText(text.getPayload(), handler);
+      } else {
+        asyncDestination.sendBinary(((BinaryMessage) message).getPayload(), handler);
+      }
+    } catch (RuntimeException e) {
+      sendStartNanos = 0;
+      draining.set(false);
+      onSendFailed(e, started);
+    }
+  }
+
+  private void onSent(int length, long started, SendResult result) {
+    sendStartNanos = 0;
+    if (!result.isOK()) {
+      draining.set(false);
+      onSendFailed(result.getException(), started);
+      return;
+    }
+    bufferSize.addAndGet(-length);
+    stats.onSent(length);
+    resumeIfDrained();
+    sendNext();
+  }
+
+  /**
+   * Bloklayan gönderim döngüsü (async gönderilemeyen hedefler için relay executor'ında)
+   */
+  private void drain() {
+    long started = 0;
+    try {
+      WebSocketMessage<?> message;
+      while ((message = buffer.poll()) != null) {
+        if (closing.get() || !isOpen()) {
+          return;
+        }
+        int length = payloadLength(message);
+        started = System.nanoTime();
+        sendStartNanos = started;
+        try {
+          getDelegate().sendMessage(message);
+        } finally {
+          sendStartNanos = 0;
+        }
+        bufferSize.addAndGet(-length);
+        stats.onSent(length);
+        resumeIfDrained();
+      }
+    } catch (IOException | RuntimeException e) {
+      onSendFailed(e, started);
+      return;
+    } finally {
+      draining.set(false);
+    }
+    // Döngü bittikten sonra eklenen frame varsa tekrar planla
+    if (!buffer.isEmpty()) {
+      scheduleDrain();
+    }
+  }
+
+  /**
+   * Tomcat gönderimi süre limitinde keser; diğer hatalar yavaş tüketici değildir
+   */
+  private void onSendFailed(Throwable error, long started) {
+    log.debug("WebSocket send to {} failed: {}", getId(),
+        error != null ? error.getMessage() : null);
+    if (System.nanoTime() - started >= sendTimeLimitNanos) {
+      abort(SEND_TIME_EXCEEDED);
+    } else {
+      close(SEND_FAILED);
+    }
+  }
+
+  private void resumeIfDrained() {
+    if (paused) {
+      synchronized (this) {
+        if (paused && bufferSize.get() <= bufferSizeLimit / 2) {
+          paused = false;
+          log.debug("WebSocket {} resumed reading", source.getId());
+          pausableSource.resume();
+        }
+      }
+    }
+  }
+
+  /**
+   * Yavaş tüketici: iki tarafı da kapat (kapatma da yavaş socket'te bekleyebileceği için
+   * relay executor'ında)
+   */
+  private void abort(CloseStatus status) {
+    if (closing.get()) {
+      return;
+    }
+    stats.onClosed();
+    log.warn("Closing WebSocket {} -> {}: {}", source.getId(), getId(), status.getReason());
+    close(status);
+  }
+
+  /**
+   * İki tarafı da kapat (bir kez)
+   */
+  @Override
+  public void close(CloseStatus status) {
+    if (!closing.compareAndSet(false, true)) {
+      return;
+    }
+    buffer.clear();
+    executor.execute(() -> {
+      closeQuietly(source, status);
+      closeQuietly(getDelegate(), status);
+    });
+  }
+
+  private static void closeQuietly(WebSocketSession session, CloseStatus status) {
+    try {
+      if (session.isOpen()) {
+        session.close(status);
+      }
+    } catch (IOException e) {
+      log.debug("Error closing WebSocket {}: {}", session.getId(), e.getMessage());
+    }
+  }
+
+  /**
+   * Buffer'da tutulabilir mesaj: binary payload Tomcat'in okuma buffer'ından kopyalanır
+   */
+  static WebSocketMessage<?> retain(WebSocketMessage<?> message) {
+    if (message instanceof BinaryMessage binary) {
+      ByteBuffer payload = binary.getPayload();
+      ByteBuffer copy = ByteBuffer.allocate(payload.remaining());
+      copy.put(payload.duplicate()).flip();
+      return new BinaryMessage(copy, binary.isLast());
+    }
+    return message;
+  }
+
+  /**
+   * Payload boyutu (byte); TextMessage#getPayloadLength string'i encode ettiği için text'te
+   * UTF-8 uzunluğu kopyalamadan hesaplanır
+   */
+  static int payloadLength(WebSocketMessage<?> message) {
+    if (message instanceof TextMessage text) {
+      return utf8Length(text.getPayload());
+    }
+    return message.getPayloadLength();
+  }
+
+  private static int utf8Length(String text) {
+    int length = text.length();
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c >= 0x800) {
+        // Surrogate çifti 4 byte (2 char × 2); diğerleri 3 byte
+        length += Character.isSurrogate(c) ? 1 : 2;
+      } else if (c >= 0x80) {
+        length++;
+      }
+    }
+    return length;
+  }
+
+  /**
+   * Server container session'ının async remote'u (diğer session'lar için null)
+   */
+  static RemoteEndpoint.Async asyncRemote(WebSocketSession session) {
+    WebSocketSession unwrapped = WebSocketSessionDecorator.unwrap(session);
+    if (unwrapped instanceof NativeWebSocketSession nativeSession
+        && nativeSession.getNativeSession() instanceof Session jsrSession
+        && jsrSession.getContainer() instanceof ServerContainer) {
+      return jsrSession.getAsyncRemote();
+    }
+    return null;
+  }
+
+  static WsSession tomcatSession(WebSocketSession session) {
+    WebSocketSession unwrapped = WebSocketSessionDecorator.unwrap(session);
+    if (unwrapped instanceof NativeWebSocketSession nativeSession
+        && nativeSession.getNativeSession() instanceof WsSession wsSession) {
+      return wsSession;
+    }
+    return null;
+  }
+}
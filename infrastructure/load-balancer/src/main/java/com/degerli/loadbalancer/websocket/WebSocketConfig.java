@@ -1,23 +1,44 @@
 package com.degerli.loadbalancer.websocket;
 
+import com.degerli.loadbalancer.config.LoadBalancerProperties;
+import com.degerli.loadbalancer.config.LoadBalancerProperties.WebSocketRelayConfig;
+import com.degerli.loadbalancer.deployment.TrafficSplitter;
+import com.degerli.loadbalancer.drain.ConnectionDrainer;
 import com.degerli.loadbalancer.model.Server;
 import com.degerli.loadbalancer.registry.ServiceRegistry;
+import com.degerli.loadbalancer.strategy.LeastWebSocketsStrategy;
+import com.degerli.loadbalancer.strategy.LoadBalancingStrategy;
+import com.degerli.loadbalancer.websocket.WebSocketRelayStats.Direction;
+import com.degerli.loadbalancer.websocket.WebSocketRelayStats.RelayStats;
+import com.degerli.loadbalancer.websocket.WebSocketRelayStats.ServiceStats;
 import java.io.IOException;
 import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Collection;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.tomcat.websocket.Constants;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.task.support.TaskExecutorAdapter;
 import org.springframework.web.socket.BinaryMessage;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.client.standard.StandardWebSocketClient;
 import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.ServletWebSocketHandlerRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
 import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
 import org.springframework.web.socket.handler.AbstractWebSocketHandler;
@@ -26,6 +47,18 @@ import org.springframework.web.socket.handler.AbstractWebSocketHandler;
  * WebSocket Proxy Support with Timeout
  * <p>
  * Client <-> Load Balancer <-> Backend WebSocket
+ * <p>
+ * Açık session'lar backend server'ın aktif connection'ı sayılır; server drain edilirken
+ * session'ların kapanması beklenir, drain timeout'unda kalanlar 1001 (Going Away) ile kapatılır
+ * ve client başka bir instance'a yeniden bağlanabilir.
+ * <p>
+ * Her yön {@link RelaySession} ile sınırlı bir buffer'dan gönderilir (client'a asenkron, backend'e
+ * sabit boyutlu relay havuzunda); yavaş bir client backend'i okuyan thread'i (veya tersi)
+ * bloklamaz ve thread tutmaz.
+ * <p>
+ * Upgrade'ler varsayılan olarak en az açık socket'i olan server'a gider; rebalance açıksa
+ * scale-out sonrası fazla yüklü serverların socket'leri kademeli kapatılır
+ * ({@link WebSocketRebalancer}).
  */
 @Slf4j
 @Configuration
@@ -34,26 +67,68 @@ import org.springframework.web.socket.handler.AbstractWebSocketHandler;
 public class WebSocketConfig implements WebSocketConfigurer {
 
   private final ServiceRegistry serviceRegistry;
+  private final ConnectionDrainer connectionDrainer;
+  private final TrafficSplitter trafficSplitter;
+  private final LoadBalancerProperties properties;
+  private final WebSocketRelayStats relayStats;
   private static final long CONNECTION_TIMEOUT_SECONDS = 5;
 
   @Override
   public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
-    registry.addHandler(new WebSocketProxyHandler(serviceRegistry), "/ws/{serviceName}/**")
+    WebSocketProxyHandler handler = new WebSocketProxyHandler(serviceRegistry,
+        properties.getWebsocket(), relayStats);
+    connectionDrainer.addDrainedListener(handler::closeSessions);
+    if (properties.getWebsocket().isRebalanceEnabled()) {
+      new WebSocketRebalancer(serviceRegistry, trafficSplitter, properties.getWebsocket(),
+          handler::getSessions).start();
+    }
+    // ProxyController'ın /** mapping'inden önce eşleşmeli, yoksa upgrade request'leri proxy'ye
+    // düşer
+    if (registry instanceof ServletWebSocketHandlerRegistry servletRegistry) {
+      servletRegistry.setOrder(Ordered.HIGHEST_PRECEDENCE);
+    }
+    registry.addHandler(handler, "/ws/{serviceName}/**")
         .setAllowedOrigins("*");
   }
 
   /**
    * WebSocket Proxy Handler with timeout support
+   * <p>
+   * Backend handshake'i container thread'ini bekletmez; connect executor'ında yapılır ve
+   * tamamlanana kadar client frame'leri {@link ProxiedSession}'da bekletilir.
    */
   @Slf4j
-  @RequiredArgsConstructor
   static class WebSocketProxyHandler extends AbstractWebSocketHandler {
 
     private final ServiceRegistry serviceRegistry;
-    private final StandardWebSocketClient wsClient = new StandardWebSocketClient();
+    private final WebSocketRelayConfig relayConfig;
+    private final WebSocketRelayStats relayStats;
+    private final ExecutorService relayExecutor;
 
-    // Client session -> Backend session mapping
-    private final Map<String, WebSocketSession> backendSessions = new ConcurrentHashMap<>();
+    // Handshake'ler (bloklayan connectToServer) connect timeout'una kadar bekleyebildiği için
+    // thread sayısı ihtiyaçla büyür; boşta kalan thread'ler kapanır
+    private final ExecutorService connectExecutor = daemonPool("websocket-connect-");
+
+    // Tek client (ve Tomcat WebSocketContainer'ı) tüm backend bağlantılarında paylaşılır
+    private final StandardWebSocketClient wsClient = backendClient(connectExecutor);
+
+    // Upgrade'lerde açık socket sayısına göre seçim (selectBySocketCount)
+    private final LoadBalancingStrategy socketCountStrategy = new LeastWebSocketsStrategy();
+
+    // Drain ve rebalance'ta upstream'e bağlı session'ları bulmak için (frame yolunda
+    // kullanılmaz)
+    private final Set<ProxiedSession> proxiedSessions = ConcurrentHashMap.newKeySet();
+
+    WebSocketProxyHandler(ServiceRegistry serviceRegistry, WebSocketRelayConfig relayConfig,
+        WebSocketRelayStats relayStats) {
+      this.serviceRegistry = serviceRegistry;
+      this.relayConfig = relayConfig;
+      this.relayStats = relayStats;
+      // Backend'e bloklayan gönderimler ve close frame'leri; süre limitiyle sınırlı oldukları
+      // için sabit boyutlu havuz yeterli (yavaş client sayısıyla thread sayısı büyümez)
+      this.relayExecutor = Executors.newFixedThreadPool(
+          Math.max(1, relayConfig.getRelayThreads()), daemonThreads("websocket-relay-"));
+    }
 
     @Override
     public void afterConnectionEstablished(WebSocketSession clientSession) throws Exception {
@@ -64,68 +139,26 @@ public class WebSocketConfig implements WebSocketConfigurer {
 
       try {
         // Backend server seç
-        Server server = serviceRegistry.selectServer(serviceName, clientIp);
-
-        // Backend'e bağlan
-        String backendWsUrl = server.getUrl().replace("http://", "ws://") + "/ws";
-
-        // Timeout ile backend connection
-        WebSocketSession backendSession = wsClient.execute(new AbstractWebSocketHandler() {
-              @Override
-              protected void handleTextMessage(WebSocketSession session, TextMessage message)
-                  throws Exception {
-                if (clientSession.isOpen()) {
-                  clientSession.sendMessage(message);
-                }
-              }
+        Server server = relayConfig.isSelectBySocketCount()
+            ? serviceRegistry.selectServer(serviceName, clientIp, socketCountStrategy)
+            : serviceRegistry.selectServer(serviceName, clientIp);
+        URI backendUri = backendUri(server);
 
-              @Override
-              protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message)
-                  throws Exception {
-                if (clientSession.isOpen()) {
-                  clientSession.sendMessage(message);
-                }
-              }
+        ProxiedSession proxied = new ProxiedSession(clientSession, server,
+            relayStats.getServiceStats(serviceName), relayConfig.getSendBufferSizeKb() * 1024L,
+            relayConfig.getOverflowPolicy());
+        clientSession.getAttributes().put(ProxiedSession.ATTRIBUTE, proxied);
+        proxiedSessions.add(proxied);
 
-              @Override
-              public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
-                log.info("Backend WebSocket closed: {}", status);
-                try {
-                  if (clientSession.isOpen()) {
-                    clientSession.close(status);
-                  }
-                } catch (IOException e) {
-                  log.error("Error closing client session", e);
-                }
+        // Backend'e timeout ile asenkron bağlan; relay'ler backend handler'ında kurulur
+        wsClient.execute(new BackendHandler(proxied), null, backendUri)
+            .orTimeout(CONNECTION_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+            .whenCompleteAsync((backendSession, error) -> {
+              if (error != null) {
+                onHandshakeFailed(proxied, serviceName, error);
               }
+            }, connectExecutor);
 
-              @Override
-              public void handleTransportError(WebSocketSession session, Throwable exception) {
-                log.error("Backend WebSocket transport error", exception);
-                try {
-                  if (clientSession.isOpen()) {
-                    clientSession.close(CloseStatus.SERVER_ERROR);
-                  }
-                } catch (IOException e) {
-                  log.error("Error closing client session after transport error", e);
-                }
-              }
-            }, String.valueOf(URI.create(backendWsUrl)))
-            .get(CONNECTION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
-
-        backendSessions.put(clientSession.getId(), backendSession);
-        log.info("WebSocket proxying: {} -> {}", clientSession.getId(), backendWsUrl);
-
-      } catch (TimeoutException e) {
-        log.error("WebSocket connection timeout for service: {}", serviceName, e);
-        if (clientSession.isOpen()) {
-          clientSession.close(new CloseStatus(1001, "Backend connection timeout"));
-        }
-      } catch (ExecutionException e) {
-        log.error("WebSocket connection failed for service: {}", serviceName, e);
-        if (clientSession.isOpen()) {
-          clientSession.close(new CloseStatus(1011, "Backend connection failed"));
-        }
       } catch (Exception e) {
         log.error("Unexpected error establishing WebSocket connection", e);
         if (clientSession.isOpen()) {
@@ -134,23 +167,43 @@ public class WebSocketConfig implements WebSocketConfigurer {
       }
     }
 
+    private void onHandshakeFailed(ProxiedSession proxied, String serviceName,
+        Throwable error) {
+      Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+      CloseStatus status;
+      if (cause instanceof TimeoutException) {
+        log.error("WebSocket connection timeout for service: {}", serviceName);
+        status = new CloseStatus(1001, "Backend connection timeout");
+      } else {
+        log.error("WebSocket connection failed for service: {}", serviceName, cause);
+        status = new CloseStatus(1011, "Backend connection failed");
+      }
+      try {
+        if (proxied.getClientSession().isOpen()) {
+          proxied.getClientSession().close(status);
+        }
+      } catch (IOException e) {
+        log.error("Error closing client session", e);
+      }
+    }
+
     @Override
     protected void handleTextMessage(WebSocketSession clientSession, TextMessage message)
         throws Exception {
-      WebSocketSession backendSession = backendSessions.get(clientSession.getId());
-      if (backendSession != null && backendSession.isOpen()) {
-        backendSession.sendMessage(message);
-      } else {
-        log.warn("Backend session not available for client: {}", clientSession.getId());
-      }
+      forward(clientSession, message);
     }
 
     @Override
     protected void handleBinaryMessage(WebSocketSession clientSession, BinaryMessage message)
         throws Exception {
-      WebSocketSession backendSession = backendSessions.get(clientSession.getId());
-      if (backendSession != null && backendSession.isOpen()) {
-        backendSession.sendMessage(message);
+      forward(clientSession, message);
+    }
+
+    private void forward(WebSocketSession clientSession, WebSocketMessage<?> message)
+        throws IOException {
+      ProxiedSession proxied = ProxiedSession.of(clientSession);
+      if (proxied != null) {
+        proxied.send(message);
       } else {
         log.warn("Backend session not available for client: {}", clientSession.getId());
       }
@@ -159,30 +212,94 @@ public class WebSocketConfig implements WebSocketConfigurer {
     @Override
     public void afterConnectionClosed(WebSocketSession clientSession, CloseStatus status) {
       log.info("Client WebSocket closed: {}", status);
-
-      WebSocketSession backendSession = backendSessions.remove(clientSession.getId());
-      if (backendSession != null && backendSession.isOpen()) {
-        try {
-          backendSession.close(status);
-        } catch (IOException e) {
-          log.error("Error closing backend session", e);
-        }
-      }
+      release(clientSession, status);
     }
 
     @Override
     public void handleTransportError(WebSocketSession session, Throwable exception) {
       log.error("Client WebSocket transport error", exception);
-      WebSocketSession backendSession = backendSessions.remove(session.getId());
-      if (backendSession != null && backendSession.isOpen()) {
-        try {
-          backendSession.close(CloseStatus.SERVER_ERROR);
-        } catch (IOException e) {
-          log.error("Error closing backend session after transport error", e);
-        }
+      release(session, CloseStatus.SERVER_ERROR);
+    }
+
+    Collection<ProxiedSession> getSessions() {
+      return proxiedSessions;
+    }
+
+    /**
+     * Drain edilen server'a bağlı kalan session'ları kapat
+     */
+    void closeSessions(Server server) {
+      proxiedSessions.stream()
+          .filter(proxied -> proxied.getServer() == server)
+          .forEach(proxied -> {
+            WebSocketSession clientSession = proxied.getClientSession();
+            log.info("Closing WebSocket {} of drained upstream {}", clientSession.getId(),
+                server.getUrl());
+            try {
+              clientSession.close(CloseStatus.GOING_AWAY.withReason("Upstream drained"));
+            } catch (IOException e) {
+              log.error("Error closing client session of drained upstream", e);
+            }
+          });
+    }
+
+    /**
+     * Session'ın server connection'ını bırak ve backend'i kapat
+     */
+    private void release(WebSocketSession clientSession, CloseStatus status) {
+      ProxiedSession proxied = ProxiedSession.of(clientSession);
+      if (proxied != null) {
+        proxiedSessions.remove(proxied);
+        proxied.release();
+        proxied.close(status);
       }
     }
 
+    /**
+     * Kaynak session'dan okunan frame'leri hedefe gönderen relay
+     */
+    private RelaySession relay(WebSocketSession destination, WebSocketSession source,
+        RelayStats stats) {
+      return new RelaySession(destination, source, stats, relayExecutor,
+          relayConfig.getSendBufferSizeKb() * 1024L, relayConfig.getSendTimeLimitMs(),
+          relayConfig.getOverflowPolicy());
+    }
+
+    /**
+     * Upstream URL'inin WebSocket endpoint'i (http → ws, https → wss, path + /ws)
+     */
+    private static URI backendUri(Server server) throws URISyntaxException {
+      URI base = new URI(server.getUrl());
+      String scheme = "https".equalsIgnoreCase(base.getScheme()) ? "wss" : "ws";
+      String path = base.getPath() == null ? "" : base.getPath();
+      if (path.endsWith("/")) {
+        path = path.substring(0, path.length() - 1);
+      }
+      return new URI(scheme, base.getRawAuthority(), path + "/ws", null, null);
+    }
+
+    private static StandardWebSocketClient backendClient(ExecutorService connectExecutor) {
+      StandardWebSocketClient client = new StandardWebSocketClient();
+      client.setTaskExecutor(new TaskExecutorAdapter(connectExecutor));
+      // Bağlanamayan handshake connect thread'ini timeout'tan uzun tutmasın
+      client.setUserProperties(Map.of(Constants.IO_TIMEOUT_MS_PROPERTY,
+          String.valueOf(TimeUnit.SECONDS.toMillis(CONNECTION_TIMEOUT_SECONDS))));
+      return client;
+    }
+
+    private static ExecutorService daemonPool(String threadPrefix) {
+      return Executors.newCachedThreadPool(daemonThreads(threadPrefix));
+    }
+
+    private static ThreadFactory daemonThreads(String threadPrefix) {
+      AtomicInteger threadCount = new AtomicInteger();
+      return runnable -> {
+        Thread thread = new Thread(runnable, threadPrefix + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      };
+    }
+
     private String extractServiceName(WebSocketSession session) {
       String path = session.getUri().getPath();
       String[] parts = path.split("/");
@@ -194,5 +311,74 @@ public class WebSocketConfig implements WebSocketConfigurer {
           ? session.getRemoteAddress().getAddress().getHostAddress()
           : "unknown";
     }
+
+    /**
+     * Backend session'ının handler'ı: relay'leri kurar ve frame'leri client'a giden relay'e
+     * aktarır
+     */
+    private class BackendHandler extends AbstractWebSocketHandler {
+
+      private final ProxiedSession proxied;
+      private volatile RelaySession toClient;
+
+      BackendHandler(ProxiedSession proxied) {
+        this.proxied = proxied;
+      }
+
+      @Override
+      public void afterConnectionEstablished(WebSocketSession backendSession) {
+        WebSocketSession clientSession = proxied.getClientSession();
+        ServiceStats stats = proxied.getStats();
+        toClient = relay(clientSession, backendSession, stats.getDirection(Direction.DOWNSTREAM));
+        proxied.connected(relay(backendSession, clientSession,
+            stats.getDirection(Direction.UPSTREAM)));
+        log.info("WebSocket proxying: {} -> {}", clientSession.getId(),
+            proxied.getServer().getUrl());
+      }
+
+      @Override
+      protected void handleTextMessage(WebSocketSession session, TextMessage message)
+          throws Exception {
+        toClient.sendMessage(message);
+      }
+
+      @Override
+      protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message)
+          throws Exception {
+        toClient.sendMessage(message);
+      }
+
+      @Override
+      public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        log.info("Backend WebSocket closed: {}", status);
+        closeClient(status);
+      }
+
+      @Override
+      public void handleTransportError(WebSocketSession session, Throwable exception) {
+        log.error("Backend WebSocket transport error", exception);
+        closeClient(CloseStatus.SERVER_ERROR);
+      }
+
+      /**
+       * Client'ı relay üzerinden kapat; yavaş client'ın close frame'i backend okuyan thread'ini
+       * bekletmez
+       */
+      private void closeClient(CloseStatus status) {
+        RelaySession relay = toClient;
+        if (relay != null) {
+          relay.close(status);
+          return;
+        }
+        WebSocketSession clientSession = proxied.getClientSession();
+        try {
+          if (clientSession.isOpen()) {
+            clientSession.close(status);
+          }
+        } catch (IOException e) {
+          log.error("Error closing client session", e);
+        }
+      }
+    }
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,162 @@
+package com.degerli.loadbalancer.websocket;
+
+import com.degerli.loadbalancer.config.LoadBalancerProperties.WebSocketRelayConfig;
+import com.degerli.loadbalancer.deployment.TrafficSplitter;
+import com.degerli.loadbalancer.deployment.TrafficSplitter.Environment;
+import com.degerli.loadbalancer.model.Server;
+import com.degerli.loadbalancer.registry.RegisteredService;
+import com.degerli.loadbalancer.registry.ServiceRegistry;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.CloseStatus;
+
+/**
+ * Scale-out sonrası uzun ömürlü WebSocket'lerin dengelenmesi
+ * <p>
+ * Açık socket'ler açıldıkları anda var olan serverlarda kalır; yeni eklenen server boş
+ * beklerken eskiler yüklü kalır. Her aralıkta servisin seçime açık serverları deployment
+ * environment'ı ve zone'una göre gruplanır (client'lar yeniden bağlanınca aynı gruba döner),
+ * grubun socket'leri ağırlıklara göre paylaştırılır. Socket sayısı payını eşik yüzdesinden
+ * fazla aşan serverda socket'lerin küçük bir oranı (en az 1, paydan fazlası kadar) 1012
+ * (Service Restart) ile kapatılır; client'lar yeniden bağlanır ve upgrade seçimi onları az
+ * socket'li serverlara gönderir. Kapatmalar aralık başına sınırlı olduğu için dengelenme
+ * kademelidir.
+ */
+@Slf4j
+class WebSocketRebalancer {
+
+  private static final CloseStatus REBALANCE =
+      CloseStatus.SERVICE_RESTARTED.withReason("Rebalancing connections");
+
+  private final ServiceRegistry serviceRegistry;
+  private final TrafficSplitter trafficSplitter;
+  private final WebSocketRelayConfig config;
+  private final Supplier<Collection<ProxiedSession>> sessions;
+
+  private final ScheduledExecutorService scheduler =
+      Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "websocket-rebalancer");
+        thread.setDaemon(true);
+        return thread;
+      });
+
+  WebSocketRebalancer(ServiceRegistry serviceRegistry, TrafficSplitter trafficSplitter,
+      WebSocketRelayConfig config, Supplier<Collection<ProxiedSession>> sessions) {
+    this.serviceRegistry = serviceRegistry;
+    this.trafficSplitter = trafficSplitter;
+    this.config = config;
+    this.sessions = sessions;
+  }
+
+  void start() {
+    scheduler.scheduleWithFixedDelay(this::rebalanceSafely, config.getRebalanceIntervalMs(),
+        config.getRebalanceIntervalMs(), TimeUnit.MILLISECONDS);
+    log.info("WebSocket rebalancing enabled (interval {}ms, threshold {}%, close {}%)",
+        config.getRebalanceIntervalMs(), config.getRebalanceThresholdPercent(),
+        config.getRebalanceClosePercent());
+  }
+
+  private void rebalanceSafely() {
+    try {
+      rebalance();
+    } catch (RuntimeException e) {
+      log.error("WebSocket rebalancing failed", e);
+    }
+  }
+
+  private void rebalance() {
+    Map<Server, List<ProxiedSession>> byServer = new IdentityHashMap<>();
+    for (ProxiedSession proxied : sessions.get()) {
+      byServer.computeIfAbsent(proxied.getServer(), server -> new ArrayList<>()).add(proxied);
+    }
+    if (byServer.isEmpty()) {
+      return;
+    }
+
+    for (String serviceName : serviceRegistry.getServiceNames()) {
+      RegisteredService service = serviceRegistry.getService(serviceName);
+      if (service == null) {
+        continue;
+      }
+      groups(serviceName, service.getSnapshot().selectable())
+          .forEach(group -> rebalance(serviceName, group, byServer));
+    }
+  }
+
+  /**
+   * Aynı environment ve zone'daki sağlıklı serverlar (yeniden bağlanan client'ın
+   * seçilebileceği küme)
+   */
+  private List<List<Server>> groups(String serviceName, List<Server> servers) {
+    Map<GroupKey, List<Server>> groups = new LinkedHashMap<>();
+    for (Server server : servers) {
+      if (server.isHealthy()) {
+        GroupKey key = new GroupKey(trafficSplitter.environmentOf(serviceName, server.getUrl()),
+            server.getZone());
+        groups.computeIfAbsent(key, k -> new ArrayList<>()).add(server);
+      }
+    }
+    return new ArrayList<>(groups.values());
+  }
+
+  private void rebalance(String serviceName, List<Server> group,
+      Map<Server, List<ProxiedSession>> byServer) {
+    if (group.size() < 2) {
+      return;
+    }
+    long totalSockets = 0;
+    long totalWeight = 0;
+    for (Server server : group) {
+      totalSockets += server.getWebSocketConnections().get();
+      totalWeight += Math.max(1, server.getWeight());
+    }
+    if (totalSockets == 0) {
+      return;
+    }
+
+    double threshold = 1 + config.getRebalanceThresholdPercent() / 100.0;
+    for (Server server : group) {
+      int sockets = server.getWebSocketConnections().get();
+      double share = (double) totalSockets * Math.max(1, server.getWeight()) / totalWeight;
+      if (sockets <= share * threshold) {
+        continue;
+      }
+
+      int excess = (int) Math.floor(sockets - share);
+      int toClose = Math.min(excess,
+          Math.max(1, (int) Math.ceil(sockets * config.getRebalanceClosePercent() / 100.0)));
+      List<ProxiedSession> open = byServer.getOrDefault(server, List.of());
+      toClose = Math.min(toClose, open.size());
+      if (toClose <= 0) {
+        continue;
+      }
+
+      log.info("Rebalancing {} of {} WebSockets on {} (service '{}', share {})", toClose,
+          sockets, server.getUrl(), serviceName, Math.round(share));
+      // En eski session'lar kapatılır; yakın zamanda (ör. önceki turda) yeniden bağlanan
+      // client'lar tekrar kesilmez
+      open.sort(Comparator.comparingLong(ProxiedSession::getOpenedNanos));
+      for (ProxiedSession proxied : open.subList(0, toClose)) {
+        try {
+          proxied.getStats().onRebalanced();
+          proxied.closeClient(REBALANCE);
+        } catch (IOException e) {
+          log.debug("Error closing WebSocket for rebalancing: {}", e.getMessage());
+        }
+      }
+    }
+  }
+
+  private record GroupKey(Environment environment, String zone) {}
+}
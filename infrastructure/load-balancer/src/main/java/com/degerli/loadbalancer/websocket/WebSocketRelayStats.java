@@ -0,0 +1,166 @@
+package com.degerli.loadbalancer.websocket;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Servis başına WebSocket relay istatistikleri
+ * <p>
+ * Her yön (client → backend: UPSTREAM, backend → client: DOWNSTREAM) ayrı sayılır: iletilen
+ * mesaj ve byte'lar, yavaş tüketici yüzünden düşürülen mesajlar, okuması duraklatılan ve
+ * kapatılan session'lar ve gönderim buffer'ının gördüğü en yüksek doluluk (high-water mark).
+ * Rebalance için kapatılan session'lar servis başına sayılır.
+ */
+@Component
+public class WebSocketRelayStats {
+
+  private final Map<String, ServiceStats> serviceStats = new ConcurrentHashMap<>();
+
+  /**
+   * Servisin istatistiklerini al veya oluştur
+   */
+  public ServiceStats getServiceStats(String serviceName) {
+    return serviceStats.computeIfAbsent(serviceName, name -> new ServiceStats());
+  }
+
+  /**
+   * Servis başına istatistikler (admin endpoint'i)
+   */
+  public Map<String, WebSocketInfo> getStats() {
+    Map<String, WebSocketInfo> stats = new LinkedHashMap<>();
+    serviceStats.forEach((serviceName, service) -> {
+      Map<String, DirectionInfo> directions = new LinkedHashMap<>();
+      service.directions.forEach((direction, relay) -> directions.put(
+          direction.name().toLowerCase(Locale.ROOT),
+          new DirectionInfo(relay.getMessages(), relay.getBytes(), relay.getDropped(),
+              relay.getPauses(), relay.getCloses(), relay.getHighWaterBytes())));
+      stats.put(serviceName, new WebSocketInfo(service.getSessions(), service.getRebalanced(),
+          directions));
+    });
+    return stats;
+  }
+
+  public enum Direction {
+    UPSTREAM,
+    DOWNSTREAM
+  }
+
+  /**
+   * Tek bir servisin session sayısı ve yön başına sayaçları
+   */
+  public static class ServiceStats {
+    private final AtomicInteger sessions = new AtomicInteger();
+    private final LongAdder rebalanced = new LongAdder();
+    private final Map<Direction, RelayStats> directions = new EnumMap<>(Direction.class);
+
+    ServiceStats() {
+      for (Direction direction : Direction.values()) {
+        directions.put(direction, new RelayStats());
+      }
+    }
+
+    public RelayStats getDirection(Direction direction) {
+      return directions.get(direction);
+    }
+
+    public int getSessions() {
+      return sessions.get();
+    }
+
+    void onSessionOpened() {
+      sessions.incrementAndGet();
+    }
+
+    void onSessionClosed() {
+      sessions.decrementAndGet();
+    }
+
+    void onRebalanced() {
+      rebalanced.increment();
+    }
+
+    public long getRebalanced() {
+      return rebalanced.sum();
+    }
+  }
+
+  /**
+   * Bir relay yönünün sayaçları
+   */
+  public static class RelayStats {
+    private final LongAdder messages = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder pauses = new LongAdder();
+    private final LongAdder closes = new LongAdder();
+    private final AtomicLong highWaterBytes = new AtomicLong();
+
+    void onSent(int size) {
+      messages.increment();
+      bytes.add(size);
+    }
+
+    void onBuffered(long bufferedBytes) {
+      highWaterBytes.accumulateAndGet(bufferedBytes, Math::max);
+    }
+
+    void onDropped() {
+      dropped.increment();
+    }
+
+    void onPaused() {
+      pauses.increment();
+    }
+
+    void onClosed() {
+      closes.increment();
+    }
+
+    public long getMessages() {
+      return messages.sum();
+    }
+
+    public long getBytes() {
+      return bytes.sum();
+    }
+
+    public long getDropped() {
+      return dropped.sum();
+    }
+
+    public long getPauses() {
+      return pauses.sum();
+    }
+
+    public long getCloses() {
+      return closes.sum();
+    }
+
+    public long getHighWaterBytes() {
+      return highWaterBytes.get();
+    }
+  }
+
+  /**
+   * @param rebalanced Dengesizlik yüzünden 1012 ile kapatılan session'lar
+   */
+  public record WebSocketInfo(int sessions, long rebalanced,
+      Map<String, DirectionInfo> directions) {}
+
+  /**
+   * @param dropped        Buffer dolduğu için düşürülen mesajlar (DROP)
+   * @param pauses         Buffer dolduğu için kaynağın okuması duraklatıldı (PAUSE)
+   * @param closes         Buffer dolduğu veya gönderim süre limitini aştığı için kapatılan
+   *                       session'lar
+   * @param highWaterBytes Gönderim buffer'ının gördüğü en yüksek doluluk
+   */
+  public record DirectionInfo(long messages, long bytes, long dropped, long pauses,
+      long closes, long highWaterBytes) {}
+}
@@ -0,0 +1,172 @@
+package com.degerli.loadbalancer.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.degerli.loadbalancer.routing.Route;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+/**
+ * Unit tests for W-TinyLFU admission and slab page accounting of the response cache
+ */
+class ResponseCacheTest {
+
+  private static final int PAGE_SIZE = 1024;
+
+  // 100 pages: 1 for the window, 99 for the main area
+  private final ResponseCache cache = new ResponseCache(100 * PAGE_SIZE, PAGE_SIZE,
+      16 * PAGE_SIZE, 64 * 1024);
+  private final Route route = route();
+
+  @Test
+  void shouldKeepFrequentEntryAndRejectOneHitWonders() {
+    // Given: a hot entry looked up repeatedly once it reached the main area
+    store("/api/hot", 1000);
+    store("/api/warmup", 1000);
+    for (int i = 0; i < 5; i++) {
+      assertThat(lookup("/api/hot")).isNotNull();
+    }
+
+    // When: a scan of keys each requested only once
+    for (int i = 0; i < 500; i++) {
+      String uri = "/api/scan/" + i;
+      assertThat(lookup(uri)).isNull();
+      store(uri, 1000);
+    }
+
+    // Then
+    assertThat(lookup("/api/hot")).isNotNull();
+    assertThat(cache.getStats().admissionsRejected()).isPositive();
+    assertThat(cache.getEntryCount()).isLessThanOrEqualTo(100);
+  }
+
+  @Test
+  void shouldNotEvictAnythingWhenCandidateIsRejected() {
+    // Given: 1 window page and 9 full main pages, the second oldest entry is popular
+    ResponseCache small = new ResponseCache(10 * PAGE_SIZE, PAGE_SIZE, 16 * PAGE_SIZE,
+        64 * 1024);
+    for (int i = 0; i < 10; i++) {
+      String uri = "/api/item/" + i;
+      for (int lookups = 0; i == 1 && lookups < 5; lookups++) {
+        small.lookup(route, new MockHttpServletRequest("GET", uri));
+      }
+      store(small, uri, 1000);
+    }
+    small.lookup(route, new MockHttpServletRequest("GET", "/api/large"));
+    small.lookup(route, new MockHttpServletRequest("GET", "/api/large"));
+
+    // When: a 2-page entry beats the oldest entry but not the popular one
+    store(small, "/api/large", PAGE_SIZE + 1);
+
+    // Then
+    assertThat(small.getStats().admissionsRejected()).isEqualTo(1);
+    assertThat(small.getEvictions()).isZero();
+    assertThat(small.getEntryCount()).isEqualTo(10);
+    assertThat(small.lookup(route, new MockHttpServletRequest("GET", "/api/item/0")))
+        .isNotNull();
+  }
+
+  @Test
+  void shouldAccountUsedBytesInWholePages() {
+    // When
+    store("/api/small", 10);
+    store("/api/exact", PAGE_SIZE);
+    store("/api/large", 2 * PAGE_SIZE + 1);
+
+    // Then: 1 + 1 + 3 pages
+    assertThat(cache.getUsedBytes()).isEqualTo(5 * PAGE_SIZE);
+    assertThat(cache.getStats().reservedOffHeapBytes()).isEqualTo(16 * PAGE_SIZE);
+    ResponseEntity<byte[]> hit = lookup("/api/large");
+    assertThat(hit.getBody()).hasSize(2 * PAGE_SIZE + 1).containsOnly((byte) 7);
+
+    // When
+    assertThat(cache.purge("/api/large")).isEqualTo(1);
+
+    // Then
+    assertThat(cache.getUsedBytes()).isEqualTo(2 * PAGE_SIZE);
+  }
+
+  @Test
+  void shouldHitVaryingResponseAfterItIsStoredAgain() {
+    // Given: the same Vary'd response stored twice (e.g. refreshed after expiry)
+    storeVarying("gzip");
+    storeVarying("gzip");
+
+    // When
+    ResponseEntity<byte[]> hit = cache.lookup(route, varyingRequest("gzip"));
+
+    // Then
+    assertThat(hit).isNotNull();
+    assertThat(cache.lookup(route, varyingRequest("br"))).isNull();
+    assertThat(cache.getEntryCount()).isEqualTo(1);
+    assertThat(cache.getUsedBytes()).isEqualTo(PAGE_SIZE);
+  }
+
+  @Test
+  void shouldReuseFreedPagesAcrossSlabs() {
+    // Given: slabs of 2 pages, at most 3 pages in total
+    SlabAllocator allocator = new SlabAllocator(3 * PAGE_SIZE, PAGE_SIZE, 2 * PAGE_SIZE);
+    byte[] body = new byte[2 * PAGE_SIZE + 10];
+    for (int i = 0; i < body.length; i++) {
+      body[i] = (byte) i;
+    }
+
+    // When
+    int[] pages = allocator.store(body);
+
+    // Then
+    assertThat(pages).hasSize(3);
+    assertThat(allocator.read(pages, body.length)).isEqualTo(body);
+    assertThat(allocator.getUsedBytes()).isEqualTo(3 * PAGE_SIZE);
+    assertThat(allocator.store(new byte[1])).isNull();
+
+    // When
+    allocator.free(pages);
+
+    // Then
+    assertThat(allocator.getUsedBytes()).isZero();
+    assertThat(allocator.getReservedBytes()).isEqualTo(3 * PAGE_SIZE);
+    assertThat(allocator.store(new byte[3 * PAGE_SIZE])).hasSize(3);
+  }
+
+  private void store(String uri, int length) {
+    store(cache, uri, length);
+  }
+
+  private void store(ResponseCache target, String uri, int length) {
+    byte[] body = new byte[length];
+    Arrays.fill(body, (byte) 7);
+    target.store(route, new MockHttpServletRequest("GET", uri), ResponseEntity.ok()
+        .header(HttpHeaders.CACHE_CONTROL, "max-age=60")
+        .body(body));
+  }
+
+  private void storeVarying(String acceptEncoding) {
+    cache.store(route, varyingRequest(acceptEncoding), ResponseEntity.ok()
+        .header(HttpHeaders.CACHE_CONTROL, "max-age=60")
+        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+        .body(new byte[100]));
+  }
+
+  private static MockHttpServletRequest varyingRequest(String acceptEncoding) {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/varying");
+    request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+    return request;
+  }
+
+  private ResponseEntity<byte[]> lookup(String uri) {
+    return cache.lookup(route, new MockHttpServletRequest("GET", uri));
+  }
+
+  private static Route route() {
+    Route route = mock(Route.class);
+    when(route.getId()).thenReturn("catalog");
+    when(route.getServiceName()).thenReturn("catalog");
+    return route;
+  }
+}
@@ -0,0 +1,104 @@
+package com.degerli.loadbalancer.coalescing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+/**
+ * Unit tests for which requests and responses may be shared between clients
+ */
+class RequestCoalescerTest {
+
+  private static final String SESSION_COOKIE = "LB_SESSION";
+
+  private final RequestCoalescer coalescer = new RequestCoalescer(Set.of("GET", "HEAD"),
+      List.of("Accept", "Accept-Encoding"), SESSION_COOKIE, 1000);
+
+  @Test
+  void shouldNotCoalesceRequestsCarryingApplicationCookies() {
+    // Given
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/profile");
+    request.addHeader(HttpHeaders.COOKIE, SESSION_COOKIE + "=abc; JSESSIONID=user-1");
+
+    // Then
+    assertThat(coalescer.isCoalescable(request)).isFalse();
+  }
+
+  @Test
+  void shouldCoalesceRequestsCarryingOnlyTheSessionCookie() {
+    // Given
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/quote");
+    request.addHeader(HttpHeaders.COOKIE, SESSION_COOKIE + "=abc");
+
+    // Then
+    assertThat(coalescer.isCoalescable(request)).isTrue();
+  }
+
+  @Test
+  void shouldNotCoalesceAuthorizedOrNonIdempotentRequests() {
+    // Given
+    MockHttpServletRequest authorized = new MockHttpServletRequest("GET", "/api/profile");
+    authorized.addHeader(HttpHeaders.AUTHORIZATION, "Bearer token");
+    MockHttpServletRequest post = new MockHttpServletRequest("POST", "/api/profile");
+
+    // Then
+    assertThat(coalescer.isCoalescable(authorized)).isFalse();
+    assertThat(coalescer.isCoalescable(post)).isFalse();
+  }
+
+  @Test
+  void shouldNotShareResponsesSettingApplicationCookies() {
+    // Given
+    ResponseEntity<byte[]> response = ResponseEntity.ok()
+        .header(HttpHeaders.SET_COOKIE, SESSION_COOKIE + "=abc; Path=/")
+        .header(HttpHeaders.SET_COOKIE, "JSESSIONID=user-1; Path=/; HttpOnly")
+        .body(new byte[0]);
+
+    // Then
+    assertThat(coalescer.isShareable(response)).isFalse();
+  }
+
+  @Test
+  void shouldShareResponsesSettingOnlyTheSessionCookie() {
+    // Given
+    ResponseEntity<byte[]> response = ResponseEntity.ok()
+        .header(HttpHeaders.SET_COOKIE, SESSION_COOKIE + "=abc; Path=/")
+        .header(HttpHeaders.VARY, "Accept-Encoding")
+        .body(new byte[0]);
+
+    // Then
+    assertThat(coalescer.isShareable(response)).isTrue();
+  }
+
+  @Test
+  void shouldNotShareResponsesThatAreNotCacheableByOthers() {
+    assertThat(coalescer.isShareable(withCacheControl("private, max-age=60"))).isFalse();
+    assertThat(coalescer.isShareable(withCacheControl("no-store"))).isFalse();
+    assertThat(coalescer.isShareable(withCacheControl("no-cache=\"Set-Cookie\""))).isFalse();
+    assertThat(coalescer.isShareable(withCacheControl("public, max-age=60"))).isTrue();
+  }
+
+  @Test
+  void shouldNotShareResponsesVaryingOnHeadersOutsideTheKey() {
+    // Given
+    ResponseEntity<byte[]> byCookie = ResponseEntity.ok()
+        .header(HttpHeaders.VARY, "Accept, Cookie")
+        .body(new byte[0]);
+    ResponseEntity<byte[]> byAnything = ResponseEntity.ok()
+        .header(HttpHeaders.VARY, "*")
+        .body(new byte[0]);
+
+    // Then
+    assertThat(coalescer.isShareable(byCookie)).isFalse();
+    assertThat(coalescer.isShareable(byAnything)).isFalse();
+  }
+
+  private static ResponseEntity<byte[]> withCacheControl(String cacheControl) {
+    return ResponseEntity.ok().header(HttpHeaders.CACHE_CONTROL, cacheControl).body(new byte[0]);
+  }
+}
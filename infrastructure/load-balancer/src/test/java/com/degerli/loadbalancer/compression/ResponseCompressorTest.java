@@ -0,0 +1,100 @@
+package com.degerli.loadbalancer.compression;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+/**
+ * Unit tests for gzip response compression and compressed variant reuse
+ */
+class ResponseCompressorTest {
+
+  private final ResponseCompressor compressor = new ResponseCompressor(6,
+      new ResponseCompressor.Rules(16, List.of(MediaType.APPLICATION_JSON)), Map.of(),
+      1024 * 1024);
+
+  private final Locale defaultLocale = Locale.getDefault();
+
+  @AfterEach
+  void restoreLocale() {
+    Locale.setDefault(defaultLocale);
+  }
+
+  @Test
+  void shouldNotShareVariantsBetweenServices() throws IOException {
+    // Given: two services answer the same path with the same ETag
+    compressor.compress("catalog", request(), response("\"v1\"", "catalog".repeat(10)));
+
+    // When
+    ResponseEntity<?> compressed = compressor.compress("search", request(),
+        response("\"v1\"", "search".repeat(10)));
+
+    // Then
+    assertThat(gunzip(compressed)).isEqualTo("search".repeat(10));
+    assertThat(compressor.getStats().get("search").variantHits()).isZero();
+  }
+
+  @Test
+  void shouldReuseVariantWithinService() throws IOException {
+    // Given
+    compressor.compress("catalog", request(), response("\"v1\"", "catalog".repeat(10)));
+
+    // When
+    ResponseEntity<?> compressed = compressor.compress("catalog", request(),
+        response("\"v1\"", "catalog".repeat(10)));
+
+    // Then
+    assertThat(gunzip(compressed)).isEqualTo("catalog".repeat(10));
+    assertThat(compressor.getStats().get("catalog").variantHits()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldMatchUpperCaseGzipUnderTurkishLocale() throws IOException {
+    // Given: "GZIP" lower-cased with the Turkish locale would be "gzıp"
+    Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/items");
+    request.addHeader(HttpHeaders.ACCEPT_ENCODING, "GZIP");
+
+    // When
+    ResponseEntity<?> compressed = compressor.compress("catalog", request,
+        response(null, "catalog".repeat(10)));
+
+    // Then
+    assertThat(gunzip(compressed)).isEqualTo("catalog".repeat(10));
+  }
+
+  private static MockHttpServletRequest request() {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/items");
+    request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+    return request;
+  }
+
+  private static ResponseEntity<byte[]> response(String etag, String body) {
+    ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON);
+    if (etag != null) {
+      builder.eTag(etag);
+    }
+    return builder.body(body.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String gunzip(ResponseEntity<?> response) throws IOException {
+    assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+    try (GZIPInputStream in = new GZIPInputStream(
+        new ByteArrayInputStream((byte[]) response.getBody()))) {
+      return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+}
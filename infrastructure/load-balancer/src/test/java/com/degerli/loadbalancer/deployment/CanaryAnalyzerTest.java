@@ -0,0 +1,89 @@
+package com.degerli.loadbalancer.deployment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.degerli.loadbalancer.config.LoadBalancerProperties;
+import com.degerli.loadbalancer.deployment.CanaryAnalyzer.Analysis;
+import com.degerli.loadbalancer.deployment.CanaryAnalyzer.EnvironmentMetrics;
+import com.degerli.loadbalancer.deployment.CanaryAnalyzer.Verdict;
+import com.degerli.loadbalancer.deployment.TrafficSplitter.Environment;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for canary analysis against the baseline environment
+ */
+class CanaryAnalyzerTest {
+
+  private final CanaryAnalyzer analyzer = new CanaryAnalyzer(new LoadBalancerProperties());
+
+  @Test
+  void shouldFailSignificantErrorRateIncrease() {
+    // Given: 0.5% vs 3% errors over enough requests
+    EnvironmentMetrics baseline = metrics(Environment.BLUE, 10_000, 50, 100);
+    EnvironmentMetrics canary = metrics(Environment.GREEN, 1_000, 30, 100);
+
+    // When
+    Analysis analysis = analyzer.analyze(baseline, canary);
+
+    // Then
+    assertThat(analysis.verdict()).isEqualTo(Verdict.FAIL);
+    assertThat(analysis.reasons()).singleElement().asString().startsWith("Error rate");
+  }
+
+  @Test
+  void shouldPassErrorRateIncreaseThatIsNotSignificant() {
+    // Given: the same rates as above but 1 vs 3 errors, z ≈ 1.78 stays below 2.33
+    EnvironmentMetrics baseline = metrics(Environment.BLUE, 200, 1, 100);
+    EnvironmentMetrics canary = metrics(Environment.GREEN, 100, 3, 100);
+
+    // When
+    Analysis analysis = analyzer.analyze(baseline, canary);
+
+    // Then
+    assertThat(analysis.verdict()).isEqualTo(Verdict.PASS);
+  }
+
+  @Test
+  void shouldPassSignificantIncreaseWithinMargin() {
+    // Given: 0.5% vs 0.6% is significant at this volume but only 0.1 points worse
+    EnvironmentMetrics baseline = metrics(Environment.BLUE, 1_000_000, 5_000, 100);
+    EnvironmentMetrics canary = metrics(Environment.GREEN, 1_000_000, 6_000, 100);
+
+    // When
+    Analysis analysis = analyzer.analyze(baseline, canary);
+
+    // Then
+    assertThat(analysis.verdict()).isEqualTo(Verdict.PASS);
+  }
+
+  @Test
+  void shouldBeInconclusiveBelowMinimumRequests() {
+    // Given
+    EnvironmentMetrics baseline = metrics(Environment.BLUE, 10_000, 0, 100);
+    EnvironmentMetrics canary = metrics(Environment.GREEN, 99, 99, 1_000);
+
+    // When
+    Analysis analysis = analyzer.analyze(baseline, canary);
+
+    // Then
+    assertThat(analysis.verdict()).isEqualTo(Verdict.INCONCLUSIVE);
+  }
+
+  @Test
+  void shouldFailP99AboveRatioAndTolerance() {
+    // Given: the limit is 100ms * 1.2 + 10ms = 130ms
+    EnvironmentMetrics baseline = metrics(Environment.BLUE, 1_000, 0, 100);
+
+    // Then
+    assertThat(analyzer.analyze(baseline, metrics(Environment.GREEN, 1_000, 0, 130))
+        .verdict()).isEqualTo(Verdict.PASS);
+    assertThat(analyzer.analyze(baseline, metrics(Environment.GREEN, 1_000, 0, 140))
+        .verdict()).isEqualTo(Verdict.FAIL);
+  }
+
+  private static EnvironmentMetrics metrics(Environment environment, long requests,
+      long errors, double p99Millis) {
+    return new EnvironmentMetrics(environment, 2, requests, errors,
+        (double) errors / requests, p99Millis, 10, null);
+  }
+}
@@ -0,0 +1,110 @@
+package com.degerli.loadbalancer.deployment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.degerli.loadbalancer.config.LoadBalancerProperties;
+import com.degerli.loadbalancer.deployment.TrafficSplitter.Environment;
+import com.degerli.loadbalancer.model.Server;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+/**
+ * Unit tests for blue-green traffic splitting
+ */
+class TrafficSplitterTest {
+
+  private static final String SERVICE = "orders";
+
+  private final TrafficSplitter splitter = new TrafficSplitter(new LoadBalancerProperties());
+
+  private final Server blue = new Server("http://blue:8080", 1, 100);
+  private final Server green = new Server("http://green:8080", 1, 100);
+
+  @Test
+  void shouldAssignExactShareInAnyThousandConsecutiveRequests() {
+    for (int permille : new int[] {1, 37, 100, 999}) {
+      // Given
+      splitter.split(SERVICE, List.of(blue.getUrl()), List.of(green.getUrl()), permille);
+      Environment[] assigned = new Environment[2000];
+      for (int i = 0; i < assigned.length; i++) {
+        assigned[i] = splitter.assign(SERVICE, new MockHttpServletRequest());
+      }
+
+      // Then: every window of 1000, wherever it starts, holds exactly the share
+      for (int offset : new int[] {0, 250, 500, 1000}) {
+        int greens = 0;
+        for (int i = offset; i < offset + 1000; i++) {
+          if (assigned[i] == Environment.GREEN) {
+            greens++;
+          }
+        }
+        assertThat(greens).as("permille %d, offset %d", permille, offset).isEqualTo(permille);
+      }
+    }
+  }
+
+  @Test
+  void shouldSpreadGreenRequestsEvenly() {
+    // Given
+    splitter.split(SERVICE, List.of(blue.getUrl()), List.of(green.getUrl()), 100);
+
+    // When
+    int maxGap = 0;
+    int lastGreen = -1;
+    for (int i = 0; i < 3000; i++) {
+      if (splitter.assign(SERVICE, new MockHttpServletRequest()) == Environment.GREEN) {
+        if (lastGreen >= 0) {
+          maxGap = Math.max(maxGap, i - lastGreen);
+        }
+        lastGreen = i;
+      }
+    }
+
+    // Then: 10% green never comes in bursts or long droughts
+    assertThat(maxGap).isLessThanOrEqualTo(13);
+  }
+
+  @Test
+  void shouldKeepKeyedUserOnGreenAsShareGrows() {
+    // Given: a user that lands on green at some share
+    splitter.split(SERVICE, List.of(blue.getUrl()), List.of(green.getUrl()), 0);
+    String user = null;
+    int share = 0;
+    for (int permille = 1; user == null; permille++) {
+      splitter.setGreenPermille(SERVICE, permille);
+      for (int id = 0; id < 1000 && user == null; id++) {
+        if (splitter.assign(SERVICE, keyed("user-" + id)) == Environment.GREEN) {
+          user = "user-" + id;
+          share = permille;
+        }
+      }
+    }
+
+    // Then
+    for (int permille = share; permille <= 1000; permille += 50) {
+      splitter.setGreenPermille(SERVICE, permille);
+      assertThat(splitter.assign(SERVICE, keyed(user))).isEqualTo(Environment.GREEN);
+    }
+  }
+
+  @Test
+  void shouldFallBackToAllServersWhenEnvironmentIsEmpty() {
+    // Given: green has no registered server yet
+    splitter.split(SERVICE, List.of(blue.getUrl()), List.of(), 1000);
+    List<Server> servers = List.of(blue);
+
+    // When
+    List<Server> candidates = splitter.candidates(SERVICE, servers, Environment.GREEN);
+
+    // Then
+    assertThat(candidates).containsExactly(blue);
+    assertThat(splitter.candidates(SERVICE, servers, Environment.BLUE)).containsExactly(blue);
+  }
+
+  private static MockHttpServletRequest keyed(String userId) {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.addHeader("X-User-Id", userId);
+    return request;
+  }
+}
@@ -0,0 +1,191 @@
+package com.degerli.loadbalancer.discovery;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.degerli.loadbalancer.config.LoadBalancerProperties.Algorithm;
+import com.degerli.loadbalancer.config.LoadBalancerProperties.ServerConfig;
+import com.degerli.loadbalancer.config.LoadBalancerProperties.ServiceConfig;
+import com.degerli.loadbalancer.registry.RegisteredService;
+import com.degerli.loadbalancer.registry.ServiceRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Unit tests for file based service discovery
+ */
+class FileDiscoveryTest {
+
+  @TempDir
+  Path directory;
+
+  private final ServiceRegistry registry = mock(ServiceRegistry.class);
+
+  @Test
+  void shouldParseServiceSettingsAndUpstreams() throws IOException {
+    // Given
+    FileDiscovery discovery = discovery("services.yml", """
+        services:
+          catalog:
+            algorithm: LEAST_CONNECTIONS
+            timeout-ms: 1500
+            upstreams:
+              - url: http://catalog-1:8080
+                weight: 3
+                max-connections: 50
+                zone: eu-1a
+              - url: http://catalog-2:8080
+        """);
+
+    // When
+    discovery.reload();
+
+    // Then
+    ArgumentCaptor<ServiceConfig> config = ArgumentCaptor.forClass(ServiceConfig.class);
+    verify(registry).addService(eq("catalog"), config.capture());
+    assertThat(config.getValue().getAlgorithm()).isEqualTo(Algorithm.LEAST_CONNECTIONS);
+    assertThat(config.getValue().getTimeoutMs()).isEqualTo(1500);
+    List<ServerConfig> upstreams = config.getValue().getUpstreams();
+    assertThat(upstreams).extracting(ServerConfig::getUrl)
+        .containsExactly("http://catalog-1:8080", "http://catalog-2:8080");
+    assertThat(upstreams.get(0).getWeight()).isEqualTo(3);
+    assertThat(upstreams.get(0).getMaxConnections()).isEqualTo(50);
+    assertThat(upstreams.get(0).getZone()).isEqualTo("eu-1a");
+  }
+
+  @Test
+  void shouldParseJsonFile() throws IOException {
+    // Given
+    FileDiscovery discovery = discovery("services.json", """
+        {"services": {"catalog": {"upstreams": [{"url": "http://catalog-1:8080"}]}}}
+        """);
+
+    // When
+    discovery.reload();
+
+    // Then
+    ArgumentCaptor<ServiceConfig> config = ArgumentCaptor.forClass(ServiceConfig.class);
+    verify(registry).addService(eq("catalog"), config.capture());
+    assertThat(config.getValue().getUpstreams()).extracting(ServerConfig::getUrl)
+        .containsExactly("http://catalog-1:8080");
+  }
+
+  @Test
+  void shouldUpdateKnownServicesAndRemoveServicesDroppedFromFile() throws IOException {
+    // Given: both services were added from the file
+    FileDiscovery discovery = discovery("services.yml", """
+        services:
+          catalog:
+            upstreams:
+              - url: http://catalog-1:8080
+          search:
+            upstreams:
+              - url: http://search-1:8080
+        """);
+    discovery.reload();
+    when(registry.getService("catalog")).thenReturn(mock(RegisteredService.class));
+
+    // When
+    write("services.yml", """
+        services:
+          catalog:
+            upstreams:
+              - url: http://catalog-2:8080
+        """);
+    discovery.reload();
+
+    // Then
+    ArgumentCaptor<List<ServerConfig>> upstreams = upstreamsCaptor();
+    verify(registry).updateUpstreams(eq("catalog"), upstreams.capture());
+    assertThat(upstreams.getValue()).extracting(ServerConfig::getUrl)
+        .containsExactly("http://catalog-2:8080");
+    verify(registry).removeService("search");
+    assertThat(discovery.getStatus().get("ownedServices")).isEqualTo(List.of("catalog"));
+  }
+
+  @Test
+  void shouldRetryFailedServicesWithoutFileChange() throws IOException {
+    // Given: the first apply of the service fails
+    FileDiscovery discovery = discovery("services.yml", """
+        services:
+          catalog:
+            upstreams:
+              - url: http://catalog-1:8080
+        """);
+    when(registry.addService(eq("catalog"), any()))
+        .thenThrow(new IllegalArgumentException("Invalid upstream"))
+        .thenReturn(null);
+    discovery.reload();
+    assertThat(discovery.getStatus().get("lastError")).isEqualTo("catalog: Invalid upstream");
+
+    // When: the same content is read again
+    discovery.reload();
+    discovery.reload();
+
+    // Then: retried once, then skipped as unchanged
+    verify(registry, times(2)).addService(eq("catalog"), any());
+    assertThat(discovery.getStatus().get("lastError")).isNull();
+    assertThat(discovery.getStatus().get("ownedServices")).isEqualTo(List.of("catalog"));
+  }
+
+  @Test
+  void shouldKeepCurrentStateWhenFileIsInvalid() throws IOException {
+    // Given
+    FileDiscovery discovery = discovery("services.yml", """
+        services:
+          catalog:
+            upstreams:
+              - url: http://catalog-1:8080
+                color: blue
+        """);
+
+    // When
+    discovery.reload();
+
+    // Then
+    verify(registry, never()).addService(any(), any());
+    verify(registry, never()).updateUpstreams(any(), anyList());
+    assertThat(discovery.getStatus().get("failures")).isEqualTo(1L);
+    assertThat((String) discovery.getStatus().get("lastError"))
+        .contains("Unknown upstream property: color");
+  }
+
+  @Test
+  void shouldReportMissingFile() {
+    // Given
+    FileDiscovery discovery = new FileDiscovery(registry, directory.resolve("missing.yml"), 0);
+
+    // When
+    discovery.reload();
+
+    // Then
+    verifyNoInteractions(registry);
+    assertThat((String) discovery.getStatus().get("lastError")).startsWith("File not found");
+  }
+
+  private FileDiscovery discovery(String fileName, String content) throws IOException {
+    return new FileDiscovery(registry, write(fileName, content), 0);
+  }
+
+  private Path write(String fileName, String content) throws IOException {
+    return Files.writeString(directory.resolve(fileName), content);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static ArgumentCaptor<List<ServerConfig>> upstreamsCaptor() {
+    return ArgumentCaptor.forClass(List.class);
+  }
+}
@@ -0,0 +1,47 @@
+package com.degerli.loadbalancer.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for response statistics and latency percentiles
+ */
+class ResponseStatsTest {
+
+  private final ResponseStats stats = new ResponseStats();
+
+  @Test
+  void shouldCountLowerBoundSamplesInLatencyButNotInRequests() {
+    // Given: 98 fast responses, one slow one, and one primary cancelled after losing a hedge
+    for (int i = 0; i < 98; i++) {
+      stats.record(TimeUnit.MILLISECONDS.toNanos(10), false);
+    }
+    stats.record(TimeUnit.MILLISECONDS.toNanos(900), false);
+    stats.recordLatency(TimeUnit.MILLISECONDS.toNanos(800));
+
+    // When
+    ResponseStats.Snapshot snapshot = stats.snapshot();
+
+    // Then
+    assertThat(snapshot.requests()).isEqualTo(99);
+    assertThat(snapshot.errorRate()).isZero();
+    assertThat(snapshot.percentileMillis(0.99)).isCloseTo(800, within(800 * 0.07));
+  }
+
+  @Test
+  void shouldIgnoreUnknownLatency() {
+    // Given
+    stats.record(-1, true);
+
+    // When
+    ResponseStats.Snapshot snapshot = stats.snapshot();
+
+    // Then
+    assertThat(snapshot.requests()).isEqualTo(1);
+    assertThat(snapshot.errorRate()).isEqualTo(1.0);
+    assertThat(snapshot.percentileMillis(0.99)).isZero();
+  }
+}
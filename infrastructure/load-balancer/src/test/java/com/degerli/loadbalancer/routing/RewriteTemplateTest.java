@@ -0,0 +1,57 @@
+package com.degerli.loadbalancer.routing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for compiled backend path templates
+ */
+class RewriteTemplateTest {
+
+  private static final String BASE_URL = "http://orders-1:8080";
+
+  @Test
+  void shouldForwardPathAsIs() {
+    // Given
+    RewriteTemplate template = RewriteTemplate.compile("{path}");
+
+    // Then
+    assertThat(template.expand(BASE_URL, "/orders/42", 7, null))
+        .isEqualTo("http://orders-1:8080/orders/42");
+  }
+
+  @Test
+  void shouldReplacePrefixWithLiteralAndSuffix() {
+    // Given
+    RewriteTemplate template = RewriteTemplate.compile("/api/v2{suffix}");
+
+    // Then
+    assertThat(template.expand(BASE_URL, "/orders/42/items", 7, "page=2&size=10"))
+        .isEqualTo("http://orders-1:8080/api/v2/42/items?page=2&size=10");
+    assertThat(template.expand(BASE_URL, "/orders", 7, null))
+        .isEqualTo("http://orders-1:8080/api/v2");
+  }
+
+  @Test
+  void shouldKeepLiteralsAroundVariables() {
+    // Given
+    RewriteTemplate template = RewriteTemplate.compile("/v1{suffix}/details");
+
+    // Then
+    assertThat(template.expand(BASE_URL, "/orders/42", 7, null))
+        .isEqualTo("http://orders-1:8080/v1/42/details");
+    assertThat(template).hasToString("/v1{suffix}/details");
+  }
+
+  @Test
+  void shouldRejectInvalidTemplates() {
+    assertThatThrownBy(() -> RewriteTemplate.compile("/v1/{id}"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("Unknown variable 'id'");
+    assertThatThrownBy(() -> RewriteTemplate.compile("/v1/{path"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("Unclosed variable");
+  }
+}
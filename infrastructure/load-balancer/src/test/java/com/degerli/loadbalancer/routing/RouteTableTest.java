@@ -0,0 +1,161 @@
+package com.degerli.loadbalancer.routing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.degerli.loadbalancer.concurrency.ConcurrencyLimiter;
+import com.degerli.loadbalancer.config.LoadBalancerProperties;
+import com.degerli.loadbalancer.config.LoadBalancerProperties.RouteConfig;
+import com.degerli.loadbalancer.metrics.LoadBalancerMetrics;
+import com.degerli.loadbalancer.model.Server;
+import com.degerli.loadbalancer.registry.RegisteredService;
+import com.degerli.loadbalancer.registry.ServiceRegistry;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+/**
+ * Unit tests for route table matching and precedence
+ */
+class RouteTableTest {
+
+  private final LoadBalancerProperties properties = new LoadBalancerProperties();
+  private final ServiceRegistry serviceRegistry = mock(ServiceRegistry.class);
+  private final RouteTable routeTable = new RouteTable(properties, serviceRegistry,
+      mock(LoadBalancerMetrics.class), mock(ConcurrencyLimiter.class));
+
+  private final Server server = new Server("http://backend:8080", 1, 100);
+
+  @BeforeEach
+  void registerServices() {
+    for (String name : List.of("orders", "admin", "beta")) {
+      RegisteredService service = mock(RegisteredService.class);
+      when(service.getName()).thenReturn(name);
+      when(serviceRegistry.getService(name)).thenReturn(service);
+    }
+    when(serviceRegistry.getServiceNames()).thenReturn(List.of("orders", "admin"));
+  }
+
+  @Test
+  void shouldPreferLongestPrefix() {
+    // Given
+    route("orders-api", "orders", "/api", "/v1{suffix}");
+    route("orders-admin", "admin", "/api/admin", "{suffix}");
+    routeTable.compile();
+
+    // Then
+    assertThat(resolve("/api/admin/users").getId()).isEqualTo("orders-admin");
+    assertThat(resolve("/api/orders").getId()).isEqualTo("orders-api");
+    assertThat(resolve("/api").getId()).isEqualTo("orders-api");
+  }
+
+  @Test
+  void shouldOnlyMatchPrefixAtSegmentBoundary() {
+    // Given
+    route("orders-api", "orders", "/api", "{path}");
+    routeTable.compile();
+
+    // Then: /apix is not under /api, and there is no catch-all route
+    assertThat(resolve("/api/orders").getId()).isEqualTo("orders-api");
+    assertThat(resolve("/apix/orders")).isNull();
+  }
+
+  @Test
+  void shouldMatchRootPrefixAsCatchAll() {
+    // Given
+    route("fallback", "orders", "/", "{path}");
+    routeTable.compile();
+
+    // Then
+    assertThat(resolve("/anything/else").getId()).isEqualTo("fallback");
+  }
+
+  @Test
+  void shouldTryRoutesOfSamePrefixInDefinitionOrder() {
+    // Given: a header-gated route before the unconditional one
+    RouteConfig beta = route("beta", "beta", "/api", "{path}");
+    beta.setHeaders(Map.of("X-Beta", "*"));
+    route("orders-api", "orders", "/api", "{path}");
+    routeTable.compile();
+
+    MockHttpServletRequest betaRequest = request("/api/orders");
+    betaRequest.addHeader("X-Beta", "yes");
+
+    // Then
+    assertThat(routeTable.resolve(betaRequest).getId()).isEqualTo("beta");
+    assertThat(resolve("/api/orders").getId()).isEqualTo("orders-api");
+  }
+
+  @Test
+  void shouldMatchWildcardAndExactHosts() {
+    // Given
+    route("tenant", "admin", "/api", "{path}").setHosts(List.of("*.tenants.example.com"));
+    route("shop", "beta", "/api", "{path}").setHosts(List.of("shop.example.com"));
+    routeTable.compile();
+
+    // Then
+    assertThat(resolve("acme.tenants.example.com", "/api/x").getId()).isEqualTo("tenant");
+    assertThat(resolve("SHOP.example.com", "/api/x").getId()).isEqualTo("shop");
+    assertThat(resolve("tenants.example.com", "/api/x")).isNull();
+  }
+
+  @Test
+  void shouldEvaluateExplicitRoutesBeforeServiceDefaults() {
+    // Given
+    route("orders-override", "admin", "/orders", "/internal{suffix}");
+    routeTable.compile();
+
+    // Then: the explicit route shadows the default /orders route, actuator is still longer
+    assertThat(resolve("/orders/42").getId()).isEqualTo("orders-override");
+    assertThat(resolve("/orders/actuator/health").getId())
+        .isEqualTo("orders:/orders/actuator");
+    assertThat(resolve("/admin/users").getId()).isEqualTo("admin:/admin");
+  }
+
+  @Test
+  void shouldBuildBackendUrlWithRewrite() {
+    // Given
+    route("orders-api", "orders", "/api/orders", "/v1/orders{suffix}");
+    routeTable.compile();
+    MockHttpServletRequest request = request("/api/orders/42");
+    request.setQueryString("expand=items");
+
+    // When
+    Route route = routeTable.resolve(request);
+
+    // Then
+    assertThat(route.buildBackendUrl(server, request))
+        .isEqualTo("http://backend:8080/v1/orders/42?expand=items");
+    assertThat(resolve("/orders/actuator/health").buildBackendUrl(server,
+        request("/orders/actuator/health"))).isEqualTo("http://backend:8080/actuator/health");
+    assertThat(resolve("/orders/42").buildBackendUrl(server, request("/orders/42")))
+        .isEqualTo("http://backend:8080/orders/42");
+  }
+
+  private RouteConfig route(String id, String service, String pathPrefix, String rewrite) {
+    RouteConfig config = new RouteConfig();
+    config.setId(id);
+    config.setService(service);
+    config.setPathPrefix(pathPrefix);
+    config.setRewrite(rewrite);
+    properties.getRoutes().add(config);
+    return config;
+  }
+
+  private Route resolve(String path) {
+    return routeTable.resolve(request(path));
+  }
+
+  private Route resolve(String host, String path) {
+    MockHttpServletRequest request = request(path);
+    request.setServerName(host);
+    return routeTable.resolve(request);
+  }
+
+  private static MockHttpServletRequest request(String path) {
+    return new MockHttpServletRequest("GET", path);
+  }
+}
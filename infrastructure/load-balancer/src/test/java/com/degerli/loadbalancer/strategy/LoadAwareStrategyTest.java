@@ -0,0 +1,81 @@
+package com.degerli.loadbalancer.strategy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.degerli.loadbalancer.model.LoadReport;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for load-aware weighting
+ */
+class LoadAwareStrategyTest {
+
+  private static final long NOW = TimeUnit.HOURS.toNanos(1);
+
+  @Test
+  void shouldRankSilentInstanceBelowBusyLiveInstance() {
+    // Given: idle at its last report 10s ago (e.g. stuck in GC), the other busy but reporting
+    LoadReport silent = report(0.1, 1, 0, TimeUnit.SECONDS.toNanos(10));
+    LoadReport busy = report(0.7, 4, 0, 0);
+
+    // Then
+    assertThat(LoadAwareStrategy.headroom(silent, NOW))
+        .isLessThan(LoadAwareStrategy.headroom(busy, NOW));
+  }
+
+  @Test
+  void shouldKeepFreshReportAtFullWeight() {
+    // Given
+    LoadReport fresh = report(0.25, 1, 0, TimeUnit.MILLISECONDS.toNanos(500));
+
+    // Then
+    assertThat(LoadAwareStrategy.headroom(fresh, NOW)).isEqualTo(0.75);
+  }
+
+  @Test
+  void shouldDivideHeadroomByQueueDepth() {
+    // Given
+    LoadReport queued = report(0.2, 8, 3, 0);
+
+    // Then
+    assertThat(LoadAwareStrategy.headroom(queued, NOW)).isEqualTo(0.2);
+  }
+
+  @Test
+  void shouldTreatNeverReportedServerAsNeutral() {
+    assertThat(LoadAwareStrategy.headroom(null, NOW)).isEqualTo(0.5);
+  }
+
+  @Test
+  void shouldWeighByLargerOfLocalAndReportedInFlight() {
+    // Given
+    LoadReport report = report(0.5, 3, 0, 0);
+
+    // Then: reported in-flight 3 dominates 1 local request, 9 local requests dominate it
+    assertThat(LoadAwareStrategy.weightFactor(report, 1, NOW)).isEqualTo(0.5 / 4);
+    assertThat(LoadAwareStrategy.weightFactor(report, 9, NOW)).isEqualTo(0.5 / 10);
+  }
+
+  @Test
+  void shouldIgnoreStaleReportedInFlight() {
+    // Given
+    LoadReport stale = report(0.5, 50, 0, TimeUnit.SECONDS.toNanos(4));
+
+    // Then: headroom halves at twice the stale age, in-flight falls back to the local count
+    assertThat(LoadAwareStrategy.weightFactor(stale, 1, NOW)).isEqualTo(0.25 / 2);
+  }
+
+  @Test
+  void shouldNeverDropBelowMinimumHeadroom() {
+    // Given
+    LoadReport saturated = report(1.0, 200, 100, TimeUnit.MINUTES.toNanos(5));
+
+    // Then
+    assertThat(LoadAwareStrategy.headroom(saturated, NOW)).isEqualTo(0.05);
+  }
+
+  private static LoadReport report(double cpu, int inFlight, int queueDepth, long ageNanos) {
+    return new LoadReport(cpu, inFlight, queueDepth, -1, NOW - ageNanos);
+  }
+}
@@ -0,0 +1,101 @@
+package com.degerli.loadbalancer.strategy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.degerli.loadbalancer.model.Server;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for weighted round robin selection shared between server tiers
+ */
+class WeightedRoundRobinStrategyTest {
+
+  private final WeightedRoundRobinStrategy strategy = new WeightedRoundRobinStrategy();
+
+  private final Server blue = new Server("http://blue:8080", 3, 100);
+  private final Server blueCanary = new Server("http://blue-canary:8080", 1, 100);
+  private final Server green = new Server("http://green:8080", 1, 100);
+
+  @Test
+  void shouldOnlySelectFromTheGivenTier() {
+    // Given: the blue tier's weighted list is cached first
+    List<Server> blueTier = List.of(blue, blueCanary);
+    List<Server> greenTier = List.of(green);
+    strategy.selectServer(blueTier, "10.0.0.1");
+
+    // Then: selections for the green tier never index into the blue tier's list
+    for (int i = 0; i < 10; i++) {
+      assertThat(strategy.selectServer(greenTier, "10.0.0.1")).isSameAs(green);
+      assertThat(strategy.selectServer(greenTier, "10.0.0.1", List.of(blue))).isSameAs(green);
+      assertThat(strategy.selectServer(blueTier, "10.0.0.1")).isIn(blue, blueCanary);
+    }
+  }
+
+  @Test
+  void shouldDistributeByWeight() {
+    // Given
+    List<Server> servers = List.of(blue, blueCanary);
+    int blueSelections = 0;
+
+    // When
+    for (int i = 0; i < 400; i++) {
+      if (strategy.selectServer(servers, "10.0.0.1") == blue) {
+        blueSelections++;
+      }
+    }
+
+    // Then
+    assertThat(blueSelections).isEqualTo(300);
+  }
+
+  @Test
+  void shouldFollowWeightChangedInPlace() {
+    // Given: an upstream reload updates the weight on the same server object
+    List<Server> servers = List.of(blue, blueCanary);
+    strategy.selectServer(servers, "10.0.0.1");
+    blueCanary.setWeight(3);
+
+    // When: the registry publishes an equal list (server equality is URL based)
+    List<Server> reloaded = List.of(blue, blueCanary);
+    int blueSelections = 0;
+    for (int i = 0; i < 600; i++) {
+      if (strategy.selectServer(reloaded, "10.0.0.1") == blue) {
+        blueSelections++;
+      }
+    }
+
+    // Then
+    assertThat(blueSelections).isEqualTo(300);
+  }
+
+  @Test
+  void shouldSelectWithinTierWhenTiersAlternateConcurrently() throws InterruptedException {
+    // Given
+    List<Server> blueTier = List.of(blue, blueCanary);
+    List<Server> greenTier = List.of(green);
+    Throwable[] failure = new Throwable[1];
+
+    // When
+    Thread[] threads = new Thread[4];
+    for (int t = 0; t < threads.length; t++) {
+      List<Server> tier = t % 2 == 0 ? blueTier : greenTier;
+      threads[t] = new Thread(() -> {
+        try {
+          for (int i = 0; i < 20_000; i++) {
+            assertThat(tier).contains(strategy.selectServer(tier, "10.0.0.1"));
+          }
+        } catch (Throwable e) {
+          failure[0] = e;
+        }
+      });
+      threads[t].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    // Then
+    assertThat(failure[0]).isNull();
+  }
+}
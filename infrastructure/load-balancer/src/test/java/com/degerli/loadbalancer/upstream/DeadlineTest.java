@@ -0,0 +1,60 @@
+package com.degerli.loadbalancer.upstream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for deadline arithmetic
+ */
+class DeadlineTest {
+
+  private static final long BUDGET_MS = 5_000;
+
+  @Test
+  void shouldKeepRouteBudgetWhenClientDeadlineIsFarInTheFuture() {
+    // Given
+    Deadline route = Deadline.after(System.nanoTime(), BUDGET_MS);
+
+    // When
+    Deadline resolved = route.earliest(Long.MAX_VALUE);
+
+    // Then
+    assertThat(resolved).isSameAs(route);
+    assertThat(resolved.isExpired()).isFalse();
+  }
+
+  @Test
+  void shouldUseEarlierClientDeadline() {
+    // Given
+    Deadline route = Deadline.after(System.nanoTime(), BUDGET_MS);
+
+    // When
+    Deadline resolved = route.earliest(System.currentTimeMillis() + 1_000);
+
+    // Then
+    assertThat(resolved.remainingMillis()).isBetween(900L, 1_000L);
+  }
+
+  @Test
+  void shouldExpireImmediatelyForPastOrNegativeClientDeadline() {
+    // Given
+    Deadline route = Deadline.after(System.nanoTime(), BUDGET_MS);
+
+    // Then
+    assertThat(route.earliest(System.currentTimeMillis() - 1_000).isExpired()).isTrue();
+    assertThat(route.earliest(Long.MIN_VALUE).isExpired()).isTrue();
+  }
+
+  @Test
+  void shouldSplitRemainingBudgetAcrossAttempts() {
+    // Given
+    Deadline route = Deadline.after(System.nanoTime(), BUDGET_MS);
+
+    // When
+    long perAttemptMs = route.attemptTimeoutNanos(2) / 1_000_000;
+
+    // Then
+    assertThat(perAttemptMs).isBetween(2_400L, 2_500L);
+  }
+}
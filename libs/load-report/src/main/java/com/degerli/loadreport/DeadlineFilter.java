@@ -0,0 +1,54 @@
+package com.degerli.loadreport;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Load balancer'ın gönderdiği X-Request-Deadline header'ını (epoch ms) uygular
+ * <p>
+ * Süresi dolmuş request'ler için client zaten vazgeçmiştir; işlenmeden 504 ile reddedilir.
+ * Uzun işlerden önce {@link #remainingMillis} ile kalan süreye bakılabilir. Filter zincirinin
+ * en başına kaydedilmelidir (örn. FilterRegistrationBean, order HIGHEST_PRECEDENCE).
+ */
+public class DeadlineFilter extends HttpFilter {
+
+  public static final String DEADLINE_HEADER = "X-Request-Deadline";
+
+  private static final Logger log = LoggerFactory.getLogger(DeadlineFilter.class);
+
+  @Override
+  protected void doFilter(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+
+    if (remainingMillis(request) <= 0) {
+      log.warn("Skipping expired request: {} {} (deadline: {})", request.getMethod(),
+          request.getRequestURI(), request.getHeader(DEADLINE_HEADER));
+      response.setStatus(HttpServletResponse.SC_GATEWAY_TIMEOUT);
+      response.getWriter().write("Request deadline exceeded");
+      return;
+    }
+
+    filterChain.doFilter(request, response);
+  }
+
+  /**
+   * Deadline'a kalan süre (header yoksa veya geçersizse Long.MAX_VALUE)
+   */
+  public static long remainingMillis(HttpServletRequest request) {
+    String deadline = request.getHeader(DEADLINE_HEADER);
+    if (deadline == null) {
+      return Long.MAX_VALUE;
+    }
+    try {
+      return Long.parseLong(deadline.trim()) - System.currentTimeMillis();
+    } catch (NumberFormatException e) {
+      return Long.MAX_VALUE;
+    }
+  }
+}
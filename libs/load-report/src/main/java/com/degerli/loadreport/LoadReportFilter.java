@@ -0,0 +1,169 @@
+package com.degerli.loadreport;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+/**
+ * Her cevaba ORCA tarzı yük raporu ekler
+ * <p>
+ * Örnek: {@code endpoint-load-metrics: TEXT cpu_utilization=0.42, named_metrics.inflight=3,
+ * named_metrics.queue_depth=0, named_metrics.cost=1.5}
+ * <p>
+ * Load balancer header'ı okuyup server seçiminde kullanır ve client'a iletmeden siler. Rapor
+ * cevap commit edilmeden hemen önce (body yazılmaya başlanınca) oluşturulur; böylece
+ * uygulamanın request için bildirdiği maliyet ({@link #reportCost}) de rapora girer.
+ * <p>
+ * Kuyruk derinliği, worker havuzunda thread bekleyen işlerin sayısıdır; filter'ın kendisi
+ * worker thread'inde çalıştığı için bunu ölçemez, kaynağı servis verir
+ * ({@link #setQueueDepth}, örn. {@link TomcatWorkerQueue}). Kaynak yoksa raporlanmaz.
+ * <p>
+ * CPU kullanımı request başına değil, en fazla 100ms'de bir örneklenir. Sadece Servlet API'ye
+ * bağımlıdır; Spring Boot servislerinde bean olarak tanımlanması yeterlidir.
+ */
+public class LoadReportFilter extends HttpFilter {
+
+  public static final String HEADER = "endpoint-load-metrics";
+
+  private static final String COST_ATTRIBUTE = LoadReportFilter.class.getName() + ".cost";
+  private static final long CPU_SAMPLE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+  private final AtomicInteger inFlight = new AtomicInteger(0);
+  private volatile IntSupplier queueDepth;
+
+  private final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+  private final AtomicBoolean sampling = new AtomicBoolean(false);
+  private volatile double cpuUtilization;
+  private volatile long cpuSampledAt = System.nanoTime() - CPU_SAMPLE_INTERVAL_NANOS;
+
+  /**
+   * Worker kuyruğunda bekleyen iş sayısının kaynağı (null → kuyruk derinliği raporlanmaz)
+   */
+  public void setQueueDepth(IntSupplier queueDepth) {
+    this.queueDepth = queueDepth;
+  }
+
+  /**
+   * Request'in uygulamaya özel maliyetini bildir (örn. işlenen kayıt sayısı)
+   * Cevap commit edilmeden önce çağrılmalıdır.
+   */
+  public static void reportCost(HttpServletRequest request, double cost) {
+    request.setAttribute(COST_ATTRIBUTE, cost);
+  }
+
+  @Override
+  protected void doFilter(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+
+    inFlight.incrementAndGet();
+    ReportingResponse reportingResponse = new ReportingResponse(request, response);
+    try {
+      filterChain.doFilter(request, reportingResponse);
+    } finally {
+      // Body'siz cevaplar (örn. 204) için
+      reportingResponse.addReport();
+      inFlight.decrementAndGet();
+    }
+  }
+
+  private String buildReport(HttpServletRequest request) {
+    StringBuilder report = new StringBuilder(96)
+        .append("TEXT cpu_utilization=").append(Math.round(sampleCpu() * 100) / 100.0)
+        .append(", named_metrics.inflight=").append(inFlight.get());
+    IntSupplier queue = queueDepth;
+    if (queue != null) {
+      report.append(", named_metrics.queue_depth=").append(Math.max(0, queue.getAsInt()));
+    }
+    if (request.getAttribute(COST_ATTRIBUTE) instanceof Double cost) {
+      report.append(", named_metrics.cost=").append(cost);
+    }
+    return report.toString();
+  }
+
+  private double sampleCpu() {
+    long now = System.nanoTime();
+    if (now - cpuSampledAt >= CPU_SAMPLE_INTERVAL_NANOS && sampling.compareAndSet(false, true)) {
+      try {
+        double load = os instanceof com.sun.management.OperatingSystemMXBean sunOs
+            ? sunOs.getProcessCpuLoad()
+            : os.getSystemLoadAverage() / os.getAvailableProcessors();
+        if (load >= 0) {
+          cpuUtilization = Math.min(1.0, load);
+        }
+        cpuSampledAt = now;
+      } finally {
+        sampling.set(false);
+      }
+    }
+    return cpuUtilization;
+  }
+
+  /**
+   * Header'ı body yazılmaya başlamadan (cevap commit edilmeden) ekleyen wrapper
+   */
+  private class ReportingResponse extends HttpServletResponseWrapper {
+
+    private final HttpServletRequest request;
+    private boolean reported;
+
+    ReportingResponse(HttpServletRequest request, HttpServletResponse response) {
+      super(response);
+      this.request = request;
+    }
+
+    void addReport() {
+      if (!reported && !isCommitted()) {
+        reported = true;
+        setHeader(HEADER, buildReport(request));
+      }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+      addReport();
+      return super.getOutputStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+      addReport();
+      return super.getWriter();
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+      addReport();
+      super.flushBuffer();
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+      addReport();
+      super.sendError(sc);
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+      addReport();
+      super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+      addReport();
+      super.sendRedirect(location);
+    }
+  }
+}
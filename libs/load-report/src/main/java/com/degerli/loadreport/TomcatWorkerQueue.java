@@ -0,0 +1,38 @@
+package com.degerli.loadreport;
+
+import java.util.concurrent.Executor;
+import java.util.function.IntSupplier;
+import org.apache.catalina.core.StandardThreadExecutor;
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+
+/**
+ * Tomcat worker havuzunun kuyruk derinliği (yük raporunun queue_depth'i için)
+ * <p>
+ * Tomcat'in TaskQueue'su thread'ler max'a ulaşmadan iş biriktirmez; kuyruktaki her iş boş
+ * worker bekleyen bir socket'tir. Spring Boot'ta connector customizer'ında bağlanır:
+ * <pre>{@code
+ * connector -> loadReportFilter.setQueueDepth(
+ *     TomcatWorkerQueue.depthOf(connector.getProtocolHandler().getExecutor()))
+ * }</pre>
+ */
+public final class TomcatWorkerQueue {
+
+  private TomcatWorkerQueue() {
+  }
+
+  /**
+   * Havuzun kuyruk derinliği kaynağı (havuz tanınmıyorsa null)
+   */
+  public static IntSupplier depthOf(Executor executor) {
+    if (executor instanceof StandardThreadExecutor standard) {
+      return standard::getQueueSize;
+    }
+    if (executor instanceof ThreadPoolExecutor tomcatPool) {
+      return () -> tomcatPool.getQueue().size();
+    }
+    if (executor instanceof java.util.concurrent.ThreadPoolExecutor jdkPool) {
+      return () -> jdkPool.getQueue().size();
+    }
+    return null;
+  }
+}
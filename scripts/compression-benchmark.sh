@@ -0,0 +1,68 @@
+#!/bin/bash
+# Response compression benchmark
+#
+# dummy-service /api/v1/data farklı payload boyutlarıyla (count parametresi) önce sıkıştırmasız,
+# sonra Accept-Encoding: gzip ile istenir. Her boyut için ortalama transfer boyutu, kazanılan
+# bant genişliği ve load balancer'ın sıkıştırmaya harcadığı CPU süresi raporlanır.
+
+LB=${LB:-"http://localhost:8080"}
+REQUESTS=${1:-200}
+COUNTS=${COUNTS:-"5 50 500 5000"}
+
+URL="$LB/dummy-service/api/v1/data"
+
+if ! command -v jq &> /dev/null; then
+    echo "⚠️  jq not found"
+    echo "   Install: sudo apt-get install jq"
+    exit 1
+fi
+
+cpu_millis() {
+    curl -s "$LB/admin/compression/status" | jq '."dummy-service".cpuMillis // 0'
+}
+
+# Ortalama indirilen byte ve toplam süre (ms)
+measure() {
+    local count=$1
+    local encoding=$2
+    local total_bytes=0
+    local start end
+
+    start=$(date +%s%N)
+    for _ in $(seq 1 "$REQUESTS"); do
+        local bytes
+        bytes=$(curl -s -o /dev/null -w "%{size_download}" -H "Accept-Encoding: $encoding" \
+            "$URL?count=$count")
+        total_bytes=$((total_bytes + bytes))
+    done
+    end=$(date +%s%N)
+
+    echo "$((total_bytes / REQUESTS)) $(((end - start) / 1000000))"
+}
+
+echo "🗜️  Compression Benchmark"
+echo "   URL: $URL ($REQUESTS requests per size)"
+echo ""
+printf "%8s %12s %12s %8s %14s %14s\n" \
+    "items" "identity(B)" "gzip(B)" "saved%" "lb-cpu/req(us)" "latency Δ(ms)"
+
+for count in $COUNTS; do
+    read -r identity_bytes identity_ms <<< "$(measure "$count" identity)"
+
+    cpu_before=$(cpu_millis)
+    read -r gzip_bytes gzip_ms <<< "$(measure "$count" gzip)"
+    cpu_after=$(cpu_millis)
+
+    saved=$(awk "BEGIN { if ($identity_bytes > 0) printf \"%.1f\", \
+        100 * (1 - $gzip_bytes / $identity_bytes); else print 0 }")
+    cpu_per_request=$(awk "BEGIN { printf \"%.0f\", 1000 * ($cpu_after - $cpu_before) / $REQUESTS }")
+    latency_delta=$(awk "BEGIN { printf \"%.2f\", ($gzip_ms - $identity_ms) / $REQUESTS }")
+
+    printf "%8s %12s %12s %8s %14s %14s\n" \
+        "$count" "$identity_bytes" "$gzip_bytes" "$saved" "$cpu_per_request" "$latency_delta"
+done
+
+echo ""
+echo "📊 Compression counters:"
+curl -s "$LB/admin/compression/status"
+echo ""
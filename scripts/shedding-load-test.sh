@@ -0,0 +1,59 @@
+#!/bin/bash
+# Priority-aware load shedding testi
+#
+# CRITICAL sınıf (kisakes redirect) sabit yükle ölçülürken arka planda NORMAL/SHEDDABLE
+# yük önce 1x, sonra 2x uygulanır. Shedding çalışıyorsa critical p99 iki turda da
+# yaklaşık aynı kalmalıdır.
+
+LB=${LB:-"http://localhost:8080"}
+SHORT_CODE=${1:-"abc123"}
+REQUESTS=${2:-2000}
+CRITICAL_CONCURRENCY=${3:-10}
+BACKGROUND_CONCURRENCY=${4:-50}
+
+CRITICAL_URL="$LB/kisakes/kisakes/$SHORT_CODE"
+NORMAL_URL="$LB/dummy-service/api/v1/slow"
+SHEDDABLE_URL="$LB/kisakes/actuator/health"
+
+if ! command -v ab &> /dev/null; then
+    echo "⚠️  Apache Bench (ab) not found"
+    echo "   Install: sudo apt-get install apache2-utils"
+    exit 1
+fi
+
+p99() {
+    grep -E '^ +99%' | awk '{print $2}'
+}
+
+run_round() {
+    local multiplier=$1
+    local concurrency=$((BACKGROUND_CONCURRENCY * multiplier))
+
+    echo "▶ Round ${multiplier}x: background concurrency $concurrency (normal + sheddable)"
+
+    ab -q -n $((REQUESTS * multiplier)) -c $concurrency "$NORMAL_URL" > /dev/null 2>&1 &
+    local normal_pid=$!
+    ab -q -n $((REQUESTS * multiplier)) -c $concurrency "$SHEDDABLE_URL" > /dev/null 2>&1 &
+    local sheddable_pid=$!
+
+    sleep 2
+    local critical_p99
+    critical_p99=$(ab -q -n $REQUESTS -c $CRITICAL_CONCURRENCY "$CRITICAL_URL" 2>/dev/null | p99)
+
+    wait $normal_pid $sheddable_pid
+    echo "   critical p99: ${critical_p99} ms"
+}
+
+echo "🚦 Load Shedding Test"
+echo "   Critical:  $CRITICAL_URL (c=$CRITICAL_CONCURRENCY)"
+echo "   Normal:    $NORMAL_URL"
+echo "   Sheddable: $SHEDDABLE_URL"
+echo ""
+
+run_round 1
+run_round 2
+
+echo ""
+echo "📊 Class counters:"
+curl -s "$LB/admin/load-shedding/status"
+echo ""
@@ -1,18 +1,34 @@
 package com.degerli.dummyservice;
 
+import com.degerli.loadreport.DeadlineFilter;
+import com.degerli.loadreport.LoadReportFilter;
+import com.degerli.loadreport.TomcatWorkerQueue;
+import jakarta.servlet.http.HttpServletRequest;
 import java.net.InetAddress;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.web.embedded.tomcat.TomcatConnectorCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.server.ResponseStatusException;
 
 @SpringBootApplication
 @RestController
 @RequestMapping("/dummy-service")
 public class DummyServiceApplication {
 
+  private static final long SLOW_WORK_MILLIS = 2000;
+  private static final int MAX_DATA_ITEMS = 10000;
   private static final AtomicLong requestCounter = new AtomicLong(0);
   private static String instanceId;
   private static final List<String> quotes = Arrays.asList(
@@ -39,13 +55,43 @@ public class DummyServiceApplication {
     return createResponse("Hello from Dummy Service!");
   }
 
-  @GetMapping("/api/v1/info")
-  public Map<String, Object> getInfo() {
+  // Response body'sinden ETag üretir, If-None-Match eşleşirse 304 döner
+  @Bean
+  public ShallowEtagHeaderFilter shallowEtagHeaderFilter() {
+    return new ShallowEtagHeaderFilter();
+  }
+
+  // X-Request-Deadline'ı geçmiş request'leri işlemeden 504 ile reddeder (zincirin başında)
+  @Bean
+  public FilterRegistrationBean<DeadlineFilter> deadlineFilter() {
+    FilterRegistrationBean<DeadlineFilter> registration =
+        new FilterRegistrationBean<>(new DeadlineFilter());
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+    return registration;
+  }
+
+  // Cevaplara CPU / in-flight / kuyruk yük raporu ekler (load balancer LOAD_AWARE için)
+  @Bean
+  public LoadReportFilter loadReportFilter() {
+    return new LoadReportFilter();
+  }
+
+  // Rapordaki kuyruk derinliği: Tomcat worker kuyruğunda thread bekleyen işler
+  @Bean
+  public TomcatConnectorCustomizer loadReportQueueDepth(LoadReportFilter loadReportFilter) {
+    return connector -> loadReportFilter.setQueueDepth(
+        TomcatWorkerQueue.depthOf(connector.getProtocolHandler().getExecutor()));
+  }
+
+  @GetMapping("/api/v1/info")  // ← Statik bilgi: paylaşılan cache'lerde 30sn tutulabilir
+  public ResponseEntity<Map<String, Object>> getInfo() {
     Map<String, Object> response = createResponse("Dummy Service Information");
     response.put("version", "1.0.0");
     response.put("description", "A simple dummy microservice for testing");
     response.put("features", Arrays.asList("REST API", "Health Check", "Metrics"));
-    return response;
+    return ResponseEntity.ok()
+        .cacheControl(CacheControl.maxAge(30, TimeUnit.SECONDS).cachePublic())
+        .body(response);
   }
 
   @GetMapping("/api/v1/quote")
@@ -58,12 +104,13 @@ public class DummyServiceApplication {
     return response;
   }
 
-  @GetMapping("/api/v1/data")
-  public Map<String, Object> getData() {
+  @GetMapping("/api/v1/data")  // ← count ile payload boyutu ayarlanabilir (compression benchmark)
+  public Map<String, Object> getData(@RequestParam(defaultValue = "5") int count,
+      HttpServletRequest request) {
     Map<String, Object> response = createResponse("Sample Data");
 
     List<Map<String, Object>> items = new ArrayList<>();
-    for (int i = 1; i <= 5; i++) {
+    for (int i = 1; i <= Math.min(Math.max(count, 0), MAX_DATA_ITEMS); i++) {
       Map<String, Object> item = new HashMap<>();
       item.put("id", i);
       item.put("name", "Item " + i);
@@ -73,6 +120,7 @@ public class DummyServiceApplication {
 
     response.put("items", items);
     response.put("total", items.size());
+    LoadReportFilter.reportCost(request, items.size());
     return response;
   }
 
@@ -85,9 +133,14 @@ public class DummyServiceApplication {
   }
 
   @GetMapping("/api/v1/slow")
-  public Map<String, Object> slowEndpoint() {
+  public Map<String, Object> slowEndpoint(HttpServletRequest request) {
+    // Deadline'a yetişemeyecek işe hiç başlama
+    if (DeadlineFilter.remainingMillis(request) < SLOW_WORK_MILLIS) {
+      throw new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT,
+          "Not enough time left before deadline");
+    }
     try {
-      Thread.sleep(2000);
+      Thread.sleep(SLOW_WORK_MILLIS);
     } catch (InterruptedException e) {
       Thread.currentThread().interrupt();
     }
@@ -1,8 +1,15 @@
 package com.degerli.kisakes;
 
+import com.degerli.loadreport.DeadlineFilter;
+import com.degerli.loadreport.LoadReportFilter;
+import com.degerli.loadreport.TomcatWorkerQueue;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.web.embedded.tomcat.TomcatConnectorCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
 import org.springframework.scheduling.annotation.EnableAsync;
 
 @SpringBootApplication
@@ -13,4 +20,26 @@ public class KisakesApplication {
     SpringApplication.run(KisakesApplication.class, args);
   }
 
+  // X-Request-Deadline'ı geçmiş request'leri işlemeden 504 ile reddeder (zincirin başında)
+  @Bean
+  public FilterRegistrationBean<DeadlineFilter> deadlineFilter() {
+    FilterRegistrationBean<DeadlineFilter> registration =
+        new FilterRegistrationBean<>(new DeadlineFilter());
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+    return registration;
+  }
+
+  // Cevaplara CPU / in-flight / kuyruk yük raporu ekler (load balancer LOAD_AWARE için)
+  @Bean
+  public LoadReportFilter loadReportFilter() {
+    return new LoadReportFilter();
+  }
+
+  // Rapordaki kuyruk derinliği: Tomcat worker kuyruğunda thread bekleyen işler
+  @Bean
+  public TomcatConnectorCustomizer loadReportQueueDepth(LoadReportFilter loadReportFilter) {
+    return connector -> loadReportFilter.setQueueDepth(
+        TomcatWorkerQueue.depthOf(connector.getProtocolHandler().getExecutor()));
+  }
+
 }